@@ -25,25 +25,33 @@ object Versions {
 
     // Dependencies
     const val antlr = "4.10.1"
+    const val asm = "9.8"
     const val awsSdk = "1.12.344"
     const val csv = "1.8"
     const val dotlin = "1.0.2"
     const val guava = "31.1-jre"
+    const val hadoop = "3.3.6"
     const val ionElement = "1.0.0"
     const val ionSchema = "1.2.1"
     const val jansi = "2.4.0"
     const val jgenhtml = "1.6"
+    const val jmh = "1.37"
+    const val jmhPlugin = "0.7.2"
     const val jline = "3.21.0"
     const val joda = "2.12.1"
     const val kotlinPoet = "1.11.0"
+    const val parquet = "1.15.2"
     const val kotlinxCollections = "0.3.5"
     const val picoCli = "4.7.0"
     const val kasechange = "1.3.0"
+    const val slf4j = "1.7.36"
+    const val snappy = "1.1.10.7"
     const val kotlinLombok = "1.9.20"
     const val kotlinxCoroutines = "1.8.1"
     const val kotlinxCoroutinesJdk8 = "1.8.1"
     const val ktlint = "0.42.1" // we're on an old version of ktlint. TODO upgrade https://github.com/partiql/partiql-lang-kotlin/issues/1418
     const val lombok = "1.18.34"
+    const val zstd = "1.5.6-6"
 
     // Testing
     const val assertj = "3.11.0"
@@ -63,12 +71,15 @@ object Deps {
     // Dependencies
     const val antlr = "org.antlr:antlr4:${Versions.antlr}"
     const val antlrRuntime = "org.antlr:antlr4-runtime:${Versions.antlr}"
+    const val asm = "org.ow2.asm:asm:${Versions.asm}"
     const val awsSdkBom = "com.amazonaws:aws-java-sdk-bom:${Versions.awsSdk}"
     const val awsSdkDynamodb = "com.amazonaws:aws-java-sdk-dynamodb:${Versions.awsSdk}"
     const val awsSdkS3 = "com.amazonaws:aws-java-sdk-s3:${Versions.awsSdk}"
     const val csv = "org.apache.commons:commons-csv:${Versions.csv}"
     const val dotlin = "io.github.rchowell:dotlin:${Versions.dotlin}"
     const val guava = "com.google.guava:guava:${Versions.guava}"
+    const val hadoopClientApi = "org.apache.hadoop:hadoop-client-api:${Versions.hadoop}"
+    const val hadoopClientRuntime = "org.apache.hadoop:hadoop-client-runtime:${Versions.hadoop}"
     const val ionElement = "com.amazon.ion:ion-element:${Versions.ionElement}"
     const val ionSchema = "com.amazon.ion:ion-schema-kotlin:${Versions.ionSchema}"
     const val jansi = "org.fusesource.jansi:jansi:${Versions.jansi}"
@@ -77,12 +88,16 @@ object Deps {
     const val joda = "joda-time:joda-time:${Versions.joda}"
     const val kasechange = "net.pearx.kasechange:kasechange:${Versions.kasechange}"
     const val kotlinPoet = "com.squareup:kotlinpoet:${Versions.kotlinPoet}"
+    const val parquetHadoop = "org.apache.parquet:parquet-hadoop:${Versions.parquet}"
     const val kotlinxCollections = "org.jetbrains.kotlinx:kotlinx-collections-immutable:${Versions.kotlinxCollections}"
     const val picoCli = "info.picocli:picocli:${Versions.picoCli}"
+    const val slf4j = "org.slf4j:slf4j-api:${Versions.slf4j}"
+    const val snappy = "org.xerial.snappy:snappy-java:${Versions.snappy}"
     const val kotlinxCoroutines = "org.jetbrains.kotlinx:kotlinx-coroutines-core:${Versions.kotlinxCoroutines}"
     const val kotlinxCoroutinesJdk8 = "org.jetbrains.kotlinx:kotlinx-coroutines-jdk8:${Versions.kotlinxCoroutinesJdk8}"
     const val ktlint = "com.pinterest.ktlint:ktlint-core:${Versions.ktlint}"
     const val lombok = "org.projectlombok:lombok:${Versions.lombok}"
+    const val zstd = "com.github.luben:zstd-jni:${Versions.zstd}"
 
     // Testing
     const val assertj = "org.assertj:assertj-core:${Versions.assertj}"
@@ -109,6 +124,7 @@ object Plugins {
     const val application = "org.gradle.application"
     const val detekt = "io.gitlab.arturbosch.detekt"
     const val dokka = "org.jetbrains.dokka"
+    const val jmh = "me.champeau.jmh"
     const val library = "org.gradle.java-library"
     const val kotlinLombok = "org.jetbrains.kotlin.plugin.lombok"
     const val testFixtures = "org.gradle.java-test-fixtures"
@@ -419,6 +419,14 @@ public abstract class AstVisitor<R, C> {
         return defaultVisit(node, ctx);
     }
 
+    public R visitExprWindowFrame(ExprWindow.Frame node, C ctx) {
+        return defaultVisit(node, ctx);
+    }
+
+    public R visitExprWindowFrameBound(ExprWindow.FrameBound node, C ctx) {
+        return defaultVisit(node, ctx);
+    }
+
     public R visitLiteral(Literal node, C ctx) {
         return defaultVisit(node, ctx);
     }
@@ -13,6 +13,10 @@ import java.util.List;
 
 /**
  * Represents a window function expression. E.g. {@code LAG (sp.price) OVER (PARTITION BY sp.ticker ORDER BY sp.date}.
+ * <br>
+ * The expression is null for functions without an argument, i.e. {@code ROW_NUMBER()}, {@code RANK()},
+ * {@code DENSE_RANK()}, and {@code COUNT(*)}; the offset and default value are only those of {@code LAG} and
+ * {@code LEAD}.
  */
 @Builder(builderClassName = "Builder")
 @EqualsAndHashCode(callSuper = false)
@@ -20,7 +24,7 @@ public final class ExprWindow extends Expr {
     @NotNull
     private final WindowFunction windowFunction;
 
-    @NotNull
+    @Nullable
     private final Expr expression;
 
     @Nullable
@@ -32,7 +36,7 @@ public final class ExprWindow extends Expr {
     @NotNull
     private final Over over;
 
-    public ExprWindow(@NotNull WindowFunction windowFunction, @NotNull Expr expression, @Nullable Expr offset, @Nullable Expr defaultValue, @NotNull Over over) {
+    public ExprWindow(@NotNull WindowFunction windowFunction, @Nullable Expr expression, @Nullable Expr offset, @Nullable Expr defaultValue, @NotNull Over over) {
         this.windowFunction = windowFunction;
         this.expression = expression;
         this.offset = offset;
@@ -44,7 +48,9 @@ public final class ExprWindow extends Expr {
     @NotNull
     public List<AstNode> getChildren() {
         List<AstNode> kids = new ArrayList<>();
-        kids.add(expression);
+        if (expression != null) {
+            kids.add(expression);
+        }
         if (offset != null) {
             kids.add(offset);
         }
@@ -65,7 +71,7 @@ public final class ExprWindow extends Expr {
         return this.windowFunction;
     }
 
-    @NotNull
+    @Nullable
     public Expr getExpression() {
         return this.expression;
     }
@@ -97,9 +103,17 @@ public final class ExprWindow extends Expr {
         @NotNull
         private final List<Sort> sorts;
 
+        @Nullable
+        private final Frame frame;
+
         public Over(@NotNull List<Expr> partitions, @NotNull List<Sort> sorts) {
+            this(partitions, sorts, null);
+        }
+
+        public Over(@NotNull List<Expr> partitions, @NotNull List<Sort> sorts, @Nullable Frame frame) {
             this.partitions = partitions;
             this.sorts = sorts;
+            this.frame = frame;
         }
 
         @Override
@@ -108,6 +122,9 @@ public final class ExprWindow extends Expr {
             List<AstNode> kids = new ArrayList<>();
             kids.addAll(partitions);
             kids.addAll(sorts);
+            if (frame != null) {
+                kids.add(frame);
+            }
             return kids;
         }
 
@@ -131,5 +148,111 @@ public final class ExprWindow extends Expr {
         public List<Sort> getSorts() {
             return this.sorts;
         }
+
+        /**
+         * Null represents no frame specification, i.e. the default frame.
+         */
+        @Nullable
+        public Frame getFrame() {
+            return this.frame;
+        }
+    }
+
+    /**
+     * Represents the frame of a window. E.g. {@code ROWS BETWEEN 2 PRECEDING AND CURRENT ROW}. A frame with only a
+     * start bound (e.g. {@code ROWS UNBOUNDED PRECEDING}) ends at the current row.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    @EqualsAndHashCode(callSuper = false)
+    public static class Frame extends AstNode {
+        @NotNull
+        private final WindowFrameUnits units;
+
+        @NotNull
+        private final FrameBound start;
+
+        @NotNull
+        private final FrameBound end;
+
+        public Frame(@NotNull WindowFrameUnits units, @NotNull FrameBound start, @NotNull FrameBound end) {
+            this.units = units;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        @NotNull
+        public List<AstNode> getChildren() {
+            List<AstNode> kids = new ArrayList<>();
+            kids.add(start);
+            kids.add(end);
+            return kids;
+        }
+
+        @Override
+        public <R, C> R accept(@NotNull AstVisitor<R, C> visitor, C ctx) {
+            return visitor.visitExprWindowFrame(this, ctx);
+        }
+
+        @NotNull
+        public WindowFrameUnits getUnits() {
+            return this.units;
+        }
+
+        @NotNull
+        public FrameBound getStart() {
+            return this.start;
+        }
+
+        @NotNull
+        public FrameBound getEnd() {
+            return this.end;
+        }
+    }
+
+    /**
+     * Represents a bound of a window frame. E.g. {@code 2 PRECEDING}.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    @EqualsAndHashCode(callSuper = false)
+    public static class FrameBound extends AstNode {
+        @NotNull
+        private final WindowFrameBoundType type;
+
+        @Nullable
+        private final Expr offset;
+
+        public FrameBound(@NotNull WindowFrameBoundType type, @Nullable Expr offset) {
+            this.type = type;
+            this.offset = offset;
+        }
+
+        @Override
+        @NotNull
+        public List<AstNode> getChildren() {
+            List<AstNode> kids = new ArrayList<>();
+            if (offset != null) {
+                kids.add(offset);
+            }
+            return kids;
+        }
+
+        @Override
+        public <R, C> R accept(@NotNull AstVisitor<R, C> visitor, C ctx) {
+            return visitor.visitExprWindowFrameBound(this, ctx);
+        }
+
+        @NotNull
+        public WindowFrameBoundType getType() {
+            return this.type;
+        }
+
+        /**
+         * The offset of a {@code PRECEDING} or {@code FOLLOWING} bound; null for the other bounds.
+         */
+        @Nullable
+        public Expr getOffset() {
+            return this.offset;
+        }
     }
 }
@@ -0,0 +1,118 @@
+package org.partiql.ast.expr;
+
+import lombok.EqualsAndHashCode;
+import org.jetbrains.annotations.NotNull;
+import org.partiql.ast.AstEnum;
+import org.partiql.ast.AstNode;
+import org.partiql.ast.AstVisitor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the type of a window frame bound used by {@link ExprWindow.FrameBound}. E.g. {@code UNBOUNDED PRECEDING}.
+ */
+@EqualsAndHashCode(callSuper = false)
+public final class WindowFrameBoundType extends AstEnum {
+    /**
+     * The first row of the partition.
+     */
+    public static final int UNBOUNDED_PRECEDING = 0;
+    /**
+     * An offset before the current row.
+     */
+    public static final int PRECEDING = 1;
+    /**
+     * The current row (and its peers, for RANGE frames).
+     */
+    public static final int CURRENT_ROW = 2;
+    /**
+     * An offset after the current row.
+     */
+    public static final int FOLLOWING = 3;
+    /**
+     * The last row of the partition.
+     */
+    public static final int UNBOUNDED_FOLLOWING = 4;
+
+    public static WindowFrameBoundType UNBOUNDED_PRECEDING() {
+        return new WindowFrameBoundType(UNBOUNDED_PRECEDING);
+    }
+
+    public static WindowFrameBoundType PRECEDING() {
+        return new WindowFrameBoundType(PRECEDING);
+    }
+
+    public static WindowFrameBoundType CURRENT_ROW() {
+        return new WindowFrameBoundType(CURRENT_ROW);
+    }
+
+    public static WindowFrameBoundType FOLLOWING() {
+        return new WindowFrameBoundType(FOLLOWING);
+    }
+
+    public static WindowFrameBoundType UNBOUNDED_FOLLOWING() {
+        return new WindowFrameBoundType(UNBOUNDED_FOLLOWING);
+    }
+
+    private final int code;
+
+    private WindowFrameBoundType(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int code() {
+        return code;
+    }
+
+    @NotNull
+    @Override
+    public String name() {
+        switch (code) {
+            case UNBOUNDED_PRECEDING: return "UNBOUNDED_PRECEDING";
+            case PRECEDING: return "PRECEDING";
+            case CURRENT_ROW: return "CURRENT_ROW";
+            case FOLLOWING: return "FOLLOWING";
+            case UNBOUNDED_FOLLOWING: return "UNBOUNDED_FOLLOWING";
+            default: throw new IllegalStateException("Invalid WindowFrameBoundType code: " + code);
+        }
+    }
+
+    @NotNull
+    private static final int[] codes = {
+        UNBOUNDED_PRECEDING,
+        PRECEDING,
+        CURRENT_ROW,
+        FOLLOWING,
+        UNBOUNDED_FOLLOWING
+    };
+
+    @NotNull
+    public static WindowFrameBoundType parse(@NotNull String value) {
+        switch (value) {
+            case "UNBOUNDED_PRECEDING": return UNBOUNDED_PRECEDING();
+            case "PRECEDING": return PRECEDING();
+            case "CURRENT_ROW": return CURRENT_ROW();
+            case "FOLLOWING": return FOLLOWING();
+            case "UNBOUNDED_FOLLOWING": return UNBOUNDED_FOLLOWING();
+            default: throw new IllegalArgumentException("No enum constant WindowFrameBoundType." + value);
+        }
+    }
+
+    @NotNull
+    public static int[] codes() {
+        return codes;
+    }
+
+    @NotNull
+    @Override
+    public List<AstNode> getChildren() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public <R, C> R accept(@NotNull AstVisitor<R, C> visitor, C ctx) {
+        return null;
+    }
+}
@@ -0,0 +1,85 @@
+package org.partiql.ast.expr;
+
+import lombok.EqualsAndHashCode;
+import org.jetbrains.annotations.NotNull;
+import org.partiql.ast.AstEnum;
+import org.partiql.ast.AstNode;
+import org.partiql.ast.AstVisitor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the units of a window frame used by {@link ExprWindow.Frame}. E.g. {@code ROWS}.
+ */
+@EqualsAndHashCode(callSuper = false)
+public final class WindowFrameUnits extends AstEnum {
+    /**
+     * Frame bounds are offsets in rows from the current row.
+     */
+    public static final int ROWS = 0;
+    /**
+     * Frame bounds are offsets in values of the ORDER BY key from the current row's; rows with equal keys are peers.
+     */
+    public static final int RANGE = 1;
+
+    public static WindowFrameUnits ROWS() {
+        return new WindowFrameUnits(ROWS);
+    }
+
+    public static WindowFrameUnits RANGE() {
+        return new WindowFrameUnits(RANGE);
+    }
+
+    private final int code;
+
+    private WindowFrameUnits(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int code() {
+        return code;
+    }
+
+    @NotNull
+    @Override
+    public String name() {
+        switch (code) {
+            case ROWS: return "ROWS";
+            case RANGE: return "RANGE";
+            default: throw new IllegalStateException("Invalid WindowFrameUnits code: " + code);
+        }
+    }
+
+    @NotNull
+    private static final int[] codes = {
+        ROWS,
+        RANGE
+    };
+
+    @NotNull
+    public static WindowFrameUnits parse(@NotNull String value) {
+        switch (value) {
+            case "ROWS": return ROWS();
+            case "RANGE": return RANGE();
+            default: throw new IllegalArgumentException("No enum constant WindowFrameUnits." + value);
+        }
+    }
+
+    @NotNull
+    public static int[] codes() {
+        return codes;
+    }
+
+    @NotNull
+    @Override
+    public List<AstNode> getChildren() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public <R, C> R accept(@NotNull AstVisitor<R, C> visitor, C ctx) {
+        return null;
+    }
+}
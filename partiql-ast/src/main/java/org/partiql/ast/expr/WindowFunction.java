@@ -10,7 +10,7 @@ import java.util.Collections;
 import java.util.List;
 
 /**
- * Represents a SQL window function enum. E.g. {@code LAG}.
+ * Represents a SQL window function enum. E.g. {@code LAG}, {@code RANK}, or an aggregate such as {@code SUM}.
  */
 @EqualsAndHashCode(callSuper = false)
 public final class WindowFunction extends AstEnum {
@@ -22,6 +22,38 @@ public final class WindowFunction extends AstEnum {
      * LEAD window function.
      */
     public static final int LEAD = 1;
+    /**
+     * ROW_NUMBER window function.
+     */
+    public static final int ROW_NUMBER = 2;
+    /**
+     * RANK window function.
+     */
+    public static final int RANK = 3;
+    /**
+     * DENSE_RANK window function.
+     */
+    public static final int DENSE_RANK = 4;
+    /**
+     * COUNT aggregate as a window function.
+     */
+    public static final int COUNT = 5;
+    /**
+     * SUM aggregate as a window function.
+     */
+    public static final int SUM = 6;
+    /**
+     * AVG aggregate as a window function.
+     */
+    public static final int AVG = 7;
+    /**
+     * MIN aggregate as a window function.
+     */
+    public static final int MIN = 8;
+    /**
+     * MAX aggregate as a window function.
+     */
+    public static final int MAX = 9;
 
     public static WindowFunction LAG() {
         return new WindowFunction(LAG);
@@ -31,6 +63,38 @@ public final class WindowFunction extends AstEnum {
         return new WindowFunction(LEAD);
     }
 
+    public static WindowFunction ROW_NUMBER() {
+        return new WindowFunction(ROW_NUMBER);
+    }
+
+    public static WindowFunction RANK() {
+        return new WindowFunction(RANK);
+    }
+
+    public static WindowFunction DENSE_RANK() {
+        return new WindowFunction(DENSE_RANK);
+    }
+
+    public static WindowFunction COUNT() {
+        return new WindowFunction(COUNT);
+    }
+
+    public static WindowFunction SUM() {
+        return new WindowFunction(SUM);
+    }
+
+    public static WindowFunction AVG() {
+        return new WindowFunction(AVG);
+    }
+
+    public static WindowFunction MIN() {
+        return new WindowFunction(MIN);
+    }
+
+    public static WindowFunction MAX() {
+        return new WindowFunction(MAX);
+    }
+
     private final int code;
 
     public WindowFunction(int code) {
@@ -48,6 +112,14 @@ public final class WindowFunction extends AstEnum {
         switch (code) {
             case LAG: return "LAG";
             case LEAD: return "LEAD";
+            case ROW_NUMBER: return "ROW_NUMBER";
+            case RANK: return "RANK";
+            case DENSE_RANK: return "DENSE_RANK";
+            case COUNT: return "COUNT";
+            case SUM: return "SUM";
+            case AVG: return "AVG";
+            case MIN: return "MIN";
+            case MAX: return "MAX";
             default: throw new IllegalStateException("Invalid WindowFunction code: " + code);
         }
     }
@@ -55,7 +127,15 @@ public final class WindowFunction extends AstEnum {
     @NotNull
     private static final int[] codes = {
         LAG,
-        LEAD
+        LEAD,
+        ROW_NUMBER,
+        RANK,
+        DENSE_RANK,
+        COUNT,
+        SUM,
+        AVG,
+        MIN,
+        MAX
     };
 
     @NotNull
@@ -63,6 +143,14 @@ public final class WindowFunction extends AstEnum {
         switch (value) {
             case "LAG": return LAG();
             case "LEAD": return LEAD();
+            case "ROW_NUMBER": return ROW_NUMBER();
+            case "RANK": return RANK();
+            case "DENSE_RANK": return DENSE_RANK();
+            case "COUNT": return COUNT();
+            case "SUM": return SUM();
+            case "AVG": return AVG();
+            case "MIN": return MIN();
+            case "MAX": return MAX();
             default: throw new IllegalArgumentException("No enum constant WindowFunction." + value);
         }
     }
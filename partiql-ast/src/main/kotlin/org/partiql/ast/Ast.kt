@@ -61,6 +61,8 @@ import org.partiql.ast.expr.PathStep.AllFields
 import org.partiql.ast.expr.SessionAttribute
 import org.partiql.ast.expr.TrimSpec
 import org.partiql.ast.expr.TruthValue
+import org.partiql.ast.expr.WindowFrameBoundType
+import org.partiql.ast.expr.WindowFrameUnits
 import org.partiql.ast.expr.WindowFunction
 import org.partiql.ast.graph.GraphDirection
 import org.partiql.ast.graph.GraphLabel
@@ -286,7 +288,7 @@ public object Ast {
     @JvmOverloads
     public fun exprWindow(
         windowFunction: WindowFunction,
-        expression: Expr,
+        expression: Expr?,
         offset: Expr? = null,
         defaultValue: Expr? = null,
         over: ExprWindow.Over
@@ -295,8 +297,20 @@ public object Ast {
     }
 
     @JvmStatic
-    public fun exprWindowOver(partitions: List<Expr>, sorts: List<Sort>): ExprWindow.Over {
-        return ExprWindow.Over(partitions, sorts)
+    @JvmOverloads
+    public fun exprWindowOver(partitions: List<Expr>, sorts: List<Sort>, frame: ExprWindow.Frame? = null): ExprWindow.Over {
+        return ExprWindow.Over(partitions, sorts, frame)
+    }
+
+    @JvmStatic
+    public fun exprWindowFrame(units: WindowFrameUnits, start: ExprWindow.FrameBound, end: ExprWindow.FrameBound): ExprWindow.Frame {
+        return ExprWindow.Frame(units, start, end)
+    }
+
+    @JvmStatic
+    @JvmOverloads
+    public fun exprWindowFrameBound(type: WindowFrameBoundType, offset: Expr? = null): ExprWindow.FrameBound {
+        return ExprWindow.FrameBound(type, offset)
     }
 
     @JvmStatic
@@ -458,7 +458,7 @@ public abstract class AstRewriter<C> : AstVisitor<AstNode, C>() {
 
     override fun visitExprWindow(node: ExprWindow, ctx: C): AstNode {
         val windowFunction = node.windowFunction
-        val expression = visitExpr(node.expression, ctx) as Expr
+        val expression = node.expression?.let { visitExpr(it, ctx) as Expr? }
         val offset = node.offset?.let { visitExpr(it, ctx) as Expr? }
         val defaultValue = node.defaultValue?.let { visitExpr(it, ctx) as Expr? }
         val over = visitExprWindowOver(node.over, ctx) as ExprWindow.Over
@@ -474,8 +474,30 @@ public abstract class AstRewriter<C> : AstVisitor<AstNode, C>() {
     override fun visitExprWindowOver(node: ExprWindow.Over, ctx: C): AstNode {
         val partitions = _visitList(node.partitions, ctx, ::visitExpr)
         val sorts = node.sorts.let { _visitList(it, ctx, ::visitSort) }
-        return if (partitions !== node.partitions || sorts !== node.sorts) {
-            ExprWindow.Over(partitions, sorts)
+        val frame = node.frame?.let { visitExprWindowFrame(it, ctx) as ExprWindow.Frame? }
+        return if (partitions !== node.partitions || sorts !== node.sorts || frame !== node.frame) {
+            ExprWindow.Over(partitions, sorts, frame)
+        } else {
+            node
+        }
+    }
+
+    override fun visitExprWindowFrame(node: ExprWindow.Frame, ctx: C): AstNode {
+        val units = node.units
+        val start = visitExprWindowFrameBound(node.start, ctx) as ExprWindow.FrameBound
+        val end = visitExprWindowFrameBound(node.end, ctx) as ExprWindow.FrameBound
+        return if (start !== node.start || end !== node.end) {
+            ExprWindow.Frame(units, start, end)
+        } else {
+            node
+        }
+    }
+
+    override fun visitExprWindowFrameBound(node: ExprWindow.FrameBound, ctx: C): AstNode {
+        val type = node.type
+        val offset = node.offset?.let { visitExpr(it, ctx) as Expr? }
+        return if (offset !== node.offset) {
+            ExprWindow.FrameBound(type, offset)
         } else {
             node
         }
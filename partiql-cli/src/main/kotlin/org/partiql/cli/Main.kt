@@ -24,12 +24,15 @@ import org.partiql.spi.catalog.Name
 import org.partiql.spi.catalog.Session
 import org.partiql.spi.catalog.Table
 import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.types.PType
 import org.partiql.spi.value.Datum
 import org.partiql.spi.value.DatumReader
+import org.partiql.spi.value.DatumWriter
 import org.partiql.spi.value.ValueUtils
 import org.partiql.spi.value.io.PartiQLValueTextWriter
 import picocli.CommandLine
 import java.io.File
+import java.io.FilterOutputStream
 import java.io.InputStream
 import java.io.SequenceInputStream
 import java.util.Collections
@@ -99,8 +102,12 @@ internal class MainCommand : Runnable {
 
     @CommandLine.Option(
         names = ["-f", "--format"],
-        description = ["The data format, using the form <input>[:<output>]."],
+        description = [
+            "The data format, using the form <input>[:<output>].",
+            "The input is ion or json; the output is partiql, ion, ion_binary, or json.",
+        ],
         paramLabel = "<input[:output]>",
+        defaultValue = "ion:partiql",
         converter = [Format.Converter::class],
     )
     lateinit var format: Pair<Format, Format>
@@ -204,17 +211,47 @@ internal class MainCommand : Runnable {
             return
         }
 
-        // TODO add format support
-        checkFormat(format)
         try {
-            val writer = PartiQLValueTextWriter(System.out)
-            val p = ValueUtils.newPartiQLValue(result)
-            writer.append(p) // TODO: Create a Datum writer
+            write(result)
         } catch (e: PRuntimeException) {
             val msg = ErrorMessageFormatter.message(e.error)
             error(msg)
         }
-        println()
+    }
+
+    /**
+     * Writes the result in the output format; a collection is written as JSON Lines.
+     */
+    private fun write(result: Datum) {
+        if (format.second == Format.PARTIQL) {
+            val writer = PartiQLValueTextWriter(System.out)
+            val p = ValueUtils.newPartiQLValue(result)
+            writer.append(p)
+            println()
+            return
+        }
+        // closing the writer flushes, but does not close, stdout
+        val stdout = object : FilterOutputStream(System.out) {
+            override fun write(b: ByteArray, off: Int, len: Int) = out.write(b, off, len)
+            override fun close() = flush()
+        }
+        val writer = when (format.second) {
+            Format.ION -> DatumWriter.ion(stdout)
+            Format.ION_BINARY -> DatumWriter.ionBinary(stdout)
+            Format.JSON -> DatumWriter.json(stdout)
+            else -> error("Unsupported output format: ${format.second}")
+        }
+        writer.use {
+            val code = result.type.code()
+            if (format.second == Format.JSON && !result.isNull && (code == PType.BAG || code == PType.ARRAY)) {
+                it.writeAll(result)
+            } else {
+                it.write(result)
+            }
+        }
+        if (format.second == Format.ION) {
+            println()
+        }
     }
 
     private fun session() = Session.builder()
@@ -240,7 +277,12 @@ internal class MainCommand : Runnable {
         // Derive a `default catalog from stdin (or file streams)
         val stream = stream()
         val datum = if (stream != null) {
-            val reader = DatumReader.ion(stream) // For now, we only support ion format files as input files?
+            val reader = when (format.first) {
+                // text or binary
+                Format.ION, Format.ION_BINARY -> DatumReader.ion(stream)
+                Format.JSON -> DatumReader.json(stream)
+                else -> error("Unsupported input format: ${format.first}")
+            }
             val values = reader.readAll() // if the input file is too big, it might cause some bugs
             when (values.size) {
                 0 -> Datum.nullValue()
@@ -269,9 +311,10 @@ internal class MainCommand : Runnable {
      */
     private fun DatumReader.readAll(): List<Datum> {
         val values = mutableListOf<Datum>()
-        val next = next()
+        var next = next()
         while (next != null) {
             values.add(next)
+            next = next()
         }
         return values
     }
@@ -321,16 +364,4 @@ internal class MainCommand : Runnable {
             }
         }
     }
-
-    /**
-     * TODO support additional input/output formats.
-     */
-    private fun checkFormat(format: Pair<Format, Format>) {
-        if (format.first != Format.ION) {
-            error("Unsupported input format: ${format.first}")
-        }
-        if (format.second != Format.ION) {
-            error("Unsupported output format: ${format.second}")
-        }
-    }
 }
@@ -0,0 +1,88 @@
+import org.jetbrains.kotlin.gradle.dsl.ExplicitApiMode
+
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+plugins {
+    id(Plugins.conventions)
+    id(Plugins.publish)
+    id(Plugins.library)
+}
+
+dependencies {
+    api(project(":partiql-spi"))
+    // Parquet and its pure-Java dependencies are bundled and relocated, see `relocations`
+    shadow(Deps.parquetHadoop) {
+        // slf4j is not relocated so that it binds to the application's logger
+        exclude(group = "org.slf4j")
+        // snappy-java and zstd-jni load native libraries which are bound to their package names, so they cannot be
+        // relocated; they are regular dependencies instead
+        exclude(group = "org.xerial.snappy")
+        exclude(group = "com.github.luben")
+    }
+    implementation(Deps.slf4j)
+    implementation(Deps.snappy)
+    implementation(Deps.zstd)
+    // parquet-hadoop declares the Hadoop client as provided, yet its file reader decompresses pages through Hadoop's
+    // Configuration and codec classes, even for local files. The shaded client is used, as it relocates Hadoop's own
+    // dependencies; its runtime is `implementation` rather than `runtimeOnly` so that it is in the published POM.
+    implementation(Deps.hadoopClientApi)
+    implementation(Deps.hadoopClientRuntime)
+    // Test
+    testImplementation(project(":partiql-eval"))
+    testImplementation(project(":partiql-parser", configuration = "shadow"))
+    testImplementation(project(":partiql-planner"))
+    testImplementation(Deps.parquetHadoop)
+}
+
+val relocations = mapOf(
+    "org.apache.parquet" to "org.partiql.columnar.thirdparty.parquet",
+    "shaded.parquet" to "org.partiql.columnar.thirdparty.shaded.parquet",
+    "io.airlift.compress" to "org.partiql.columnar.thirdparty.aircompressor",
+    "org.apache.commons.pool" to "org.partiql.columnar.thirdparty.commons.pool",
+)
+
+tasks.shadowJar {
+    configurations = listOf(project.configurations.shadow.get())
+    for ((from, to) in relocations) {
+        relocate(from, to)
+    }
+}
+
+tasks.withType<Javadoc> {
+    enabled = false
+}
+
+tasks.withType<Jar> {
+    duplicatesStrategy = DuplicatesStrategy.EXCLUDE
+}
+
+// Workaround for https://github.com/johnrengelman/shadow/issues/651
+components.withType(AdhocComponentWithVariants::class.java).forEach { c ->
+    c.withVariantsFromConfiguration(project.configurations.shadowRuntimeElements.get()) {
+        skip()
+    }
+}
+
+kotlin {
+    explicitApi = ExplicitApiMode.Strict
+}
+
+publish {
+    artifactId = "partiql-columnar"
+    name = "PartiQL Columnar"
+    description = "PartiQL catalog of local Parquet files, with column and row group pruning"
+}
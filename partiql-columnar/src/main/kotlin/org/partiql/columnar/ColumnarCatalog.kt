@@ -0,0 +1,89 @@
+package org.partiql.columnar
+
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Identifier
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import java.nio.file.Files
+import java.nio.file.Path
+
+/**
+ * A [Catalog] of the Parquet files of a local directory, where the file `<table>.parquet` is the [ColumnarTable] named
+ * `<table>`. Files are listed and opened as tables are resolved, so files may be added while the catalog is in use.
+ */
+public class ColumnarCatalog private constructor(
+    private val name: String,
+    private val root: Path,
+) : Catalog {
+
+    override fun getName(): String = name
+
+    override fun getTable(session: Session, name: Name): Table? {
+        if (name.hasNamespace()) {
+            return null
+        }
+        val path = root.resolve(name.getName() + EXTENSION)
+        if (!Files.isRegularFile(path)) {
+            return null
+        }
+        return ColumnarTable.open(name, path)
+    }
+
+    /**
+     * Matches the first part of the identifier to a table; as in the standard catalog, namespaces are not supported.
+     */
+    override fun resolveTable(session: Session, identifier: Identifier): Name? {
+        val first = identifier.first()
+        Files.newDirectoryStream(root, "*$EXTENSION").use { files ->
+            for (file in files) {
+                val table = file.fileName.toString().removeSuffix(EXTENSION)
+                if (first.matches(table)) {
+                    return Name.of(table)
+                }
+            }
+        }
+        return null
+    }
+
+    public companion object {
+
+        /**
+         * The file extension of Parquet files.
+         */
+        public const val EXTENSION: String = ".parquet"
+
+        @JvmStatic
+        public fun builder(): Builder = Builder()
+    }
+
+    /**
+     * Java-style builder for a [ColumnarCatalog].
+     */
+    public class Builder internal constructor() {
+
+        private var name: String? = null
+        private var root: Path? = null
+
+        public fun name(name: String): Builder {
+            this.name = name
+            return this
+        }
+
+        /**
+         * The directory of the catalog's files.
+         */
+        public fun root(root: Path): Builder {
+            this.root = root
+            return this
+        }
+
+        public fun build(): ColumnarCatalog {
+            // Validate builder parameters
+            val name = this.name ?: throw IllegalStateException("Catalog name cannot be null")
+            val root = this.root ?: throw IllegalStateException("Catalog root cannot be null")
+            require(Files.isDirectory(root)) { "Catalog root $root is not a directory" }
+            return ColumnarCatalog(name, root)
+        }
+    }
+}
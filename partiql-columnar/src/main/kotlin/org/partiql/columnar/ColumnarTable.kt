@@ -0,0 +1,106 @@
+package org.partiql.columnar
+
+import org.partiql.columnar.internal.ColumnarFile
+import org.partiql.columnar.internal.RowGroupFilter
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.ScannableTable
+import org.partiql.spi.catalog.SplittableTable
+import org.partiql.spi.catalog.TableScan
+import org.partiql.spi.catalog.TableSplit
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.StructShape
+import java.nio.file.Path
+
+/**
+ * A [ScannableTable] and [SplittableTable] of a Parquet file, whose rows are the bag of structs of the file's columns.
+ * The columns must be primitive and not repeated, i.e. the file's schema must be flat.
+ *
+ * A scan reads only the chunks of the columns it references, and it skips the row groups whose statistics show that
+ * no row satisfies its predicates. Each row group is a split, whose rows are read one at a time; the file is opened
+ * on the first row of a split and closed once its rows are exhausted, so the table itself holds no resources.
+ */
+public class ColumnarTable private constructor(
+    private val name: Name,
+    private val file: ColumnarFile,
+) : ScannableTable, SplittableTable {
+
+    private val schema: PType = PType.bag(PType.row(file.columns))
+
+    override fun getName(): Name = name
+
+    override fun getSchema(): PType = schema
+
+    override fun getDatum(): Datum = getDatum(TableScan.all())
+
+    override fun getDatum(scan: TableScan): Datum {
+        val splits = getSplits(scan)
+        return Datum.bag(Iterable { Rows(splits.iterator()) })
+    }
+
+    override fun getSplits(scan: TableScan): List<TableSplit> {
+        val indexes = columns(scan)
+        return RowGroupFilter(file, scan).rowGroups().map { Split(it, indexes) }
+    }
+
+    /**
+     * @return the indexes of the file's columns which the scan references.
+     */
+    private fun columns(scan: TableScan): IntArray {
+        val columns = scan.getColumns() ?: return IntArray(file.columns.size) { it }
+        return file.columns.indices.filter { i -> columns.any { it.matches(file.columns[i].name) } }.toIntArray()
+    }
+
+    /**
+     * The rows of a row group, with the given columns.
+     */
+    private inner class Split(
+        private val rowGroup: ColumnarFile.RowGroup,
+        private val indexes: IntArray,
+    ) : TableSplit {
+
+        override fun getRows(): Iterator<Datum> {
+            val shape = StructShape.of(indexes.map { file.columns[it].name })
+            val rows = file.read(rowGroup, indexes)
+            return iterator {
+                for (values in rows) {
+                    yield(Datum.struct(shape, values))
+                }
+            }
+        }
+    }
+
+    /**
+     * The rows of the splits, in order.
+     */
+    private class Rows(private val splits: Iterator<TableSplit>) : Iterator<Datum> {
+
+        private var rows: Iterator<Datum> = emptyList<Datum>().iterator()
+
+        override fun hasNext(): Boolean {
+            while (!rows.hasNext()) {
+                if (!splits.hasNext()) {
+                    return false
+                }
+                rows = splits.next().getRows()
+            }
+            return true
+        }
+
+        override fun next(): Datum {
+            if (!hasNext()) {
+                throw NoSuchElementException()
+            }
+            return rows.next()
+        }
+    }
+
+    public companion object {
+
+        /**
+         * Opens the Parquet file at the path as a table of the given name; this reads the file's footer only.
+         */
+        @JvmStatic
+        public fun open(name: Name, path: Path): ColumnarTable = ColumnarTable(name, ColumnarFile.open(path))
+    }
+}
@@ -0,0 +1,10 @@
+package org.partiql.columnar.internal
+
+/**
+ * These are errors specific to reading Parquet files.
+ *
+ * TODO add DATA to PError kind.
+ */
+internal class ColumnarException internal constructor(
+    public override val message: String,
+) : RuntimeException()
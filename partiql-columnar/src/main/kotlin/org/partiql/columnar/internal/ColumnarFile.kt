@@ -0,0 +1,123 @@
+package org.partiql.columnar.internal
+
+import org.apache.parquet.column.impl.ColumnReadStoreImpl
+import org.apache.parquet.hadoop.ParquetFileReader
+import org.apache.parquet.hadoop.metadata.ColumnPath
+import org.apache.parquet.io.LocalInputFile
+import org.apache.parquet.io.api.Converter
+import org.apache.parquet.io.api.GroupConverter
+import org.apache.parquet.io.api.PrimitiveConverter
+import org.apache.parquet.schema.MessageType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+import java.nio.file.Path
+
+/**
+ * The metadata of a Parquet file, which is read from its footer.
+ *
+ * The columns of the file are the fields of its schema, which must be primitive and not repeated (see
+ * [ParquetColumn]); the statistics of each column chunk of each row group are those of the footer.
+ *
+ * The file is not held open; each read opens it until its rows are exhausted, so any number of splits may be read
+ * concurrently.
+ */
+internal class ColumnarFile private constructor(
+    val path: Path,
+    private val schema: MessageType,
+    private val parquet: List<ParquetColumn>,
+    val rowGroups: List<RowGroup>,
+) {
+
+    val columns: List<PTypeField> = parquet.map { it.field }
+
+    /**
+     * A horizontal partition of the file, with one chunk per column; [index] is its position in the file.
+     */
+    class RowGroup(
+        @JvmField val index: Int,
+        @JvmField val rows: Long,
+        @JvmField val chunks: List<Chunk>,
+    )
+
+    /**
+     * The statistics of one column of a row group; [nulls] is [UNKNOWN] if the file does not have the null count, and
+     * [min] and [max] are the bounds of the non-null values, or null if they are not known or all values are null.
+     */
+    class Chunk(
+        @JvmField val nulls: Long,
+        @JvmField val min: Datum?,
+        @JvmField val max: Datum?,
+    )
+
+    /**
+     * Reads the given columns (by index) of a row group, one row at a time; only the column chunks of these columns
+     * are read. The file is opened on the first row, and closed once the rows are exhausted.
+     *
+     * @return the values of each row, in the order of the given indexes.
+     */
+    fun read(rowGroup: RowGroup, indexes: IntArray): Iterator<Array<Datum>> = iterator {
+        if (indexes.isEmpty()) {
+            val values = emptyArray<Datum>()
+            for (row in 0 until rowGroup.rows) {
+                yield(values)
+            }
+            return@iterator
+        }
+        ParquetFileReader.open(LocalInputFile(path)).use { reader ->
+            val requested = MessageType(schema.name, indexes.map { schema.getType(it) })
+            reader.setRequestedSchema(requested)
+            val pages = reader.readRowGroup(rowGroup.index)
+                ?: throw ColumnarException("$path has no row group ${rowGroup.index}")
+            val store = ColumnReadStoreImpl(pages, Converters, requested, reader.footer.fileMetaData.createdBy)
+            val columns = Array(indexes.size) { parquet[indexes[it]] }
+            val readers = Array(indexes.size) { store.getColumnReader(requested.columns[it]) }
+            for (row in 0 until rowGroup.rows) {
+                yield(Array(indexes.size) { columns[it].read(readers[it]) })
+            }
+        }
+    }
+
+    /**
+     * The converters of a record, which the column readers require though values are read from them directly.
+     */
+    private object Converters : GroupConverter() {
+
+        private val converter = object : PrimitiveConverter() {}
+
+        override fun getConverter(fieldIndex: Int): Converter = converter
+
+        override fun start() = Unit
+
+        override fun end() = Unit
+    }
+
+    companion object {
+
+        /**
+         * The null count of a chunk whose file does not have it.
+         */
+        const val UNKNOWN = -1L
+
+        /**
+         * Reads the footer of the file at the path.
+         */
+        fun open(path: Path): ColumnarFile {
+            ParquetFileReader.open(LocalInputFile(path)).use { reader ->
+                val schema = reader.footer.fileMetaData.schema
+                val parquet = schema.fields.map {
+                    try {
+                        ParquetColumn.of(it)
+                    } catch (e: ColumnarException) {
+                        throw ColumnarException("$path: ${e.message}")
+                    }
+                }
+                val rowGroups = reader.rowGroups.mapIndexed { index, block ->
+                    val statistics = block.columns.associate { it.path to it.statistics }
+                    val chunks = parquet.map { it.chunk(statistics[ColumnPath.get(it.field.name)]) }
+                    RowGroup(index, block.rowCount, chunks)
+                }
+                return ColumnarFile(path, schema, parquet, rowGroups)
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package org.partiql.columnar.internal
+
+import org.apache.parquet.column.ColumnReader
+import org.apache.parquet.column.statistics.Statistics
+import org.apache.parquet.io.api.Binary
+import org.apache.parquet.schema.LogicalTypeAnnotation
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName
+import org.apache.parquet.schema.Type
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetTime
+import java.time.ZoneOffset
+import java.util.UUID
+
+/**
+ * A column of a Parquet file, i.e. a primitive field of the file's schema, with the decoding of its values.
+ *
+ * The type of a column is given by its physical type and its logical type annotation:
+ *
+ *  - BOOLEAN is BOOL, FLOAT is REAL, and DOUBLE is DOUBLE PRECISION;
+ *  - INT32 and INT64 are the integer type of their bit width, where unsigned integers are the next wider type (and
+ *    unsigned 64-bit integers are DECIMAL(20, 0)), unless they are a DATE, TIME, or TIMESTAMP;
+ *  - INT96 is TIMESTAMP(9), as written for timestamps by older writers;
+ *  - BINARY is STRING if it is a STRING, ENUM, or JSON, and otherwise BLOB;
+ *  - FIXED_LEN_BYTE_ARRAY is STRING if it is a UUID, and otherwise BLOB;
+ *  - any physical type annotated as a DECIMAL is a DECIMAL of the annotation's precision and scale.
+ *
+ * A TIME or TIMESTAMP which is adjusted to UTC is a TIME or TIMESTAMP WITH TIME ZONE, at UTC.
+ */
+internal class ParquetColumn private constructor(
+    @JvmField val field: PTypeField,
+    private val physical: PrimitiveTypeName,
+    private val ordered: Boolean,
+    private val decode: (Any) -> Datum,
+) {
+
+    private val nullValue = Datum.nullValue(field.type)
+
+    /**
+     * Reads the current value of the reader, and advances the reader to the next value.
+     */
+    fun read(reader: ColumnReader): Datum {
+        val value = when {
+            reader.currentDefinitionLevel < reader.descriptor.maxDefinitionLevel -> nullValue
+            else -> decode(value(reader))
+        }
+        reader.consume()
+        return value
+    }
+
+    /**
+     * @return the chunk of the statistics of a column chunk; its min/max are only given if the statistics have them
+     * and the physical order of the values is the order in which PartiQL compares them.
+     */
+    fun chunk(statistics: Statistics<*>?): ColumnarFile.Chunk {
+        if (statistics == null) {
+            return ColumnarFile.Chunk(ColumnarFile.UNKNOWN, null, null)
+        }
+        val nulls = if (statistics.isNumNullsSet) statistics.numNulls else ColumnarFile.UNKNOWN
+        if (!ordered || !statistics.hasNonNullValue()) {
+            return ColumnarFile.Chunk(nulls, null, null)
+        }
+        val min = statistics.genericGetMin()
+        val max = statistics.genericGetMax()
+        if (isNaN(min) || isNaN(max)) {
+            return ColumnarFile.Chunk(nulls, null, null)
+        }
+        val lower = decode(min)
+        val upper = decode(max)
+        if (physical == PrimitiveTypeName.BINARY && field.type.code() == PType.STRING) {
+            // strings are ordered by their UTF-8 bytes, which is the order of their UTF-16 code units only up to the
+            // surrogates; strings are ordered alike if the bounds have no code unit from the surrogates up.
+            if (!isBelowSurrogates(lower.string) || !isBelowSurrogates(upper.string)) {
+                return ColumnarFile.Chunk(nulls, null, null)
+            }
+        }
+        return ColumnarFile.Chunk(nulls, lower, upper)
+    }
+
+    private fun value(reader: ColumnReader): Any = when (physical) {
+        PrimitiveTypeName.BOOLEAN -> reader.boolean
+        PrimitiveTypeName.INT32 -> reader.integer
+        PrimitiveTypeName.INT64 -> reader.long
+        PrimitiveTypeName.FLOAT -> reader.float
+        PrimitiveTypeName.DOUBLE -> reader.double
+        PrimitiveTypeName.INT96, PrimitiveTypeName.BINARY, PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY -> reader.binary
+    }
+
+    private fun isNaN(value: Any): Boolean = (value is Float && value.isNaN()) || (value is Double && value.isNaN())
+
+    private fun isBelowSurrogates(value: String): Boolean = value.all { it < Character.MIN_SURROGATE }
+
+    companion object {
+
+        /**
+         * The Julian day of the epoch, for INT96 timestamps.
+         */
+        private const val JULIAN_EPOCH = 2_440_588L
+
+        /**
+         * @return the column of a field of a file's schema.
+         */
+        fun of(type: Type): ParquetColumn {
+            if (!type.isPrimitive || type.isRepetition(Type.Repetition.REPEATED)) {
+                throw ColumnarException("column ${type.name} is nested or repeated, which is not supported")
+            }
+            val primitive = type.asPrimitiveType()
+            val physical = primitive.primitiveTypeName
+            val name = type.name
+            val logical = primitive.logicalTypeAnnotation
+            if (logical is LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+                return decimal(name, physical, logical.precision, logical.scale)
+            }
+            return when (physical) {
+                PrimitiveTypeName.BOOLEAN -> column(name, PType.bool(), physical) { Datum.bool(it as Boolean) }
+                PrimitiveTypeName.INT32 -> int32(name, logical)
+                PrimitiveTypeName.INT64 -> int64(name, logical)
+                PrimitiveTypeName.INT96 -> column(name, PType.timestamp(9), physical, ordered = false) {
+                    val buffer = (it as Binary).toByteBuffer().order(ByteOrder.LITTLE_ENDIAN)
+                    val time = LocalTime.ofNanoOfDay(buffer.getLong())
+                    val date = LocalDate.ofEpochDay(buffer.getInt() - JULIAN_EPOCH)
+                    Datum.timestamp(LocalDateTime.of(date, time), 9)
+                }
+                PrimitiveTypeName.FLOAT -> column(name, PType.real(), physical) { Datum.real(it as Float) }
+                PrimitiveTypeName.DOUBLE -> column(name, PType.doublePrecision(), physical) {
+                    Datum.doublePrecision(it as Double)
+                }
+                PrimitiveTypeName.BINARY -> when (logical) {
+                    is LogicalTypeAnnotation.StringLogicalTypeAnnotation,
+                    is LogicalTypeAnnotation.EnumLogicalTypeAnnotation,
+                    is LogicalTypeAnnotation.JsonLogicalTypeAnnotation -> column(name, PType.string(), physical) {
+                        Datum.string((it as Binary).toStringUsingUTF8())
+                    }
+                    else -> column(name, PType.blob(Int.MAX_VALUE), physical) { Datum.blob((it as Binary).bytes) }
+                }
+                PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY -> when (logical) {
+                    is LogicalTypeAnnotation.UUIDLogicalTypeAnnotation -> column(name, PType.string(), physical) {
+                        val buffer = ByteBuffer.wrap((it as Binary).bytes)
+                        Datum.string(UUID(buffer.getLong(), buffer.getLong()).toString())
+                    }
+                    else -> {
+                        val length = primitive.typeLength
+                        column(name, PType.blob(length), physical) { Datum.blob((it as Binary).bytes, length) }
+                    }
+                }
+            }
+        }
+
+        private fun int32(name: String, logical: LogicalTypeAnnotation?): ParquetColumn {
+            val physical = PrimitiveTypeName.INT32
+            return when (logical) {
+                null -> column(name, PType.integer(), physical) { Datum.integer(it as Int) }
+                is LogicalTypeAnnotation.IntLogicalTypeAnnotation -> when {
+                    logical.isSigned && logical.bitWidth == 8 -> column(name, PType.tinyint(), physical) {
+                        Datum.tinyint((it as Int).toByte())
+                    }
+                    logical.isSigned && logical.bitWidth == 16 -> column(name, PType.smallint(), physical) {
+                        Datum.smallint((it as Int).toShort())
+                    }
+                    logical.isSigned -> column(name, PType.integer(), physical) { Datum.integer(it as Int) }
+                    logical.bitWidth == 8 -> column(name, PType.smallint(), physical) {
+                        Datum.smallint((it as Int).toShort())
+                    }
+                    logical.bitWidth == 16 -> column(name, PType.integer(), physical) { Datum.integer(it as Int) }
+                    else -> column(name, PType.bigint(), physical) {
+                        Datum.bigint(Integer.toUnsignedLong(it as Int))
+                    }
+                }
+                is LogicalTypeAnnotation.DateLogicalTypeAnnotation -> column(name, PType.date(), physical) {
+                    Datum.date(LocalDate.ofEpochDay((it as Int).toLong()))
+                }
+                is LogicalTypeAnnotation.TimeLogicalTypeAnnotation -> time(name, physical, logical)
+                else -> throw unsupported(name, physical, logical)
+            }
+        }
+
+        private fun int64(name: String, logical: LogicalTypeAnnotation?): ParquetColumn {
+            val physical = PrimitiveTypeName.INT64
+            return when (logical) {
+                null -> column(name, PType.bigint(), physical) { Datum.bigint(it as Long) }
+                is LogicalTypeAnnotation.IntLogicalTypeAnnotation -> when {
+                    logical.isSigned -> column(name, PType.bigint(), physical) { Datum.bigint(it as Long) }
+                    else -> column(name, PType.decimal(20, 0), physical) {
+                        Datum.decimal(BigDecimal(java.lang.Long.toUnsignedString(it as Long)), 20, 0)
+                    }
+                }
+                is LogicalTypeAnnotation.TimeLogicalTypeAnnotation -> time(name, physical, logical)
+                is LogicalTypeAnnotation.TimestampLogicalTypeAnnotation -> {
+                    val unit = logical.unit
+                    val precision = precision(unit)
+                    when {
+                        logical.isAdjustedToUTC -> column(name, PType.timestampz(precision), physical) {
+                            Datum.timestampz(timestamp(it as Long, unit).atOffset(ZoneOffset.UTC), precision)
+                        }
+                        else -> column(name, PType.timestamp(precision), physical) {
+                            Datum.timestamp(timestamp(it as Long, unit), precision)
+                        }
+                    }
+                }
+                else -> throw unsupported(name, physical, logical)
+            }
+        }
+
+        private fun time(
+            name: String,
+            physical: PrimitiveTypeName,
+            logical: LogicalTypeAnnotation.TimeLogicalTypeAnnotation,
+        ): ParquetColumn {
+            val unit = logical.unit
+            val precision = precision(unit)
+            val nanos = 1_000_000_000L / perSecond(unit)
+            return when {
+                logical.isAdjustedToUTC -> column(name, PType.timez(precision), physical) {
+                    val time = LocalTime.ofNanoOfDay((it as Number).toLong() * nanos)
+                    Datum.timez(OffsetTime.of(time, ZoneOffset.UTC), precision)
+                }
+                else -> column(name, PType.time(precision), physical) {
+                    Datum.time(LocalTime.ofNanoOfDay((it as Number).toLong() * nanos), precision)
+                }
+            }
+        }
+
+        private fun decimal(name: String, physical: PrimitiveTypeName, precision: Int, scale: Int): ParquetColumn =
+            column(name, PType.decimal(precision, scale), physical) {
+                val value = when (it) {
+                    is Binary -> BigDecimal(BigInteger(it.bytes), scale)
+                    else -> BigDecimal.valueOf((it as Number).toLong(), scale)
+                }
+                Datum.decimal(value, precision, scale)
+            }
+
+        private fun column(
+            name: String,
+            type: PType,
+            physical: PrimitiveTypeName,
+            ordered: Boolean = true,
+            decode: (Any) -> Datum,
+        ): ParquetColumn = ParquetColumn(PTypeField.of(name, type), physical, ordered, decode)
+
+        /**
+         * @return the local date-time of a timestamp since the epoch, in the given unit.
+         */
+        private fun timestamp(value: Long, unit: TimeUnit): LocalDateTime {
+            val perSecond = perSecond(unit)
+            val nanos = Math.floorMod(value, perSecond) * (1_000_000_000L / perSecond)
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(value, perSecond), nanos.toInt(), ZoneOffset.UTC)
+        }
+
+        private fun perSecond(unit: TimeUnit): Long = when (unit) {
+            TimeUnit.MILLIS -> 1_000L
+            TimeUnit.MICROS -> 1_000_000L
+            TimeUnit.NANOS -> 1_000_000_000L
+        }
+
+        private fun precision(unit: TimeUnit): Int = when (unit) {
+            TimeUnit.MILLIS -> 3
+            TimeUnit.MICROS -> 6
+            TimeUnit.NANOS -> 9
+        }
+
+        private fun unsupported(name: String, physical: PrimitiveTypeName, logical: LogicalTypeAnnotation?) =
+            ColumnarException("column $name has unsupported type $physical ($logical)")
+    }
+}
@@ -0,0 +1,102 @@
+package org.partiql.columnar.internal
+
+import org.partiql.spi.catalog.TableScan
+import org.partiql.spi.catalog.TableScan.Predicate
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * Decides which row groups of a file may have rows which satisfy the predicates of a scan, from the min/max and null
+ * count statistics of their chunks.
+ *
+ * A row group is skipped only if some predicate is FALSE (or UNKNOWN) for every row; a predicate is only evaluated
+ * against statistics of the same kind of type as its values (numbers, strings, booleans, dates, or timestamps), and
+ * predicates which cannot be evaluated keep the row group.
+ */
+internal class RowGroupFilter(
+    private val file: ColumnarFile,
+    scan: TableScan,
+) {
+
+    /**
+     * The predicates with the index of their column, for the predicates of known columns.
+     */
+    private val predicates: List<Pair<Int, Predicate>> = scan.getPredicates().mapNotNull { predicate ->
+        val i = file.columns.indexOfFirst { predicate.getColumn().matches(it.name) }
+        if (i < 0) null else i to predicate
+    }
+
+    private val comparator = Datum.comparator()
+
+    /**
+     * @return the row groups which are not skipped.
+     */
+    fun rowGroups(): List<ColumnarFile.RowGroup> = file.rowGroups.filter { matches(it) }
+
+    /**
+     * @return false if no row of the row group satisfies all predicates.
+     */
+    fun matches(rowGroup: ColumnarFile.RowGroup): Boolean {
+        for ((i, predicate) in predicates) {
+            if (!matches(rowGroup.chunks[i], rowGroup.rows, file.columns[i].type, predicate)) {
+                return false
+            }
+        }
+        return true
+    }
+
+    private fun matches(chunk: ColumnarFile.Chunk, rows: Long, type: PType, predicate: Predicate): Boolean {
+        if (predicate.getKind() == Predicate.IS_NULL) {
+            // the null count may be unknown
+            return chunk.nulls != 0L
+        }
+        val values = predicate.getValues()
+        if (values.isEmpty() || values.any { kind(it.type) == NONE || kind(it.type) != kind(type) }) {
+            return true
+        }
+        if (chunk.nulls == rows) {
+            // a comparison with a null value is never TRUE; IS NULL is handled above
+            return predicate.getKind() !in Predicate.EQ..Predicate.RANGE
+        }
+        val min = chunk.min ?: return true
+        val max = chunk.max ?: return true
+        return when (predicate.getKind()) {
+            Predicate.EQ -> within(values[0], min, max)
+            Predicate.LT -> compare(min, values[0]) < 0
+            Predicate.LTE -> compare(min, values[0]) <= 0
+            Predicate.GT -> compare(max, values[0]) > 0
+            Predicate.GTE -> compare(max, values[0]) >= 0
+            Predicate.IN -> values.any { within(it, min, max) }
+            Predicate.RANGE -> compare(values[1], min) >= 0 && compare(values[0], max) <= 0
+            else -> true
+        }
+    }
+
+    private fun within(value: Datum, min: Datum, max: Datum): Boolean =
+        compare(value, min) >= 0 && compare(value, max) <= 0
+
+    private fun compare(lhs: Datum, rhs: Datum): Int = comparator.compare(lhs, rhs)
+
+    private companion object {
+
+        const val NONE = 0
+        const val NUMBER = 1
+        const val STRING = 2
+        const val BOOL = 3
+        const val DATE = 4
+        const val TIMESTAMP = 5
+
+        /**
+         * @return the kind of type whose values the comparator orders as PartiQL compares them.
+         */
+        fun kind(type: PType): Int = when (type.code()) {
+            PType.TINYINT, PType.SMALLINT, PType.INTEGER, PType.BIGINT -> NUMBER
+            PType.NUMERIC, PType.DECIMAL, PType.REAL, PType.DOUBLE -> NUMBER
+            PType.CHAR, PType.VARCHAR, PType.STRING -> STRING
+            PType.BOOL -> BOOL
+            PType.DATE -> DATE
+            PType.TIMESTAMP -> TIMESTAMP
+            else -> NONE
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.partiql.columnar
+
+import org.apache.parquet.example.data.simple.SimpleGroupFactory
+import org.apache.parquet.hadoop.example.ExampleParquetWriter
+import org.apache.parquet.io.LocalOutputFile
+import org.apache.parquet.schema.LogicalTypeAnnotation
+import org.apache.parquet.schema.MessageType
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName
+import org.apache.parquet.schema.Types
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.partiql.columnar.internal.ColumnarException
+import org.partiql.eval.Mode
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Identifier
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.TableScan
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import java.math.BigDecimal
+import java.nio.file.Path
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+
+class ColumnarTableTest {
+
+    @TempDir
+    lateinit var dir: Path
+
+    private val schema: MessageType = Types.buildMessage()
+        .required(PrimitiveTypeName.INT64).named("id")
+        .optional(PrimitiveTypeName.BINARY).`as`(LogicalTypeAnnotation.stringType()).named("name")
+        .required(PrimitiveTypeName.INT64).`as`(LogicalTypeAnnotation.decimalType(2, 10)).named("price")
+        .required(PrimitiveTypeName.DOUBLE).named("score")
+        .required(PrimitiveTypeName.BOOLEAN).named("active")
+        .required(PrimitiveTypeName.INT32).`as`(LogicalTypeAnnotation.dateType()).named("day")
+        .required(PrimitiveTypeName.INT64)
+        .`as`(LogicalTypeAnnotation.timestampType(false, LogicalTypeAnnotation.TimeUnit.MICROS)).named("at")
+        .named("t")
+
+    /**
+     * 1000 rows in row groups of 100, so the row groups have disjoint ranges of ids.
+     */
+    private fun rows(): List<Datum> = (0 until 1000).map { i ->
+        Datum.struct(
+            listOf(
+                Field.of("id", Datum.bigint(i.toLong())),
+                Field.of("name", if (i % 10 == 0) Datum.nullValue() else Datum.string("name-$i")),
+                Field.of("price", Datum.decimal(BigDecimal.valueOf(i.toLong(), 2), 10, 2)),
+                Field.of("score", Datum.doublePrecision(i / 3.0)),
+                Field.of("active", Datum.bool(i % 2 == 0)),
+                Field.of("day", Datum.date(LocalDate.of(2024, 1, 1).plusDays(i.toLong()))),
+                Field.of("at", Datum.timestamp(LocalDateTime.of(2024, 1, 1, 0, 0).plusNanos(i * 1000L), 6)),
+            )
+        )
+    }
+
+    /**
+     * Writes the rows as a Parquet file; the row group size is checked every 100 rows, and a row group is flushed on
+     * each check as it always exceeds the (tiny) row group size.
+     */
+    private fun table(): ColumnarTable {
+        val path = dir.resolve("t" + ColumnarCatalog.EXTENSION)
+        val groups = SimpleGroupFactory(schema)
+        val epoch = LocalDateTime.of(2024, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC) * 1_000_000
+        val writer = ExampleParquetWriter.builder(LocalOutputFile(path))
+            .withType(schema)
+            .withRowGroupSize(1L)
+            .withMinRowCountForPageSizeCheck(100)
+            .withMaxRowCountForPageSizeCheck(100)
+            .build()
+        writer.use {
+            for (i in 0 until 1000) {
+                val group = groups.newGroup()
+                group.append("id", i.toLong())
+                if (i % 10 != 0) {
+                    group.append("name", "name-$i")
+                }
+                group.append("price", i.toLong())
+                group.append("score", i / 3.0)
+                group.append("active", i % 2 == 0)
+                group.append("day", LocalDate.of(2024, 1, 1).plusDays(i.toLong()).toEpochDay().toInt())
+                group.append("at", epoch + i)
+                it.write(group)
+            }
+        }
+        return ColumnarTable.open(Name.of("t"), path)
+    }
+
+    @Test
+    fun roundTrip() {
+        val table = table()
+        val expected = rows()
+        val actual = table.getDatum().toList()
+        assertEquals(expected.size, actual.size)
+        expected.zip(actual).forEach { (e, a) ->
+            assertEquals(0, Datum.comparator().compare(e, a), "Expected $e, actual $a")
+        }
+        assertEquals(10, table.getSplits(TableScan.all()).size)
+    }
+
+    @Test
+    fun projection() {
+        val columns = listOf(Identifier.Simple.regular("ID"), Identifier.Simple.delimited("name"))
+        val row = table().getDatum(TableScan.of(columns, emptyList())).first()
+        assertEquals(setOf("id", "name"), row.fields.asSequence().map { it.name }.toSet())
+        assertNull(row.get("price"))
+    }
+
+    @Test
+    fun rowGroupPruning() {
+        val table = table()
+        val id = Identifier.Simple.regular("id")
+        fun splits(vararg predicates: TableScan.Predicate): Int =
+            table.getSplits(TableScan.of(null, predicates.toList())).size
+        assertEquals(1, splits(TableScan.Predicate.eq(id, Datum.integer(250))))
+        assertEquals(0, splits(TableScan.Predicate.eq(id, Datum.integer(1000))))
+        assertEquals(3, splits(TableScan.Predicate.lt(id, Datum.bigint(300))))
+        assertEquals(3, splits(TableScan.Predicate.gte(id, Datum.decimal(BigDecimal("700.5"), 4, 1))))
+        assertEquals(2, splits(TableScan.Predicate.range(id, Datum.integer(150), Datum.integer(250))))
+        assertEquals(2, splits(TableScan.Predicate.`in`(id, listOf(Datum.integer(5), Datum.integer(905)))))
+        assertEquals(
+            1,
+            splits(TableScan.Predicate.lt(id, Datum.integer(300)), TableScan.Predicate.gt(id, Datum.bigint(250)))
+        )
+        // every row group has null names, and no score is null
+        assertEquals(10, splits(TableScan.Predicate.isNull(Identifier.Simple.regular("name"))))
+        assertEquals(0, splits(TableScan.Predicate.isNull(Identifier.Simple.regular("score"))))
+        // values of another kind of type are not compared with the statistics
+        assertEquals(10, splits(TableScan.Predicate.eq(id, Datum.string("1000"))))
+    }
+
+    @Test
+    fun nested() {
+        val path = dir.resolve("n" + ColumnarCatalog.EXTENSION)
+        val nested = Types.buildMessage()
+            .requiredGroup().required(PrimitiveTypeName.INT32).named("x").named("g")
+            .named("n")
+        ExampleParquetWriter.builder(LocalOutputFile(path)).withType(nested).build().close()
+        assertFailsWith<ColumnarException> { ColumnarTable.open(Name.of("n"), path) }
+    }
+
+    @Test
+    fun catalog() {
+        table()
+        val catalog = ColumnarCatalog.builder().name("files").root(dir).build()
+        val session = Session.builder().catalog("files").catalogs(catalog).build()
+        assertEquals(Name.of("t"), catalog.resolveTable(session, Identifier.regular("T")))
+        assertNull(catalog.resolveTable(session, Identifier.delimited("T")))
+        assertNotNull(catalog.getTable(session, Name.of("t")))
+        assertNull(catalog.getTable(session, Name.of("u")))
+    }
+
+    @Test
+    fun query() {
+        table()
+        val catalog = ColumnarCatalog.builder().name("files").root(dir).build()
+        val session = Session.builder().catalog("files").catalogs(catalog).build()
+        val query = "SELECT VALUE t.name FROM t WHERE t.id BETWEEN 11 AND 13"
+        val statement = PartiQLParser.standard().parse(query).statements[0]
+        val plan = PartiQLPlanner.standard().plan(statement, session).plan
+        val result = PartiQLCompiler.standard().prepare(plan, Mode.STRICT()).execute()
+        assertEquals(listOf("name-11", "name-12", "name-13"), result.map { it.string }.sorted())
+    }
+}
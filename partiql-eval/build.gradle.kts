@@ -21,6 +21,7 @@ plugins {
     id(Plugins.library)
     id(Plugins.publish)
     id(Plugins.kotlinLombok) version Versions.kotlinLombok
+    id(Plugins.jmh) version Versions.jmhPlugin
 }
 
 dependencies {
@@ -28,6 +29,7 @@ dependencies {
     api(project(":partiql-plan"))
     api(project(":partiql-planner"))
     api(project(":partiql-spi"))
+    shadow(Deps.asm)
     compileOnly(Deps.lombok)
     annotationProcessor(Deps.lombok)
     // Test
@@ -36,14 +38,23 @@ dependencies {
     testImplementation(Deps.junit4)
     testImplementation(Deps.junit4Params)
     testImplementation(Deps.junitVintage) // Enables JUnit4
+    // Benchmarks
+    jmhImplementation(project(":partiql-parser"))
 }
 
 kotlin {
     explicitApi = ExplicitApiMode.Strict
 }
 
+val relocations = mapOf(
+    "org.objectweb.asm" to "org.partiql.eval.thirdparty.asm"
+)
+
 tasks.shadowJar {
     configurations = listOf(project.configurations.shadow.get())
+    for ((from, to) in relocations) {
+        relocate(from, to)
+    }
 }
 
 // TODO: Figure out why this is needed.
@@ -58,6 +69,12 @@ components.withType(AdhocComponentWithVariants::class.java).forEach { c ->
     }
 }
 
+// Run with ./gradlew :partiql-eval:jmh -PjmhIncludes=<regex>
+jmh {
+    jmhVersion.set(Versions.jmh)
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.set(listOf(it)) }
+}
+
 publish {
     artifactId = "partiql-eval"
     name = "PartiQL Lang Kotlin Evaluator"
@@ -0,0 +1,104 @@
+package org.partiql.eval.bench
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import org.partiql.eval.Environment
+import org.partiql.eval.Row
+import org.partiql.spi.value.Datum
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares the scopes of the evaluation environment with the previous copy-on-push stack; see [QueryBenchmark] for
+ * the queries whose operators push these scopes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class EnvironmentBenchmark {
+
+    /**
+     * The number of enclosing scopes (think nested subqueries) below the scope of each row.
+     */
+    @Param("1", "4")
+    var depth: Int = 0
+
+    private val rows = Array(ROWS) { Row.of(Datum.integer(it), Datum.integer(it * 2)) }
+
+    private lateinit var base: Environment
+    private lateinit var copying: CopyingStack
+
+    @Setup(Level.Trial)
+    fun setup() {
+        base = Environment()
+        copying = CopyingStack(emptyArray())
+        repeat(depth - 1) {
+            base = base.push(Row.of(Datum.integer(it)))
+            copying = copying.push(Row.of(Datum.integer(it)))
+        }
+    }
+
+    /**
+     * The previous environment, which copied the stack on each push.
+     */
+    @Benchmark
+    fun pushCopy(bh: Blackhole) {
+        for (row in rows) {
+            val scope = copying.push(row)
+            bh.consume(scope.get(0, 1))
+            bh.consume(scope.get(depth - 1, 0))
+        }
+    }
+
+    @Benchmark
+    fun pushLinked(bh: Blackhole) {
+        for (row in rows) {
+            val scope = base.push(row)
+            bh.consume(scope.get(0, 1))
+            bh.consume(scope.get(depth - 1, 0))
+        }
+    }
+
+    @Benchmark
+    fun frame(bh: Blackhole) {
+        val frame = base.frame()
+        for (row in rows) {
+            val scope = frame.set(row)
+            bh.consume(scope.get(0, 1))
+            bh.consume(scope.get(depth - 1, 0))
+        }
+    }
+
+    /**
+     * A replica of the previous [Environment], as the baseline.
+     */
+    private class CopyingStack(private val stack: Array<Row>) {
+
+        fun push(row: Row): CopyingStack {
+            val next = arrayOfNulls<Row>(stack.size + 1)
+            next[0] = row
+            System.arraycopy(stack, 0, next, 1, stack.size)
+            @Suppress("UNCHECKED_CAST")
+            return CopyingStack(next as Array<Row>)
+        }
+
+        fun get(depth: Int, offset: Int): Datum = stack[depth].values[offset]
+    }
+
+    private companion object {
+        const val ROWS = 1000
+    }
+}
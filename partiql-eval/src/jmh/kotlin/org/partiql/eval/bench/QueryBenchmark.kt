@@ -0,0 +1,83 @@
+package org.partiql.eval.bench
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import org.partiql.eval.Mode
+import org.partiql.eval.Statement
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import java.util.concurrent.TimeUnit
+
+/**
+ * Filter and project heavy queries over an in-memory table, whose operators evaluate expressions in a scope per row.
+ *
+ * This only uses public APIs, so it may be run against other versions for comparison:
+ * ```
+ * ./gradlew :partiql-eval:jmh -PjmhIncludes=QueryBenchmark
+ * ```
+ */
+@State(Scope.Thread)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class QueryBenchmark {
+
+    @Param(
+        "SELECT VALUE t.a FROM t WHERE t.a % 3 = 0 AND t.b > 100 AND t.c <> 'x'",
+        "SELECT t.a, t.b, t.a + t.b AS s, t.a * 2 AS d, t.c FROM t",
+        "SELECT t.a + 1 AS a, t.c FROM t WHERE t.b BETWEEN 10 AND 900 AND t.a <> 7",
+        "SELECT t.b, COUNT(*) AS n, SUM(t.a) AS s FROM t GROUP BY t.b",
+        "SELECT VALUE t.a FROM t ORDER BY t.b, t.a LIMIT 10",
+    )
+    var query: String = ""
+
+    private lateinit var statement: Statement
+
+    @Setup(Level.Trial)
+    fun setup() {
+        val data = Datum.bag(
+            (0 until ROWS).map {
+                Datum.struct(
+                    Field.of("a", Datum.integer(it)),
+                    Field.of("b", Datum.integer(it * 7 % 1000)),
+                    Field.of("c", Datum.string("c$it")),
+                )
+            }
+        )
+        val catalog = Catalog.builder().name("default").define(Table.standard(Name.of("t"), data)).build()
+        val session = Session.builder().catalog("default").catalogs(catalog).build()
+        val ast = PartiQLParser.standard().parse(query).statements[0]
+        val plan = PartiQLPlanner.standard().plan(ast, session).plan
+        statement = PartiQLCompiler.standard().prepare(plan, Mode.STRICT())
+    }
+
+    @Benchmark
+    fun query(bh: Blackhole) {
+        for (value in statement.execute()) {
+            bh.consume(value)
+        }
+    }
+
+    private companion object {
+        const val ROWS = 100_000
+    }
+}
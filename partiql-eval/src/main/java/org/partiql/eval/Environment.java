@@ -16,25 +16,70 @@ import org.partiql.spi.value.Datum;
  * 4:   +-- .next()           // woah! we called bag.next() from line:1, but we popped on line:2 so line:1 is invalid!
  * </code>
  * <br>
- * The most basic solution we have is to pass a new environment into each nested scope.
+ * The most basic solution we have is to pass a new environment into each nested scope. So an environment is a
+ * persistent linked list of scopes: {@link #push} links a new scope to this one in O(1), without copying, and this
+ * one remains valid for any lazy value which captured it.
+ * <br>
+ * Where no value evaluated in a scope outlives the scope's row (think a predicate, which is consumed as it is
+ * evaluated), an operator may instead reuse a single mutable scope, see {@link #frame}.
+ * <br>
+ * The row of a scope may also be the concatenation of two rows (think the two sides of a join) which are resolved in
+ * place, so a join only copies the records it returns, see {@link #push(Row, Row)} and {@link #set(Row, Row)}.
  */
 public class Environment {
 
-    private final Row[] stack;
+    private static final Datum[] NO_PARAMETERS = new Datum[]{};
+
+    /**
+     * The row of this scope; null for the root environment.
+     */
+    private Row row;
+
+    /**
+     * The row concatenated to {@link #row}, if any; its variables follow those of {@link #row}.
+     */
+    private Row next;
+
+    /**
+     * The enclosing scope; null for the root environment.
+     */
+    private final Environment parent;
+
+    private final Datum[] parameters;
+
+    /**
+     * True if the row may be replaced, see {@link #frame}.
+     */
+    private final boolean mutable;
 
     /**
      * Default constructor with empty stack.
      */
     public Environment() {
-        this.stack = new Row[]{};
+        this(NO_PARAMETERS);
+    }
+
+    /**
+     * Constructor with empty stack and the values bound to the statement parameters.
+     * @param parameters the parameter values, in order of appearance of the parameters.
+     */
+    public Environment(Datum[] parameters) {
+        this(null, null, parameters, false);
     }
 
     /**
-     * Private constructor with given stack.
-     * @param stack
+     * Private constructor of a scope.
+     * @param row
+     * @param parent
+     * @param parameters
+     * @param mutable
      */
-    private Environment(Row[] stack) {
-        this.stack = stack;
+    private Environment(Row row, Environment parent, Datum[] parameters, boolean mutable) {
+        this.row = row;
+        this.next = null;
+        this.parent = parent;
+        this.parameters = parameters;
+        this.mutable = mutable;
     }
 
     /**
@@ -43,13 +88,61 @@ public class Environment {
      * @return the new environment
      */
     public Environment push(Row row) {
-        int n = stack.length;
-        Row[] next = new Row[n + 1];
-        next[0] = row;
-        if (n > 0) {
-            System.arraycopy(stack, 0, next, 1, n);
+        return new Environment(row, this, parameters, false);
+    }
+
+    /**
+     * Push the concatenation of two rows onto the stack, without copying them.
+     * @param lhs the first row
+     * @param rhs the row which follows the first row
+     * @return the new environment
+     */
+    public Environment push(Row lhs, Row rhs) {
+        Environment scope = new Environment(lhs, this, parameters, false);
+        scope.next = rhs;
+        return scope;
+    }
+
+    /**
+     * Returns a new environment with an (empty) row pushed onto the stack, whose row is then replaced by each call to
+     * {@link #set}; so an operator may evaluate many rows in one scope, without allocation.
+     * <br>
+     * This is only correct if no value evaluated in the scope is used after the row is replaced, because lazy values
+     * (think subqueries) see the scope's current row. So use {@link #push} for values which escape the operator,
+     * such as projections, sort keys, or group keys, and use a frame for values which are consumed immediately, such
+     * as predicates.
+     *
+     * @return a mutable environment
+     */
+    public Environment frame() {
+        return new Environment(new Row(), this, parameters, true);
+    }
+
+    /**
+     * Replaces the row of an environment created by {@link #frame}.
+     * @param row the row of the scope
+     * @return this environment
+     */
+    public Environment set(Row row) {
+        if (!mutable) {
+            throw new IllegalStateException("Cannot set the row of an environment which is not a frame");
         }
-        return new Environment(next);
+        this.row = row;
+        this.next = null;
+        return this;
+    }
+
+    /**
+     * Replaces the row of an environment created by {@link #frame} with the concatenation of two rows, without
+     * copying them.
+     * @param lhs the first row
+     * @param rhs the row which follows the first row
+     * @return this environment
+     */
+    public Environment set(Row lhs, Row rhs) {
+        set(lhs);
+        this.next = rhs;
+        return this;
     }
 
     /**
@@ -60,10 +153,35 @@ public class Environment {
      * @return  Datum.
      */
     public Datum get(int depth, int offset) {
+        Environment scope = this;
+        for (int i = 0; i < depth && scope != null; i++) {
+            scope = scope.parent;
+        }
+        if (scope == null || scope.row == null) {
+            throw new RuntimeException("Invalid variable reference [" + depth + ":" + offset + "]\n" + this);
+        }
+        try {
+            Datum[] values = scope.row.getValues();
+            if (scope.next != null && offset >= values.length) {
+                return scope.next.getValues()[offset - values.length];
+            }
+            return values[offset];
+        } catch (IndexOutOfBoundsException ex) {
+            throw new RuntimeException("Invalid variable reference [" + depth + ":" + offset + "]\n" + this);
+        }
+    }
+
+    /**
+     * Returns the value bound to the parameter at the specified index.
+     *
+     * @param index     0-indexed parameter position.
+     * @return  Datum.
+     */
+    public Datum getParameter(int index) {
         try {
-            return stack[depth].getValues()[offset];
+            return parameters[index];
         } catch (IndexOutOfBoundsException ex) {
-            throw new RuntimeException("Invalid variable reference [$depth:$offset]\n$this");
+            throw new RuntimeException("Invalid parameter reference [" + index + "] of " + parameters.length + " parameters");
         }
     }
 
@@ -71,11 +189,16 @@ public class Environment {
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("[stack]--------------\n");
-        for (int i = 0; i < stack.length; i++) {
-            sb.append("$i: $row");
-            sb.append("---------------------");
+        int i = 0;
+        for (Environment scope = this; scope != null && scope.row != null; scope = scope.parent) {
+            sb.append(i++).append(": ").append(scope.row);
+            if (scope.next != null) {
+                sb.append(" + ").append(scope.next);
+            }
+            sb.append('\n');
+            sb.append("---------------------\n");
         }
-        if (stack.length == 0) {
+        if (i == 0) {
             sb.append("empty\n");
             sb.append("---------------------\n");
         }
@@ -19,4 +19,20 @@ public interface Statement {
      */
     @NotNull
     public Datum execute() throws PRuntimeException;
+
+    /**
+     * Executes the statement with the given values bound to its parameters ({@code ?}). A statement is compiled once,
+     * and it may be executed many times with different parameter values; only the binding changes between executions.
+     * @param parameters the parameter values, in order of appearance of the parameters in the statement.
+     * @return Datum execution result.
+     * @throws PRuntimeException if an error was encountered during execution
+     * @throws IllegalArgumentException if the number of values differs from the number of statement parameters
+     */
+    @NotNull
+    public default Datum execute(@NotNull Datum... parameters) throws PRuntimeException {
+        if (parameters.length != 0) {
+            throw new IllegalArgumentException("Statement has no parameters, found " + parameters.length + " values");
+        }
+        return execute();
+    }
 }
@@ -3,11 +3,15 @@ package org.partiql.eval.compiler;
 import org.jetbrains.annotations.NotNull;
 import org.partiql.eval.Mode;
 import org.partiql.eval.Statement;
+import org.partiql.eval.internal.codegen.CodegenStrategy;
 import org.partiql.eval.internal.compiler.StandardCompiler;
+import org.partiql.eval.internal.parallel.ParallelConfig;
+import org.partiql.eval.internal.spill.SpillConfig;
 import org.partiql.plan.Plan;
 import org.partiql.spi.Context;
 import org.partiql.spi.errors.PRuntimeException;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -65,6 +69,18 @@ public interface PartiQLCompiler {
         //
         private final List<Strategy> strategies = new ArrayList<>();
 
+        private long memoryLimit = Long.MAX_VALUE;
+
+        private Path spillDirectory = null;
+
+        private int batchSize = 0;
+
+        private boolean codegen = false;
+
+        private int parallelism = 1;
+
+        private int subqueryCacheSize = 0;
+
         private Builder() {
             // empty
         }
@@ -80,11 +96,112 @@ public interface PartiQLCompiler {
             return this;
         }
 
+        /**
+         * Sets the memory budget of blocking operators (e.g. GROUP BY, ORDER BY). Once an operator's state is estimated
+         * to exceed this many bytes, it spills to temporary files and merges them back in a later pass. By default,
+         * operators never spill.
+         *
+         * @param bytes The estimated number of bytes each blocking operator may hold in memory.
+         * @return this.
+         */
+        public Builder memoryLimit(long bytes) {
+            if (bytes < 0) {
+                throw new IllegalArgumentException("memory limit must be non-negative, found: " + bytes);
+            }
+            this.memoryLimit = bytes;
+            return this;
+        }
+
+        /**
+         * Sets the directory for temporary spill files; by default, the system temporary-file directory is used.
+         *
+         * @param directory The directory in which operators create spill files.
+         * @return this.
+         */
+        public Builder spillDirectory(@NotNull Path directory) {
+            this.spillDirectory = directory;
+            return this;
+        }
+
+        /**
+         * Enables vectorized execution of projections and filters over inputs with a fully static schema: rather than
+         * row-at-a-time, their expressions are evaluated over batches of this many rows, with numeric and boolean values
+         * held in primitive column vectors. Operators whose input schema or expressions are dynamically typed are
+         * evaluated row-at-a-time regardless. By default (0), all operators are evaluated row-at-a-time.
+         *
+         * @param rows The number of rows per batch, or 0 to disable vectorized execution.
+         * @return this.
+         */
+        public Builder batchSize(int rows) {
+            if (rows < 0) {
+                throw new IllegalArgumentException("batch size must be non-negative, found: " + rows);
+            }
+            this.batchSize = rows;
+            return this;
+        }
+
+        /**
+         * Enables code generation for scalar expressions of static types: each such expression tree (think a filter
+         * predicate over typed columns) is compiled to a single JVM class which computes numeric and boolean values
+         * without boxing. Values which are not exactly of their static type (think NULL) are evaluated by the
+         * interpreter. Code generation is applied after all other strategies. By default, it is disabled.
+         *
+         * @param enabled true to generate code for scalar expressions.
+         * @return this.
+         */
+        public Builder codegen(boolean enabled) {
+            this.codegen = enabled;
+            return this;
+        }
+
+        /**
+         * Enables intra-query parallelism: each parallel operator runs as this many partitions at once, on worker
+         * threads shared by all statements of the compiler. Scans of splittable tables (see
+         * {@link org.partiql.spi.catalog.SplittableTable}) are partitioned by their splits; filters and projections
+         * are partitioned as their input is; hash aggregations and hash joins are partitioned by the hash of their
+         * keys; and ORDER BY over partitioned input sorts each partition and merges the results. Unless sorted, the
+         * rows of parallel operators are returned in no particular order. By default (1), queries run on the calling
+         * thread.
+         *
+         * @param threads The number of partitions of each parallel operator.
+         * @return this.
+         */
+        public Builder parallelism(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("parallelism must be positive, found: " + threads);
+            }
+            this.parallelism = threads;
+            return this;
+        }
+
+        /**
+         * Sets the number of results each correlated subquery caches, keyed by the values of the outer variables it
+         * references; so a subquery is evaluated once per distinct values of its outer variables, as long as they are
+         * among the most recently used. Values are only the same if they have the same type and representation, so
+         * NULL and MISSING, or 1 and 1.0, are cached separately. Uncorrelated subqueries are always evaluated once per
+         * execution. By default (0), correlated subqueries are evaluated for every row.
+         *
+         * @param entries The number of results each correlated subquery caches.
+         * @return this.
+         */
+        public Builder subqueryCacheSize(int entries) {
+            if (entries < 0) {
+                throw new IllegalArgumentException("subquery cache size must be non-negative, found: " + entries);
+            }
+            this.subqueryCacheSize = entries;
+            return this;
+        }
+
         /**
          * @return A new [PartiQLCompiler].
          */
         public PartiQLCompiler build() {
-            return new StandardCompiler(strategies);
+            List<Strategy> strategies = new ArrayList<>(this.strategies);
+            if (codegen) {
+                strategies.add(new CodegenStrategy());
+            }
+            SpillConfig spill = new SpillConfig(memoryLimit, spillDirectory);
+            return new StandardCompiler(strategies, spill, batchSize, new ParallelConfig(parallelism), subqueryCacheSize);
         }
     }
 }
@@ -0,0 +1,174 @@
+package org.partiql.eval.internal.codegen
+
+import org.partiql.eval.internal.operator.rex.CastTable
+import org.partiql.spi.function.Fn
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * Static methods invoked by generated code. These are small enough to be inlined by the JIT.
+ *
+ * A method which cannot produce a value of the expected (primitive) type throws [Fallback], which tells the
+ * [CompiledExpr] to evaluate the expression with its interpreted fallback.
+ */
+internal object CodegenRuntime {
+
+    /**
+     * Thrown to abandon the generated code; it has no stack trace as it is thrown and caught often (think NULL).
+     */
+    private object Fallback : RuntimeException(null, null, false, false)
+
+    //
+    // Unboxing; the value must be exactly of the static type.
+    //
+
+    @JvmStatic
+    fun unboxLong(value: Datum, code: Int): Long {
+        if (value.isNull || value.isMissing || value.type.code() != code) {
+            throw Fallback
+        }
+        return when (code) {
+            PType.TINYINT -> value.byte.toLong()
+            PType.SMALLINT -> value.short.toLong()
+            PType.INTEGER -> value.int.toLong()
+            else -> value.long
+        }
+    }
+
+    @JvmStatic
+    fun unboxDouble(value: Datum, code: Int): Double {
+        if (value.isNull || value.isMissing || value.type.code() != code) {
+            throw Fallback
+        }
+        return when (code) {
+            PType.REAL -> value.float.toDouble()
+            else -> value.double
+        }
+    }
+
+    @JvmStatic
+    fun unboxBoolean(value: Datum): Boolean {
+        if (value.isNull || value.isMissing || value.type.code() != PType.BOOL) {
+            throw Fallback
+        }
+        return value.boolean
+    }
+
+    //
+    // Boxing
+    //
+
+    @JvmStatic
+    fun boxLong(value: Long, code: Int): Datum = when (code) {
+        PType.TINYINT -> Datum.tinyint(value.toByte())
+        PType.SMALLINT -> Datum.smallint(value.toShort())
+        PType.INTEGER -> Datum.integer(value.toInt())
+        else -> Datum.bigint(value)
+    }
+
+    @JvmStatic
+    fun boxDouble(value: Double, code: Int): Datum = when (code) {
+        PType.REAL -> Datum.real(value.toFloat())
+        else -> Datum.doublePrecision(value)
+    }
+
+    @JvmStatic
+    fun boxBoolean(value: Boolean): Datum = Datum.bool(value)
+
+    //
+    // Operators
+    //
+
+    @JvmStatic
+    fun lt(lhs: Long, rhs: Long): Boolean = lhs < rhs
+
+    @JvmStatic
+    fun lte(lhs: Long, rhs: Long): Boolean = lhs <= rhs
+
+    @JvmStatic
+    fun gt(lhs: Long, rhs: Long): Boolean = lhs > rhs
+
+    @JvmStatic
+    fun gte(lhs: Long, rhs: Long): Boolean = lhs >= rhs
+
+    @JvmStatic
+    fun eq(lhs: Long, rhs: Long): Boolean = lhs == rhs
+
+    @JvmStatic
+    fun lt(lhs: Double, rhs: Double): Boolean = lhs < rhs
+
+    @JvmStatic
+    fun lte(lhs: Double, rhs: Double): Boolean = lhs <= rhs
+
+    @JvmStatic
+    fun gt(lhs: Double, rhs: Double): Boolean = lhs > rhs
+
+    @JvmStatic
+    fun gte(lhs: Double, rhs: Double): Boolean = lhs >= rhs
+
+    /**
+     * Like the comparator, all NaNs are equal.
+     */
+    @JvmStatic
+    fun eq(lhs: Double, rhs: Double): Boolean = lhs == rhs || (lhs.isNaN() && rhs.isNaN())
+
+    @JvmStatic
+    fun eq(lhs: Boolean, rhs: Boolean): Boolean = lhs == rhs
+
+    /**
+     * @return the result of integer arithmetic if it fits in the type of the given code (smaller than BIGINT).
+     */
+    @JvmStatic
+    fun exact(value: Long, code: Int): Long {
+        val fits = when (code) {
+            PType.TINYINT -> value in Byte.MIN_VALUE..Byte.MAX_VALUE
+            PType.SMALLINT -> value in Short.MIN_VALUE..Short.MAX_VALUE
+            else -> value in Int.MIN_VALUE..Int.MAX_VALUE
+        }
+        if (!fits) {
+            throw Fallback
+        }
+        return value
+    }
+
+    //
+    // Datum operations
+    //
+
+    /**
+     * Invokes the function, with the NULL and MISSING call semantics of [org.partiql.eval.internal.operator.rex.ExprCall].
+     */
+    @JvmStatic
+    fun call(fn: Fn, args: Array<Datum>): Datum {
+        val signature = fn.signature
+        for (arg in args) {
+            if (signature.isNullCall && arg.isNull) return Datum.nullValue(signature.returns)
+            if (signature.isMissingCall && arg.isMissing) return Datum.missing(signature.returns)
+        }
+        return fn.invoke(args)
+    }
+
+    @JvmStatic
+    fun cast(value: Datum, target: PType): Datum = CastTable.cast(value, target)
+
+    /**
+     * @return the field of a ROW or STRUCT; a ROW is not converted to a STRUCT, as the lookup is the same.
+     */
+    @JvmStatic
+    fun key(value: Datum, key: String): Datum {
+        val code = value.type.code()
+        if (value.isNull || value.isMissing || (code != PType.ROW && code != PType.STRUCT)) {
+            throw Fallback
+        }
+        return value.get(key) ?: throw Fallback
+    }
+
+    @JvmStatic
+    fun symbol(value: Datum, symbol: String): Datum {
+        val code = value.type.code()
+        if (value.isNull || value.isMissing || (code != PType.ROW && code != PType.STRUCT)) {
+            throw Fallback
+        }
+        return value.getInsensitive(symbol) ?: throw Fallback
+    }
+}
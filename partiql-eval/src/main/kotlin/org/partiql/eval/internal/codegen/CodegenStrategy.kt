@@ -0,0 +1,77 @@
+package org.partiql.eval.internal.codegen
+
+import org.partiql.eval.Expr
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Mode
+import org.partiql.eval.compiler.Match
+import org.partiql.eval.compiler.Pattern
+import org.partiql.eval.compiler.Strategy
+import org.partiql.eval.internal.operator.rex.ExprCall
+import org.partiql.eval.internal.operator.rex.ExprCast
+import org.partiql.eval.internal.operator.rex.ExprLit
+import org.partiql.eval.internal.operator.rex.ExprPathKey
+import org.partiql.eval.internal.operator.rex.ExprPathSymbol
+import org.partiql.eval.internal.operator.rex.ExprPermissive
+import org.partiql.eval.internal.operator.rex.ExprVar
+import org.partiql.plan.Operator
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexCast
+import org.partiql.plan.rex.RexLit
+import org.partiql.plan.rex.RexPathKey
+import org.partiql.plan.rex.RexPathSymbol
+import org.partiql.plan.rex.RexVar
+import org.partiql.spi.types.PType
+import java.util.function.Predicate
+
+/**
+ * Compiles scalar expression trees of static types to generated classes; see [ExprGenerator].
+ *
+ * The pattern matches the root of a call or cast whose whole tree is supported, so each maximal such tree becomes a
+ * single class. The interpreted fallback of the tree is built here rather than with the compiler callback, as the
+ * callback would match this strategy again.
+ */
+internal class CodegenStrategy : Strategy(PATTERN) {
+
+    override fun apply(match: Match, mode: Mode, callback: Callback): Expr {
+        val rex = match.operand.first() as Rex
+        val fallback = Fallback(mode.code()).compile(rex)
+        return ExprGenerator.generate(rex, fallback)
+    }
+
+    /**
+     * Compiles the interpreted expression tree, as [org.partiql.eval.internal.compiler.StandardCompiler] would.
+     */
+    private class Fallback(private val mode: Int) {
+
+        fun compile(rex: Rex): ExprValue = when (rex) {
+            is RexLit -> ExprLit(rex.getDatum())
+            is RexVar -> ExprVar(rex.scope, rex.getOffset())
+            is RexPathKey -> ExprPathKey(compile(rex.getOperand()), compile(rex.getKey()))
+            is RexPathSymbol -> ExprPathSymbol(compile(rex.getOperand()), rex.getSymbol())
+            is RexCast -> ExprCast(compile(rex.getOperand()), rex.getTarget())
+            is RexCall -> {
+                val fn = rex.getFunction()
+                val catch = fn.signature.parameters.any { it.type.code() == PType.DYNAMIC }
+                val args = rex.getArgs().map { if (catch) compile(it).catch() else compile(it) }
+                ExprCall(fn, args.toTypedArray())
+            }
+            else -> error("Unsupported expression: $rex")
+        }
+
+        private fun ExprValue.catch(): ExprValue = when (mode) {
+            Mode.PERMISSIVE -> ExprPermissive(this)
+            Mode.STRICT -> this
+            else -> throw IllegalStateException("Unsupported execution mode: $mode")
+        }
+    }
+
+    private companion object {
+
+        val PATTERN = object : Pattern(Rex::class.java, Predicate<Operator> { matches(it) }) {}
+
+        fun matches(operator: Operator): Boolean {
+            return (operator is RexCall || operator is RexCast) && ExprGenerator.supports(operator as Rex)
+        }
+    }
+}
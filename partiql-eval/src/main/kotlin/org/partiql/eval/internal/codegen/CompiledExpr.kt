@@ -0,0 +1,39 @@
+package org.partiql.eval.internal.codegen
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.spi.value.Datum
+
+/**
+ * The base class of generated expressions; see [ExprGenerator].
+ *
+ * The generated [fast] method evaluates the expression over primitive values, assuming that every value has exactly
+ * its static type. Whenever that assumption fails (think NULL), or whenever evaluation fails (think overflow), the
+ * expression is evaluated again by the interpreted [fallback], which produces the result or raises the error exactly
+ * as it would have without code generation.
+ *
+ * Members are public as the generated classes are defined by their own class loader.
+ *
+ * @property fallback the interpreted expression.
+ * @property constants the values referenced by the generated code (think functions and literals).
+ */
+internal abstract class CompiledExpr(
+    @JvmField val fallback: ExprValue,
+    @JvmField val constants: Array<Any>,
+) : ExprValue {
+
+    /**
+     * @return the value of the expression.
+     * @throws Exception if the expression must be evaluated by the [fallback].
+     */
+    abstract fun fast(env: Environment): Datum
+
+    override fun eval(env: Environment): Datum {
+        val result = try {
+            fast(env)
+        } catch (e: Exception) {
+            null
+        }
+        return result ?: fallback.eval(env)
+    }
+}
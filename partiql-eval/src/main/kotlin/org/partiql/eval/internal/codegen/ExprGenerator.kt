@@ -0,0 +1,341 @@
+package org.partiql.eval.internal.codegen
+
+import org.objectweb.asm.ClassWriter
+import org.objectweb.asm.MethodVisitor
+import org.objectweb.asm.Opcodes
+import org.objectweb.asm.Type
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.compiler.BatchCompiler
+import org.partiql.eval.internal.operator.batch.BatchCall
+import org.partiql.eval.internal.operator.batch.Vector
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexCast
+import org.partiql.plan.rex.RexLit
+import org.partiql.plan.rex.RexPathKey
+import org.partiql.plan.rex.RexPathSymbol
+import org.partiql.plan.rex.RexVar
+import org.partiql.spi.function.Fn
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Generates a [CompiledExpr] subclass which evaluates a scalar expression tree in a single method.
+ *
+ * Each node of a statically typed numeric or boolean type is held as a JVM primitive (long, double, or boolean) on
+ * the operand stack, so that comparison, arithmetic, and boolean operators over such nodes are single instructions
+ * (or calls to tiny [CodegenRuntime] methods) with no [Datum] boxing. All other nodes are held as a [Datum], and
+ * functions without a primitive implementation are invoked with boxed arguments.
+ *
+ * Only literals, variables, paths with a literal key, casts, and function calls of static types are supported; see
+ * [supports].
+ */
+internal object ExprGenerator {
+
+    private val counter = AtomicLong()
+
+    private val SUPER = Type.getInternalName(CompiledExpr::class.java)
+    private val RUNTIME = Type.getInternalName(CodegenRuntime::class.java)
+    private val ENVIRONMENT = Type.getInternalName(Environment::class.java)
+    private val DATUM = Type.getDescriptor(Datum::class.java)
+    private val DATUM_NAME = Type.getInternalName(Datum::class.java)
+    private val FN = Type.getInternalName(Fn::class.java)
+    private val PTYPE = Type.getInternalName(PType::class.java)
+
+    /**
+     * @return true if the expression tree can be generated.
+     */
+    @JvmStatic
+    fun supports(rex: Rex): Boolean {
+        if (!BatchCompiler.isStatic(rex.type.pType)) {
+            return false
+        }
+        return when (rex) {
+            is RexLit, is RexVar -> true
+            is RexPathKey -> key(rex) != null && supports(rex.getOperand())
+            is RexPathSymbol -> supports(rex.getOperand())
+            is RexCast -> supports(rex.getOperand())
+            is RexCall -> rex.getArgs().all { supports(it) }
+            else -> false
+        }
+    }
+
+    /**
+     * @param rex the expression tree, which must be [supports]ed.
+     * @param fallback the interpreted expression tree.
+     * @return a new instance of a generated class for the expression.
+     */
+    @JvmStatic
+    fun generate(rex: Rex, fallback: ExprValue): ExprValue {
+        val name = "$SUPER\$Generated${counter.incrementAndGet()}"
+        val constants = mutableListOf<Any>()
+        val writer = ClassWriter(ClassWriter.COMPUTE_MAXS or ClassWriter.COMPUTE_FRAMES)
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC or Opcodes.ACC_FINAL or Opcodes.ACC_SUPER, name, null, SUPER, null)
+
+        // constructor
+        val init = "(${Type.getDescriptor(ExprValue::class.java)}[Ljava/lang/Object;)V"
+        writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", init, null, null).apply {
+            visitCode()
+            visitVarInsn(Opcodes.ALOAD, 0)
+            visitVarInsn(Opcodes.ALOAD, 1)
+            visitVarInsn(Opcodes.ALOAD, 2)
+            visitMethodInsn(Opcodes.INVOKESPECIAL, SUPER, "<init>", init, false)
+            visitInsn(Opcodes.RETURN)
+            visitMaxs(0, 0)
+            visitEnd()
+        }
+
+        // fast(Environment): Datum
+        writer.visitMethod(Opcodes.ACC_PUBLIC, "fast", "(${Type.getDescriptor(Environment::class.java)})$DATUM", null, null).apply {
+            visitCode()
+            val method = Method(this, constants)
+            method.box(method.emit(rex), type(rex))
+            visitInsn(Opcodes.ARETURN)
+            visitMaxs(0, 0)
+            visitEnd()
+        }
+        writer.visitEnd()
+
+        val loader = Loader(CompiledExpr::class.java.classLoader)
+        val clazz = loader.define(name.replace('/', '.'), writer.toByteArray())
+        return clazz.getConstructor(ExprValue::class.java, Array<Any>::class.java)
+            .newInstance(fallback, constants.toTypedArray()) as ExprValue
+    }
+
+    /**
+     * @return the static type of the node's value.
+     */
+    private fun type(rex: Rex): PType = when (rex) {
+        is RexCall -> rex.getFunction().signature.returns
+        is RexCast -> rex.getTarget()
+        else -> rex.type.pType
+    }
+
+    /**
+     * @return the key of the path if it is a non-null string literal, else null.
+     */
+    private fun key(rex: RexPathKey): String? {
+        val key = (rex.getKey() as? RexLit)?.getDatum() ?: return null
+        if (key.isNull || key.isMissing || key.type.code() != PType.STRING) {
+            return null
+        }
+        return key.string
+    }
+
+    /**
+     * Emits the body of the generated method; each node leaves its value on the operand stack.
+     */
+    private class Method(private val mv: MethodVisitor, private val constants: MutableList<Any>) {
+
+        /**
+         * Emits the node, leaving a value of its [Vector.kind] on the stack.
+         *
+         * @return the kind of the value.
+         */
+        fun emit(rex: Rex): Int {
+            val type = type(rex)
+            val kind = Vector.kind(type)
+            when (rex) {
+                is RexLit -> lit(rex.getDatum(), type, kind)
+                is RexVar -> {
+                    mv.visitVarInsn(Opcodes.ALOAD, 1)
+                    push(rex.scope)
+                    push(rex.getOffset())
+                    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ENVIRONMENT, "get", "(II)$DATUM", false)
+                    unbox(kind, type)
+                }
+                is RexPathKey -> path(rex.getOperand(), key(rex)!!, "key", type, kind)
+                is RexPathSymbol -> path(rex.getOperand(), rex.getSymbol(), "symbol", type, kind)
+                is RexCast -> cast(rex, type, kind)
+                is RexCall -> call(rex, type, kind)
+                else -> error("Unsupported expression: $rex")
+            }
+            return kind
+        }
+
+        private fun lit(value: Datum, type: PType, kind: Int) {
+            val primitive = !value.isNull && !value.isMissing && value.type.code() == type.code()
+            when {
+                primitive && kind == Vector.LONG -> mv.visitLdcInsn(CodegenRuntime.unboxLong(value, type.code()))
+                primitive && kind == Vector.DOUBLE -> mv.visitLdcInsn(CodegenRuntime.unboxDouble(value, type.code()))
+                primitive && kind == Vector.BOOL -> push(if (value.boolean) 1 else 0)
+                else -> {
+                    constant(value, DATUM_NAME)
+                    unbox(kind, type)
+                }
+            }
+        }
+
+        private fun path(operand: Rex, key: String, method: String, type: PType, kind: Int) {
+            box(emit(operand), type(operand))
+            mv.visitLdcInsn(key)
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, method, "(${DATUM}Ljava/lang/String;)$DATUM", false)
+            unbox(kind, type)
+        }
+
+        private fun cast(rex: RexCast, type: PType, kind: Int) {
+            val operand = rex.getOperand()
+            val source = type(operand).code()
+            val widening = when (type.code()) {
+                PType.BIGINT -> source in INTEGERS
+                PType.INTEGER -> source in INTEGERS && source != PType.BIGINT
+                PType.DOUBLE -> source in INTEGERS || source == PType.REAL || source == PType.DOUBLE
+                else -> false
+            }
+            val from = emit(operand)
+            if (widening) {
+                if (from == Vector.LONG && kind == Vector.DOUBLE) {
+                    mv.visitInsn(Opcodes.L2D)
+                }
+                return
+            }
+            box(from, type(operand))
+            constant(type, PTYPE)
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "cast", "(${DATUM}L$PTYPE;)$DATUM", false)
+            unbox(kind, type)
+        }
+
+        private fun call(rex: RexCall, type: PType, kind: Int) {
+            val fn = rex.getFunction()
+            val args = rex.getArgs()
+            val kernel = BatchCall.kernel(fn, args.map { type(it) })
+            if (kernel == BatchCall.NONE) {
+                constant(fn, FN)
+                push(args.size)
+                mv.visitTypeInsn(Opcodes.ANEWARRAY, DATUM_NAME)
+                args.forEachIndexed { i, arg ->
+                    mv.visitInsn(Opcodes.DUP)
+                    push(i)
+                    box(emit(arg), type(arg))
+                    mv.visitInsn(Opcodes.AASTORE)
+                }
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "call", "(L$FN;[$DATUM)$DATUM", false)
+                unbox(kind, type)
+                return
+            }
+            val operand = args.map { emit(it) }.first()
+            val descriptor = when (operand) {
+                Vector.LONG -> "J"
+                Vector.DOUBLE -> "D"
+                else -> "Z"
+            }
+            when (kernel) {
+                BatchCall.LT -> compare("lt", descriptor)
+                BatchCall.LTE -> compare("lte", descriptor)
+                BatchCall.GT -> compare("gt", descriptor)
+                BatchCall.GTE -> compare("gte", descriptor)
+                BatchCall.EQ -> compare("eq", descriptor)
+                BatchCall.AND -> mv.visitInsn(Opcodes.IAND)
+                BatchCall.OR -> mv.visitInsn(Opcodes.IOR)
+                BatchCall.NOT -> {
+                    push(1)
+                    mv.visitInsn(Opcodes.IXOR)
+                }
+                else -> arithmetic(kernel, operand, type)
+            }
+        }
+
+        private fun compare(name: String, descriptor: String) {
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, name, "($descriptor$descriptor)Z", false)
+        }
+
+        private fun arithmetic(kernel: Int, kind: Int, type: PType) {
+            if (kind == Vector.DOUBLE) {
+                mv.visitInsn(
+                    when (kernel) {
+                        BatchCall.PLUS -> Opcodes.DADD
+                        BatchCall.MINUS -> Opcodes.DSUB
+                        else -> Opcodes.DMUL
+                    }
+                )
+                return
+            }
+            if (type.code() == PType.BIGINT) {
+                // overflow throws, and the fallback raises the error
+                val name = when (kernel) {
+                    BatchCall.PLUS -> "addExact"
+                    BatchCall.MINUS -> "subtractExact"
+                    else -> "multiplyExact"
+                }
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", name, "(JJ)J", false)
+                return
+            }
+            // the operands of the smaller types cannot overflow a long
+            mv.visitInsn(
+                when (kernel) {
+                    BatchCall.PLUS -> Opcodes.LADD
+                    BatchCall.MINUS -> Opcodes.LSUB
+                    else -> Opcodes.LMUL
+                }
+            )
+            push(type.code())
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "exact", "(JI)J", false)
+        }
+
+        /**
+         * Converts the [Datum] on the stack to a value of the kind.
+         */
+        private fun unbox(kind: Int, type: PType) {
+            when (kind) {
+                Vector.LONG -> {
+                    push(type.code())
+                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "unboxLong", "(${DATUM}I)J", false)
+                }
+                Vector.DOUBLE -> {
+                    push(type.code())
+                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "unboxDouble", "(${DATUM}I)D", false)
+                }
+                Vector.BOOL -> mv.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "unboxBoolean", "($DATUM)Z", false)
+            }
+        }
+
+        /**
+         * Converts the value of the kind on the stack to a [Datum].
+         */
+        fun box(kind: Int, type: PType) {
+            when (kind) {
+                Vector.LONG -> {
+                    push(type.code())
+                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "boxLong", "(JI)$DATUM", false)
+                }
+                Vector.DOUBLE -> {
+                    push(type.code())
+                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "boxDouble", "(DI)$DATUM", false)
+                }
+                Vector.BOOL -> mv.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "boxBoolean", "(Z)$DATUM", false)
+            }
+        }
+
+        /**
+         * Pushes `this.constants[i]`, cast to the given class.
+         */
+        private fun constant(value: Any, internalName: String) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0)
+            mv.visitFieldInsn(Opcodes.GETFIELD, SUPER, "constants", "[Ljava/lang/Object;")
+            push(constants.size)
+            mv.visitInsn(Opcodes.AALOAD)
+            mv.visitTypeInsn(Opcodes.CHECKCAST, internalName)
+            constants.add(value)
+        }
+
+        private fun push(value: Int) {
+            when (value) {
+                in -1..5 -> mv.visitInsn(Opcodes.ICONST_0 + value)
+                in Byte.MIN_VALUE..Byte.MAX_VALUE -> mv.visitIntInsn(Opcodes.BIPUSH, value)
+                in Short.MIN_VALUE..Short.MAX_VALUE -> mv.visitIntInsn(Opcodes.SIPUSH, value)
+                else -> mv.visitLdcInsn(value)
+            }
+        }
+    }
+
+    /**
+     * Each generated class has its own loader, so that it is unloaded along with the statement which uses it.
+     */
+    private class Loader(parent: ClassLoader?) : ClassLoader(parent) {
+        fun define(name: String, bytes: ByteArray): Class<*> = defineClass(name, bytes, 0, bytes.size)
+    }
+
+    private val INTEGERS = setOf(PType.TINYINT, PType.SMALLINT, PType.INTEGER, PType.BIGINT)
+}
@@ -0,0 +1,174 @@
+package org.partiql.eval.internal.compiler
+
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.Mode
+import org.partiql.eval.internal.operator.batch.BatchCall
+import org.partiql.eval.internal.operator.batch.BatchCast
+import org.partiql.eval.internal.operator.batch.BatchCatch
+import org.partiql.eval.internal.operator.batch.BatchFilter
+import org.partiql.eval.internal.operator.batch.BatchLit
+import org.partiql.eval.internal.operator.batch.BatchPath
+import org.partiql.eval.internal.operator.batch.BatchProject
+import org.partiql.eval.internal.operator.batch.BatchRelation
+import org.partiql.eval.internal.operator.batch.BatchSource
+import org.partiql.eval.internal.operator.batch.BatchValue
+import org.partiql.eval.internal.operator.batch.BatchVar
+import org.partiql.eval.internal.operator.rel.RelOpBatch
+import org.partiql.plan.Operator
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelProject
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexCast
+import org.partiql.plan.rex.RexLit
+import org.partiql.plan.rex.RexPathKey
+import org.partiql.plan.rex.RexPathSymbol
+import org.partiql.plan.rex.RexVar
+import org.partiql.spi.types.PType
+
+/**
+ * Compiles a projection and/or filters over an input of a fully static schema to a pipeline of batch operators, which
+ * evaluate their expressions a column vector at a time rather than a row at a time.
+ *
+ * Only simple scalar expressions (literals, variables, paths, casts, and function calls) of static types are
+ * vectorized; for anything else, or for operators which match a custom strategy, [compile] returns null and the
+ * operator is compiled row-at-a-time. Each instance compiles a single pipeline.
+ *
+ * @property mode the execution mode, as permissive mode replaces some errors by MISSING.
+ * @property capacity the number of rows per batch.
+ * @property custom returns true if a custom strategy compiles the operator.
+ * @property input compiles the input of the pipeline (row-at-a-time).
+ */
+internal class BatchCompiler(
+    private val mode: Int,
+    private val capacity: Int,
+    private val custom: (Operator) -> Boolean,
+    private val input: (Rel) -> ExprRelation,
+) {
+
+    /**
+     * Variables and paths shared by the operators of a pipeline, so that each is evaluated once per batch.
+     */
+    private val columns = mutableMapOf<String, BatchValue>()
+
+    /**
+     * @return a batch pipeline of the projection or filter and its filter inputs, or null if it cannot be vectorized.
+     */
+    fun compile(rel: Rel): ExprRelation? {
+        val pipeline = relation(rel) ?: return null
+        return RelOpBatch(pipeline)
+    }
+
+    private fun relation(rel: Rel): BatchRelation? {
+        if (custom(rel)) {
+            return null
+        }
+        return when (rel) {
+            is RelProject -> {
+                val input = filters(rel.getInput()) ?: return null
+                val projections = rel.getProjections().map { value(it)?.catch() ?: return null }
+                BatchProject(input, projections.toTypedArray())
+            }
+            is RelFilter -> filters(rel)
+            else -> null
+        }
+    }
+
+    /**
+     * @return the filters over a batch source, or null if the rel is not vectorized.
+     */
+    private fun filters(rel: Rel): BatchRelation? {
+        if (rel !is RelFilter || custom(rel)) {
+            return source(rel)
+        }
+        val input = filters(rel.getInput()) ?: return null
+        val predicate = value(rel.getPredicate())?.catch() ?: return null
+        return BatchFilter(input, predicate)
+    }
+
+    private fun source(rel: Rel): BatchRelation? {
+        if (!rel.type.getFields().all { isStatic(it.type) }) {
+            return null
+        }
+        return BatchSource(input(rel), capacity)
+    }
+
+    private fun value(rex: Rex): BatchValue? {
+        val type = rex.type.pType
+        if (custom(rex) || !isStatic(type)) {
+            return null
+        }
+        val column = column(rex)
+        if (column != null) {
+            columns[column]?.let { return it }
+        }
+        val value = when (rex) {
+            is RexLit -> BatchLit(rex.getDatum(), type, capacity)
+            is RexVar -> BatchVar(rex.scope, rex.getOffset(), type, capacity)
+            is RexPathKey -> {
+                val key = key(rex) ?: return null
+                BatchPath(value(rex.getOperand()) ?: return null, key, false, type, capacity)
+            }
+            is RexPathSymbol -> BatchPath(value(rex.getOperand()) ?: return null, rex.getSymbol(), true, type, capacity)
+            is RexCast -> BatchCast(value(rex.getOperand()) ?: return null, rex.getTarget(), capacity)
+            is RexCall -> {
+                val fn = rex.getFunction()
+                val catch = fn.signature.parameters.any { it.type.code() == PType.DYNAMIC }
+                val args = rex.getArgs().map {
+                    val arg = value(it) ?: return null
+                    if (catch) arg.catch() else arg
+                }
+                BatchCall(fn, args.toTypedArray(), BatchCall.kernel(fn, args.map { it.type }), capacity)
+            }
+            else -> null
+        } ?: return null
+        if (column != null) {
+            columns[column] = value
+        }
+        return value
+    }
+
+    /**
+     * @return a key which identifies a variable, or a path of literal steps from a variable, or null.
+     */
+    private fun column(rex: Rex): String? = when (rex) {
+        is RexVar -> "${rex.scope}:${rex.getOffset()}"
+        is RexPathKey -> key(rex)?.let { key -> column(rex.getOperand())?.let { "$it['$key']" } }
+        is RexPathSymbol -> column(rex.getOperand())?.let { "$it.${rex.getSymbol()}" }
+        else -> null
+    }
+
+    /**
+     * @return the key of the path if it is a non-null string literal, else null.
+     */
+    private fun key(rex: RexPathKey): String? {
+        val key = (rex.getKey() as? RexLit)?.getDatum() ?: return null
+        if (key.isNull || key.isMissing || key.type.code() != PType.STRING) {
+            return null
+        }
+        return key.string
+    }
+
+    private fun BatchValue.catch(): BatchValue = when (mode) {
+        Mode.PERMISSIVE -> BatchCatch(this, capacity)
+        Mode.STRICT -> this
+        else -> throw IllegalStateException("Unsupported execution mode: $mode")
+    }
+
+    companion object {
+
+        /**
+         * @return true if the type, and the types of all its fields and elements, are static.
+         */
+        @JvmStatic
+        fun isStatic(type: PType): Boolean = when (type.code()) {
+            PType.DYNAMIC, PType.VARIANT, PType.UNKNOWN -> false
+            // the fields of an open struct are dynamically typed
+            PType.STRUCT -> false
+            PType.ROW -> type.fields.all { isStatic(it.type) }
+            PType.ARRAY, PType.BAG -> isStatic(type.typeParameter)
+            else -> true
+        }
+    }
+}
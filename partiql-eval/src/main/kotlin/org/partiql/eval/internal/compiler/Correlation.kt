@@ -0,0 +1,238 @@
+package org.partiql.eval.internal.compiler
+
+import org.partiql.plan.JoinType
+import org.partiql.plan.Operator
+import org.partiql.plan.OperatorVisitor
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelAggregate
+import org.partiql.plan.rel.RelCorrelate
+import org.partiql.plan.rel.RelExcept
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelIntersect
+import org.partiql.plan.rel.RelIterate
+import org.partiql.plan.rel.RelJoin
+import org.partiql.plan.rel.RelLimit
+import org.partiql.plan.rel.RelOffset
+import org.partiql.plan.rel.RelProject
+import org.partiql.plan.rel.RelScan
+import org.partiql.plan.rel.RelSort
+import org.partiql.plan.rel.RelUnion
+import org.partiql.plan.rel.RelUnpivot
+import org.partiql.plan.rel.RelWindow
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCase
+import org.partiql.plan.rex.RexPathIndex
+import org.partiql.plan.rex.RexPathKey
+import org.partiql.plan.rex.RexPivot
+import org.partiql.plan.rex.RexSelect
+import org.partiql.plan.rex.RexStruct
+import org.partiql.plan.rex.RexSubquery
+import org.partiql.plan.rex.RexSubqueryComp
+import org.partiql.plan.rex.RexSubqueryIn
+import org.partiql.plan.rex.RexSubqueryTest
+import org.partiql.plan.rex.RexVar
+
+/**
+ * Computes which variables of the enclosing environments an operator references.
+ *
+ * Each [RexVar] is resolved against the environment at which it is evaluated; this walks the operator tree, tracking
+ * how many scopes have been pushed since the operator's own environment, so that references may be reported relative
+ * to it. The scoping mirrors the compiled operators:
+ *  - a rel is opened with its parent's environment; the rexes of a rel are evaluated with one additional scope.
+ *  - the right-hand side of an INNER or LEFT join is opened with one additional scope (lateral); its condition is
+ *    evaluated with one additional scope.
+ *  - the input of a subquery is opened with the enclosing environment; its constructor has one additional scope.
+ */
+internal object Correlation {
+
+    /**
+     * A variable reference relative to the environment of the visited operator.
+     *
+     * @property scope the number of scopes up from the operator's environment, where 0 is the innermost scope.
+     * @property offset the variable offset within the scope.
+     */
+    internal class Reference(
+        @JvmField val scope: Int,
+        @JvmField val offset: Int,
+    )
+
+    /**
+     * @return the references to variables bound outside [rel], relative to the environment it is opened with.
+     */
+    @JvmStatic
+    fun references(rel: Rel): List<Reference> = Visitor().also { rel.accept(it, 0) }.references
+
+    /**
+     * @return the references to variables bound outside [rex], relative to the environment it is evaluated with.
+     */
+    @JvmStatic
+    fun references(rex: Rex): List<Reference> = Visitor().also { rex.accept(it, 0) }.references
+
+    /**
+     * @return true if [rel] references a variable of the innermost scope of the environment it is opened with.
+     */
+    @JvmStatic
+    fun isCorrelated(rel: Rel): Boolean = references(rel).any { it.scope == 0 }
+
+    /**
+     * The context is the number of scopes pushed since the root operator's environment.
+     */
+    private class Visitor : OperatorVisitor<Unit, Int> {
+
+        val references = mutableListOf<Reference>()
+
+        override fun defaultReturn(operator: Operator, ctx: Int) = Unit
+
+        private fun visit(rexes: List<Rex>, depth: Int) = rexes.forEach { it.accept(this, depth) }
+
+        // --[Rel]---------------------------------------------------------------------------------------------------
+
+        override fun visitAggregate(rel: RelAggregate, ctx: Int) {
+            rel.input.accept(this, ctx)
+            visit(rel.groups, ctx + 1)
+            rel.measures.forEach { visit(it.args, ctx + 1) }
+        }
+
+        override fun visitCorrelate(rel: RelCorrelate, ctx: Int) {
+            rel.left.accept(this, ctx)
+            rel.right.accept(this, ctx + 1)
+        }
+
+        override fun visitExcept(rel: RelExcept, ctx: Int) {
+            rel.left.accept(this, ctx)
+            rel.right.accept(this, ctx)
+        }
+
+        override fun visitFilter(rel: RelFilter, ctx: Int) {
+            rel.input.accept(this, ctx)
+            rel.predicate.accept(this, ctx + 1)
+        }
+
+        override fun visitIntersect(rel: RelIntersect, ctx: Int) {
+            rel.left.accept(this, ctx)
+            rel.right.accept(this, ctx)
+        }
+
+        override fun visitIterate(rel: RelIterate, ctx: Int) {
+            rel.rex.accept(this, ctx + 1)
+        }
+
+        override fun visitJoin(rel: RelJoin, ctx: Int) {
+            val lateral = when (rel.joinType.code()) {
+                JoinType.INNER, JoinType.LEFT -> true
+                else -> false
+            }
+            rel.left.accept(this, ctx)
+            rel.right.accept(this, if (lateral) ctx + 1 else ctx)
+            rel.condition.accept(this, ctx + 1)
+        }
+
+        override fun visitLimit(rel: RelLimit, ctx: Int) {
+            rel.input.accept(this, ctx)
+            rel.limit.accept(this, ctx + 1)
+        }
+
+        override fun visitOffset(rel: RelOffset, ctx: Int) {
+            rel.input.accept(this, ctx)
+            rel.offset.accept(this, ctx + 1)
+        }
+
+        override fun visitProject(rel: RelProject, ctx: Int) {
+            rel.input.accept(this, ctx)
+            visit(rel.projections, ctx + 1)
+        }
+
+        override fun visitScan(rel: RelScan, ctx: Int) {
+            rel.rex.accept(this, ctx + 1)
+        }
+
+        override fun visitSort(rel: RelSort, ctx: Int) {
+            rel.input.accept(this, ctx)
+            rel.collations.forEach { it.column.accept(this, ctx + 1) }
+        }
+
+        override fun visitUnion(rel: RelUnion, ctx: Int) {
+            rel.left.accept(this, ctx)
+            rel.right.accept(this, ctx)
+        }
+
+        override fun visitUnpivot(rel: RelUnpivot, ctx: Int) {
+            rel.rex.accept(this, ctx + 1)
+        }
+
+        override fun visitWindow(rel: RelWindow, ctx: Int) {
+            rel.input.accept(this, ctx)
+            visit(rel.partitions, ctx + 1)
+            rel.collations.forEach { it.column.accept(this, ctx + 1) }
+            rel.functions.forEach {
+                visit(it.args, ctx + 1)
+                it.frame.start.offset?.accept(this, ctx + 1)
+                it.frame.end.offset?.accept(this, ctx + 1)
+            }
+        }
+
+        // --[Rex]---------------------------------------------------------------------------------------------------
+
+        override fun visitCase(rex: RexCase, ctx: Int) {
+            rex.match?.accept(this, ctx)
+            rex.branches.forEach {
+                it.condition.accept(this, ctx)
+                it.result.accept(this, ctx)
+            }
+            rex.default?.accept(this, ctx)
+        }
+
+        override fun visitPathIndex(rex: RexPathIndex, ctx: Int) {
+            rex.operand.accept(this, ctx)
+            rex.index.accept(this, ctx)
+        }
+
+        override fun visitPathKey(rex: RexPathKey, ctx: Int) {
+            rex.operand.accept(this, ctx)
+            rex.key.accept(this, ctx)
+        }
+
+        override fun visitPivot(rex: RexPivot, ctx: Int) {
+            rex.input.accept(this, ctx)
+            rex.key.accept(this, ctx + 1)
+            rex.value.accept(this, ctx + 1)
+        }
+
+        override fun visitSelect(rex: RexSelect, ctx: Int) {
+            rex.input.accept(this, ctx)
+            rex.constructor.accept(this, ctx + 1)
+        }
+
+        override fun visitStruct(rex: RexStruct, ctx: Int) {
+            rex.fields.forEach {
+                it.key.accept(this, ctx)
+                it.value.accept(this, ctx)
+            }
+        }
+
+        override fun visitSubquery(rex: RexSubquery, ctx: Int) {
+            rex.input.accept(this, ctx)
+            rex.constructor.accept(this, ctx + 1)
+        }
+
+        override fun visitSubqueryComp(rex: RexSubqueryComp, ctx: Int) {
+            visit(rex.args, ctx)
+            rex.input.accept(this, ctx)
+        }
+
+        override fun visitSubqueryIn(rex: RexSubqueryIn, ctx: Int) {
+            visit(rex.args, ctx)
+            rex.input.accept(this, ctx)
+        }
+
+        override fun visitSubqueryTest(rex: RexSubqueryTest, ctx: Int) {
+            rex.input.accept(this, ctx)
+        }
+
+        override fun visitVar(rex: RexVar, ctx: Int) {
+            if (rex.scope >= ctx) {
+                references.add(Reference(rex.scope - ctx, rex.offset))
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.partiql.eval.internal.compiler
+
+import org.partiql.plan.JoinType
+import org.partiql.plan.rel.RelJoin
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCall
+
+/**
+ * The equi-join keys of a join condition.
+ *
+ * The condition is split into its conjuncts; each equality whose operands reference only the left and only the right
+ * input respectively becomes a pair of keys, and all other conjuncts are kept as the [residual] condition.
+ *
+ * @property lhs the key expressions over the left input.
+ * @property rhs the key expressions over the right input, in the same order as [lhs].
+ * @property residual the remaining conjuncts of the condition.
+ */
+internal class JoinKeys private constructor(
+    @JvmField val lhs: List<Rex>,
+    @JvmField val rhs: List<Rex>,
+    @JvmField val residual: List<Rex>,
+) {
+
+    companion object {
+
+        /**
+         * The hidden names of the built-in AND and = functions.
+         */
+        private const val AND = "\uFDEFand"
+        private const val EQ = "\uFDEFeq"
+
+        /**
+         * @return the equi-join keys of the join, or null if it has none or if its right input is lateral.
+         */
+        @JvmStatic
+        fun of(rel: RelJoin): JoinKeys? {
+            val lateral = when (rel.joinType.code()) {
+                JoinType.INNER, JoinType.LEFT -> Correlation.isCorrelated(rel.right)
+                else -> false
+            }
+            if (lateral) {
+                return null
+            }
+            val width = rel.left.type.getFields().size
+            val lhs = mutableListOf<Rex>()
+            val rhs = mutableListOf<Rex>()
+            val residual = mutableListOf<Rex>()
+            for (conjunct in conjuncts(rel.condition)) {
+                if (conjunct is RexCall && conjunct.function.signature.name == EQ) {
+                    val (a, b) = conjunct.args
+                    val sideA = side(a, width)
+                    val sideB = side(b, width)
+                    if (sideA == Side.LEFT && sideB == Side.RIGHT) {
+                        lhs.add(a)
+                        rhs.add(b)
+                        continue
+                    }
+                    if (sideA == Side.RIGHT && sideB == Side.LEFT) {
+                        lhs.add(b)
+                        rhs.add(a)
+                        continue
+                    }
+                }
+                residual.add(conjunct)
+            }
+            if (lhs.isEmpty()) {
+                return null
+            }
+            return JoinKeys(lhs, rhs, residual)
+        }
+
+        private fun conjuncts(rex: Rex): List<Rex> = when {
+            rex is RexCall && rex.function.signature.name == AND -> rex.args.flatMap { conjuncts(it) }
+            else -> listOf(rex)
+        }
+
+        /**
+         * @return which input the expression references, given the number of fields of the left input.
+         */
+        private fun side(rex: Rex, width: Int): Side {
+            var side = Side.NONE
+            for (reference in Correlation.references(rex)) {
+                if (reference.scope != 0) {
+                    continue
+                }
+                val next = if (reference.offset < width) Side.LEFT else Side.RIGHT
+                if (side != Side.NONE && side != next) {
+                    return Side.BOTH
+                }
+                side = next
+            }
+            return side
+        }
+    }
+
+    private enum class Side {
+        NONE,
+        LEFT,
+        RIGHT,
+        BOTH,
+    }
+}
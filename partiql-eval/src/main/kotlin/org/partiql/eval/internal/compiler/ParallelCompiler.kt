@@ -0,0 +1,217 @@
+package org.partiql.eval.internal.compiler
+
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Row
+import org.partiql.eval.internal.operator.Aggregate
+import org.partiql.eval.internal.operator.rel.RelOpAggregateHash
+import org.partiql.eval.internal.operator.rel.RelOpFilter
+import org.partiql.eval.internal.operator.rel.RelOpGather
+import org.partiql.eval.internal.operator.rel.RelOpGatherMerge
+import org.partiql.eval.internal.operator.rel.RelOpJoinHash
+import org.partiql.eval.internal.operator.rel.RelOpProject
+import org.partiql.eval.internal.operator.rel.RelOpSort
+import org.partiql.eval.internal.parallel.Exchange
+import org.partiql.eval.internal.parallel.ParallelConfig
+import org.partiql.eval.internal.parallel.SplitSource
+import org.partiql.eval.internal.parallel.Stage
+import org.partiql.eval.internal.spill.SpillConfig
+import org.partiql.plan.Collation
+import org.partiql.plan.JoinType
+import org.partiql.plan.Operator
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelAggregate
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelJoin
+import org.partiql.plan.rel.RelProject
+import org.partiql.plan.rel.RelScan
+import org.partiql.plan.rel.RelSort
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCase
+import org.partiql.plan.rex.RexTable
+import org.partiql.spi.catalog.SplittableTable
+import org.partiql.spi.catalog.TableScan
+import org.partiql.spi.value.Datum
+
+/**
+ * Compiles a parallel region: a tree of operators which runs as several copies (partitions) at once, under a gather.
+ *
+ * A rel is partitioned when it can be computed by [ParallelConfig.parallelism] copies of its operators, each over a
+ * disjoint part of the input, such that the partitions' rows together are the rel's rows:
+ *  - a scan of a [SplittableTable] is partitioned by the table's splits, which the partitions take one at a time.
+ *  - a filter or a projection is partitioned as its input is.
+ *  - a hash aggregation is partitioned by the hash of its group keys, via an [Exchange] from the partitions of its
+ *    input (or from its input as a whole); so each group is aggregated by exactly one partition.
+ *  - a hash join is partitioned by the hash of its keys, via an exchange of each input. But when the left input is
+ *    partitioned and the right one is not, an INNER or LEFT join instead broadcasts its right input to every
+ *    partition of the left input, which then need not be exchanged.
+ *
+ * The region's root is a [RelOpGather], or a [RelOpGatherMerge] of sorted partitions when the root is a sort.
+ *
+ * Operators of an ordered type, operators which match a custom strategy, and expressions with a subquery (whose value
+ * may be evaluated lazily, by another thread) are not partitioned. Nor is an aggregation without group keys, as the
+ * partial results of an [org.partiql.spi.function.Accumulator] cannot be merged; its input may still be a region.
+ * A region's root does not reference its environment, so that the region may be opened with it as is. Each instance
+ * compiles a single region.
+ *
+ * @property custom returns true if a custom strategy compiles the operator.
+ * @property input compiles an operator which is not partitioned.
+ * @property value compiles an expression.
+ * @property catch wraps an expression whose errors are caught in permissive mode.
+ */
+internal class ParallelCompiler(
+    private val parallel: ParallelConfig,
+    private val spill: SpillConfig,
+    private val custom: (Operator) -> Boolean,
+    private val input: (Rel) -> ExprRelation,
+    private val value: (Rex) -> ExprValue,
+    private val catch: (ExprValue) -> ExprValue,
+) {
+
+    private val n = parallel.parallelism
+
+    /**
+     * The shared parts of the region, in the order they are started (inputs before consumers).
+     */
+    private val stages = mutableListOf<Stage>()
+
+    /**
+     * @return a parallel region for the rel, or null if it is not partitioned.
+     */
+    fun compile(rel: Rel): ExprRelation? {
+        if (Correlation.isCorrelated(rel)) {
+            return null
+        }
+        if (rel is RelSort) {
+            if (custom(rel) || rel.getCollations().any { it.column.hasSubquery() }) {
+                return null
+            }
+            val inputs = partitions(rel.getInput()) ?: return null
+            // the partition's sort and its share of the merge run on the same thread
+            val collations = List(n) { collations(rel) }
+            val sorts = inputs.mapIndexed { i, input -> RelOpSort(input, collations[i], spill.share(n)) }
+            return RelOpGatherMerge(sorts, collations, stages, parallel)
+        }
+        val partitions = partitions(rel) ?: return null
+        return RelOpGather(partitions, stages, parallel)
+    }
+
+    /**
+     * All checks of an operator happen before its inputs are compiled, so that no stage is added for a rel which
+     * is not partitioned.
+     *
+     * @return the partitions of the rel, or null if it is not partitioned.
+     */
+    private fun partitions(rel: Rel): List<ExprRelation>? {
+        if (rel.type.isOrdered || custom(rel)) {
+            return null
+        }
+        return when (rel) {
+            is RelScan -> scan(rel)
+            is RelFilter -> filter(rel)
+            is RelProject -> project(rel)
+            is RelAggregate -> aggregate(rel)
+            is RelJoin -> join(rel)
+            else -> null
+        }
+    }
+
+    private fun scan(rel: RelScan): List<ExprRelation>? {
+        val rex = rel.rex as? RexTable ?: return null
+        val table = rex.getTable() as? SplittableTable ?: return null
+        val source = SplitSource(table, rex.getScan() ?: TableScan.all())
+        stages.add(source)
+        return List(n) { source.reader() }
+    }
+
+    private fun filter(rel: RelFilter): List<ExprRelation>? {
+        if (rel.getPredicate().hasSubquery()) {
+            return null
+        }
+        val inputs = partitions(rel.getInput()) ?: return null
+        return inputs.map { RelOpFilter(it, catch(value(rel.getPredicate()))) }
+    }
+
+    private fun project(rel: RelProject): List<ExprRelation>? {
+        if (rel.getProjections().any { it.hasSubquery() }) {
+            return null
+        }
+        val inputs = partitions(rel.getInput()) ?: return null
+        return inputs.map { input -> RelOpProject(input, rel.getProjections().map { catch(value(it)) }) }
+    }
+
+    private fun aggregate(rel: RelAggregate): List<ExprRelation>? {
+        val groups = rel.getGroups()
+        val args = rel.getMeasures().flatMap { it.getArgs() }
+        if (groups.isEmpty() || groups.any { it.hasSubquery() } || args.any { it.hasSubquery() }) {
+            return null
+        }
+        val inputs = partitions(rel.getInput()) ?: listOf(input(rel.getInput()))
+        val keys = inputs.map { groups.map { catch(value(it)) } }
+        val exchange = Exchange.Hash(inputs, keys, null, n)
+        stages.add(exchange)
+        return List(n) { i ->
+            val aggregates = rel.getMeasures().map { call ->
+                Aggregate(call.getAgg(), call.getArgs().map { catch(value(it)) }, call.isDistinct())
+            }
+            RelOpAggregateHash(exchange.reader(i), aggregates, groups.map { catch(value(it)) }, spill.share(n))
+        }
+    }
+
+    private fun join(rel: RelJoin): List<ExprRelation>? {
+        val keys = JoinKeys.of(rel) ?: return null
+        if ((keys.lhs + keys.rhs + keys.residual).any { it.hasSubquery() }) {
+            return null
+        }
+        val type = rel.joinType.code()
+        val lhsType = rel.left.type
+        val rhsType = rel.right.type
+        val left = partitions(rel.left)
+        val right = partitions(rel.right)
+        val lhs: List<ExprRelation>
+        val rhs: List<ExprRelation>
+        if (left != null && right == null && (type == JoinType.INNER || type == JoinType.LEFT)) {
+            val broadcast = Exchange.Broadcast(listOf(input(rel.right)), n)
+            stages.add(broadcast)
+            lhs = left
+            rhs = List(n) { broadcast.reader(it) }
+        } else {
+            val lInputs = left ?: listOf(input(rel.left))
+            val rInputs = right ?: listOf(input(rel.right))
+            // the right keys are evaluated after a NULL left record, as in the join
+            val padding = Row(lhsType.getFields().map { Datum.nullValue(it.type) }.toTypedArray())
+            val lExchange = Exchange.Hash(lInputs, lInputs.map { keys.lhs.map(value) }, null, n)
+            val rExchange = Exchange.Hash(rInputs, rInputs.map { keys.rhs.map(value) }, padding, n)
+            stages.add(lExchange)
+            stages.add(rExchange)
+            lhs = List(n) { lExchange.reader(it) }
+            rhs = List(n) { rExchange.reader(it) }
+        }
+        return List(n) { i ->
+            val lhsKeys = keys.lhs.map(value)
+            val rhsKeys = keys.rhs.map(value)
+            val conditions = keys.residual.map(value)
+            RelOpJoinHash(lhs[i], rhs[i], lhsKeys, rhsKeys, conditions, type, lhsType, rhsType)
+        }
+    }
+
+    private fun collations(rel: RelSort): List<RelOpSort.Collation> = rel.getCollations().map {
+        val expr = value(it.column)
+        val desc = it.order.code() == Collation.Order.DESC
+        val last = it.nulls.code() == Collation.Nulls.LAST
+        RelOpSort.Collation(expr, desc, last)
+    }
+
+    /**
+     * @return true if the expression contains a relational operator (think a subquery).
+     */
+    private fun Operator.hasSubquery(): Boolean {
+        if (this is Rel) {
+            return true
+        }
+        if (this is RexCase && getBranches().any { it.getCondition().hasSubquery() || it.getResult().hasSubquery() }) {
+            return true
+        }
+        return getOperands().any { operand -> operand.any { it.hasSubquery() } }
+    }
+}
@@ -0,0 +1,160 @@
+package org.partiql.eval.internal.compiler
+
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelDistinct
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelProject
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexDispatch
+import org.partiql.plan.rex.RexSubqueryIn
+import org.partiql.plan.rex.RexSubqueryTest
+
+/**
+ * A semi-join (or anti-join) of a filter, i.e. a conjunct of its predicate which is an IN or EXISTS predicate over a
+ * subquery, or the negation of one.
+ *
+ * The subquery must not reference the filter's record, unless it is decorrelated: a subquery of a (projected) filter
+ * whose conjuncts are either uncorrelated, or are equalities between an expression of the subquery's record and an
+ * expression of the filter's record. The uncorrelated conjuncts are kept as the [residual] filter of the [rhs], and
+ * the correlated equalities become the pairs of [lhsCorrelations] and [rhsCorrelations].
+ *
+ * @property rhs the relation whose records are matched; it does not reference the filter's record.
+ * @property residual the conjuncts which filter the [rhs], evaluated with the [rhs] record.
+ * @property lhsCorrelations the correlated expressions over the filter's record, evaluated as if within the subquery.
+ * @property rhsCorrelations the correlated expressions over the [rhs] record, in the same order.
+ * @property lhsValues the values of the IN predicate, evaluated with the filter's record; empty for EXISTS.
+ * @property rhsValues the values of the [rhs] record compared with the [lhsValues], or null if they are its columns.
+ * @property anti true if the predicate is negated.
+ */
+internal class SemiJoin private constructor(
+    @JvmField val rhs: Rel,
+    @JvmField val residual: List<Rex>,
+    @JvmField val lhsCorrelations: List<Rex>,
+    @JvmField val rhsCorrelations: List<Rex>,
+    @JvmField val lhsValues: List<Rex>,
+    @JvmField val rhsValues: List<Rex>?,
+    @JvmField val anti: Boolean,
+) {
+
+    companion object {
+
+        /**
+         * The hidden names of the built-in AND, NOT, and = functions.
+         */
+        private const val AND = "\uFDEFand"
+        private const val NOT = "\uFDEFnot"
+        private const val EQ = "\uFDEFeq"
+
+        /**
+         * @return the semi-joins of the filter and its remaining conjuncts, or null if it has no semi-joins.
+         */
+        @JvmStatic
+        fun of(rel: RelFilter): Pair<List<SemiJoin>, List<Rex>>? {
+            val joins = mutableListOf<SemiJoin>()
+            val residual = mutableListOf<Rex>()
+            for (conjunct in conjuncts(rel.predicate)) {
+                val join = of(conjunct)
+                if (join != null) {
+                    joins.add(join)
+                } else {
+                    residual.add(conjunct)
+                }
+            }
+            if (joins.isEmpty()) {
+                return null
+            }
+            return joins to residual
+        }
+
+        /**
+         * @return the semi-join of a conjunct, or null if it is not an IN or EXISTS predicate which can be decorrelated.
+         */
+        private fun of(conjunct: Rex): SemiJoin? {
+            var rex = conjunct
+            var anti = false
+            val negated = args(rex, NOT)
+            if (negated != null && negated.size == 1) {
+                rex = negated[0]
+                anti = true
+            }
+            return when {
+                rex is RexSubqueryIn -> of(rex.input, rex.args, anti)
+                rex is RexSubqueryTest && rex.test.code() == RexSubqueryTest.Test.EXISTS -> of(rex.input, null, anti)
+                else -> null
+            }
+        }
+
+        /**
+         * @param values the values of the IN predicate, or null for EXISTS.
+         */
+        private fun of(subquery: Rel, values: List<Rex>?, anti: Boolean): SemiJoin? {
+            var input = subquery
+            // duplicates do not change whether a record matches
+            while (input is RelDistinct) {
+                input = input.input
+            }
+            if (!Correlation.isCorrelated(input)) {
+                if (values != null && values.size != input.type.getFields().size) {
+                    return null
+                }
+                return SemiJoin(input, emptyList(), emptyList(), emptyList(), values ?: emptyList(), null, anti)
+            }
+            // decorrelate a projected filter
+            val project = input as? RelProject
+            val filter = (project?.input ?: input) as? RelFilter ?: return null
+            if (Correlation.isCorrelated(filter.input)) {
+                return null
+            }
+            val projections = when {
+                values == null -> null
+                project == null -> return null
+                project.projections.size != values.size -> return null
+                project.projections.any { isCorrelated(it) } -> return null
+                else -> project.projections
+            }
+            val residual = mutableListOf<Rex>()
+            val lhs = mutableListOf<Rex>()
+            val rhs = mutableListOf<Rex>()
+            for (conjunct in conjuncts(filter.predicate)) {
+                if (!isCorrelated(conjunct)) {
+                    residual.add(conjunct)
+                    continue
+                }
+                val (a, b) = args(conjunct, EQ)?.takeIf { it.size == 2 } ?: return null
+                when {
+                    isInner(a) && isOuter(b) -> {
+                        lhs.add(b)
+                        rhs.add(a)
+                    }
+                    isInner(b) && isOuter(a) -> {
+                        lhs.add(a)
+                        rhs.add(b)
+                    }
+                    else -> return null
+                }
+            }
+            return SemiJoin(filter.input, residual, lhs, rhs, values ?: emptyList(), projections ?: emptyList(), anti)
+        }
+
+        private fun conjuncts(rex: Rex): List<Rex> = args(rex, AND)?.flatMap { conjuncts(it) } ?: listOf(rex)
+
+        /**
+         * @return the arguments of a call (or dispatch) of the function, or null if the rex is not one.
+         */
+        private fun args(rex: Rex, name: String): List<Rex>? = when {
+            rex is RexCall && rex.function.signature.name == name -> rex.args
+            rex is RexDispatch && rex.name == name -> rex.args
+            else -> null
+        }
+
+        /**
+         * Within the subquery's filter, scope 0 is the subquery's record and scope 1 is the record of the outer filter.
+         */
+        private fun isCorrelated(rex: Rex): Boolean = Correlation.references(rex).any { it.scope == 1 }
+
+        private fun isInner(rex: Rex): Boolean = !isCorrelated(rex)
+
+        private fun isOuter(rex: Rex): Boolean = Correlation.references(rex).none { it.scope == 0 }
+    }
+}
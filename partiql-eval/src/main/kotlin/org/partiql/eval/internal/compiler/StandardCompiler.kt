@@ -9,9 +9,12 @@ import org.partiql.eval.Statement
 import org.partiql.eval.compiler.Match
 import org.partiql.eval.compiler.PartiQLCompiler
 import org.partiql.eval.compiler.Strategy
+import org.partiql.eval.internal.codegen.CodegenStrategy
+import org.partiql.eval.internal.helpers.Memo
 import org.partiql.eval.internal.helpers.PErrors
 import org.partiql.eval.internal.operator.Aggregate
 import org.partiql.eval.internal.operator.rel.RelOpAggregate
+import org.partiql.eval.internal.operator.rel.RelOpAggregateHash
 import org.partiql.eval.internal.operator.rel.RelOpDistinct
 import org.partiql.eval.internal.operator.rel.RelOpExceptAll
 import org.partiql.eval.internal.operator.rel.RelOpExceptDistinct
@@ -21,19 +24,23 @@ import org.partiql.eval.internal.operator.rel.RelOpIntersectAll
 import org.partiql.eval.internal.operator.rel.RelOpIntersectDistinct
 import org.partiql.eval.internal.operator.rel.RelOpIterate
 import org.partiql.eval.internal.operator.rel.RelOpIteratePermissive
+import org.partiql.eval.internal.operator.rel.RelOpJoinHash
 import org.partiql.eval.internal.operator.rel.RelOpJoinInner
 import org.partiql.eval.internal.operator.rel.RelOpJoinOuterFull
 import org.partiql.eval.internal.operator.rel.RelOpJoinOuterLeft
 import org.partiql.eval.internal.operator.rel.RelOpJoinOuterRight
+import org.partiql.eval.internal.operator.rel.RelOpJoinSemi
 import org.partiql.eval.internal.operator.rel.RelOpLimit
 import org.partiql.eval.internal.operator.rel.RelOpOffset
 import org.partiql.eval.internal.operator.rel.RelOpProject
 import org.partiql.eval.internal.operator.rel.RelOpScan
 import org.partiql.eval.internal.operator.rel.RelOpScanPermissive
 import org.partiql.eval.internal.operator.rel.RelOpSort
+import org.partiql.eval.internal.operator.rel.RelOpTopN
 import org.partiql.eval.internal.operator.rel.RelOpUnionAll
 import org.partiql.eval.internal.operator.rel.RelOpUnionDistinct
 import org.partiql.eval.internal.operator.rel.RelOpUnpivot
+import org.partiql.eval.internal.operator.rel.RelOpWindow
 import org.partiql.eval.internal.operator.rex.ExprArray
 import org.partiql.eval.internal.operator.rex.ExprBag
 import org.partiql.eval.internal.operator.rex.ExprCall
@@ -44,8 +51,10 @@ import org.partiql.eval.internal.operator.rex.ExprCast
 import org.partiql.eval.internal.operator.rex.ExprCoalesce
 import org.partiql.eval.internal.operator.rex.ExprError
 import org.partiql.eval.internal.operator.rex.ExprLit
+import org.partiql.eval.internal.operator.rex.ExprMemo
 import org.partiql.eval.internal.operator.rex.ExprMissing
 import org.partiql.eval.internal.operator.rex.ExprNullIf
+import org.partiql.eval.internal.operator.rex.ExprParameter
 import org.partiql.eval.internal.operator.rex.ExprPathIndex
 import org.partiql.eval.internal.operator.rex.ExprPathKey
 import org.partiql.eval.internal.operator.rex.ExprPathSymbol
@@ -58,9 +67,15 @@ import org.partiql.eval.internal.operator.rex.ExprStructField
 import org.partiql.eval.internal.operator.rex.ExprStructPermissive
 import org.partiql.eval.internal.operator.rex.ExprStructStrict
 import org.partiql.eval.internal.operator.rex.ExprSubquery
+import org.partiql.eval.internal.operator.rex.ExprSubqueryComp
+import org.partiql.eval.internal.operator.rex.ExprSubqueryIn
 import org.partiql.eval.internal.operator.rex.ExprSubqueryRow
+import org.partiql.eval.internal.operator.rex.ExprSubqueryTest
 import org.partiql.eval.internal.operator.rex.ExprTable
+import org.partiql.eval.internal.operator.rex.ExprTableScan
 import org.partiql.eval.internal.operator.rex.ExprVar
+import org.partiql.eval.internal.parallel.ParallelConfig
+import org.partiql.eval.internal.spill.SpillConfig
 import org.partiql.plan.Action
 import org.partiql.plan.Collation
 import org.partiql.plan.JoinType
@@ -84,6 +99,7 @@ import org.partiql.plan.rel.RelScan
 import org.partiql.plan.rel.RelSort
 import org.partiql.plan.rel.RelUnion
 import org.partiql.plan.rel.RelUnpivot
+import org.partiql.plan.rel.RelWindow
 import org.partiql.plan.rex.Rex
 import org.partiql.plan.rex.RexArray
 import org.partiql.plan.rex.RexBag
@@ -95,6 +111,7 @@ import org.partiql.plan.rex.RexDispatch
 import org.partiql.plan.rex.RexError
 import org.partiql.plan.rex.RexLit
 import org.partiql.plan.rex.RexNullIf
+import org.partiql.plan.rex.RexParameter
 import org.partiql.plan.rex.RexPathIndex
 import org.partiql.plan.rex.RexPathKey
 import org.partiql.plan.rex.RexPathSymbol
@@ -109,6 +126,7 @@ import org.partiql.plan.rex.RexSubqueryTest
 import org.partiql.plan.rex.RexTable
 import org.partiql.plan.rex.RexVar
 import org.partiql.spi.Context
+import org.partiql.spi.catalog.ScannableTable
 import org.partiql.spi.errors.PError
 import org.partiql.spi.errors.PErrorKind
 import org.partiql.spi.errors.PRuntimeException
@@ -118,11 +136,32 @@ import org.partiql.spi.value.Datum
 /**
  * This class is responsible for producing an executable statement from logical operators.
  */
-internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
+internal class StandardCompiler(
+    strategies: List<Strategy>,
+    spill: SpillConfig,
+    batchSize: Int,
+    parallel: ParallelConfig,
+    subqueryCacheSize: Int,
+) : PartiQLCompiler {
 
     private val strategies: List<Strategy> = strategies
 
-    internal constructor() : this(emptyList())
+    private val spill: SpillConfig = spill
+
+    /**
+     * The number of rows per batch of vectorized operators, or 0 to evaluate all operators row-at-a-time.
+     */
+    private val batchSize: Int = batchSize
+
+    private val parallel: ParallelConfig = parallel
+
+    /**
+     * The number of distinct values of its outer variables for which each correlated subquery caches its value, or 0
+     * to evaluate correlated subqueries for every row.
+     */
+    private val subqueryCacheSize: Int = subqueryCacheSize
+
+    internal constructor() : this(emptyList(), SpillConfig.UNBOUNDED, 0, ParallelConfig.SERIAL, 0)
 
     override fun prepare(plan: Plan, mode: Mode, ctx: Context): Statement {
         try {
@@ -150,6 +189,16 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
         private val mode = mode
         private val MODE = mode.code()
 
+        /**
+         * The number of parameters referenced by the compiled operators; i.e. the greatest parameter index plus one.
+         */
+        private var parameters = 0
+
+        /**
+         * The state of the compiled operators which is kept across their evaluations within one execution.
+         */
+        private val memos = mutableListOf<Memo>()
+
         /**
          * Compile a query operation to a query statement.
          */
@@ -158,10 +207,25 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
             // compile the query root
             private val root = compile(action.getRex(), Unit).catch()
 
+            // the number of parameters (?) of the query; known once the root is compiled
+            private val parameters = this@Visitor.parameters
+
+            // the state of the previous execution is cleared as the data or the parameters may differ
+            private val memos = this@Visitor.memos.toList()
+
             // execute with no parameters
-            override fun execute(): Datum {
+            override fun execute(): Datum = execute(*emptyArray<Datum>())
+
+            // execute with parameters; the compiled operators are shared by all executions
+            override fun execute(vararg parameters: Datum): Datum {
+                if (parameters.size != this.parameters) {
+                    throw IllegalArgumentException("Statement has ${this.parameters} parameters, found ${parameters.size} values")
+                }
+                // copy the values as the result may be evaluated lazily, after the caller has reused the array
+                val env = Environment(parameters.copyOf())
+                memos.forEach { it.clear() }
                 return try {
-                    root.eval(Environment())
+                    root.eval(env)
                 } catch (e: PRuntimeException) {
                     throw e
                 } catch (t: Throwable) {
@@ -205,6 +269,7 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
         // OPERATORS
 
         override fun visitAggregate(rel: RelAggregate, ctx: Unit): ExprRelation {
+            parallel(rel)?.let { return it }
             val input = compile(rel.getInput(), ctx)
             val aggs = rel.getMeasures().map { call ->
                 val agg = call.getAgg()
@@ -213,20 +278,24 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
                 Aggregate(agg, args, distinct)
             }
             val groups = rel.getGroups().map { compile(it, ctx).catch() }
-            return RelOpAggregate(input, aggs, groups)
+            // only use the sorted implementation when the output must be ordered by the group keys
+            return when (rel.type.isOrdered) {
+                true -> RelOpAggregate(input, aggs, groups)
+                else -> RelOpAggregateHash(input, aggs, groups, spill)
+            }
         }
 
         override fun visitDistinct(rel: RelDistinct, ctx: Unit): ExprRelation {
             val input = compile(rel.getInput(), ctx)
-            return RelOpDistinct(input)
+            return RelOpDistinct(input, spill)
         }
 
         override fun visitExcept(rel: RelExcept, ctx: Unit): ExprRelation {
             val lhs = compile(rel.getLeft(), ctx)
             val rhs = compile(rel.getRight(), ctx)
             return when (rel.isAll()) {
-                true -> RelOpExceptAll(lhs, rhs)
-                else -> RelOpExceptDistinct(lhs, rhs)
+                true -> RelOpExceptAll(lhs, rhs, spill)
+                else -> RelOpExceptDistinct(lhs, rhs, spill)
             }
         }
 
@@ -237,17 +306,45 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
         }
 
         override fun visitFilter(rel: RelFilter, ctx: Unit): ExprRelation {
+            semiJoins(rel)?.let { return it }
+            parallel(rel)?.let { return it }
+            batch(rel)?.let { return it }
             val input = compile(rel.getInput(), ctx)
             val predicate = compile(rel.getPredicate(), ctx).catch()
             return RelOpFilter(input, predicate)
         }
 
+        /**
+         * @return the semi-joins (and anti-joins) of the filter's IN and EXISTS subqueries over a filter of its other
+         * conjuncts, or null if it has none; see [SemiJoin].
+         */
+        private fun semiJoins(rel: RelFilter): ExprRelation? {
+            val (joins, residual) = SemiJoin.of(rel) ?: return null
+            var input = compile(rel.getInput(), Unit)
+            for (conjunct in residual) {
+                input = RelOpFilter(input, compile(conjunct, Unit).catch())
+            }
+            for (join in joins) {
+                var rhs = compile(join.rhs, Unit)
+                for (conjunct in join.residual) {
+                    rhs = RelOpFilter(rhs, compile(conjunct, Unit).catch())
+                }
+                val lhsCorrelations = join.lhsCorrelations.map { compile(it, Unit).catch() }
+                val rhsCorrelations = join.rhsCorrelations.map { compile(it, Unit).catch() }
+                val lhsValues = join.lhsValues.map { compile(it, Unit).catch() }
+                val rhsValues = join.rhsValues?.map { compile(it, Unit).catch() }
+                    ?: List(lhsValues.size) { ExprVar(0, it) }
+                input = RelOpJoinSemi(input, rhs, lhsCorrelations, rhsCorrelations, lhsValues, rhsValues, join.anti)
+            }
+            return input
+        }
+
         override fun visitIntersect(rel: RelIntersect, ctx: Unit): ExprRelation {
             val lhs = compile(rel.getLeft(), ctx)
             val rhs = compile(rel.getRight(), ctx)
             return when (rel.isAll()) {
-                true -> RelOpIntersectAll(lhs, rhs)
-                else -> RelOpIntersectDistinct(lhs, rhs)
+                true -> RelOpIntersectAll(lhs, rhs, spill)
+                else -> RelOpIntersectDistinct(lhs, rhs, spill)
             }
         }
 
@@ -261,14 +358,23 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
         }
 
         override fun visitJoin(rel: RelJoin, ctx: Unit): ExprRelation {
+            parallel(rel)?.let { return it }
             val lrel = rel.left
             val rrel = rel.right
             val lhs = compile(lrel, ctx)
             val rhs = compile(rrel, ctx)
-            val condition = compile(rel.getCondition(), ctx)
             // use schema for null padding
             val lhsType = lrel.type
             val rhsType = rrel.type
+            // use a hash join when there are equi-join keys
+            val keys = JoinKeys.of(rel)
+            if (keys != null) {
+                val lhsKeys = keys.lhs.map { compile(it, ctx) }
+                val rhsKeys = keys.rhs.map { compile(it, ctx) }
+                val conditions = keys.residual.map { compile(it, ctx) }
+                return RelOpJoinHash(lhs, rhs, lhsKeys, rhsKeys, conditions, rel.joinType.code(), lhsType, rhsType)
+            }
+            val condition = compile(rel.getCondition(), ctx)
             return when (rel.joinType.code()) {
                 JoinType.INNER -> RelOpJoinInner(lhs, rhs, condition)
                 JoinType.LEFT -> RelOpJoinOuterLeft(lhs, rhs, condition, rhsType)
@@ -279,6 +385,16 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
         }
 
         override fun visitLimit(rel: RelLimit, ctx: Unit): ExprRelation {
+            // fuse LIMIT and OFFSET over ORDER BY into a top-n, unless a strategy would compile the operands
+            val offset = rel.getInput() as? RelOffset
+            val sort = (offset?.getInput() ?: rel.getInput()) as? RelSort
+            val strategy = strategies.any { it.pattern.matches(sort) || (offset != null && it.pattern.matches(offset)) }
+            if (sort != null && !strategy) {
+                val input = compile(sort.getInput(), ctx)
+                val collations = collations(sort, ctx)
+                val limit = compile(rel.getLimit(), ctx)
+                return RelOpTopN(input, collations, limit, offset?.let { compile(it.getOffset(), ctx) }, spill)
+            }
             val input = compile(rel.getInput(), ctx)
             val limit = compile(rel.getLimit(), ctx)
             return RelOpLimit(input, limit)
@@ -291,12 +407,42 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
         }
 
         override fun visitProject(rel: RelProject, ctx: Unit): ExprRelation {
+            parallel(rel)?.let { return it }
+            batch(rel)?.let { return it }
             val input = compile(rel.getInput(), ctx)
             val projections = rel.getProjections().map { compile(it, ctx).catch() }
             return RelOpProject(input, projections)
         }
 
+        /**
+         * @return a vectorized pipeline of the projection or filter, or null if it is evaluated row-at-a-time.
+         */
+        private fun batch(rel: Rel): ExprRelation? {
+            if (batchSize == 0) {
+                return null
+            }
+            // batches are preferred to generated code, which evaluates a row at a time
+            val custom = { operator: Operator ->
+                strategies.any { it !is CodegenStrategy && it.pattern.matches(operator) }
+            }
+            return BatchCompiler(MODE, batchSize, custom) { compile(it, Unit) }.compile(rel)
+        }
+
+        /**
+         * @return a parallel region of the operator and the operators below it, or null if it runs on one thread.
+         */
+        private fun parallel(rel: Rel): ExprRelation? {
+            if (!parallel.enabled()) {
+                return null
+            }
+            val custom = { operator: Operator -> strategies.any { it.pattern.matches(operator) } }
+            val input = { input: Rel -> compile(input, Unit) }
+            val value = { rex: Rex -> compile(rex, Unit) }
+            return ParallelCompiler(parallel, spill, custom, input, value) { it.catch() }.compile(rel)
+        }
+
         override fun visitScan(rel: RelScan, ctx: Unit): ExprRelation {
+            parallel(rel)?.let { return it }
             val input = compile(rel.rex, ctx)
             return when (MODE) {
                 Mode.PERMISSIVE -> RelOpScanPermissive(input)
@@ -306,14 +452,21 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
         }
 
         override fun visitSort(rel: RelSort, ctx: Unit): ExprRelation {
+            parallel(rel)?.let { return it }
             val input = compile(rel.getInput(), ctx)
-            val collations = rel.getCollations().map {
-                val expr = compile(it.column, ctx)
-                val desc = it.order.code() == Collation.Order.DESC
-                val last = it.nulls.code() == Collation.Nulls.LAST
-                RelOpSort.Collation(expr, desc, last)
-            }
-            return RelOpSort(input, collations)
+            val collations = collations(rel, ctx)
+            return RelOpSort(input, collations, spill)
+        }
+
+        private fun collations(rel: RelSort, ctx: Unit): List<RelOpSort.Collation> = rel.getCollations().map {
+            collation(it, ctx)
+        }
+
+        private fun collation(collation: Collation, ctx: Unit): RelOpSort.Collation {
+            val expr = compile(collation.column, ctx)
+            val desc = collation.order.code() == Collation.Order.DESC
+            val last = collation.nulls.code() == Collation.Nulls.LAST
+            return RelOpSort.Collation(expr, desc, last)
         }
 
         override fun visitUnion(rel: RelUnion, ctx: Unit): ExprRelation {
@@ -321,7 +474,7 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
             val rhs = compile(rel.getRight(), ctx)
             return when (rel.isAll()) {
                 true -> RelOpUnionAll(lhs, rhs)
-                else -> RelOpUnionDistinct(lhs, rhs)
+                else -> RelOpUnionDistinct(lhs, rhs, spill)
             }
         }
 
@@ -334,6 +487,47 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
             }
         }
 
+        /**
+         * The input is sorted by the partition keys and then by the collations, so that each partition is consecutive
+         * and in order; partitions only group equal keys, so their own order is arbitrary.
+         */
+        override fun visitWindow(rel: RelWindow, ctx: Unit): ExprRelation {
+            val input = compile(rel.getInput(), ctx)
+            val partitions = rel.getPartitions().map { compile(it, ctx).catch() }
+            val collations = rel.getCollations().map { collation(it, ctx) }
+            val functions = rel.getFunctions().map { function(it, ctx) }
+            val keys = partitions.map { RelOpSort.Collation(it, false, false) } + collations
+            val sorted = when (keys.isEmpty()) {
+                true -> input
+                else -> RelOpSort(input, keys, spill)
+            }
+            return RelOpWindow(sorted, partitions, collations, functions, spill)
+        }
+
+        private fun function(function: RelWindow.Function, ctx: Unit): RelOpWindow.Function {
+            val kind = function.kind.code()
+            val frame = function.frame
+            val rows = frame.units.code() == RelWindow.Units.ROWS
+            val start = bound(frame.start, ctx)
+            val end = bound(frame.end, ctx)
+            if (kind == RelWindow.Kind.AGG && !rows && (start.offset != null || end.offset != null)) {
+                error("Unsupported window frame: RANGE with an offset")
+            }
+            var args = function.args.map { compile(it, ctx).catch() }
+            var offset: ExprValue? = null
+            if (kind == RelWindow.Kind.LAG || kind == RelWindow.Kind.LEAD) {
+                // the offset is evaluated once, the value and default for each record
+                offset = args.getOrNull(1)
+                args = args.filterIndexed { i, _ -> i != 1 }
+            }
+            return RelOpWindow.Function(kind, args, offset, function.agg, rows, start, end)
+        }
+
+        private fun bound(bound: RelWindow.Bound, ctx: Unit): RelOpWindow.Bound {
+            val offset = bound.offset?.let { compile(it, ctx).catch() }
+            return RelOpWindow.Bound(bound.type.code(), offset)
+        }
+
         override fun visitError(rex: RexError, ctx: Unit): ExprValue {
             return when (mode.code()) {
                 Mode.PERMISSIVE -> ExprMissing(PType.unknown())
@@ -466,7 +660,7 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
             val fields = rex.getFields().map {
                 val k = compile(it.key, ctx)
                 val v = compile(it.value, ctx).catch()
-                ExprStructField(k, v)
+                ExprStructField(k, v, name(it.key))
             }
             return when (MODE) {
                 Mode.PERMISSIVE -> ExprStructPermissive(fields)
@@ -475,25 +669,69 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
             }
         }
 
+        /**
+         * @return the text of a string literal key, else null.
+         */
+        private fun name(key: Rex): String? {
+            val datum = (key as? RexLit)?.getDatum() ?: return null
+            if (datum.isNull || datum.isMissing) {
+                return null
+            }
+            return when (datum.type.code()) {
+                PType.STRING, PType.CHAR -> datum.string
+                else -> null
+            }
+        }
+
         override fun visitSubquery(rex: RexSubquery, ctx: Unit): ExprValue {
             val rel = compile(rex.getInput(), ctx)
             val constructor = compile(rex.getConstructor(), ctx)
-            return when (rex.isScalar()) {
+            val subquery = when (rex.isScalar()) {
                 true -> ExprSubquery(rel, constructor)
                 else -> ExprSubqueryRow(rel, constructor)
             }
+            return memo(rex, subquery)
         }
 
         override fun visitSubqueryComp(rex: RexSubqueryComp, ctx: Unit): ExprValue {
-            TODO("<exists predicate> and <unique predicate>")
+            val input = compile(rex.getInput(), ctx)
+            val args = rex.getArgs().map { compile(it, ctx).catch() }
+            val all = rex.getQuantifier().code() == RexSubqueryComp.Quantifier.ALL
+            return memo(rex, ExprSubqueryComp(input, args, rex.getComparison().code(), all))
         }
 
         override fun visitSubqueryIn(rex: RexSubqueryIn, ctx: Unit): ExprValue {
-            TODO("<in predicate>")
+            val input = compile(rex.getInput(), ctx)
+            val args = rex.getArgs().map { compile(it, ctx).catch() }
+            val uncorrelated = Correlation.references(rex.getInput()).isEmpty()
+            val subquery = ExprSubqueryIn(input, args, uncorrelated)
+            if (uncorrelated) {
+                memos.add(subquery)
+                return subquery
+            }
+            return memo(rex, subquery)
         }
 
         override fun visitSubqueryTest(rex: RexSubqueryTest, ctx: Unit): ExprValue {
-            TODO("<exists predicate> and <unique predicate>")
+            val input = compile(rex.getInput(), ctx)
+            val unique = rex.getTest().code() == RexSubqueryTest.Test.UNIQUE
+            return memo(rex, ExprSubqueryTest(input, unique))
+        }
+
+        /**
+         * Memoizes a subquery by the variables of the enclosing scopes which it references, see [ExprMemo]; so an
+         * uncorrelated subquery is evaluated once per execution, and a correlated one once per distinct values of its
+         * variables, if the [subqueryCacheSize] is positive.
+         */
+        private fun memo(rex: Rex, subquery: ExprValue): ExprValue {
+            val references = Correlation.references(rex).distinctBy { it.scope to it.offset }
+            if (references.isNotEmpty() && subqueryCacheSize == 0) {
+                return subquery
+            }
+            val keys = references.map { ExprVar(it.scope, it.offset) }
+            val memo = ExprMemo(subquery, keys, subqueryCacheSize)
+            memos.add(memo)
+            return memo
         }
 
         override fun visitSpread(rex: RexSpread, ctx: Unit): ExprValue {
@@ -502,7 +740,18 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
         }
 
         override fun visitTable(rex: RexTable, ctx: Unit): ExprValue {
-            return ExprTable(rex.getTable())
+            val table = rex.getTable()
+            val scan = rex.getScan()
+            if (scan != null && table is ScannableTable) {
+                return ExprTableScan(table, scan)
+            }
+            return ExprTable(table)
+        }
+
+        override fun visitParameter(rex: RexParameter, ctx: Unit): ExprValue {
+            val index = rex.getIndex()
+            parameters = maxOf(parameters, index + 1)
+            return ExprParameter(index)
         }
 
         override fun visitVar(rex: RexVar, ctx: Unit): ExprValue {
@@ -0,0 +1,96 @@
+package org.partiql.eval.internal.helpers
+
+import org.partiql.spi.value.Datum
+
+/**
+ * A multiset of [Datum] arrays; an open-addressing hash table from keys to primitive int counts. Keys are equal
+ * according to [DatumArrayComparator] and are hashed with [DatumHasher]; callers pass the hash so it is computed once.
+ *
+ * Entries are addressed by slot. A slot is only valid until the next [insert], which may grow the table.
+ */
+internal class DatumArrayCounter {
+
+    private var keys: Array<Array<Datum>?> = arrayOfNulls(INITIAL_CAPACITY)
+    private var hashes = IntArray(INITIAL_CAPACITY)
+    private var counts = IntArray(INITIAL_CAPACITY)
+
+    /**
+     * The number of distinct keys.
+     */
+    var size: Int = 0
+        private set
+
+    /**
+     * @return the slot of the key, or -1 if absent.
+     */
+    fun find(key: Array<Datum>, hash: Int): Int {
+        val mask = keys.size - 1
+        var i = index(hash, mask)
+        while (true) {
+            val k = keys[i] ?: return -1
+            if (hashes[i] == hash && DatumArrayComparator.compare(k, key) == 0) {
+                return i
+            }
+            i = (i + 1) and mask
+        }
+    }
+
+    /**
+     * Adds an absent key with a count of zero.
+     *
+     * @return the slot of the key.
+     */
+    fun insert(key: Array<Datum>, hash: Int): Int {
+        // keep the table at most 3/4 full
+        if ((size + 1) * 4 > keys.size * 3) {
+            grow()
+        }
+        size++
+        return put(key, hash, 0)
+    }
+
+    fun count(slot: Int): Int = counts[slot]
+
+    fun set(slot: Int, count: Int) {
+        counts[slot] = count
+    }
+
+    fun clear() {
+        keys = arrayOfNulls(INITIAL_CAPACITY)
+        hashes = IntArray(INITIAL_CAPACITY)
+        counts = IntArray(INITIAL_CAPACITY)
+        size = 0
+    }
+
+    private fun put(key: Array<Datum>, hash: Int, count: Int): Int {
+        val mask = keys.size - 1
+        var i = index(hash, mask)
+        while (keys[i] != null) {
+            i = (i + 1) and mask
+        }
+        keys[i] = key
+        hashes[i] = hash
+        counts[i] = count
+        return i
+    }
+
+    private fun grow() {
+        val oldKeys = keys
+        val oldHashes = hashes
+        val oldCounts = counts
+        keys = arrayOfNulls(oldKeys.size * 2)
+        hashes = IntArray(oldKeys.size * 2)
+        counts = IntArray(oldKeys.size * 2)
+        for (i in oldKeys.indices) {
+            val key = oldKeys[i] ?: continue
+            put(key, oldHashes[i], oldCounts[i])
+        }
+    }
+
+    private fun index(hash: Int, mask: Int): Int = (hash xor (hash ushr 16)) and mask
+
+    private companion object {
+
+        const val INITIAL_CAPACITY = 16
+    }
+}
@@ -0,0 +1,26 @@
+package org.partiql.eval.internal.helpers
+
+import org.partiql.spi.value.Datum
+
+/**
+ * Wraps an array of [Datum]s so that it may be used as the key of a hash-based collection. The hash code is computed
+ * once via [DatumHasher], and equality is defined by [DatumArrayComparator].
+ *
+ * @property values the wrapped values; these must not be modified after construction.
+ */
+internal class DatumArrayKey(@JvmField val values: Array<Datum>) {
+
+    private val hash: Int = DatumHasher.hash(values)
+
+    override fun hashCode(): Int = hash
+
+    override fun equals(other: Any?): Boolean {
+        if (this === other) {
+            return true
+        }
+        if (other !is DatumArrayKey) {
+            return false
+        }
+        return hash == other.hash && DatumArrayComparator.compare(values, other.values) == 0
+    }
+}
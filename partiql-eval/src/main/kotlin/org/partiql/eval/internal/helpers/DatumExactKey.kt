@@ -0,0 +1,70 @@
+package org.partiql.eval.internal.helpers
+
+import org.partiql.eval.internal.spill.DatumSerde
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+
+/**
+ * Wraps an array of [Datum]s so that it may be used as the key of a hash-based collection whose values must not be
+ * shared by distinct, though comparable, values (think a cache). Unlike [DatumArrayKey], two keys are only equal if
+ * each pair of values has the same type and the same representation: NULL and MISSING are distinct, and so are 1, 1.0,
+ * and 1.00.
+ *
+ * The key is the values' [DatumSerde] encoding, which writes each value's type (with its parameters) and exact
+ * representation (e.g. the scale of a decimal). VARIANT values may be lowered by that encoding, so values which
+ * contain a VARIANT have no key.
+ */
+internal class DatumExactKey private constructor(private val bytes: ByteArray) {
+
+    private val hash: Int = bytes.contentHashCode()
+
+    override fun hashCode(): Int = hash
+
+    override fun equals(other: Any?): Boolean {
+        if (this === other) {
+            return true
+        }
+        if (other !is DatumExactKey) {
+            return false
+        }
+        return hash == other.hash && bytes.contentEquals(other.bytes)
+    }
+
+    companion object {
+
+        /**
+         * @return the key of the values, or null if a value contains a VARIANT.
+         */
+        @JvmStatic
+        fun of(values: Array<Datum>): DatumExactKey? {
+            if (!values.all { isExact(it) }) {
+                return null
+            }
+            val bytes = ByteArrayOutputStream()
+            val out = DataOutputStream(bytes)
+            values.forEach { DatumSerde.write(out, it) }
+            out.flush()
+            return DatumExactKey(bytes.toByteArray())
+        }
+
+        /**
+         * @return true if the encoding of the value is exact, i.e. it does not contain a VARIANT.
+         */
+        private fun isExact(datum: Datum): Boolean {
+            val code = datum.type.code()
+            if (code == PType.VARIANT) {
+                return false
+            }
+            if (datum.isNull || datum.isMissing) {
+                return true
+            }
+            return when (code) {
+                PType.ARRAY, PType.BAG -> datum.all { isExact(it) }
+                PType.STRUCT, PType.ROW -> datum.fields.asSequence().all { isExact(it.value) }
+                else -> true
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.partiql.eval.internal.helpers
+
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumHashStrategy
+
+/**
+ * Computes hash codes for [Datum] arrays which are consistent with [DatumArrayComparator] equality, by combining the
+ * hash codes of [Datum.hasher]. This allows for hash-based structures (think GROUP BY and DISTINCT) rather than the
+ * tree-based structures keyed by [DatumArrayComparator].
+ */
+internal object DatumHasher {
+
+    private val hasher: DatumHashStrategy = Datum.hasher()
+
+    /**
+     * @return a hash code for the value which is consistent with [Datum.comparator] equality.
+     */
+    @JvmStatic
+    fun hash(datum: Datum): Int = hasher.hash(datum)
+
+    /**
+     * @return a hash code for the values which is consistent with [DatumArrayComparator] equality.
+     */
+    @JvmStatic
+    fun hash(values: Array<Datum>): Int {
+        var result = 1
+        for (value in values) {
+            result = 31 * result + hasher.hash(value)
+        }
+        return result
+    }
+}
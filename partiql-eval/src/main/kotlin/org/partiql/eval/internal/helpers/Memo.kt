@@ -0,0 +1,13 @@
+package org.partiql.eval.internal.helpers
+
+/**
+ * State which an operator keeps across its evaluations within one execution of a statement (think the value of an
+ * uncorrelated subquery); it is cleared at the start of each execution, as the data or the parameters may differ.
+ */
+internal interface Memo {
+
+    /**
+     * Clears the state of the previous execution.
+     */
+    fun clear()
+}
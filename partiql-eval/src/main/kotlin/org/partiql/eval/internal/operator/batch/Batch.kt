@@ -0,0 +1,80 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.eval.Environment
+import org.partiql.eval.Row
+
+/**
+ * A batch of (up to [capacity]) input rows along with a selection vector of the rows which remain after filtering.
+ * Operators of a batch pipeline pass the same batch along; filters narrow the [selection] and projections set the
+ * output [columns].
+ *
+ * @property capacity the maximum number of rows.
+ */
+internal class Batch(@JvmField val capacity: Int) {
+
+    /**
+     * The environment of the pipeline, for variables of enclosing scopes.
+     */
+    @JvmField
+    var env: Environment = Environment()
+
+    @JvmField
+    val rows: Array<Row?> = arrayOfNulls(capacity)
+
+    /**
+     * The number of rows.
+     */
+    @JvmField
+    var size: Int = 0
+
+    /**
+     * The indexes of the selected rows, in ascending order; only the first [selected] are valid.
+     */
+    @JvmField
+    val selection: IntArray = IntArray(capacity)
+
+    @JvmField
+    var selected: Int = 0
+
+    /**
+     * Incremented each time the batch is refilled; expressions shared by several operators use it to evaluate once per
+     * batch.
+     */
+    @JvmField
+    var sequence: Long = 0
+
+    /**
+     * The output columns, or null to output the [rows] themselves.
+     */
+    @JvmField
+    var columns: Array<Vector>? = null
+
+    private var errors: Array<Throwable?>? = null
+
+    /**
+     * Resets the batch to hold the first [size] of its [rows], all selected.
+     */
+    fun reset(size: Int) {
+        this.size = size
+        for (i in 0 until size) {
+            selection[i] = i
+        }
+        selected = size
+        sequence++
+        columns = null
+        errors?.fill(null)
+    }
+
+    /**
+     * @return the error which the row at [i] raises once it is returned, or null.
+     */
+    fun error(i: Int): Throwable? = errors?.get(i)
+
+    /**
+     * Records an error which the row at [i] raises once it is returned; the row must remain selected.
+     */
+    fun setError(i: Int, error: Throwable) {
+        val errors = errors ?: arrayOfNulls<Throwable>(capacity).also { errors = it }
+        errors[i] = error
+    }
+}
@@ -0,0 +1,225 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.spi.function.Fn
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * A scalar function call; see [org.partiql.eval.internal.operator.rex.ExprCall].
+ *
+ * The comparison, arithmetic, and boolean operators over the primitive types have a [kernel] which computes the
+ * result directly from the primitive vectors of the arguments. Rows whose arguments are not all primitive (think
+ * NULL), or for which the kernel cannot compute the result (think overflow), fall back to invoking the function.
+ *
+ * @property kernel one of the kernel constants, or [NONE]; see [kernel].
+ */
+internal class BatchCall(
+    private val fn: Fn,
+    private val args: Array<BatchValue>,
+    private val kernel: Int,
+    capacity: Int,
+) : BatchValue {
+
+    override val type: PType = fn.signature.returns
+
+    private val vector = Vector(type, capacity)
+    private val vectors = arrayOfNulls<Vector>(args.size)
+    private val isNullCall = fn.signature.isNullCall
+    private val isMissingCall = fn.signature.isMissingCall
+
+    override fun eval(batch: Batch): Vector {
+        for (j in args.indices) {
+            vectors[j] = args[j].eval(batch)
+        }
+        val out = vector
+        when (kernel) {
+            NONE -> each(batch) { call(it) }
+            NOT -> {
+                val v = vectors[0]!!
+                each(batch) { i ->
+                    if (v.isPrimitive(i)) out.setBoolean(i, !v.booleans[i]) else call(i)
+                }
+            }
+            else -> {
+                val l = vectors[0]!!
+                val r = vectors[1]!!
+                val longs = l.kind == Vector.LONG
+                when (kernel) {
+                    LT -> binary(batch, l, r) { i ->
+                        out.setBoolean(i, if (longs) l.longs[i] < r.longs[i] else l.doubles[i] < r.doubles[i])
+                    }
+                    LTE -> binary(batch, l, r) { i ->
+                        out.setBoolean(i, if (longs) l.longs[i] <= r.longs[i] else l.doubles[i] <= r.doubles[i])
+                    }
+                    GT -> binary(batch, l, r) { i ->
+                        out.setBoolean(i, if (longs) l.longs[i] > r.longs[i] else l.doubles[i] > r.doubles[i])
+                    }
+                    GTE -> binary(batch, l, r) { i ->
+                        out.setBoolean(i, if (longs) l.longs[i] >= r.longs[i] else l.doubles[i] >= r.doubles[i])
+                    }
+                    EQ -> when (l.kind) {
+                        Vector.LONG -> binary(batch, l, r) { i -> out.setBoolean(i, l.longs[i] == r.longs[i]) }
+                        Vector.BOOL -> binary(batch, l, r) { i -> out.setBoolean(i, l.booleans[i] == r.booleans[i]) }
+                        // like the comparator, all NaNs are equal
+                        else -> binary(batch, l, r) { i ->
+                            val a = l.doubles[i]
+                            val b = r.doubles[i]
+                            out.setBoolean(i, a == b || (a.isNaN() && b.isNaN()))
+                        }
+                    }
+                    AND -> binary(batch, l, r) { i -> out.setBoolean(i, l.booleans[i] && r.booleans[i]) }
+                    OR -> binary(batch, l, r) { i -> out.setBoolean(i, l.booleans[i] || r.booleans[i]) }
+                    PLUS, MINUS, TIMES -> when (longs) {
+                        true -> binary(batch, l, r) { i ->
+                            val result = arithmetic(kernel, l.longs[i], r.longs[i])
+                            if (result != null) out.setLong(i, result) else call(i)
+                        }
+                        else -> binary(batch, l, r) { i ->
+                            val a = l.doubles[i]
+                            val b = r.doubles[i]
+                            out.setDouble(i, if (kernel == PLUS) a + b else if (kernel == MINUS) a - b else a * b)
+                        }
+                    }
+                }
+            }
+        }
+        return out
+    }
+
+    private inline fun each(batch: Batch, action: (Int) -> Unit) {
+        val selection = batch.selection
+        for (k in 0 until batch.selected) {
+            action(selection[k])
+        }
+    }
+
+    /**
+     * Applies the kernel to the rows whose arguments are both primitive, and invokes the function for the others.
+     */
+    private inline fun binary(batch: Batch, l: Vector, r: Vector, op: (Int) -> Unit) {
+        each(batch) { i ->
+            if (l.isPrimitive(i) && r.isPrimitive(i)) op(i) else call(i)
+        }
+    }
+
+    /**
+     * @return the exact result of the integer arithmetic, or null if it overflows the result type.
+     */
+    private fun arithmetic(kernel: Int, a: Long, b: Long): Long? {
+        if (type.code() == PType.BIGINT) {
+            return try {
+                when (kernel) {
+                    PLUS -> Math.addExact(a, b)
+                    MINUS -> Math.subtractExact(a, b)
+                    else -> Math.multiplyExact(a, b)
+                }
+            } catch (e: ArithmeticException) {
+                null
+            }
+        }
+        // the operands of the smaller types cannot overflow a long
+        val result = when (kernel) {
+            PLUS -> a + b
+            MINUS -> a - b
+            else -> a * b
+        }
+        val fits = when (type.code()) {
+            PType.TINYINT -> result in Byte.MIN_VALUE..Byte.MAX_VALUE
+            PType.SMALLINT -> result in Short.MIN_VALUE..Short.MAX_VALUE
+            else -> result in Int.MIN_VALUE..Int.MAX_VALUE
+        }
+        return if (fits) result else null
+    }
+
+    /**
+     * Invokes the function for the row at [i], with the semantics of the row-at-a-time call: the arguments are
+     * considered in order, and the first which fails, or which is NULL (MISSING) for a null (missing) call, decides.
+     */
+    private fun call(i: Int) {
+        val values = arrayOfNulls<Datum>(args.size)
+        for (j in args.indices) {
+            val arg = vectors[j]!!
+            val error = arg.error(i)
+            if (error != null) {
+                vector.setError(i, error)
+                return
+            }
+            val value = arg.get(i)
+            if (isNullCall && value.isNull) {
+                vector.set(i, Datum.nullValue(type))
+                return
+            }
+            if (isMissingCall && value.isMissing) {
+                vector.set(i, Datum.missing(type))
+                return
+            }
+            values[j] = value
+        }
+        try {
+            @Suppress("UNCHECKED_CAST")
+            vector.set(i, fn.invoke(values as Array<Datum>))
+        } catch (e: Exception) {
+            vector.setError(i, e)
+        }
+    }
+
+    companion object {
+
+        const val NONE = 0
+        const val LT = 1
+        const val LTE = 2
+        const val GT = 3
+        const val GTE = 4
+        const val EQ = 5
+        const val PLUS = 6
+        const val MINUS = 7
+        const val TIMES = 8
+        const val AND = 9
+        const val OR = 10
+        const val NOT = 11
+
+        private const val PREFIX = "\uFDEF"
+
+        /**
+         * @return the kernel of the function for arguments of the given static types, or [NONE].
+         */
+        @JvmStatic
+        fun kernel(fn: Fn, args: List<PType>): Int {
+            val signature = fn.signature
+            val parameters = signature.parameters
+            if (!signature.name.startsWith(PREFIX) || parameters.size != args.size) {
+                return NONE
+            }
+            val kinds = args.map { Vector.kind(it) }
+            // the typed operators require arguments of exactly the parameter types
+            val exact = parameters.indices.all { parameters[it].type.code() == args[it].code() }
+            val kernel = when (signature.name.substring(PREFIX.length)) {
+                "lt" -> LT
+                "lte" -> LTE
+                "gt" -> GT
+                "gte" -> GTE
+                "eq" -> EQ
+                "plus" -> PLUS
+                "minus" -> MINUS
+                "times" -> TIMES
+                "and" -> AND
+                "or" -> OR
+                "not" -> NOT
+                else -> NONE
+            }
+            val applies = when (kernel) {
+                LT, LTE, GT, GTE -> exact && (kinds[0] == Vector.LONG || kinds[0] == Vector.DOUBLE)
+                // equality is dynamically typed; primitives of different types are compared by the function
+                EQ -> kinds[0] != Vector.DATUM && kinds[0] == kinds[1] &&
+                    (kinds[0] == Vector.LONG || args[0].code() == args[1].code())
+                // float arithmetic is not exact when widened to a double
+                PLUS, MINUS, TIMES -> exact && (kinds[0] == Vector.LONG || args[0].code() == PType.DOUBLE) &&
+                    signature.returns.code() == args[0].code()
+                AND, OR -> exact && kinds[0] == Vector.BOOL
+                NOT -> kinds[0] == Vector.BOOL
+                else -> false
+            }
+            return if (applies) kernel else NONE
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.eval.internal.operator.rex.CastTable
+import org.partiql.spi.types.PType
+
+/**
+ * A CAST; see [org.partiql.eval.internal.operator.rex.ExprCast]. Widening casts between the primitive numeric types
+ * are applied to the primitive values; all others are delegated to the [CastTable].
+ */
+internal class BatchCast(
+    private val operand: BatchValue,
+    private val target: PType,
+    capacity: Int,
+) : BatchValue {
+
+    override val type: PType = target
+
+    private val vector = Vector(target, capacity)
+
+    /**
+     * True if the operand's primitive values are unchanged by the cast.
+     */
+    private val widening: Boolean = when (target.code()) {
+        PType.BIGINT -> operand.type.code() in INTEGERS
+        PType.INTEGER -> operand.type.code() in INTEGERS && operand.type.code() != PType.BIGINT
+        PType.DOUBLE -> operand.type.code() in INTEGERS || operand.type.code() == PType.REAL ||
+            operand.type.code() == PType.DOUBLE
+        else -> false
+    }
+
+    override fun eval(batch: Batch): Vector {
+        val values = operand.eval(batch)
+        val selection = batch.selection
+        for (k in 0 until batch.selected) {
+            val i = selection[k]
+            val error = values.error(i)
+            when {
+                error != null -> vector.setError(i, error)
+                widening && values.isPrimitive(i) -> when (values.kind) {
+                    Vector.LONG -> when (vector.kind) {
+                        Vector.LONG -> vector.setLong(i, values.longs[i])
+                        else -> vector.setDouble(i, values.longs[i].toDouble())
+                    }
+                    else -> vector.setDouble(i, values.doubles[i])
+                }
+                else -> try {
+                    vector.set(i, CastTable.cast(values.get(i), target))
+                } catch (e: Exception) {
+                    vector.setError(i, e)
+                }
+            }
+        }
+        return vector
+    }
+
+    private companion object {
+        val INTEGERS = setOf(PType.TINYINT, PType.SMALLINT, PType.INTEGER, PType.BIGINT)
+    }
+}
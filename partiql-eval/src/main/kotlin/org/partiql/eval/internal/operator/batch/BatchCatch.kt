@@ -0,0 +1,29 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.eval.internal.operator.rex.ExprPermissive
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * Replaces the errors of an expression by the MISSING value in permissive mode; see [ExprPermissive].
+ */
+internal class BatchCatch(private val value: BatchValue, capacity: Int) : BatchValue {
+
+    override val type: PType = value.type
+
+    private val vector = Vector(type, capacity)
+
+    override fun eval(batch: Batch): Vector {
+        val values = value.eval(batch)
+        val selection = batch.selection
+        for (k in 0 until batch.selected) {
+            val i = selection[k]
+            val error = values.error(i)
+            when {
+                error != null && ExprPermissive.catches(error) -> vector.set(i, Datum.missing())
+                else -> vector.copy(i, values)
+            }
+        }
+        return vector
+    }
+}
@@ -0,0 +1,53 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.eval.Environment
+import org.partiql.eval.internal.helpers.ValueUtility.isTrue
+
+/**
+ * Narrows the selection of each batch to the rows for which the [predicate] is true.
+ *
+ * A row for which the predicate fails remains selected with the error attached, as the row-at-a-time filter raises it
+ * only once the rows before it have been returned.
+ */
+internal class BatchFilter(
+    private val input: BatchRelation,
+    private val predicate: BatchValue,
+) : BatchRelation {
+
+    override fun open(env: Environment) {
+        input.open(env)
+    }
+
+    override fun next(): Batch? {
+        while (true) {
+            val batch = input.next() ?: return null
+            val values = predicate.eval(batch)
+            val selection = batch.selection
+            var n = 0
+            for (k in 0 until batch.selected) {
+                val i = selection[k]
+                val keep = when {
+                    // the row has already failed in an earlier operator
+                    batch.error(i) != null -> true
+                    values.error(i) != null -> {
+                        batch.setError(i, values.error(i)!!)
+                        true
+                    }
+                    values.kind == Vector.BOOL && values.isPrimitive(i) -> values.booleans[i]
+                    else -> values.get(i).isTrue()
+                }
+                if (keep) {
+                    selection[n++] = i
+                }
+            }
+            batch.selected = n
+            if (n > 0) {
+                return batch
+            }
+        }
+    }
+
+    override fun close() {
+        input.close()
+    }
+}
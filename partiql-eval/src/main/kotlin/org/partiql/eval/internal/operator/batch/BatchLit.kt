@@ -0,0 +1,20 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * A literal; the vector is filled once.
+ */
+internal class BatchLit(value: Datum, override val type: PType, capacity: Int) : BatchValue {
+
+    private val vector = Vector(type, capacity)
+
+    init {
+        for (i in 0 until capacity) {
+            vector.set(i, value)
+        }
+    }
+
+    override fun eval(batch: Batch): Vector = vector
+}
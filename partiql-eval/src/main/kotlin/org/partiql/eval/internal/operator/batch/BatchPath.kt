@@ -0,0 +1,62 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.eval.internal.helpers.ValueUtility.checkStruct
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * A path step with a literal key or symbol; see [org.partiql.eval.internal.operator.rex.ExprPathKey] and
+ * [org.partiql.eval.internal.operator.rex.ExprPathSymbol].
+ *
+ * Like [BatchVar], the vector is evaluated once per batch.
+ *
+ * @property insensitive true for a symbol (case-insensitive lookup), false for a key.
+ */
+internal class BatchPath(
+    private val root: BatchValue,
+    private val key: String,
+    private val insensitive: Boolean,
+    override val type: PType,
+    capacity: Int,
+) : BatchValue {
+
+    private val vector = Vector(type, capacity)
+    private var batch: Batch? = null
+    private var sequence: Long = -1
+
+    override fun eval(batch: Batch): Vector {
+        if (this.batch === batch && sequence == batch.sequence) {
+            return vector
+        }
+        val roots = root.eval(batch)
+        val selection = batch.selection
+        for (k in 0 until batch.selected) {
+            val i = selection[k]
+            val error = roots.error(i)
+            if (error != null) {
+                vector.setError(i, error)
+                continue
+            }
+            try {
+                vector.set(i, step(roots.get(i)))
+            } catch (e: Exception) {
+                vector.setError(i, e)
+            }
+        }
+        this.batch = batch
+        this.sequence = batch.sequence
+        return vector
+    }
+
+    private fun step(value: Datum): Datum {
+        val struct = value.checkStruct()
+        if (struct.isNull) {
+            return Datum.nullValue()
+        }
+        return when (insensitive) {
+            true -> struct.getInsensitive(key) ?: throw PErrors.pathSymbolFailureException()
+            else -> struct.get(key) ?: throw PErrors.pathKeyFailureException()
+        }
+    }
+}
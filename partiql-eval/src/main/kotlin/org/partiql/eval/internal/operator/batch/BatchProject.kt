@@ -0,0 +1,26 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.eval.Environment
+
+/**
+ * Sets the output columns of each batch to the values of the [projections].
+ */
+internal class BatchProject(
+    private val input: BatchRelation,
+    private val projections: Array<BatchValue>,
+) : BatchRelation {
+
+    override fun open(env: Environment) {
+        input.open(env)
+    }
+
+    override fun next(): Batch? {
+        val batch = input.next() ?: return null
+        batch.columns = Array(projections.size) { projections[it].eval(batch) }
+        return batch
+    }
+
+    override fun close() {
+        input.close()
+    }
+}
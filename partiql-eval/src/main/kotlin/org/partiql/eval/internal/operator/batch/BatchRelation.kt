@@ -0,0 +1,19 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.eval.Environment
+
+/**
+ * A relational operator which produces rows a [Batch] at a time.
+ */
+internal interface BatchRelation {
+
+    fun open(env: Environment)
+
+    /**
+     * @return the next batch with at least one selected row, or null once the input is exhausted. The batch is only
+     * valid until the next call.
+     */
+    fun next(): Batch?
+
+    fun close()
+}
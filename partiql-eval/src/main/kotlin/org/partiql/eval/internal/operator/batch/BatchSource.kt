@@ -0,0 +1,56 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+
+/**
+ * Gathers the rows of a row-at-a-time [input] into batches.
+ *
+ * If the input fails, the rows before the failure are returned first, and the error is raised by the following call
+ * to [next]; this way, a consumer which stops early (think LIMIT) sees the same result as it would row-at-a-time.
+ */
+internal class BatchSource(private val input: ExprRelation, capacity: Int) : BatchRelation {
+
+    private val batch = Batch(capacity)
+    private var error: Exception? = null
+    private var done = false
+
+    override fun open(env: Environment) {
+        batch.env = env
+        error = null
+        done = false
+        input.open(env)
+    }
+
+    override fun next(): Batch? {
+        error?.let {
+            error = null
+            done = true
+            throw it
+        }
+        if (done) {
+            return null
+        }
+        var n = 0
+        try {
+            while (n < batch.capacity && input.hasNext()) {
+                batch.rows[n++] = input.next()
+            }
+        } catch (e: Exception) {
+            error = e
+        }
+        if (n < batch.capacity && error == null) {
+            done = true
+        }
+        if (n == 0) {
+            return next()
+        }
+        batch.reset(n)
+        return batch
+    }
+
+    override fun close() {
+        batch.rows.fill(null)
+        input.close()
+    }
+}
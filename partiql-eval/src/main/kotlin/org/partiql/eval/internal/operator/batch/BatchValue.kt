@@ -0,0 +1,20 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.spi.types.PType
+
+/**
+ * An expression which is evaluated a [Batch] at a time.
+ */
+internal interface BatchValue {
+
+    /**
+     * The static type of the values.
+     */
+    val type: PType
+
+    /**
+     * Evaluates the expression for the selected rows of the batch; the values of other rows are undefined. The vector
+     * is owned by this expression and is only valid until the next call.
+     */
+    fun eval(batch: Batch): Vector
+}
@@ -0,0 +1,44 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.spi.types.PType
+
+/**
+ * A variable reference; see [org.partiql.eval.internal.operator.rex.ExprVar]. A variable of the batch's own scope
+ * (depth 0) is a column of its rows; a variable of an enclosing scope has the same value for every row.
+ *
+ * The vector is evaluated once per batch, as the same variable is typically referenced by several operators.
+ */
+internal class BatchVar(
+    private val depth: Int,
+    private val offset: Int,
+    override val type: PType,
+    capacity: Int,
+) : BatchValue {
+
+    private val vector = Vector(type, capacity)
+    private var batch: Batch? = null
+    private var sequence: Long = -1
+
+    override fun eval(batch: Batch): Vector {
+        if (this.batch === batch && sequence == batch.sequence) {
+            return vector
+        }
+        val selection = batch.selection
+        if (depth == 0) {
+            val rows = batch.rows
+            for (k in 0 until batch.selected) {
+                val i = selection[k]
+                vector.set(i, rows[i]!!.values[offset])
+            }
+        } else {
+            // the batch is evaluated in a new scope, so the batch environment is one level out
+            val value = batch.env.get(depth - 1, offset)
+            for (k in 0 until batch.selected) {
+                vector.set(selection[k], value)
+            }
+        }
+        this.batch = batch
+        this.sequence = batch.sequence
+        return vector
+    }
+}
@@ -0,0 +1,161 @@
+package org.partiql.eval.internal.operator.batch
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * A column of values, one per row of a [Batch]. Values of the fixed-width numeric and boolean types are held unboxed
+ * in a primitive array of the vector's [kind]; all other values (including null, missing, and values whose runtime
+ * type differs from the vector's [type]) are held as a [Datum].
+ *
+ * An expression which fails for a row records the error in its vector rather than throwing, so that the error can be
+ * raised (or caught, in permissive mode) when, and only if, the row-at-a-time evaluator would have raised it.
+ *
+ * @property type the static type of the values.
+ * @property capacity the number of rows.
+ */
+internal class Vector(
+    @JvmField val type: PType,
+    @JvmField val capacity: Int,
+) {
+
+    /**
+     * The primitive representation of the values; one of [LONG], [DOUBLE], [BOOL], or [DATUM].
+     */
+    @JvmField
+    val kind: Int = kind(type)
+
+    @JvmField
+    val longs: LongArray = LongArray(if (kind == LONG) capacity else 0)
+
+    @JvmField
+    val doubles: DoubleArray = DoubleArray(if (kind == DOUBLE) capacity else 0)
+
+    @JvmField
+    val booleans: BooleanArray = BooleanArray(if (kind == BOOL) capacity else 0)
+
+    /**
+     * True if the value at the index is held in [datums] rather than in a primitive array.
+     */
+    private val boxed: BooleanArray = BooleanArray(capacity)
+
+    private val datums: Array<Datum?> = arrayOfNulls(capacity)
+
+    private var errors: Array<Throwable?>? = null
+
+    /**
+     * @return true if the value at [i] is held in the primitive array of this vector's [kind].
+     */
+    fun isPrimitive(i: Int): Boolean = !boxed[i]
+
+    /**
+     * @return the error recorded for [i], or null.
+     */
+    fun error(i: Int): Throwable? = errors?.get(i)
+
+    fun setLong(i: Int, value: Long) {
+        clear(i)
+        longs[i] = value
+    }
+
+    fun setDouble(i: Int, value: Double) {
+        clear(i)
+        doubles[i] = value
+    }
+
+    fun setBoolean(i: Int, value: Boolean) {
+        clear(i)
+        booleans[i] = value
+    }
+
+    /**
+     * Sets the value at [i], unboxing it if its type is exactly this vector's type.
+     */
+    fun set(i: Int, value: Datum) {
+        errors?.set(i, null)
+        val unbox = kind != DATUM && !value.isNull && !value.isMissing && value.type.code() == type.code()
+        if (!unbox) {
+            boxed[i] = true
+            datums[i] = value
+            return
+        }
+        boxed[i] = false
+        datums[i] = null
+        when (type.code()) {
+            PType.TINYINT -> longs[i] = value.byte.toLong()
+            PType.SMALLINT -> longs[i] = value.short.toLong()
+            PType.INTEGER -> longs[i] = value.int.toLong()
+            PType.BIGINT -> longs[i] = value.long
+            PType.REAL -> doubles[i] = value.float.toDouble()
+            PType.DOUBLE -> doubles[i] = value.double
+            PType.BOOL -> booleans[i] = value.boolean
+        }
+    }
+
+    /**
+     * Records the error for [i]; it is thrown by [get].
+     */
+    fun setError(i: Int, error: Throwable) {
+        val errors = errors ?: arrayOfNulls<Throwable>(capacity).also { errors = it }
+        errors[i] = error
+        boxed[i] = true
+        datums[i] = null
+    }
+
+    /**
+     * Copies the value (or error) at [i] of [other], which has the same type, to this vector.
+     */
+    fun copy(i: Int, other: Vector) {
+        val error = other.error(i)
+        when {
+            error != null -> setError(i, error)
+            !other.isPrimitive(i) -> set(i, other.datums[i]!!)
+            kind == LONG -> setLong(i, other.longs[i])
+            kind == DOUBLE -> setDouble(i, other.doubles[i])
+            kind == BOOL -> setBoolean(i, other.booleans[i])
+        }
+    }
+
+    /**
+     * @return the value at [i] as a [Datum].
+     * @throws Throwable the error recorded for [i], if any.
+     */
+    fun get(i: Int): Datum {
+        errors?.get(i)?.let { throw it }
+        if (boxed[i]) {
+            return datums[i]!!
+        }
+        return when (type.code()) {
+            PType.TINYINT -> Datum.tinyint(longs[i].toByte())
+            PType.SMALLINT -> Datum.smallint(longs[i].toShort())
+            PType.INTEGER -> Datum.integer(longs[i].toInt())
+            PType.BIGINT -> Datum.bigint(longs[i])
+            PType.REAL -> Datum.real(doubles[i].toFloat())
+            PType.DOUBLE -> Datum.doublePrecision(doubles[i])
+            PType.BOOL -> Datum.bool(booleans[i])
+            else -> error("Vector of type $type has no primitive representation")
+        }
+    }
+
+    private fun clear(i: Int) {
+        errors?.set(i, null)
+        boxed[i] = false
+        datums[i] = null
+    }
+
+    companion object {
+
+        const val DATUM = 0
+        const val LONG = 1
+        const val DOUBLE = 2
+        const val BOOL = 3
+
+        @JvmStatic
+        fun kind(type: PType): Int = when (type.code()) {
+            PType.TINYINT, PType.SMALLINT, PType.INTEGER, PType.BIGINT -> LONG
+            PType.REAL, PType.DOUBLE -> DOUBLE
+            PType.BOOL -> BOOL
+            else -> DATUM
+        }
+    }
+}
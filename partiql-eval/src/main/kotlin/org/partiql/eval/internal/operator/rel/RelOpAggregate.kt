@@ -35,11 +35,11 @@ internal class RelOpAggregate(
     override fun open(env: Environment) {
         input.open(env)
         for (inputRecord in input) {
+            val scope = env.push(inputRecord)
 
             // Initialize the AggregationMap
             val evaluatedGroupByKeys = Array(groups.size) { keyIndex ->
-                val env = env.push(inputRecord)
-                val key = groups[keyIndex].eval(env)
+                val key = groups[keyIndex].eval(scope)
                 when (key.isMissing) {
                     true -> Datum.nullValue()
                     false -> key
@@ -59,7 +59,7 @@ internal class RelOpAggregate(
             // Aggregate Values in Aggregation State
             accumulators.forEachIndexed { index, function ->
                 val arguments = Array(function.args.size) {
-                    val argument = function.args[it].eval(env.push(inputRecord))
+                    val argument = function.args[it].eval(scope)
                     // Skip over aggregation if NULL/MISSING
                     if (argument.isNull || argument.isMissing) {
                         return@forEachIndexed
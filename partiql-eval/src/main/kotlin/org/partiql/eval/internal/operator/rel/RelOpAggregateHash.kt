@@ -0,0 +1,206 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Row
+import org.partiql.eval.internal.helpers.DatumArrayKey
+import org.partiql.eval.internal.operator.Aggregate
+import org.partiql.eval.internal.spill.DatumSize
+import org.partiql.eval.internal.spill.SpillConfig
+import org.partiql.eval.internal.spill.SpillPartitions
+import org.partiql.spi.function.Accumulator
+import org.partiql.spi.value.Datum
+
+/**
+ * Hash-based implementation of the aggregate operator. Unlike [RelOpAggregate], which keys groups in a tree ordered
+ * by the group keys, this keys groups in a hash table using [DatumArrayKey]; therefore, the groups are emitted in no
+ * particular order.
+ *
+ * This is a hybrid hash aggregation. Once the estimated size of the group table exceeds the [spill] budget, rows
+ * which do not belong to an existing group are evaluated and written to one of several partition files (by the hash
+ * of their group keys) rather than creating new groups. After the in-memory groups are emitted, each partition is
+ * aggregated in turn, and may itself be partitioned again using different bits of the hash.
+ *
+ * Note: the DISTINCT state of existing groups continues to grow after the budget is exceeded.
+ */
+internal class RelOpAggregateHash(
+    private val input: ExprRelation,
+    private val aggregates: List<Aggregate>,
+    private val groups: List<ExprValue>,
+    private val spill: SpillConfig,
+) : ExprRelation {
+
+    private lateinit var records: Iterator<Row>
+
+    /**
+     * All partitions created since [open]; these are removed on [close].
+     */
+    private val spilled = mutableListOf<SpillPartitions>()
+
+    /**
+     * An evaluated record is the group keys followed by the arguments of each aggregate; this holds the offset of each
+     * aggregate's arguments, and the record width as the last element.
+     */
+    private val offsets = IntArray(aggregates.size + 1).also {
+        it[0] = groups.size
+        for (i in aggregates.indices) {
+            it[i + 1] = it[i] + aggregates[i].args.size
+        }
+    }
+
+    /**
+     * The arguments of all aggregates, in record order.
+     */
+    private val arguments: Array<ExprValue> = aggregates.flatMap { it.args }.toTypedArray()
+
+    /**
+     * Wraps an [Accumulator] to help with filtering distinct values.
+     *
+     * @property seen maintains which values have already been seen. If null, we accumulate all values coming through.
+     */
+    class AccumulatorWrapper(
+        val delegate: Accumulator,
+        val seen: HashSet<DatumArrayKey>?
+    )
+
+    override fun open(env: Environment) {
+        input.open(env)
+        val pass = Pass(0)
+        for (inputRecord in input) {
+            val scope = env.push(inputRecord)
+            val record = Array(offsets.last()) { i ->
+                when {
+                    i < groups.size -> groups[i].eval(scope)
+                    else -> arguments[i - groups.size].eval(scope)
+                }
+            }
+            pass.add(record)
+        }
+
+        // No Aggregations Created
+        if (groups.isEmpty() && pass.table.isEmpty()) {
+            val record = Array<Datum?>(aggregates.size) {
+                val function = aggregates[it]
+                val accumulator = function.agg.accumulator
+                accumulator.value()
+            }
+            records = iterator { yield(Row(record)) }
+            return
+        }
+
+        records = emit(pass)
+    }
+
+    override fun hasNext(): Boolean {
+        return records.hasNext()
+    }
+
+    override fun next(): Row {
+        return records.next()
+    }
+
+    override fun close() {
+        records = emptyList<Row>().iterator()
+        spilled.forEach { it.delete() }
+        spilled.clear()
+        input.close()
+    }
+
+    /**
+     * Emit all in-memory groups of the pass, then recursively aggregate each of its partitions.
+     */
+    private fun emit(pass: Pass): Iterator<Row> = iterator {
+        for ((keysEvaluated, accumulators) in pass.table) {
+            val accumulatorValues = Array(accumulators.size) { i -> accumulators[i].delegate.value() }
+            val recordValues = accumulatorValues + keysEvaluated.values
+            yield(Row(recordValues))
+        }
+        pass.table.clear()
+        val partitions = pass.partitions ?: return@iterator
+        for (i in 0 until SpillPartitions.FANOUT) {
+            val partition = partitions[i] ?: continue
+            val next = Pass(pass.level + 1)
+            for (record in partition.read()) {
+                next.add(record)
+            }
+            partition.delete()
+            yieldAll(emit(next))
+        }
+    }
+
+    /**
+     * A single aggregation pass over evaluated records.
+     *
+     * @property level the recursion depth, which determines the hash bits used for partitioning.
+     */
+    private inner class Pass(val level: Int) {
+
+        val table = HashMap<DatumArrayKey, Array<AccumulatorWrapper>>()
+
+        var partitions: SpillPartitions? = null
+
+        private var bytes: Long = 0
+
+        fun add(record: Array<Datum>) {
+            // Coerce MISSING group keys to NULL per the grouping function
+            val keys = Array(groups.size) { i ->
+                val key = record[i]
+                when (key.isMissing) {
+                    true -> Datum.nullValue()
+                    false -> key
+                }
+            }
+            val key = DatumArrayKey(keys)
+            var accumulators = table[key]
+            if (accumulators == null) {
+                if (level < SpillPartitions.MAX_LEVEL && spill.exceeded(bytes)) {
+                    val partitions = this.partitions ?: SpillPartitions(spill, level).also {
+                        this.partitions = it
+                        spilled.add(it)
+                    }
+                    partitions.write(key.hashCode(), record)
+                    return
+                }
+                accumulators = Array(aggregates.size) {
+                    val aggregate = aggregates[it]
+                    AccumulatorWrapper(
+                        delegate = aggregate.agg.accumulator,
+                        seen = if (aggregate.distinct) HashSet() else null
+                    )
+                }
+                table[key] = accumulators
+                bytes += GROUP_OVERHEAD + DatumSize.estimate(keys)
+            }
+
+            // Aggregate Values in Aggregation State
+            accumulators.forEachIndexed { index, function ->
+                val from = offsets[index]
+                val args = Array(offsets[index + 1] - from) {
+                    val argument = record[from + it]
+                    // Skip over aggregation if NULL/MISSING
+                    if (argument.isNull || argument.isMissing) {
+                        return@forEachIndexed
+                    }
+                    argument
+                }
+                // Skip over aggregation if DISTINCT and SEEN
+                if (function.seen != null) {
+                    if (function.seen.add(DatumArrayKey(args)).not()) {
+                        return@forEachIndexed
+                    }
+                    bytes += DatumSize.estimate(args)
+                }
+                function.delegate.next(args)
+            }
+        }
+    }
+
+    private companion object {
+
+        /**
+         * Rough per-group overhead of the hash entry, the accumulator array, and the accumulators themselves.
+         */
+        const val GROUP_OVERHEAD: Long = 128
+    }
+}
@@ -0,0 +1,44 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.Row
+import org.partiql.eval.internal.operator.batch.Batch
+import org.partiql.eval.internal.operator.batch.BatchRelation
+
+/**
+ * Returns the selected rows of a batch pipeline one at a time, so that it can be consumed by any other operator. The
+ * output columns of the batch (if any) are boxed into a new row; otherwise the input rows are returned as-is.
+ *
+ * An error attached to a row (or to one of its columns) is raised once that row is reached, just as the
+ * row-at-a-time operators would have raised it.
+ */
+internal class RelOpBatch(private val input: BatchRelation) : RelOpPeeking() {
+
+    private var batch: Batch? = null
+    private var k = 0
+
+    override fun openPeeking(env: Environment) {
+        batch = null
+        k = 0
+        input.open(env)
+    }
+
+    override fun peek(): Row? {
+        while (true) {
+            val batch = batch
+            if (batch != null && k < batch.selected) {
+                val i = batch.selection[k++]
+                batch.error(i)?.let { throw it }
+                val columns = batch.columns ?: return batch.rows[i]
+                return Row(Array(columns.size) { columns[it].get(i) })
+            }
+            this.batch = input.next() ?: return null
+            k = 0
+        }
+    }
+
+    override fun closePeeking() {
+        batch = null
+        input.close()
+    }
+}
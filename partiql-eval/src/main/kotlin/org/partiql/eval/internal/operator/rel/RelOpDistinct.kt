@@ -3,30 +3,36 @@ package org.partiql.eval.internal.operator.rel
 import org.partiql.eval.Environment
 import org.partiql.eval.ExprRelation
 import org.partiql.eval.Row
-import org.partiql.eval.internal.helpers.DatumArrayComparator
-import java.util.TreeSet
+import org.partiql.eval.internal.helpers.DatumArrayCounter
+import org.partiql.eval.internal.spill.SpillConfig
+import java.util.Collections
 
-internal class RelOpDistinct(private val input: ExprRelation) : RelOpPeeking() {
+/**
+ * Returns the first record of each distinct record of the [input], as it is seen.
+ */
+internal class RelOpDistinct(
+    private val input: ExprRelation,
+    spill: SpillConfig,
+) : RelOpSetHash(spill) {
 
-    private val seen = TreeSet(DatumArrayComparator)
+    override val insert: Boolean = true
 
-    override fun openPeeking(env: Environment) {
-        input.open(env)
-    }
+    override val coerce: Boolean = false
 
-    override fun peek(): Row? {
-        for (next in input) {
-            val transformed = Array(next.values.size) { next.values[it] }
-            if (seen.contains(transformed).not()) {
-                seen.add(transformed)
-                return next
-            }
-        }
-        return null
+    override fun openInputs(env: Environment) {
+        input.open(env)
     }
 
-    override fun closePeeking() {
-        seen.clear()
+    override fun closeInputs() {
         input.close()
     }
+
+    override fun build(): Iterator<Row> = Collections.emptyIterator()
+
+    override fun probe(): Iterator<Row> = input
+
+    /**
+     * The record has already been seen.
+     */
+    override fun accept(counts: DatumArrayCounter, slot: Int): Boolean = false
 }
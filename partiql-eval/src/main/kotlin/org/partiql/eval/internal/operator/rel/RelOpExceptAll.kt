@@ -3,57 +3,40 @@ package org.partiql.eval.internal.operator.rel
 import org.partiql.eval.Environment
 import org.partiql.eval.ExprRelation
 import org.partiql.eval.Row
-import org.partiql.eval.internal.helpers.DatumArrayComparator
-import org.partiql.eval.internal.helpers.RecordUtility.coerceMissing
-import org.partiql.spi.value.Datum
-import java.util.TreeMap
+import org.partiql.eval.internal.helpers.DatumArrayCounter
+import org.partiql.eval.internal.spill.SpillConfig
 
 internal class RelOpExceptAll(
     private val lhs: ExprRelation,
     private val rhs: ExprRelation,
-) : RelOpPeeking() {
+    spill: SpillConfig,
+) : RelOpSetHash(spill) {
 
-    private val seen = TreeMap<Array<Datum>, Int>(DatumArrayComparator)
-    private var init: Boolean = false
-
-    override fun openPeeking(env: Environment) {
+    override fun openInputs(env: Environment) {
         lhs.open(env)
         rhs.open(env)
-        init = false
-        seen.clear()
-    }
-
-    override fun peek(): Row? {
-        if (!init) {
-            seed()
-        }
-        for (row in lhs) {
-            row.values.coerceMissing()
-            val remaining = seen[row.values] ?: 0
-            if (remaining > 0) {
-                seen[row.values] = remaining - 1
-                continue
-            }
-            return Row(row.values)
-        }
-        return null
     }
 
-    override fun closePeeking() {
+    override fun closeInputs() {
         lhs.close()
         rhs.close()
-        seen.clear()
     }
 
     /**
      * Read the entire right-hand-side into our search structure.
      */
-    private fun seed() {
-        init = true
-        for (row in rhs) {
-            row.values.coerceMissing()
-            val n = seen[row.values] ?: 0
-            seen[row.values] = n + 1
+    override fun build(): Iterator<Row> = rhs
+
+    override fun probe(): Iterator<Row> = lhs
+
+    /**
+     * Each record of the right-hand-side removes one matching record of the left-hand-side.
+     */
+    override fun accept(counts: DatumArrayCounter, slot: Int): Boolean {
+        if (slot >= 0 && counts.count(slot) > 0) {
+            counts.set(slot, counts.count(slot) - 1)
+            return false
         }
+        return true
     }
 }
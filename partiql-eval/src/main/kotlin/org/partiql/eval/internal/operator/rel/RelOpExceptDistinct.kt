@@ -3,9 +3,8 @@ package org.partiql.eval.internal.operator.rel
 import org.partiql.eval.Environment
 import org.partiql.eval.ExprRelation
 import org.partiql.eval.Row
-import org.partiql.eval.internal.helpers.DatumArrayComparator
-import org.partiql.eval.internal.helpers.RecordUtility.coerceMissing
-import java.util.TreeSet
+import org.partiql.eval.internal.helpers.DatumArrayCounter
+import org.partiql.eval.internal.spill.SpillConfig
 
 /**
  * Non-communicative, this performs better when [lhs] is larger than [rhs].
@@ -16,44 +15,25 @@ import java.util.TreeSet
 internal class RelOpExceptDistinct(
     private val lhs: ExprRelation,
     private val rhs: ExprRelation,
-) : RelOpPeeking() {
+    spill: SpillConfig,
+) : RelOpSetHash(spill) {
 
-    private var seen = TreeSet(DatumArrayComparator)
-    private var init: Boolean = false
-
-    override fun openPeeking(env: Environment) {
+    override fun openInputs(env: Environment) {
         lhs.open(env)
         rhs.open(env)
-        init = false
-    }
-
-    override fun peek(): Row? {
-        if (!init) {
-            seed()
-        }
-        for (row in lhs) {
-            row.values.coerceMissing()
-            if (!seen.contains(row.values)) {
-                return Row(row.values)
-            }
-        }
-        return null
     }
 
-    override fun closePeeking() {
+    override fun closeInputs() {
         lhs.close()
         rhs.close()
-        seen.clear()
     }
 
     /**
      * Read the entire right-hand-side into our search structure.
      */
-    private fun seed() {
-        init = true
-        for (row in rhs) {
-            row.values.coerceMissing()
-            seen.add(row.values)
-        }
-    }
+    override fun build(): Iterator<Row> = rhs
+
+    override fun probe(): Iterator<Row> = lhs
+
+    override fun accept(counts: DatumArrayCounter, slot: Int): Boolean = slot < 0
 }
@@ -11,10 +11,13 @@ internal class RelOpFilter(
     val expr: ExprValue
 ) : RelOpPeeking() {
 
-    private lateinit var env: Environment
+    /**
+     * The scope of the predicate, which is consumed as it is evaluated; so one frame serves every row.
+     */
+    private lateinit var frame: Environment
 
     override fun openPeeking(env: Environment) {
-        this.env = env
+        this.frame = env.frame()
         input.open(env)
     }
 
@@ -32,7 +35,7 @@ internal class RelOpFilter(
     }
 
     private fun conditionIsTrue(row: Row, expr: ExprValue): Boolean {
-        val condition = expr.eval(env.push(row))
+        val condition = expr.eval(frame.set(row))
         return condition.isTrue()
     }
 }
@@ -0,0 +1,68 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.Row
+import org.partiql.eval.internal.parallel.Channel
+import org.partiql.eval.internal.parallel.ParallelConfig
+import org.partiql.eval.internal.parallel.Region
+import org.partiql.eval.internal.parallel.Stage
+
+/**
+ * Gather is the root of a parallel region: it runs each of its [partitions] on a worker thread, and returns their
+ * rows in no particular order. The partitions are copies of the same operators over disjoint parts of the input,
+ * whose leaves read from the region's [stages] (think the splits of a table, or the consumers of an exchange).
+ *
+ * The rows are handed over through a bounded [Channel], so the partitions wait while the consuming thread falls
+ * behind. Closing the gather (think a LIMIT) cancels the region.
+ */
+internal class RelOpGather(
+    private val partitions: List<ExprRelation>,
+    private val stages: List<Stage>,
+    private val parallel: ParallelConfig,
+) : RelOpPeeking() {
+
+    private var region: Region? = null
+
+    private lateinit var channel: Channel<Row>
+
+    override fun openPeeking(env: Environment) {
+        val region = Region(parallel, env)
+        this.region = region
+        channel = Channel(region, partitions.size)
+        stages.forEach { it.start(region) }
+        for (partition in partitions) {
+            region.submit {
+                val writer = channel.writer()
+                partition.open(env)
+                try {
+                    for (row in partition) {
+                        writer.add(row)
+                    }
+                } finally {
+                    partition.close()
+                }
+                writer.finish()
+            }
+        }
+    }
+
+    override fun peek(): Row? {
+        if (region == null) {
+            return null
+        }
+        try {
+            return channel.take()
+        } catch (t: Throwable) {
+            // stop the region now, as the caller need not close the gather after a failure
+            closePeeking()
+            throw t
+        }
+    }
+
+    override fun closePeeking() {
+        val region = this.region ?: return
+        this.region = null
+        region.cancel()
+    }
+}
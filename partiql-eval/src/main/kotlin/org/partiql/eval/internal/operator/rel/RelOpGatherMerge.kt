@@ -0,0 +1,130 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.Row
+import org.partiql.eval.internal.parallel.Channel
+import org.partiql.eval.internal.parallel.ParallelConfig
+import org.partiql.eval.internal.parallel.Region
+import org.partiql.eval.internal.parallel.Stage
+import org.partiql.spi.value.Datum
+import java.util.PriorityQueue
+
+/**
+ * A merging gather is the root of a parallel region whose [partitions] are sorted (think ORDER BY over a parallel
+ * scan); it returns their rows in the order of the [collations] by merging the partitions as they arrive.
+ *
+ * Each partition runs on a worker thread, which also evaluates the sort keys of its rows with its own copy of the
+ * collations, and hands them over through its own bounded [Channel]. See [RelOpGather].
+ *
+ * @property collations the collations of each partition, in the order of [partitions].
+ */
+internal class RelOpGatherMerge(
+    private val partitions: List<ExprRelation>,
+    private val collations: List<List<RelOpSort.Collation>>,
+    private val stages: List<Stage>,
+    private val parallel: ParallelConfig,
+) : RelOpPeeking() {
+
+    private val keyComparator = RelOpSort.KeyComparator(collations[0])
+
+    private val queue = PriorityQueue<Cursor>(partitions.size) { l, r ->
+        val cmp = keyComparator.compare(l.head.keys, r.head.keys)
+        if (cmp != 0) cmp else l.index.compareTo(r.index)
+    }
+
+    private val cursors = mutableListOf<Cursor>()
+
+    private var region: Region? = null
+
+    private var init = false
+
+    override fun openPeeking(env: Environment) {
+        val region = Region(parallel, env)
+        this.region = region
+        init = false
+        queue.clear()
+        cursors.clear()
+        stages.forEach { it.start(region) }
+        partitions.forEachIndexed { i, partition ->
+            val channel = Channel<Entry>(region, 1)
+            cursors.add(Cursor(i, channel, HEAD))
+            region.submit {
+                val writer = channel.writer()
+                val exprs = collations[i].map { it.expr }
+                partition.open(env)
+                try {
+                    for (row in partition) {
+                        val scope = env.push(row)
+                        writer.add(Entry(Array(exprs.size) { exprs[it].eval(scope) }, row))
+                    }
+                } finally {
+                    partition.close()
+                }
+                writer.finish()
+            }
+        }
+    }
+
+    override fun peek(): Row? {
+        if (region == null) {
+            return null
+        }
+        try {
+            return merge()
+        } catch (t: Throwable) {
+            // stop the region now, as the caller need not close the gather after a failure
+            closePeeking()
+            throw t
+        }
+    }
+
+    private fun merge(): Row? {
+        if (!init) {
+            // wait for the first entry of each partition
+            for (cursor in cursors) {
+                cursor.head = cursor.channel.take() ?: continue
+                queue.add(cursor)
+            }
+            init = true
+        }
+        val cursor = queue.poll() ?: return null
+        val row = cursor.head.row
+        val head = cursor.channel.take()
+        if (head != null) {
+            cursor.head = head
+            queue.add(cursor)
+        }
+        return row
+    }
+
+    override fun closePeeking() {
+        val region = this.region ?: return
+        this.region = null
+        queue.clear()
+        cursors.clear()
+        region.cancel()
+    }
+
+    /**
+     * A row and its evaluated sort keys.
+     */
+    private class Entry(
+        @JvmField val keys: Array<Datum>,
+        @JvmField val row: Row,
+    )
+
+    private class Cursor(
+        @JvmField val index: Int,
+        @JvmField val channel: Channel<Entry>,
+        @JvmField var head: Entry,
+    )
+
+    private companion object {
+
+        /**
+         * The head of a cursor before its first entry is taken.
+         */
+        val HEAD = Entry(emptyArray(), Row())
+    }
+}
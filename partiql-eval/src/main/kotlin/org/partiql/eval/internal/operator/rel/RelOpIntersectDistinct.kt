@@ -3,52 +3,40 @@ package org.partiql.eval.internal.operator.rel
 import org.partiql.eval.Environment
 import org.partiql.eval.ExprRelation
 import org.partiql.eval.Row
-import org.partiql.eval.internal.helpers.DatumArrayComparator
-import org.partiql.eval.internal.helpers.RecordUtility.coerceMissing
-import java.util.TreeSet
+import org.partiql.eval.internal.helpers.DatumArrayCounter
+import org.partiql.eval.internal.spill.SpillConfig
 
 internal class RelOpIntersectDistinct(
     private val lhs: ExprRelation,
     private val rhs: ExprRelation,
-) : RelOpPeeking() {
+    spill: SpillConfig,
+) : RelOpSetHash(spill) {
 
-    private val seen = TreeSet(DatumArrayComparator)
-    private var init: Boolean = false
-
-    override fun openPeeking(env: Environment) {
+    override fun openInputs(env: Environment) {
         lhs.open(env)
         rhs.open(env)
-        init = false
-        seen.clear()
-    }
-
-    override fun peek(): Row? {
-        if (!init) {
-            seed()
-        }
-        for (row in rhs) {
-            row.values.coerceMissing()
-            if (seen.remove(row.values)) {
-                return Row(row.values)
-            }
-        }
-        return null
     }
 
-    override fun closePeeking() {
+    override fun closeInputs() {
         lhs.close()
         rhs.close()
-        seen.clear()
     }
 
     /**
      * Read the entire left-hand-side into our search structure.
      */
-    private fun seed() {
-        init = true
-        for (row in lhs) {
-            row.values.coerceMissing()
-            seen.add(row.values)
+    override fun build(): Iterator<Row> = lhs
+
+    override fun probe(): Iterator<Row> = rhs
+
+    /**
+     * Each distinct record of the left-hand-side matches the first matching record of the right-hand-side.
+     */
+    override fun accept(counts: DatumArrayCounter, slot: Int): Boolean {
+        if (slot >= 0 && counts.count(slot) > 0) {
+            counts.set(slot, 0)
+            return true
         }
+        return false
     }
 }
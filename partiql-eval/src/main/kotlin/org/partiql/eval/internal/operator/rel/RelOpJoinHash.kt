@@ -0,0 +1,208 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Row
+import org.partiql.eval.internal.helpers.DatumArrayKey
+import org.partiql.eval.internal.helpers.ValueUtility.isTrue
+import org.partiql.plan.JoinType
+import org.partiql.plan.rel.RelType
+import org.partiql.spi.value.Datum
+import java.util.BitSet
+
+/**
+ * Hash Join returns all joined records from the [lhs] and [rhs] whose [lhsKeys] and [rhsKeys] are pairwise equal and
+ * for which every [conditions] evaluates to true; outer join types also return the unmatched records of the preserved
+ * side(s) along with a NULL record.
+ *
+ * This is only applicable when the join condition is a conjunction that includes equalities between the two sides,
+ * and the [rhs] is not lateral (it does not reference the [lhs]). Records are bucketed by their keys, so two records
+ * are only compared when their keys are equal according to [Datum.comparator]; a NULL or MISSING key never matches.
+ *
+ * The [lhsKeys] are evaluated with the [lhs] record. To keep variable offsets of the plan, the [rhsKeys] are evaluated
+ * with a NULL [lhs] record followed by the [rhs] record. Records are only concatenated when they are returned; the
+ * conditions of a candidate pair are evaluated with a scope over both records, see [Environment.set].
+ *
+ * @property type the join type, see [JoinType].
+ */
+internal class RelOpJoinHash(
+    private val lhs: ExprRelation,
+    private val rhs: ExprRelation,
+    private val lhsKeys: List<ExprValue>,
+    private val rhsKeys: List<ExprValue>,
+    private val conditions: List<ExprValue>,
+    private val type: Int,
+    lhsType: RelType,
+    rhsType: RelType,
+) : RelOpPeeking() {
+
+    // TODO BETTER MECHANISM FOR NULL PADDING
+    private val lhsPadded = Row(lhsType.getFields().map { Datum.nullValue(it.type) }.toTypedArray())
+    private val rhsPadded = Row(rhsType.getFields().map { Datum.nullValue(it.type) }.toTypedArray())
+
+    /**
+     * The RIGHT join preserves the [rhs], so it is the one to probe; all other join types build on the [rhs].
+     */
+    private val buildLeft = type == JoinType.RIGHT
+
+    private lateinit var env: Environment
+    private lateinit var frame: Environment
+    private lateinit var iterator: Iterator<Row>
+
+    override fun openPeeking(env: Environment) {
+        this.env = env
+        this.frame = env.frame()
+        lhs.open(env)
+        // The INNER and LEFT join inputs have a scope for the (lateral) lhs record, which this rhs does not reference.
+        rhs.open(
+            when (type) {
+                JoinType.INNER, JoinType.LEFT -> env.push(Row())
+                else -> env
+            }
+        )
+        iterator = implementation()
+    }
+
+    override fun peek(): Row? {
+        return when (iterator.hasNext()) {
+            true -> iterator.next()
+            false -> null
+        }
+    }
+
+    override fun closePeeking() {
+        lhs.close()
+        rhs.close()
+        iterator = emptyList<Row>().iterator()
+    }
+
+    /**
+     * HASH JOIN
+     *
+     * Algorithm:
+     * ```
+     * for buildRecord in build:
+     *   table[key(buildRecord)] += buildRecord
+     * for probeRecord in probe:
+     *   for buildRecord in table[key(probeRecord)]:
+     *     if (conditions match):
+     *       mark buildRecord
+     *       yield(lhsRecord + rhsRecord)
+     *   if (no match and probe is preserved):
+     *     yield(probeRecord + NULL_RECORD)
+     * if (build is preserved):
+     *   for buildRecord in build if not marked:
+     *     yield(buildRecord + NULL_RECORD)
+     * ```
+     */
+    private fun implementation() = iterator {
+        val build = Table()
+        for (record in if (buildLeft) lhs else rhs) {
+            build.add(record, key(record, buildLeft))
+        }
+        val matched = when (type) {
+            JoinType.FULL -> BitSet(build.size)
+            else -> null
+        }
+        for (probeRecord in if (buildLeft) rhs else lhs) {
+            var probeMatched = false
+            val key = key(probeRecord, !buildLeft)
+            var i = if (key != null) build.head(key) else -1
+            while (i >= 0) {
+                val buildRecord = build.records[i]
+                val lhsRecord = if (buildLeft) buildRecord else probeRecord
+                val rhsRecord = if (buildLeft) probeRecord else buildRecord
+                if (matches(lhsRecord, rhsRecord)) {
+                    probeMatched = true
+                    matched?.set(i)
+                    yield(lhsRecord.concat(rhsRecord))
+                }
+                i = build.next(i)
+            }
+            if (!probeMatched && type != JoinType.INNER) {
+                yield(
+                    when (buildLeft) {
+                        true -> lhsPadded.concat(probeRecord)
+                        else -> probeRecord.concat(rhsPadded)
+                    }
+                )
+            }
+        }
+        if (matched != null) {
+            var i = matched.nextClearBit(0)
+            while (i < build.size) {
+                yield(lhsPadded.concat(build.records[i]))
+                i = matched.nextClearBit(i + 1)
+            }
+        }
+    }
+
+    private fun matches(lhsRecord: Row, rhsRecord: Row): Boolean {
+        if (conditions.isEmpty()) {
+            return true
+        }
+        val scope = frame.set(lhsRecord, rhsRecord)
+        return conditions.all { it.eval(scope).isTrue() }
+    }
+
+    /**
+     * @return the key of the record, or null if any part of the key is NULL or MISSING.
+     */
+    private fun key(record: Row, left: Boolean): DatumArrayKey? {
+        val scope = when (left) {
+            true -> env.push(record)
+            else -> env.push(lhsPadded, record)
+        }
+        val exprs = if (left) lhsKeys else rhsKeys
+        val values = Array(exprs.size) {
+            val value = exprs[it].eval(scope)
+            if (value.isNull || value.isMissing) {
+                return null
+            }
+            value
+        }
+        return DatumArrayKey(values)
+    }
+
+    /**
+     * The build side's records, where records of equal keys are chained by their index.
+     */
+    private inner class Table {
+
+        val records = ArrayList<Row>()
+
+        val size: Int
+            get() = records.size
+
+        private val heads = HashMap<DatumArrayKey, Int>()
+
+        private var chain = IntArray(16)
+
+        fun add(record: Row, key: DatumArrayKey?) {
+            if (key == null) {
+                // Only the FULL join returns records which cannot match.
+                if (type == JoinType.FULL) {
+                    records.add(record)
+                }
+                return
+            }
+            val i = records.size
+            records.add(record)
+            if (i >= chain.size) {
+                chain = chain.copyOf(maxOf(i + 1, chain.size * 2))
+            }
+            chain[i] = heads.put(key, i) ?: -1
+        }
+
+        /**
+         * @return the index of the last record added with the key, or -1 if none.
+         */
+        fun head(key: DatumArrayKey): Int = heads[key] ?: -1
+
+        /**
+         * @return the index of the previous record added with the same key as record [i], or -1 if none.
+         */
+        fun next(i: Int): Int = chain[i]
+    }
+}
@@ -19,10 +19,12 @@ internal class RelOpJoinInner(
 ) : RelOpPeeking() {
 
     private lateinit var env: Environment
+    private lateinit var frame: Environment
     private lateinit var iterator: Iterator<Row>
 
     override fun openPeeking(env: Environment) {
         this.env = env
+        this.frame = env.frame()
         lhs.open(env)
         iterator = implementation()
     }
@@ -58,8 +60,7 @@ internal class RelOpJoinInner(
         for (lhsRecord in lhs) {
             rhs.open(env.push(lhsRecord))
             for (rhsRecord in rhs) {
-                val input = lhsRecord.concat(rhsRecord)
-                val result = condition.eval(env.push(input))
+                val result = condition.eval(frame.set(lhsRecord, rhsRecord))
                 if (result.isTrue()) {
                     yield(lhsRecord.concat(rhsRecord))
                 }
@@ -7,6 +7,7 @@ import org.partiql.eval.Row
 import org.partiql.eval.internal.helpers.ValueUtility.isTrue
 import org.partiql.plan.rel.RelType
 import org.partiql.spi.value.Datum
+import java.util.BitSet
 
 /**
  * Full Outer Join returns all joined records from the [lhs] and [rhs] when the [condition] evaluates to true. For all
@@ -32,10 +33,12 @@ internal class RelOpJoinOuterFull(
         Row(r.indices.map { Datum.nullValue(r[it].type) }.toTypedArray())
 
     private lateinit var env: Environment
+    private lateinit var frame: Environment
     private lateinit var iterator: Iterator<Row>
 
     override fun openPeeking(env: Environment) {
         this.env = env
+        this.frame = env.frame()
         lhs.open(env)
         iterator = implementation()
     }
@@ -56,60 +59,53 @@ internal class RelOpJoinOuterFull(
     /**
      * FULL OUTER JOIN (CANNOT BE LATERAL)
      *
-     * Merge Join (special implementation for FULL OUTER). This is used because we don't have a sophisticated enough
-     * planner to perform the transformation specified by SQL Server: see section
-     * ["What about full outer joins?"](https://learn.microsoft.com/en-us/archive/blogs/craigfr/nested-loops-join).
-     * Furthermore, SQL Server allows for merge joins even without an equijoin predicate. See section
-     * ["Outer and semi-joins"](https://learn.microsoft.com/en-us/archive/blogs/craigfr/merge-join).
-     *
+     * Block Nested Loops. This is only used when the condition has no equi-join keys (otherwise see [RelOpJoinHash]).
+     * The [rhs] is read once and buffered, so each input is evaluated exactly once; unmatched [lhs] records are returned
+     * as soon as they have been compared, and the matches of buffered [rhs] records are tracked in a bitset.
      *
      * Algorithm:
      * ```
-     * for lhsRecord, lhsIndex in lhs_sorted:
-     *   for rhsRecord, rhsIndex in rhs_sorted:
+     * rhs_buffered = list(rhs)
+     * for lhsRecord in lhs:
+     *   for rhsRecord, rhsIndex in rhs_buffered:
      *     if (condition matches):
-     *       lhsMatches[lhsIndex] = true
+     *       lhsMatched = true
      *       rhsMatches[rhsIndex] = true
      *       yield(lhsRecord + rhsRecord)
-     * for lhsRecord, lhsIndex in lhs_sorted:
-     *   if lhsMatches[lhsIndex] = false:
-     *     yield(lhsRecord, null)
-     * for rhsRecord, rhsIndex in rhs_sorted:
+     *   if (!lhsMatched):
+     *     yield(lhsRecord + NULL_RECORD)
+     * for rhsRecord, rhsIndex in rhs_buffered:
      *   if rhsMatches[rhsIndex] = false:
-     *     yield(null, rhsRecord)
+     *     yield(NULL_RECORD + rhsRecord)
      * ```
-     *
-     * TODO: Merge joins require that the LHS and RHS are sorted.
      */
     private fun implementation() = iterator {
-        val lhsMatches = mutableSetOf<Int>()
-        val rhsMatches = mutableSetOf<Int>()
-        for ((lhsIndex, lhsRecord) in lhs.withIndex()) {
-            rhs.open(env)
-            for ((rhsIndex, rhsRecord) in rhs.withIndex()) {
-                val input = lhsRecord.concat(rhsRecord)
-                val result = condition.eval(env.push(input))
+        rhs.open(env)
+        val rhsRecords = ArrayList<Row>()
+        for (rhsRecord in rhs) {
+            rhsRecords.add(rhsRecord)
+        }
+        rhs.close()
+        val rhsMatches = BitSet(rhsRecords.size)
+        for (lhsRecord in lhs) {
+            var lhsMatched = false
+            for (rhsIndex in rhsRecords.indices) {
+                val rhsRecord = rhsRecords[rhsIndex]
+                val result = condition.eval(frame.set(lhsRecord, rhsRecord))
                 if (result.isTrue()) {
-                    lhsMatches.add(lhsIndex)
-                    rhsMatches.add(rhsIndex)
+                    lhsMatched = true
+                    rhsMatches.set(rhsIndex)
                     yield(lhsRecord.concat(rhsRecord))
                 }
             }
-            rhs.close()
-        }
-        lhs.close()
-        lhs.open(env)
-        for ((lhsIndex, lhsRecord) in lhs.withIndex()) {
-            if (!lhsMatches.contains(lhsIndex)) {
+            if (!lhsMatched) {
                 yield(lhsRecord.concat(rhsPadded))
             }
         }
-        lhs.close()
-        rhs.open(env)
-        for ((rhsIndex, rhsRecord) in rhs.withIndex()) {
-            if (!rhsMatches.contains(rhsIndex)) {
-                yield(lhsPadded.concat(rhsRecord))
-            }
+        var rhsIndex = rhsMatches.nextClearBit(0)
+        while (rhsIndex < rhsRecords.size) {
+            yield(lhsPadded.concat(rhsRecords[rhsIndex]))
+            rhsIndex = rhsMatches.nextClearBit(rhsIndex + 1)
         }
     }
 }
@@ -30,10 +30,12 @@ internal class RelOpJoinOuterLeft(
         )
 
     private lateinit var env: Environment
+    private lateinit var frame: Environment
     private lateinit var iterator: Iterator<Row>
 
     override fun openPeeking(env: Environment) {
         this.env = env
+        this.frame = env.frame()
         lhs.open(env)
         iterator = implementation()
     }
@@ -72,8 +74,7 @@ internal class RelOpJoinOuterLeft(
             var lhsMatched = false
             rhs.open(env.push(lhsRecord))
             for (rhsRecord in rhs) {
-                val input = lhsRecord.concat(rhsRecord)
-                val result = condition.eval(env.push(input))
+                val result = condition.eval(frame.set(lhsRecord, rhsRecord))
                 if (result.isTrue()) {
                     lhsMatched = true
                     yield(lhsRecord.concat(rhsRecord))
@@ -29,10 +29,12 @@ internal class RelOpJoinOuterRight(
         )
 
     private lateinit var env: Environment
+    private lateinit var frame: Environment
     private lateinit var iterator: Iterator<Row>
 
     override fun openPeeking(env: Environment) {
         this.env = env
+        this.frame = env.frame()
         rhs.open(env)
         iterator = implementation()
     }
@@ -69,8 +71,7 @@ internal class RelOpJoinOuterRight(
             var rhsMatched = false
             lhs.open(env)
             for (lhsRecord in lhs) {
-                val input = lhsRecord.concat(rhsRecord)
-                val result = condition.eval(env.push(input))
+                val result = condition.eval(frame.set(lhsRecord, rhsRecord))
                 if (result.isTrue()) {
                     rhsMatched = true
                     yield(lhsRecord.concat(rhsRecord))
@@ -0,0 +1,136 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Row
+import org.partiql.eval.internal.helpers.DatumArrayKey
+import org.partiql.spi.value.Datum
+
+/**
+ * Semi-join returns the records of the [lhs] which have a matching record of the [rhs]; the anti-join returns those
+ * which do not. This is the filter of an IN or EXISTS predicate over a subquery (or its negation), where the [rhs] is
+ * the subquery without its correlated equalities, see [org.partiql.eval.internal.compiler.SemiJoin].
+ *
+ * The [rhs] does not reference the [lhs] record, so it is read once per open into a set of keys; each [lhs] record is
+ * then matched by a lookup of its key. A key is the values of the correlated equalities followed by the values of the
+ * IN predicate. A NULL or MISSING correlation value never matches, as the equality would not be true; a NULL or MISSING
+ * value of the IN predicate makes the predicate unknown, so the record is returned by neither join. Values of the IN
+ * predicate are otherwise compared by [Datum.comparator], as by the `in_collection` function. Without keys (EXISTS),
+ * only the first record of the [rhs] is read.
+ *
+ * Scopes: the [rhs] is opened, as a subquery of the filter, with a scope for the (unreferenced) [lhs] record, and the
+ * [rhsCorrelations] and [rhsValues] are evaluated with one more scope for the [rhs] record. The [lhsValues] are
+ * evaluated with the [lhs] record, and the [lhsCorrelations], which are from within the subquery, with one more (empty)
+ * scope for the subquery's record.
+ *
+ * @property anti true for the anti-join.
+ */
+internal class RelOpJoinSemi(
+    private val lhs: ExprRelation,
+    private val rhs: ExprRelation,
+    private val lhsCorrelations: List<ExprValue>,
+    private val rhsCorrelations: List<ExprValue>,
+    private val lhsValues: List<ExprValue>,
+    private val rhsValues: List<ExprValue>,
+    private val anti: Boolean,
+) : RelOpPeeking() {
+
+    private val correlations = lhsCorrelations.size
+
+    private lateinit var env: Environment
+    private lateinit var scope: Environment
+    private lateinit var inner: Environment
+
+    /**
+     * The keys of the [rhs], or null until the first record of the [lhs] is matched.
+     */
+    private var keys: HashSet<DatumArrayKey>? = null
+
+    /**
+     * True if the [rhs] has a record; only used without keys.
+     */
+    private var exists = false
+
+    override fun openPeeking(env: Environment) {
+        this.env = env
+        this.scope = env.frame()
+        this.inner = scope.frame()
+        this.keys = null
+        lhs.open(env)
+    }
+
+    override fun peek(): Row? {
+        val keys = keys ?: build()
+        for (record in lhs) {
+            // an unknown IN predicate is not true for either join
+            val matched = matches(record, keys) ?: continue
+            if (matched != anti) {
+                return record
+            }
+        }
+        return null
+    }
+
+    override fun closePeeking() {
+        lhs.close()
+        keys = null
+    }
+
+    /**
+     * @return true if the record has a matching record of the [rhs], or null if the IN predicate is unknown.
+     */
+    private fun matches(record: Row, keys: HashSet<DatumArrayKey>): Boolean? {
+        if (correlations == 0 && lhsValues.isEmpty()) {
+            return exists
+        }
+        scope.set(record)
+        val values = Array(correlations + lhsValues.size) {
+            val value = when (it < correlations) {
+                true -> lhsCorrelations[it].eval(inner)
+                else -> lhsValues[it - correlations].eval(scope)
+            }
+            if (value.isNull || value.isMissing) {
+                return if (it < correlations) false else null
+            }
+            value
+        }
+        return keys.contains(DatumArrayKey(values))
+    }
+
+    private fun build(): HashSet<DatumArrayKey> {
+        val keys = HashSet<DatumArrayKey>()
+        val scope = env.push(Row())
+        rhs.open(scope)
+        try {
+            if (correlations == 0 && rhsValues.isEmpty()) {
+                exists = rhs.hasNext()
+            } else {
+                for (record in rhs) {
+                    key(scope.push(record))?.let { keys.add(it) }
+                }
+            }
+        } finally {
+            rhs.close()
+        }
+        this.keys = keys
+        return keys
+    }
+
+    /**
+     * @return the key of a record of the [rhs], or null if a correlation value is NULL or MISSING.
+     */
+    private fun key(scope: Environment): DatumArrayKey? {
+        val values = Array(correlations + rhsValues.size) {
+            val value = when (it < correlations) {
+                true -> rhsCorrelations[it].eval(scope)
+                else -> rhsValues[it - correlations].eval(scope)
+            }
+            if (it < correlations && (value.isNull || value.isMissing)) {
+                return null
+            }
+            value
+        }
+        return DatumArrayKey(values)
+    }
+}
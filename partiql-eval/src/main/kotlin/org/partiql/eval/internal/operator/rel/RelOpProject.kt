@@ -22,8 +22,8 @@ internal class RelOpProject(
     }
 
     override fun next(): Row {
-        val r = input.next()
-        val p = projections.map { it.eval(env.push(r)) }.toTypedArray()
+        val scope = env.push(input.next())
+        val p = Array(projections.size) { projections[it].eval(scope) }
         return Row(p)
     }
 
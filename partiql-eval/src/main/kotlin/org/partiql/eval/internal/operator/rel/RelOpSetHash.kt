@@ -0,0 +1,176 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.Row
+import org.partiql.eval.internal.helpers.DatumArrayCounter
+import org.partiql.eval.internal.helpers.DatumHasher
+import org.partiql.eval.internal.helpers.RecordUtility.coerceMissing
+import org.partiql.eval.internal.spill.DatumSize
+import org.partiql.eval.internal.spill.SpillConfig
+import org.partiql.eval.internal.spill.SpillPartitions
+import org.partiql.spi.value.Datum
+import java.util.Collections
+
+/**
+ * Base implementation of the hash-based set operators (DISTINCT, UNION, INTERSECT, EXCEPT). Records are counted in a
+ * [DatumArrayCounter] (a multiset) built from one input; the records of the other input probe it, and the subclass
+ * decides whether each probe record is returned.
+ *
+ * Once the estimated size of the multiset exceeds the [spill] budget, records of keys which are not already counted
+ * are written to hash partitions instead, on both the build and probe sides. After the in-memory records have been
+ * processed, each pair of build and probe partitions is processed in turn (and may itself be partitioned again).
+ */
+internal abstract class RelOpSetHash(private val spill: SpillConfig) : RelOpPeeking() {
+
+    private lateinit var iterator: Iterator<Row>
+
+    /**
+     * All partitions created since [openPeeking]; these are removed on [closePeeking].
+     */
+    private val spilled = mutableListOf<SpillPartitions>()
+
+    /**
+     * If true, absent probe keys are added to the multiset with a count of one, and the probe record is returned
+     * (think DISTINCT); otherwise, [accept] decides with a slot of -1.
+     */
+    protected open val insert: Boolean = false
+
+    /**
+     * If true, MISSING values are coerced to NULL so that the returned value is deterministic.
+     */
+    protected open val coerce: Boolean = true
+
+    /**
+     * Open the inputs.
+     */
+    protected abstract fun openInputs(env: Environment)
+
+    /**
+     * Close the inputs.
+     */
+    protected abstract fun closeInputs()
+
+    /**
+     * @return the records counted in the multiset.
+     */
+    protected abstract fun build(): Iterator<Row>
+
+    /**
+     * @return the records which probe the multiset.
+     */
+    protected abstract fun probe(): Iterator<Row>
+
+    /**
+     * @param counts the multiset.
+     * @param slot the slot of the probe record's key, or -1 if it is absent.
+     * @return true if the probe record is returned.
+     */
+    protected abstract fun accept(counts: DatumArrayCounter, slot: Int): Boolean
+
+    override fun openPeeking(env: Environment) {
+        openInputs(env)
+        iterator = iterator {
+            val build = build().asSequence().map { it.values }.iterator()
+            val probe = probe().asSequence().map { it.values }.iterator()
+            yieldAll(pass(0, build, probe))
+        }
+    }
+
+    override fun peek(): Row? {
+        return when (iterator.hasNext()) {
+            true -> iterator.next()
+            false -> null
+        }
+    }
+
+    override fun closePeeking() {
+        iterator = Collections.emptyIterator()
+        spilled.forEach { it.delete() }
+        spilled.clear()
+        closeInputs()
+    }
+
+    /**
+     * Process the build and probe records at the given partitioning level.
+     */
+    private fun pass(
+        level: Int,
+        build: Iterator<Array<Datum>>,
+        probe: Iterator<Array<Datum>>,
+    ): Iterator<Row> = iterator {
+        val counts = DatumArrayCounter()
+        val spillable = level < SpillPartitions.MAX_LEVEL
+        var bytes: Long = 0
+        var buildPartitions: SpillPartitions? = null
+        var probePartitions: SpillPartitions? = null
+
+        // Count the build records
+        for (record in build) {
+            if (coerce) {
+                record.coerceMissing()
+            }
+            val hash = DatumHasher.hash(record)
+            var slot = counts.find(record, hash)
+            if (slot < 0) {
+                if (spillable && spill.exceeded(bytes)) {
+                    val partitions = buildPartitions ?: partitions(level).also { buildPartitions = it }
+                    partitions.write(hash, record)
+                    continue
+                }
+                slot = counts.insert(record, hash)
+                bytes += ENTRY_OVERHEAD + DatumSize.estimate(record)
+            }
+            counts.set(slot, counts.count(slot) + 1)
+        }
+
+        // Probe; the records of keys which might be in a build partition are partitioned likewise
+        for (record in probe) {
+            if (coerce) {
+                record.coerceMissing()
+            }
+            val hash = DatumHasher.hash(record)
+            val slot = counts.find(record, hash)
+            if (slot < 0 && (buildPartitions != null || (insert && spillable && spill.exceeded(bytes)))) {
+                val partitions = probePartitions ?: partitions(level).also { probePartitions = it }
+                partitions.write(hash, record)
+                continue
+            }
+            if (slot < 0 && insert) {
+                counts.set(counts.insert(record, hash), 1)
+                bytes += ENTRY_OVERHEAD + DatumSize.estimate(record)
+                yield(Row(record))
+                continue
+            }
+            if (accept(counts, slot)) {
+                yield(Row(record))
+            }
+        }
+        counts.clear()
+
+        // Process each pair of partitions; only probe records are returned, so a build partition alone is skipped.
+        val partitions = probePartitions ?: return@iterator
+        for (i in 0 until SpillPartitions.FANOUT) {
+            val probePartition = partitions[i] ?: continue
+            val buildPartition = buildPartitions?.get(i)
+            val next = pass(
+                level + 1,
+                buildPartition?.read() ?: Collections.emptyIterator(),
+                probePartition.read(),
+            )
+            yieldAll(next)
+            buildPartition?.delete()
+            probePartition.delete()
+        }
+        buildPartitions?.delete()
+    }
+
+    private fun partitions(level: Int): SpillPartitions = SpillPartitions(spill, level).also { spilled.add(it) }
+
+    private companion object {
+
+        /**
+         * Rough per-key overhead of the multiset's slots.
+         */
+        const val ENTRY_OVERHEAD: Long = 32
+    }
+}
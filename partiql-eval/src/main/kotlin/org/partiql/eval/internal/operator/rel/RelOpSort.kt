@@ -4,18 +4,36 @@ import org.partiql.eval.Environment
 import org.partiql.eval.ExprRelation
 import org.partiql.eval.ExprValue
 import org.partiql.eval.Row
+import org.partiql.eval.internal.spill.DatumSize
+import org.partiql.eval.internal.spill.SpillConfig
+import org.partiql.eval.internal.spill.SpillFile
 import org.partiql.spi.value.Datum
 import java.util.Collections
+import java.util.PriorityQueue
 
+/**
+ * External merge sort. The sort keys of each input record are evaluated once; records are buffered and sorted by
+ * their keys. Once the estimated size of the buffer exceeds the [spill] budget, the buffer is sorted and written to a
+ * file as a sorted run. The runs (and what remains in memory) are then merged, [FAN_IN] runs at a time.
+ *
+ * The sort is stable.
+ */
 internal class RelOpSort(
     private val input: ExprRelation,
     private val collations: List<Collation>,
+    private val spill: SpillConfig,
 ) : ExprRelation {
     private var records: Iterator<Row> = Collections.emptyIterator()
     private var init: Boolean = false
 
-    private val nullsFirstComparator = Datum.comparator(true)
-    private val nullsLastComparator = Datum.comparator(false)
+    private val keyComparator = KeyComparator(collations)
+
+    private val comparator = Comparator<Entry> { l, r -> keyComparator.compare(l.keys, r.keys) }
+
+    /**
+     * All run files created since [open]; these are removed on [close].
+     */
+    private val files = mutableListOf<SpillFile>()
 
     private lateinit var env: Environment
 
@@ -26,12 +44,128 @@ internal class RelOpSort(
         records = Collections.emptyIterator()
     }
 
-    private val comparator = object : Comparator<Row> {
-        override fun compare(l: Row, r: Row): Int {
-            collations.forEach { spec ->
-                // TODO: Write comparator for PQLValue
-                val lVal = spec.expr.eval(env.push(l))
-                val rVal = spec.expr.eval(env.push(r))
+    override fun hasNext(): Boolean {
+        if (!init) {
+            records = sort()
+            init = true
+        }
+        return records.hasNext()
+    }
+
+    override fun next(): Row {
+        return records.next()
+    }
+
+    override fun close() {
+        init = false
+        records = Collections.emptyIterator()
+        files.forEach { it.delete() }
+        files.clear()
+        input.close()
+    }
+
+    private fun sort(): Iterator<Row> {
+        val buffer = mutableListOf<Entry>()
+        var bytes: Long = 0
+        var runs = mutableListOf<SpillFile>()
+        for (row in input) {
+            val scope = env.push(row)
+            val keys = Array(collations.size) { collations[it].expr.eval(scope) }
+            buffer.add(Entry(keys, row))
+            bytes += ENTRY_OVERHEAD + DatumSize.estimate(keys) + DatumSize.estimate(row.values)
+            if (spill.exceeded(bytes)) {
+                buffer.sortWith(comparator)
+                runs.add(write(buffer.iterator()))
+                buffer.clear()
+                bytes = 0
+            }
+        }
+        buffer.sortWith(comparator)
+        if (runs.isEmpty()) {
+            return buffer.asSequence().map { it.row }.iterator()
+        }
+        // Merge runs until the remaining ones can be merged at once; keep them in order so the sort is stable.
+        while (runs.size > FAN_IN) {
+            runs = runs.chunked(FAN_IN).mapTo(mutableListOf()) { chunk ->
+                when (chunk.size) {
+                    1 -> chunk[0]
+                    else -> write(merge(chunk.map { read(it) })).also { chunk.forEach { run -> run.delete() } }
+                }
+            }
+        }
+        val sources = runs.map { read(it) } + buffer.iterator()
+        return merge(sources).asSequence().map { it.row }.iterator()
+    }
+
+    /**
+     * @return a new run file of the given sorted entries; a record is the sort keys followed by the row values.
+     */
+    private fun write(entries: Iterator<Entry>): SpillFile {
+        val run = spill.newFile()
+        files.add(run)
+        for (entry in entries) {
+            run.write(entry.keys + entry.row.values)
+        }
+        run.finish()
+        return run
+    }
+
+    private fun read(run: SpillFile): Iterator<Entry> = run.read().asSequence().map { record ->
+        val keys = record.copyOfRange(0, collations.size)
+        val values = record.copyOfRange(collations.size, record.size)
+        Entry(keys, Row(values))
+    }.iterator()
+
+    /**
+     * K-way merge of sorted sources; ties are taken from the earlier source.
+     */
+    private fun merge(sources: List<Iterator<Entry>>): Iterator<Entry> = iterator {
+        val queue = PriorityQueue<Cursor>(maxOf(sources.size, 1)) { l, r ->
+            val cmp = comparator.compare(l.head, r.head)
+            if (cmp != 0) cmp else l.index.compareTo(r.index)
+        }
+        sources.forEachIndexed { i, source ->
+            if (source.hasNext()) {
+                queue.add(Cursor(i, source, source.next()))
+            }
+        }
+        while (queue.isNotEmpty()) {
+            val cursor = queue.poll()
+            yield(cursor.head)
+            if (cursor.source.hasNext()) {
+                cursor.head = cursor.source.next()
+                queue.add(cursor)
+            }
+        }
+    }
+
+    /**
+     * A row and its evaluated sort keys.
+     */
+    private class Entry(
+        @JvmField val keys: Array<Datum>,
+        @JvmField val row: Row,
+    )
+
+    private class Cursor(
+        @JvmField val index: Int,
+        @JvmField val source: Iterator<Entry>,
+        @JvmField var head: Entry,
+    )
+
+    /**
+     * Compares evaluated sort keys according to the collations.
+     */
+    class KeyComparator(private val collations: List<Collation>) : Comparator<Array<Datum>> {
+
+        private val nullsFirstComparator = Datum.comparator(true)
+        private val nullsLastComparator = Datum.comparator(false)
+
+        override fun compare(l: Array<Datum>, r: Array<Datum>): Int {
+            for (i in collations.indices) {
+                val spec = collations[i]
+                val lVal = l[i]
+                val rVal = r[i]
 
                 // DESC_NULLS_FIRST(l, r) == ASC_NULLS_LAST(r, l)
                 // DESC_NULLS_LAST(l, r) == ASC_NULLS_FIRST(r, l)
@@ -50,28 +184,6 @@ internal class RelOpSort(
         }
     }
 
-    override fun hasNext(): Boolean {
-        if (!init) {
-            val sortedRows = mutableListOf<Row>()
-            for (row in input) {
-                sortedRows.add(row)
-            }
-            sortedRows.sortWith(comparator)
-            records = sortedRows.iterator()
-            init = true
-        }
-        return records.hasNext()
-    }
-
-    override fun next(): Row {
-        return records.next()
-    }
-
-    override fun close() {
-        init = false
-        input.close()
-    }
-
     /**
      * DO NOT USE FINAL.
      *
@@ -84,4 +196,17 @@ internal class RelOpSort(
         @JvmField var desc: Boolean,
         @JvmField var last: Boolean,
     )
+
+    private companion object {
+
+        /**
+         * Rough per-row overhead of the buffered entry and row, and the buffer's reference to it.
+         */
+        const val ENTRY_OVERHEAD: Long = 64
+
+        /**
+         * The maximum number of runs merged at once, which bounds the number of open files.
+         */
+        const val FAN_IN = 64
+    }
 }
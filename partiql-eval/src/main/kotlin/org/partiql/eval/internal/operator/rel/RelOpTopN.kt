@@ -0,0 +1,185 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Row
+import org.partiql.eval.internal.helpers.ValueUtility.getBigIntCoerced
+import org.partiql.eval.internal.spill.DatumSize
+import org.partiql.eval.internal.spill.SpillConfig
+import org.partiql.spi.value.Datum
+import java.math.BigInteger
+import java.util.Collections
+import java.util.PriorityQueue
+
+/**
+ * Top-N returns the first [limit] records, after skipping [offset] records, of the [input] sorted by the [collations];
+ * this is equivalent to a [RelOpLimit] over an (optional) [RelOpOffset] over a [RelOpSort].
+ *
+ * Rather than sorting the entire input, this keeps the first offset+limit records seen so far in a bounded max-heap, so
+ * it holds O(offset+limit) records and takes O(n log(offset+limit)) comparisons. Like [RelOpSort], it is stable.
+ *
+ * Once the estimated size of the heap exceeds the [spill] budget (think pagination with a large offset), the records
+ * it holds, in input order, and the rest of the input are sorted by a [RelOpSort] instead, which spills; records
+ * already evicted from the heap cannot be among the first offset+limit records, so they are not needed.
+ */
+internal class RelOpTopN(
+    private val input: ExprRelation,
+    private val collations: List<RelOpSort.Collation>,
+    private val limit: ExprValue,
+    private val offset: ExprValue?,
+    private val spill: SpillConfig,
+) : ExprRelation {
+
+    private var records: Iterator<Row> = Collections.emptyIterator()
+    private var init: Boolean = false
+
+    private val keyComparator = RelOpSort.KeyComparator(collations)
+
+    /**
+     * Orders entries by their keys, then by arrival; the heap is ordered by the reverse so its head is the last entry.
+     */
+    private val comparator = Comparator<Entry> { l, r ->
+        val cmp = keyComparator.compare(l.keys, r.keys)
+        if (cmp != 0) cmp else l.seq.compareTo(r.seq)
+    }
+
+    /**
+     * The sort the heap has fallen back to, if any, since [open]; it is closed on [close].
+     */
+    private var sort: RelOpSort? = null
+
+    private var _limit: Int = 0
+    private var _offset: Int = 0
+
+    private lateinit var env: Environment
+
+    override fun open(env: Environment) {
+        this.env = env
+        input.open(env)
+        init = false
+        records = Collections.emptyIterator()
+
+        val l = limit.eval(env.push(Row())).getBigIntCoerced() // TODO: The planner should handle the coercion
+        val o = offset?.eval(env.push(Row()))?.getBigIntCoerced() ?: BigInteger.ZERO
+        _limit = l.coerce()
+        _offset = o.coerce()
+    }
+
+    override fun hasNext(): Boolean {
+        if (!init) {
+            records = top()
+            init = true
+        }
+        return records.hasNext()
+    }
+
+    override fun next(): Row {
+        return records.next()
+    }
+
+    override fun close() {
+        init = false
+        records = Collections.emptyIterator()
+        sort?.close()
+        sort = null
+        input.close()
+    }
+
+    private fun top(): Iterator<Row> {
+        if (_limit == 0) {
+            return Collections.emptyIterator()
+        }
+        val n = (_limit.toLong() + _offset).coerceAtMost(MAX_SIZE.toLong()).toInt()
+        val heap = PriorityQueue(minOf(n, INITIAL_CAPACITY), comparator.reversed())
+        var bytes: Long = 0
+        var seq: Long = 0
+        while (input.hasNext()) {
+            val row = input.next()
+            val scope = env.push(row)
+            val keys = Array(collations.size) { collations[it].expr.eval(scope) }
+            if (heap.size < n) {
+                heap.add(Entry(keys, row, seq++))
+                bytes += size(keys, row)
+            } else if (keyComparator.compare(keys, heap.peek().keys) < 0) {
+                // later entries with equal keys are never kept, which keeps the sort stable
+                val evicted = heap.poll()
+                heap.add(Entry(keys, row, seq++))
+                bytes += size(keys, row) - size(evicted.keys, evicted.row)
+            }
+            if (spill.exceeded(bytes)) {
+                return fallback(heap)
+            }
+        }
+        val entries = heap.toTypedArray()
+        entries.sortWith(comparator)
+        return entries.asSequence().drop(_offset).map { it.row }.iterator()
+    }
+
+    /**
+     * @return the first offset+limit records of the held records and the rest of the input, sorted by a [RelOpSort].
+     */
+    private fun fallback(heap: PriorityQueue<Entry>): Iterator<Row> {
+        val held = heap.toTypedArray()
+        heap.clear()
+        held.sortBy { it.seq }
+        val sort = RelOpSort(Remaining(held.map { it.row }.iterator(), input), collations, spill)
+        this.sort = sort
+        sort.open(env)
+        return sort.asSequence().drop(_offset).take(_limit).iterator()
+    }
+
+    private fun size(keys: Array<Datum>, row: Row): Long {
+        return ENTRY_OVERHEAD + DatumSize.estimate(keys) + DatumSize.estimate(row.values)
+    }
+
+    /**
+     * The held records followed by the rest of the (already open) input, which this neither opens nor closes.
+     */
+    private class Remaining(
+        private val held: Iterator<Row>,
+        private val input: ExprRelation,
+    ) : ExprRelation {
+
+        override fun open(env: Environment) = Unit
+
+        override fun hasNext(): Boolean = held.hasNext() || input.hasNext()
+
+        override fun next(): Row = if (held.hasNext()) held.next() else input.next()
+
+        override fun close() = Unit
+    }
+
+    /**
+     * @return this value as a non-negative count; counts beyond any possible heap size are clamped.
+     */
+    private fun BigInteger.coerce(): Int = when {
+        signum() < 0 -> 0
+        bitLength() >= Int.SIZE_BITS - 1 -> MAX_SIZE
+        else -> toInt().coerceAtMost(MAX_SIZE)
+    }
+
+    /**
+     * A row, its evaluated sort keys, and its position in the input.
+     */
+    private class Entry(
+        @JvmField val keys: Array<Datum>,
+        @JvmField val row: Row,
+        @JvmField val seq: Long,
+    )
+
+    private companion object {
+
+        const val INITIAL_CAPACITY = 64
+
+        /**
+         * Rough per-row overhead of the held entry and row, and the heap's reference to it, as for [RelOpSort].
+         */
+        const val ENTRY_OVERHEAD: Long = 64
+
+        /**
+         * The maximum number of records the heap (or array) can hold.
+         */
+        const val MAX_SIZE = Int.MAX_VALUE - 8
+    }
+}
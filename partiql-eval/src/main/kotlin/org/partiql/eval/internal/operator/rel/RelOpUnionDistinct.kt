@@ -3,41 +3,35 @@ package org.partiql.eval.internal.operator.rel
 import org.partiql.eval.Environment
 import org.partiql.eval.ExprRelation
 import org.partiql.eval.Row
-import org.partiql.eval.internal.helpers.DatumArrayComparator
+import org.partiql.eval.internal.helpers.DatumArrayCounter
 import org.partiql.eval.internal.helpers.IteratorChain
-import org.partiql.eval.internal.helpers.RecordUtility.coerceMissing
-import java.util.TreeSet
+import org.partiql.eval.internal.spill.SpillConfig
+import java.util.Collections
 
 internal class RelOpUnionDistinct(
     private val lhs: ExprRelation,
     private val rhs: ExprRelation,
-) : RelOpPeeking() {
+    spill: SpillConfig,
+) : RelOpSetHash(spill) {
 
-    private val seen = TreeSet(DatumArrayComparator)
+    override val insert: Boolean = true
 
-    private lateinit var input: Iterator<Row>
-
-    override fun openPeeking(env: Environment) {
+    override fun openInputs(env: Environment) {
         lhs.open(env)
         rhs.open(env)
-        seen.clear()
-        input = IteratorChain(arrayOf(lhs, rhs))
-    }
-
-    override fun peek(): Row? {
-        for (record in input) {
-            record.values.coerceMissing()
-            if (!seen.contains(record.values)) {
-                seen.add(record.values)
-                return Row(record.values)
-            }
-        }
-        return null
     }
 
-    override fun closePeeking() {
+    override fun closeInputs() {
         lhs.close()
         rhs.close()
-        seen.clear()
     }
+
+    override fun build(): Iterator<Row> = Collections.emptyIterator()
+
+    override fun probe(): Iterator<Row> = IteratorChain(arrayOf(lhs, rhs))
+
+    /**
+     * The record has already been seen.
+     */
+    override fun accept(counts: DatumArrayCounter, slot: Int): Boolean = false
 }
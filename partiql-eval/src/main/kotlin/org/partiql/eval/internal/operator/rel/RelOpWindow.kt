@@ -0,0 +1,562 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Row
+import org.partiql.eval.internal.helpers.DatumArrayComparator
+import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.eval.internal.helpers.ValueUtility.getBigIntCoerced
+import org.partiql.eval.internal.spill.DatumSize
+import org.partiql.eval.internal.spill.SpillConfig
+import org.partiql.eval.internal.spill.SpillFile
+import org.partiql.plan.rel.RelWindow
+import org.partiql.spi.function.Accumulator
+import org.partiql.spi.function.Agg
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.math.BigInteger
+import java.util.Collections
+
+/**
+ * Appends the value of each window function to each record of the [input], which must be sorted by the [partitions]
+ * and then by the [collations], see [RelOpSort].
+ *
+ * The records of a partition are buffered along with their sort keys and the per-record arguments of each function,
+ * which are evaluated once; once the estimated size of the buffer exceeds the [spill] budget, the partition is written
+ * to a file instead. The functions are then evaluated in one pass over the partition, with forward-only cursors, as
+ * every bound of a frame only moves forward:
+ *  - ROW_NUMBER, RANK, and DENSE_RANK are derived from the record's index and its peers (records of equal order).
+ *  - LAG keeps the values of the previous records, and LEAD reads ahead with its own cursor.
+ *  - An aggregate function whose frame starts at UNBOUNDED PRECEDING accumulates each record once as the frame's end
+ *    moves forward, so a frame of the whole partition is computed once. One whose frame ends at UNBOUNDED FOLLOWING
+ *    accumulates each record once in reverse order, see [reverse]; otherwise it is recomputed for each record over
+ *    the records of its frame, which are kept in memory.
+ *
+ * The offsets of LAG, LEAD, and of the frame bounds are evaluated once per [open], like the LIMIT of [RelOpLimit].
+ */
+internal class RelOpWindow(
+    private val input: ExprRelation,
+    private val partitions: List<ExprValue>,
+    private val collations: List<RelOpSort.Collation>,
+    private val functions: List<Function>,
+    private val spill: SpillConfig,
+) : ExprRelation {
+
+    private var records: Iterator<Row> = Collections.emptyIterator()
+    private var init: Boolean = false
+
+    private val comparator = RelOpSort.KeyComparator(collations)
+
+    /**
+     * The offset of the arguments of each function within a buffered record, which is the sort keys, followed by the
+     * arguments of each function, followed by the row values.
+     */
+    private val argOffsets = IntArray(functions.size)
+    private val width: Int
+
+    init {
+        var offset = collations.size
+        functions.forEachIndexed { i, function ->
+            argOffsets[i] = offset
+            offset += function.args.size
+        }
+        width = offset
+    }
+
+    /**
+     * The partition file, if any, since [open]; it is removed on [close].
+     */
+    private var file: SpillFile? = null
+
+    /**
+     * The files of the runs of [reverse] for the current partition; they are removed with the partition.
+     */
+    private val runs = mutableListOf<SpillFile>()
+
+    private lateinit var env: Environment
+
+    override fun open(env: Environment) {
+        this.env = env
+        input.open(env)
+        init = false
+        records = Collections.emptyIterator()
+    }
+
+    override fun hasNext(): Boolean {
+        if (!init) {
+            records = evaluate()
+            init = true
+        }
+        return records.hasNext()
+    }
+
+    override fun next(): Row {
+        return records.next()
+    }
+
+    override fun close() {
+        init = false
+        records = Collections.emptyIterator()
+        file?.delete()
+        file = null
+        runs.forEach { it.delete() }
+        runs.clear()
+        input.close()
+    }
+
+    private fun evaluate(): Iterator<Row> = iterator {
+        val scope = env.push(Row())
+        val offsets = functions.map { it.offsets(scope) }
+        var entry = read()
+        while (entry != null) {
+            val partition = Partition()
+            val keys = entry.partition
+            while (entry != null && DatumArrayComparator.compare(entry.partition, keys) == 0) {
+                partition.add(entry.record)
+                entry = read()
+            }
+            yieldAll(partition.evaluate(offsets))
+            partition.delete()
+        }
+    }
+
+    /**
+     * @return the next record of the input and its partition keys, or null if there are no more records.
+     */
+    private fun read(): Entry? {
+        if (!input.hasNext()) {
+            return null
+        }
+        val row = input.next()
+        val scope = env.push(row)
+        val keys = Array(partitions.size) { partitions[it].eval(scope) }
+        val record = arrayOfNulls<Datum>(width + row.values.size)
+        for (i in collations.indices) {
+            record[i] = collations[i].expr.eval(scope)
+        }
+        functions.forEachIndexed { i, function ->
+            for (j in function.args.indices) {
+                record[argOffsets[i] + j] = function.args[j].eval(scope)
+            }
+        }
+        System.arraycopy(row.values, 0, record, width, row.values.size)
+        @Suppress("UNCHECKED_CAST")
+        return Entry(keys, record as Array<Datum>)
+    }
+
+    /**
+     * The buffered records of one partition, along with their peer groups.
+     */
+    private inner class Partition {
+
+        private val buffer = mutableListOf<Array<Datum>>()
+        private var bytes: Long = 0
+
+        /**
+         * The number of records.
+         */
+        var size: Int = 0
+            private set
+
+        /**
+         * The peer group of each record, and the index of the first record of each peer group.
+         */
+        private var groups = IntArray(16)
+        private var starts = IntArray(16)
+        private var count = 0
+        private var last: Array<Datum>? = null
+
+        fun add(record: Array<Datum>) {
+            val keys = record.copyOfRange(0, collations.size)
+            val previous = last
+            if (previous == null || comparator.compare(previous, keys) != 0) {
+                if (count == starts.size) {
+                    starts = starts.copyOf(count * 2)
+                }
+                starts[count++] = size
+                last = keys
+            }
+            if (size == groups.size) {
+                groups = groups.copyOf(size * 2)
+            }
+            groups[size++] = count - 1
+            // buffer the record, or write it once the partition has spilled
+            val spilled = file
+            if (spilled != null) {
+                spilled.write(record)
+                return
+            }
+            buffer.add(record)
+            bytes += RECORD_OVERHEAD + DatumSize.estimate(record)
+            if (spill.exceeded(bytes)) {
+                val run = spill.newFile()
+                file = run
+                buffer.forEach { run.write(it) }
+                buffer.clear()
+            }
+        }
+
+        fun delete() {
+            file?.delete()
+            file = null
+            runs.forEach { it.delete() }
+            runs.clear()
+        }
+
+        /**
+         * @return the index of the first peer of the record at [i].
+         */
+        fun peersStart(i: Int): Int = starts[groups[i]]
+
+        /**
+         * @return the index of the last peer of the record at [i].
+         */
+        fun peersEnd(i: Int): Int {
+            val group = groups[i] + 1
+            return if (group < count) starts[group] - 1 else size - 1
+        }
+
+        fun cursor(): Cursor = Cursor(file?.read() ?: buffer.iterator())
+
+        fun evaluate(offsets: List<Offsets>): Iterator<Row> = iterator {
+            val cursors = mutableListOf<Cursor>()
+            val states = functions.mapIndexed { i, function ->
+                when (function.kind) {
+                    RelWindow.Kind.LAG -> Lag(i, offsets[i].offset)
+                    RelWindow.Kind.LEAD -> Lead(i, offsets[i].offset, cursor().also { cursors.add(it) })
+                    RelWindow.Kind.AGG -> Aggregate(i, offsets[i], cursor().also { cursors.add(it) })
+                    else -> null
+                }
+            }
+            val cursor = cursor().also { cursors.add(it) }
+            for (i in 0 until size) {
+                val record = cursor.seek(i)
+                val values = arrayOfNulls<Datum>(record.size - width + functions.size)
+                System.arraycopy(record, width, values, 0, record.size - width)
+                var j = record.size - width
+                functions.forEachIndexed { f, function ->
+                    values[j++] = when (function.kind) {
+                        RelWindow.Kind.ROW_NUMBER -> Datum.bigint(i + 1L)
+                        RelWindow.Kind.RANK -> Datum.bigint(peersStart(i) + 1L)
+                        RelWindow.Kind.DENSE_RANK -> Datum.bigint(groups[i] + 1L)
+                        else -> states[f]!!.value(this@Partition, i, record)
+                    }
+                }
+                @Suppress("UNCHECKED_CAST")
+                yield(Row(values as Array<Datum>))
+            }
+            cursors.forEach { it.drain() }
+        }
+    }
+
+    /**
+     * Reads all the [records] and returns them in reverse order. They are buffered in runs within the [spill] budget;
+     * each full run is written to a file in reverse order, and the runs are then read from the last to the first.
+     */
+    private fun reverse(records: Iterator<Array<Datum>>): Iterator<Array<Datum>> {
+        val files = mutableListOf<SpillFile>()
+        var buffer = mutableListOf<Array<Datum>>()
+        var bytes = 0L
+        for (record in records) {
+            buffer.add(record)
+            bytes += RECORD_OVERHEAD + DatumSize.estimate(record)
+            if (spill.exceeded(bytes)) {
+                val run = spill.newFile()
+                runs.add(run)
+                files.add(run)
+                for (i in buffer.indices.reversed()) {
+                    run.write(buffer[i])
+                }
+                run.finish()
+                buffer = mutableListOf()
+                bytes = 0
+            }
+        }
+        val last = buffer
+        return iterator {
+            for (i in last.indices.reversed()) {
+                yield(last[i])
+            }
+            last.clear()
+            for (i in files.indices.reversed()) {
+                yieldAll(files[i].read())
+                files[i].delete()
+            }
+        }
+    }
+
+    /**
+     * A forward-only cursor over the records of a partition.
+     */
+    private class Cursor(private val source: Iterator<Array<Datum>>) {
+
+        private var index = -1
+        private var current: Array<Datum>? = null
+
+        /**
+         * @return the record at [i], which must not precede the current record.
+         */
+        fun seek(i: Int): Array<Datum> {
+            while (index < i) {
+                current = source.next()
+                index++
+            }
+            return current!!
+        }
+
+        /**
+         * Reads the remaining records, so that the underlying file is closed.
+         */
+        fun drain() {
+            while (source.hasNext()) {
+                source.next()
+            }
+        }
+    }
+
+    /**
+     * The state of a function over one partition.
+     */
+    private interface State {
+        fun value(partition: Partition, i: Int, record: Array<Datum>): Datum
+    }
+
+    /**
+     * LAG is the value of the record [offset] records before, else the default; the values of the previous records
+     * are kept in a queue.
+     */
+    private inner class Lag(private val f: Int, private val offset: Long) : State {
+
+        private val previous = ArrayDeque<Datum>()
+
+        override fun value(partition: Partition, i: Int, record: Array<Datum>): Datum {
+            val value = record[argOffsets[f]]
+            if (offset == 0L) {
+                return value
+            }
+            val result = when (previous.size.toLong() == offset) {
+                true -> previous.removeFirst()
+                else -> default(f, record)
+            }
+            previous.addLast(value)
+            return result
+        }
+    }
+
+    /**
+     * LEAD is the value of the record [offset] records after, else the default.
+     */
+    private inner class Lead(private val f: Int, private val offset: Long, private val cursor: Cursor) : State {
+
+        override fun value(partition: Partition, i: Int, record: Array<Datum>): Datum {
+            val j = i + offset
+            if (j >= partition.size) {
+                return default(f, record)
+            }
+            return cursor.seek(j.toInt())[argOffsets[f]]
+        }
+    }
+
+    /**
+     * An aggregate function over the frame of each record.
+     */
+    private inner class Aggregate(private val f: Int, private val offsets: Offsets, private val cursor: Cursor) : State {
+
+        private val function = functions[f]
+        private val agg = function.agg!!
+
+        /**
+         * The accumulator of a frame which starts at UNBOUNDED PRECEDING, otherwise null.
+         */
+        private val accumulator: Accumulator? = when (function.start.type) {
+            RelWindow.BoundType.UNBOUNDED_PRECEDING -> agg.accumulator
+            else -> null
+        }
+
+        /**
+         * The value of the frame starting at each record, for a frame which ends at UNBOUNDED FOLLOWING (and does not
+         * start at UNBOUNDED PRECEDING); it is computed on first use, see [suffixes].
+         */
+        private val suffix = accumulator == null && function.end.type == RelWindow.BoundType.UNBOUNDED_FOLLOWING
+        private var suffixes: Cursor? = null
+
+        /**
+         * The arguments of the records of the frame, and the index of the first one; only used for a sliding frame.
+         */
+        private val frame = ArrayDeque<Array<Datum>>()
+        private var first = 0
+
+        /**
+         * The index of the last record read by the [cursor].
+         */
+        private var end = -1
+
+        override fun value(partition: Partition, i: Int, record: Array<Datum>): Datum {
+            val s = maxOf(bound(partition, i, function.start, offsets.start, true), 0L)
+            val e = minOf(bound(partition, i, function.end, offsets.end, false), partition.size - 1L)
+            if (suffix) {
+                if (s > e) {
+                    return agg.accumulator.value()
+                }
+                val values = suffixes ?: suffixes(partition).also { suffixes = it }
+                return values.seek(s.toInt())[0]
+            }
+            // the end of a frame never moves backward
+            while (end < e) {
+                end++
+                val args = args(cursor.seek(end))
+                when (accumulator) {
+                    null -> frame.addLast(args)
+                    else -> accumulate(accumulator, args)
+                }
+            }
+            if (accumulator != null) {
+                return accumulator.value()
+            }
+            // the start of a frame never moves backward
+            while (first < s && frame.isNotEmpty()) {
+                frame.removeFirst()
+                first++
+            }
+            val acc = agg.accumulator
+            if (s <= e) {
+                frame.forEach { accumulate(acc, it) }
+            }
+            return acc.value()
+        }
+
+        /**
+         * Accumulates the arguments of the records from the last to the first; the value after each record is that of
+         * the frame starting at it. As the start of a frame never moves backward, the values are read with a cursor.
+         */
+        private fun suffixes(partition: Partition): Cursor {
+            val args = (0 until partition.size).asSequence().map { args(cursor.seek(it)) }
+            val acc = agg.accumulator
+            val values = reverse(args.iterator()).asSequence().map {
+                accumulate(acc, it)
+                arrayOf(acc.value())
+            }
+            return Cursor(reverse(values.iterator()))
+        }
+
+        private fun args(record: Array<Datum>): Array<Datum> {
+            val offset = argOffsets[f]
+            return record.copyOfRange(offset, offset + function.args.size)
+        }
+
+        /**
+         * Skips the arguments if any is NULL or MISSING, like [RelOpAggregate].
+         */
+        private fun accumulate(accumulator: Accumulator, args: Array<Datum>) {
+            if (args.any { it.isNull || it.isMissing }) {
+                return
+            }
+            accumulator.next(args)
+        }
+
+        /**
+         * @return the index of the bound of the frame of the record at [i]; it may be outside the partition.
+         */
+        private fun bound(partition: Partition, i: Int, bound: Bound, offset: Long, start: Boolean): Long {
+            return when (bound.type) {
+                RelWindow.BoundType.UNBOUNDED_PRECEDING -> if (start) 0L else -1L
+                RelWindow.BoundType.PRECEDING -> i - offset
+                RelWindow.BoundType.CURRENT_ROW -> when {
+                    function.rows -> i.toLong()
+                    start -> partition.peersStart(i).toLong()
+                    else -> partition.peersEnd(i).toLong()
+                }
+                RelWindow.BoundType.FOLLOWING -> i + offset
+                RelWindow.BoundType.UNBOUNDED_FOLLOWING -> if (start) partition.size.toLong() else partition.size - 1L
+                else -> error("Unexpected window frame bound type: ${bound.type}")
+            }
+        }
+    }
+
+    /**
+     * @return the default value of LAG or LEAD, which is NULL if it has none.
+     */
+    private fun default(f: Int, record: Array<Datum>): Datum = when (functions[f].args.size) {
+        2 -> record[argOffsets[f] + 1]
+        else -> Datum.nullValue()
+    }
+
+    /**
+     * A record of the input, with its partition keys.
+     */
+    private class Entry(
+        @JvmField val partition: Array<Datum>,
+        @JvmField val record: Array<Datum>,
+    )
+
+    /**
+     * The evaluated offsets of a function.
+     */
+    internal class Offsets(
+        @JvmField val offset: Long,
+        @JvmField val start: Long,
+        @JvmField val end: Long,
+    )
+
+    /**
+     * A window function.
+     *
+     * @property kind the [RelWindow.Kind] code.
+     * @property args the arguments evaluated for each record: the value (and default) of LAG and LEAD, or the
+     * arguments of the aggregation function.
+     * @property offset the offset of LAG and LEAD, or null for the default of 1.
+     * @property agg the aggregation function of an aggregate function.
+     * @property rows true if the frame is in ROWS, otherwise RANGE.
+     * @property start the start of the frame.
+     * @property end the end of the frame.
+     */
+    class Function(
+        @JvmField val kind: Int,
+        @JvmField val args: List<ExprValue>,
+        @JvmField val offset: ExprValue?,
+        @JvmField val agg: Agg?,
+        @JvmField val rows: Boolean,
+        @JvmField val start: Bound,
+        @JvmField val end: Bound,
+    ) {
+
+        internal fun offsets(scope: Environment): Offsets = Offsets(
+            offset = offset?.let { offset(it, scope) } ?: 1L,
+            start = start.offset?.let { offset(it, scope) } ?: 0L,
+            end = end.offset?.let { offset(it, scope) } ?: 0L,
+        )
+
+        /**
+         * @return the non-negative offset; it is capped, as no partition has more records.
+         */
+        private fun offset(expr: ExprValue, scope: Environment): Long {
+            val value = expr.eval(scope).getBigIntCoerced()
+            if (value.signum() < 0) {
+                throw PErrors.numericOutOfRangeException(value.toString(), PType.bigint())
+            }
+            return value.min(MAX_OFFSET).toLong()
+        }
+    }
+
+    /**
+     * A bound of a frame.
+     *
+     * @property type the [RelWindow.BoundType] code.
+     * @property offset the offset of a PRECEDING or FOLLOWING bound, otherwise null.
+     */
+    class Bound(
+        @JvmField val type: Int,
+        @JvmField val offset: ExprValue?,
+    )
+
+    private companion object {
+
+        /**
+         * Rough per-record overhead of the buffered record, and the buffer's reference to it.
+         */
+        const val RECORD_OVERHEAD: Long = 32
+
+        val MAX_OFFSET: BigInteger = BigInteger.valueOf(Int.MAX_VALUE.toLong())
+    }
+}
@@ -0,0 +1,46 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.helpers.DatumExactKey
+import org.partiql.eval.internal.helpers.Memo
+import org.partiql.spi.value.Datum
+
+/**
+ * Memoizes the value of an expression (think a subquery) by the values of the variables of the enclosing scopes which
+ * it references, so that it is evaluated once per distinct values rather than once per row.
+ *
+ * Without references, the expression is evaluated once per execution of the statement. Otherwise, the values of at
+ * most [capacity] distinct [keys] are kept, and the least recently used are evicted. Keys are only equal if their
+ * values are identical, see [DatumExactKey], as comparable values (think NULL and MISSING, or 1 and 1.0) may produce
+ * different values; keys which contain a VARIANT are never memoized.
+ *
+ * @property keys the variables which the expression references.
+ */
+internal class ExprMemo(
+    private val expr: ExprValue,
+    private val keys: List<ExprValue>,
+    private val capacity: Int,
+) : ExprValue, Memo {
+
+    private var value: Datum? = null
+
+    private val values = object : LinkedHashMap<DatumExactKey, Datum>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<DatumExactKey, Datum>?): Boolean {
+            return size > capacity
+        }
+    }
+
+    override fun eval(env: Environment): Datum {
+        if (keys.isEmpty()) {
+            return value ?: expr.eval(env).also { value = it }
+        }
+        val key = DatumExactKey.of(Array(keys.size) { keys[it].eval(env) }) ?: return expr.eval(env)
+        return values[key] ?: expr.eval(env).also { values[key] = it }
+    }
+
+    override fun clear() {
+        value = null
+        values.clear()
+    }
+}
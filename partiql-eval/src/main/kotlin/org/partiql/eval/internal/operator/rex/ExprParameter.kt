@@ -0,0 +1,15 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.spi.value.Datum
+
+/**
+ * Implementation for parameter lookup; the value is bound to the environment when the statement is executed.
+ */
+internal class ExprParameter(
+    private var index: Int,
+) : ExprValue {
+
+    override fun eval(env: Environment): Datum = env.getParameter(index)
+}
@@ -14,8 +14,20 @@ internal class ExprPermissive(private var expr: ExprValue) :
         return try {
             expr.eval(env)
         } catch (e: PRuntimeException) {
-            val code = e.error.code()
-            when (code) {
+            if (catches(e)) Datum.missing() else throw e
+        } catch (e: InvalidOperationException) {
+            Datum.missing()
+        }
+    }
+
+    companion object {
+
+        /**
+         * @return true if the error is replaced by the MISSING value in permissive mode.
+         */
+        @JvmStatic
+        fun catches(t: Throwable): Boolean = when (t) {
+            is PRuntimeException -> when (t.error.code()) {
                 PError.FUNCTION_NOT_FOUND,
                 PError.FUNCTION_TYPE_MISMATCH,
                 PError.CARDINALITY_VIOLATION,
@@ -25,11 +37,11 @@ internal class ExprPermissive(private var expr: ExprValue) :
                 PError.TYPE_UNEXPECTED,
                 PError.UNDEFINED_CAST,
                 PError.INVALID_CHAR_VALUE_FOR_CAST,
-                PError.PATH_KEY_NEVER_SUCCEEDS -> Datum.missing()
-                else -> throw e
+                PError.PATH_KEY_NEVER_SUCCEEDS -> true
+                else -> false
             }
-        } catch (e: InvalidOperationException) {
-            Datum.missing()
+            is InvalidOperationException -> true
+            else -> false
         }
     }
 }
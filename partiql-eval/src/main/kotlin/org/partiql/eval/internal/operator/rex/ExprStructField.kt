@@ -1,5 +1,46 @@
 package org.partiql.eval.internal.operator.rex
 
+import org.partiql.eval.Environment
 import org.partiql.eval.ExprValue
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import org.partiql.spi.value.StructShape
 
-internal class ExprStructField(val key: ExprValue, val value: ExprValue)
+/**
+ * @property name the key's text if the key is a string literal, else null.
+ */
+internal class ExprStructField(val key: ExprValue, val value: ExprValue, val name: String? = null) {
+
+    companion object {
+
+        /**
+         * @return the shape of the struct if every key is a string literal, else null.
+         */
+        @JvmStatic
+        fun shape(fields: List<ExprStructField>): StructShape? {
+            val names = fields.map { it.name ?: return null }
+            return StructShape.of(names)
+        }
+
+        /**
+         * Evaluates a struct of the given shape, whose keys need not be evaluated; fields with MISSING values are
+         * omitted, as then the struct does not have the shape.
+         */
+        @JvmStatic
+        fun struct(shape: StructShape, fields: List<ExprStructField>, env: Environment): Datum {
+            var missing = false
+            val values = Array(fields.size) { i ->
+                val value = fields[i].value.eval(env)
+                if (value.isMissing) {
+                    missing = true
+                }
+                value
+            }
+            if (!missing) {
+                return Datum.struct(shape, values)
+            }
+            val present = values.indices.filter { !values[it].isMissing }
+            return Datum.struct(present.map { Field.of(shape.getName(it), values[it]) })
+        }
+    }
+}
@@ -9,7 +9,16 @@ import org.partiql.spi.value.Field
 
 internal class ExprStructPermissive(private val fields: List<ExprStructField>) :
     ExprValue {
+
+    /**
+     * The shape of the struct if every key is a string literal.
+     */
+    private val shape = ExprStructField.shape(fields)
+
     override fun eval(env: Environment): Datum {
+        if (shape != null) {
+            return ExprStructField.struct(shape, fields, env)
+        }
         val fields = fields.mapNotNull {
             val key = it.key.eval(env).lowerSafe()
             val keyString = key.getTextOrNull() ?: return@mapNotNull null
@@ -0,0 +1,68 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.helpers.DatumArrayComparator
+import org.partiql.plan.rex.RexSubqueryComp.Comparison
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * Implementation of the quantified comparison predicate, `<args> <comparison> ANY|SOME|ALL (<input>)`.
+ *
+ * The [args] are compared with each row of the [input] by [Datum.comparator]; a comparison with a NULL or MISSING
+ * value is unknown. The input is only read until the result is known, i.e. the first true comparison of ANY or the
+ * first false comparison of ALL; otherwise the predicate is NULL if a comparison was unknown.
+ *
+ * @property comparison the comparison operator, see [Comparison].
+ * @property all true for ALL, false for ANY and SOME.
+ */
+internal class ExprSubqueryComp(
+    private val input: ExprRelation,
+    private val args: List<ExprValue>,
+    private val comparison: Int,
+    private val all: Boolean,
+) : ExprValue {
+
+    override fun eval(env: Environment): Datum {
+        val values = Array(args.size) { args[it].eval(env) }
+        var unknown = false
+        input.open(env)
+        try {
+            for (row in input) {
+                val result = compare(values, row.values)
+                when {
+                    result == null -> unknown = true
+                    all && !result -> return Datum.bool(false)
+                    !all && result -> return Datum.bool(true)
+                }
+            }
+        } finally {
+            input.close()
+        }
+        return when (unknown) {
+            true -> Datum.nullValue(PType.bool())
+            else -> Datum.bool(all)
+        }
+    }
+
+    /**
+     * @return the comparison of the values with a row, or null if it is unknown.
+     */
+    private fun compare(values: Array<Datum>, row: Array<Datum>): Boolean? {
+        if (values.any { it.isNull || it.isMissing } || row.any { it.isNull || it.isMissing }) {
+            return null
+        }
+        val c = DatumArrayComparator.compare(values, row)
+        return when (comparison) {
+            Comparison.EQ -> c == 0
+            Comparison.NE -> c != 0
+            Comparison.LT -> c < 0
+            Comparison.LE -> c <= 0
+            Comparison.GT -> c > 0
+            Comparison.GE -> c >= 0
+            else -> error("Unsupported subquery comparison: $comparison")
+        }
+    }
+}
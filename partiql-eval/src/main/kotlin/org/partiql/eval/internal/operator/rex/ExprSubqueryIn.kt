@@ -0,0 +1,77 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.helpers.DatumArrayComparator
+import org.partiql.eval.internal.helpers.DatumArrayKey
+import org.partiql.eval.internal.helpers.Memo
+import org.partiql.eval.internal.operator.rel.RelOpJoinSemi
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * Implementation of the IN predicate over a subquery, which is true if some row of the [input] is equal to the [args].
+ *
+ * The rows are compared by [Datum.comparator] and the input is only read until the first equal row; as with the
+ * `in_collection` function, the predicate is NULL (or MISSING) if an argument is NULL (or MISSING). Where the predicate
+ * is a conjunct of a filter, it is instead evaluated as a semi-join, see [RelOpJoinSemi].
+ *
+ * If the [input] is [uncorrelated], i.e. it does not reference the environment of the predicate, then its rows are the
+ * same for every evaluation; so they are read once per execution into a set, and each evaluation is a lookup.
+ */
+internal class ExprSubqueryIn(
+    private val input: ExprRelation,
+    private val args: List<ExprValue>,
+    private val uncorrelated: Boolean,
+) : ExprValue, Memo {
+
+    /**
+     * The rows of an [uncorrelated] input, or null until the first evaluation of the execution.
+     */
+    private var rows: HashSet<DatumArrayKey>? = null
+
+    override fun eval(env: Environment): Datum {
+        val values = Array(args.size) { args[it].eval(env) }
+        for (value in values) {
+            if (value.isMissing) {
+                return Datum.missing(PType.bool())
+            }
+            if (value.isNull) {
+                return Datum.nullValue(PType.bool())
+            }
+        }
+        if (uncorrelated) {
+            val rows = rows ?: read(env).also { rows = it }
+            return Datum.bool(rows.contains(DatumArrayKey(values)))
+        }
+        input.open(env)
+        try {
+            for (row in input) {
+                if (DatumArrayComparator.compare(values, row.values) == 0) {
+                    return Datum.bool(true)
+                }
+            }
+        } finally {
+            input.close()
+        }
+        return Datum.bool(false)
+    }
+
+    override fun clear() {
+        rows = null
+    }
+
+    private fun read(env: Environment): HashSet<DatumArrayKey> {
+        val rows = HashSet<DatumArrayKey>()
+        input.open(env)
+        try {
+            for (row in input) {
+                rows.add(DatumArrayKey(row.values.copyOf()))
+            }
+        } finally {
+            input.close()
+        }
+        return rows
+    }
+}
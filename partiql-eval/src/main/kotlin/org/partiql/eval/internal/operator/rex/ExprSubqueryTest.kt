@@ -0,0 +1,43 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.helpers.DatumArrayKey
+import org.partiql.spi.value.Datum
+
+/**
+ * Implementation of the EXISTS and UNIQUE predicates over a subquery.
+ *
+ *  - EXISTS is true if the [input] has a row; only the first row is read.
+ *  - UNIQUE is true if no two rows of the [input] are equal, where rows with a NULL or MISSING value are not compared.
+ *
+ * @property unique true for UNIQUE, false for EXISTS.
+ */
+internal class ExprSubqueryTest(
+    private val input: ExprRelation,
+    private val unique: Boolean,
+) : ExprValue {
+
+    override fun eval(env: Environment): Datum {
+        input.open(env)
+        try {
+            return Datum.bool(if (unique) unique() else input.hasNext())
+        } finally {
+            input.close()
+        }
+    }
+
+    private fun unique(): Boolean {
+        val rows = HashSet<DatumArrayKey>()
+        for (row in input) {
+            if (row.values.any { it.isNull || it.isMissing }) {
+                continue
+            }
+            if (!rows.add(DatumArrayKey(row.values))) {
+                return false
+            }
+        }
+        return true
+    }
+}
@@ -0,0 +1,24 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.spi.catalog.ScannableTable
+import org.partiql.spi.catalog.TableScan
+import org.partiql.spi.value.Datum
+
+/**
+ * Wrap a [ScannableTable] as an expression operator which only reads what the [TableScan] needs.
+ *
+ * @constructor
+ *
+ * @param table
+ * @param scan
+ */
+internal class ExprTableScan(table: ScannableTable, scan: TableScan) : ExprValue {
+
+    // DO NOT USE FINAL
+    private var _table = table
+    private var _scan = scan
+
+    override fun eval(env: Environment): Datum = _table.getDatum(_scan)
+}
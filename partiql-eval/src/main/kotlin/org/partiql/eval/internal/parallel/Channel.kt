@@ -0,0 +1,109 @@
+package org.partiql.eval.internal.parallel
+
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.TimeUnit
+
+/**
+ * A bounded queue which hands the items (think rows) of one or more producers to a single consumer.
+ *
+ * Each producer adds items via its own [Writer], which hands them over in chunks of [CHUNK] items; a producer waits
+ * once [CAPACITY] chunks are pending, so a slow consumer holds back its producers (backpressure). Items of a producer
+ * are taken in the order they were added, but the items of different producers are interleaved.
+ *
+ * @param region the region of the producers, whose failure is thrown to the consumer.
+ * @param producers the number of producers which will finish.
+ */
+internal class Channel<T : Any>(
+    private val region: Region,
+    private val producers: Int,
+) {
+
+    private val queue = ArrayBlockingQueue<Any>(CAPACITY)
+
+    // consumer state
+    private var chunk: List<T> = emptyList()
+    private var index = 0
+    private var finished = 0
+
+    /**
+     * @return the next item, or null once every producer has finished; this waits for the producers.
+     */
+    @Suppress("UNCHECKED_CAST")
+    fun take(): T? {
+        while (true) {
+            if (index < chunk.size) {
+                return chunk[index++]
+            }
+            if (finished == producers) {
+                return null
+            }
+            val item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)
+            when {
+                item == null -> region.check()
+                item === DONE -> finished++
+                else -> {
+                    chunk = item as List<T>
+                    index = 0
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a writer for one of the producers.
+     */
+    fun writer(): Writer = Writer()
+
+    /**
+     * Adds the items of one producer; a writer is confined to the producer's thread.
+     */
+    inner class Writer {
+
+        private var buffer = ArrayList<T>(CHUNK)
+
+        fun add(item: T) {
+            buffer.add(item)
+            if (buffer.size == CHUNK) {
+                flush()
+            }
+        }
+
+        /**
+         * Hands over the remaining items, and signals that the producer has finished.
+         */
+        fun finish() {
+            flush()
+            queue.put(DONE)
+        }
+
+        private fun flush() {
+            if (buffer.isNotEmpty()) {
+                queue.put(buffer)
+                buffer = ArrayList(CHUNK)
+            }
+        }
+    }
+
+    private companion object {
+
+        /**
+         * The number of items which a producer hands over at once.
+         */
+        const val CHUNK = 64
+
+        /**
+         * The number of chunks which may be pending before producers wait for the consumer.
+         */
+        const val CAPACITY = 16
+
+        /**
+         * How long the consumer waits for a chunk before it checks for a failure of the region.
+         */
+        const val POLL_MILLIS = 10L
+
+        /**
+         * Signals that a producer has finished.
+         */
+        val DONE = Any()
+    }
+}
@@ -0,0 +1,131 @@
+package org.partiql.eval.internal.parallel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Row
+import org.partiql.eval.internal.helpers.DatumHasher
+
+/**
+ * An exchange moves the rows of its producers to its consumers, which run on other threads; it is the boundary
+ * between two sets of partitions of a parallel region. Each producer runs as a task of the region and routes each of
+ * its rows to one or more consumers, and each consumer reads its rows via its [reader].
+ *
+ * A consumer's rows are held in a bounded [Channel], so producers wait for consumers which fall behind.
+ *
+ * @param producers the input partitions; each is opened with the region's environment.
+ * @param consumers the number of output partitions.
+ */
+internal abstract class Exchange(
+    private val producers: List<ExprRelation>,
+    consumers: Int,
+) : Stage {
+
+    @Volatile
+    private var channels: List<Channel<Row>> = emptyList()
+
+    private val readers: List<ExprRelation> = List(consumers) { Reader(it) }
+
+    /**
+     * @return the reader of the given consumer, which is the leaf of one output partition.
+     */
+    fun reader(consumer: Int): ExprRelation = readers[consumer]
+
+    override fun start(region: Region) {
+        val channels = List(readers.size) { Channel<Row>(region, producers.size) }
+        this.channels = channels
+        producers.forEachIndexed { i, producer ->
+            region.submit {
+                val writers = channels.map { it.writer() }
+                producer.open(region.env)
+                try {
+                    for (row in producer) {
+                        route(i, row, region.env, writers)
+                    }
+                } finally {
+                    producer.close()
+                }
+                writers.forEach { it.finish() }
+            }
+        }
+    }
+
+    /**
+     * Adds the row of the given producer to the writers of its consumers; called on the producer's thread.
+     */
+    protected abstract fun route(producer: Int, row: Row, env: Environment, writers: List<Channel<Row>.Writer>)
+
+    private inner class Reader(private val consumer: Int) : ExprRelation {
+
+        private lateinit var channel: Channel<Row>
+
+        private var next: Row? = null
+
+        override fun open(env: Environment) {
+            channel = channels[consumer]
+            next = null
+        }
+
+        override fun hasNext(): Boolean {
+            if (next == null) {
+                next = channel.take()
+            }
+            return next != null
+        }
+
+        override fun next(): Row {
+            if (!hasNext()) {
+                throw NoSuchElementException()
+            }
+            val row = next!!
+            next = null
+            return row
+        }
+
+        override fun close() {
+            next = null
+        }
+    }
+
+    /**
+     * Routes each row to one consumer by the hash of its keys, so rows of equal keys have the same consumer (think
+     * the groups of an aggregation, or the rows of a hash join which may match).
+     *
+     * @param keys the key expressions of each producer; equal keys must be equal according to [DatumHasher].
+     * @param prefix a row to prepend to each row before the keys are evaluated, so that their variable offsets match
+     * the plan (think the right-hand keys of a join), or null.
+     */
+    class Hash(
+        producers: List<ExprRelation>,
+        private val keys: List<List<ExprValue>>,
+        private val prefix: Row?,
+        consumers: Int,
+    ) : Exchange(producers, consumers) {
+
+        override fun route(producer: Int, row: Row, env: Environment, writers: List<Channel<Row>.Writer>) {
+            val scope = if (prefix != null) env.push(prefix, row) else env.push(row)
+            val exprs = keys[producer]
+            val values = Array(exprs.size) { exprs[it].eval(scope) }
+            // spread the hash, as the consumers may themselves partition their rows by its low bits
+            val hash = DatumHasher.hash(values) * SPREAD
+            writers[Math.floorMod(hash, writers.size)].add(row)
+        }
+
+        private companion object {
+            const val SPREAD = -0x61c88647
+        }
+    }
+
+    /**
+     * Routes each row to every consumer (think the build side of a hash join whose other side is partitioned).
+     */
+    class Broadcast(
+        producers: List<ExprRelation>,
+        consumers: Int,
+    ) : Exchange(producers, consumers) {
+
+        override fun route(producer: Int, row: Row, env: Environment, writers: List<Channel<Row>.Writer>) {
+            writers.forEach { it.add(row) }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.partiql.eval.internal.parallel
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.SynchronousQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Holds the degree of parallelism of parallel regions (think a scan of a splittable table, or an aggregation whose
+ * input is partitioned by the group keys) and the threads they use.
+ *
+ * The tasks of a region wait on one another (a consumer of an exchange waits for its producers), so each task has a
+ * thread of its own: regions run on a pool of daemon threads which grows as needed and is shared by all statements
+ * of a compiler; idle threads are released after a minute.
+ *
+ * @property parallelism the number of partitions of each parallel operator of a region.
+ */
+internal class ParallelConfig(
+    @JvmField val parallelism: Int,
+) {
+
+    /**
+     * @return true if operators may run in parallel.
+     */
+    fun enabled(): Boolean = parallelism > 1
+
+    /**
+     * The worker threads; created on first use.
+     */
+    val executor: ExecutorService by lazy {
+        ThreadPoolExecutor(0, Int.MAX_VALUE, 60, TimeUnit.SECONDS, SynchronousQueue(), Factory())
+    }
+
+    private class Factory : ThreadFactory {
+
+        private val id = AtomicInteger()
+
+        override fun newThread(r: Runnable): Thread {
+            val thread = Thread(r, "partiql-worker-${id.incrementAndGet()}")
+            thread.isDaemon = true
+            return thread
+        }
+    }
+
+    companion object {
+
+        /**
+         * Never run in parallel; this is the default.
+         */
+        @JvmField
+        val SERIAL = ParallelConfig(1)
+    }
+}
@@ -0,0 +1,110 @@
+package org.partiql.eval.internal.parallel
+
+import org.partiql.eval.Environment
+import java.util.concurrent.CountDownLatch
+
+/**
+ * The state of one execution (open to close) of a parallel region: the operators below a gather, which run as tasks
+ * on the worker threads and hand rows to each other through [Channel]s.
+ *
+ * The first task to fail cancels the region; its failure is then thrown by whichever thread consumes a channel next.
+ * Cancelling a region interrupts its running tasks, and tasks which have yet to start do not run.
+ *
+ * Tasks are submitted by the thread which opens the region, and that thread alone may [cancel] it.
+ *
+ * @property env the environment with which the operators of the region are opened.
+ */
+internal class Region(
+    private val config: ParallelConfig,
+    @JvmField val env: Environment,
+) {
+
+    private val tasks = mutableListOf<Task>()
+
+    @Volatile
+    private var cancelled = false
+
+    @Volatile
+    private var failure: Throwable? = null
+
+    /**
+     * Runs the body on a worker thread.
+     */
+    fun submit(body: () -> Unit) {
+        val task = Task(body)
+        synchronized(this) {
+            tasks.add(task)
+        }
+        config.executor.execute(task)
+    }
+
+    /**
+     * Throws the failure of a task, if any.
+     */
+    fun check() {
+        failure?.let { throw it }
+    }
+
+    /**
+     * Stops all tasks, and waits for those which are running; the region's operators may be reused afterwards.
+     */
+    fun cancel() {
+        val tasks = synchronized(this) {
+            cancelled = true
+            tasks.forEach { it.interrupt() }
+            tasks.toList()
+        }
+        tasks.forEach { it.done.await() }
+    }
+
+    private fun fail(cause: Throwable) {
+        synchronized(this) {
+            // tasks may fail because they are interrupted, so only the first failure is of interest
+            if (cancelled) {
+                return
+            }
+            failure = cause
+            cancelled = true
+            tasks.forEach { it.interrupt() }
+        }
+    }
+
+    private inner class Task(private val body: () -> Unit) : Runnable {
+
+        @JvmField
+        val done = CountDownLatch(1)
+
+        /**
+         * The thread which runs the task; guarded by the region.
+         */
+        private var thread: Thread? = null
+
+        fun interrupt() {
+            thread?.interrupt()
+        }
+
+        override fun run() {
+            synchronized(this@Region) {
+                if (cancelled) {
+                    done.countDown()
+                    return
+                }
+                thread = Thread.currentThread()
+            }
+            try {
+                body()
+            } catch (e: InterruptedException) {
+                // cancelled
+            } catch (t: Throwable) {
+                fail(t)
+            } finally {
+                synchronized(this@Region) {
+                    thread = null
+                }
+                // clear an interrupt which arrived after the body, as the thread is reused
+                Thread.interrupted()
+                done.countDown()
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.partiql.eval.internal.parallel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.Row
+import org.partiql.spi.catalog.SplittableTable
+import org.partiql.spi.catalog.TableScan
+import org.partiql.spi.catalog.TableSplit
+import org.partiql.spi.value.Datum
+import java.util.Queue
+import java.util.concurrent.ConcurrentLinkedQueue
+
+/**
+ * The splits of a [SplittableTable], which the [Reader]s of a parallel region take one at a time until none are
+ * left; so the readers return disjoint parts of the table which together hold all its rows.
+ */
+internal class SplitSource(
+    private val table: SplittableTable,
+    private val scan: TableScan,
+) : Stage {
+
+    @Volatile
+    private var splits: Queue<TableSplit> = ConcurrentLinkedQueue()
+
+    override fun start(region: Region) {
+        splits = ConcurrentLinkedQueue(table.getSplits(scan))
+    }
+
+    /**
+     * @return a new reader, which is the leaf of one partition of the region.
+     */
+    fun reader(): ExprRelation = Reader()
+
+    private inner class Reader : ExprRelation {
+
+        private lateinit var queue: Queue<TableSplit>
+
+        private var rows: Iterator<Datum> = emptyList<Datum>().iterator()
+
+        override fun open(env: Environment) {
+            queue = splits
+        }
+
+        override fun hasNext(): Boolean {
+            while (!rows.hasNext()) {
+                val split = queue.poll() ?: return false
+                rows = split.getRows()
+            }
+            return true
+        }
+
+        override fun next(): Row = Row(arrayOf(rows.next()))
+
+        override fun close() {
+            rows = emptyList<Datum>().iterator()
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.partiql.eval.internal.parallel
+
+/**
+ * A part of a parallel region which is shared by several of the region's operators, such as the channels of an
+ * [Exchange] or the splits of a [SplitSource]. Its per-execution state is created by [start], which the region's
+ * gather calls for every stage (inputs before consumers) before it opens any operator of the region.
+ */
+internal interface Stage {
+
+    /**
+     * Creates the stage's state for an execution of the region, and submits the stage's own tasks (if any).
+     */
+    fun start(region: Region)
+}
@@ -0,0 +1,260 @@
+package org.partiql.eval.internal.spill
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import org.partiql.spi.value.InvalidOperationException
+import java.io.DataInput
+import java.io.DataOutput
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.nio.charset.StandardCharsets
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetDateTime
+import java.time.OffsetTime
+import java.time.ZoneOffset
+
+/**
+ * A compact binary encoding of [Datum]s used for spilling operator state to local disk. This is NOT a stable format,
+ * it is only ever read back by the same process which wrote it.
+ *
+ * Layout: `<tag:byte> <type> [<value>]` where the value is omitted for NULL and MISSING. VARIANT values are written as
+ * their Ion text, so they are read back as Ion variants and an operator's output has the same types whether or not it
+ * spilled; a variant which cannot be packed as Ion text is lowered, and read back as its concrete type.
+ */
+internal object DatumSerde {
+
+    private const val TAG_VALUE: Int = 0
+    private const val TAG_NULL: Int = 1
+    private const val TAG_MISSING: Int = 2
+
+    @JvmStatic
+    fun write(out: DataOutput, datum: Datum) {
+        when {
+            datum.isMissing -> {
+                out.writeByte(TAG_MISSING)
+                writeType(out, datum.type)
+            }
+            datum.isNull -> {
+                out.writeByte(TAG_NULL)
+                writeType(out, datum.type)
+            }
+            datum.type.code() == PType.VARIANT -> writeVariant(out, datum)
+            else -> {
+                out.writeByte(TAG_VALUE)
+                writeType(out, datum.type)
+                writeValue(out, datum)
+            }
+        }
+    }
+
+    @JvmStatic
+    fun read(input: DataInput): Datum {
+        val tag = input.readByte().toInt()
+        val type = readType(input)
+        return when (tag) {
+            TAG_MISSING -> if (type.code() == PType.UNKNOWN) Datum.missing() else Datum.missing(type)
+            TAG_NULL -> if (type.code() == PType.UNKNOWN) Datum.nullValue() else Datum.nullValue(type)
+            TAG_VALUE -> readValue(input, type)
+            else -> error("Invalid spill tag: $tag")
+        }
+    }
+
+    private fun writeVariant(out: DataOutput, datum: Datum) {
+        val ion = try {
+            datum.pack(StandardCharsets.UTF_8)
+        } catch (e: InvalidOperationException) {
+            write(out, datum.lower())
+            return
+        }
+        out.writeByte(TAG_VALUE)
+        writeType(out, datum.type)
+        writeBytes(out, ion)
+    }
+
+    private fun writeValue(out: DataOutput, datum: Datum) {
+        when (datum.type.code()) {
+            PType.BOOL -> out.writeBoolean(datum.boolean)
+            PType.TINYINT -> out.writeByte(datum.byte.toInt())
+            PType.SMALLINT -> out.writeShort(datum.short.toInt())
+            PType.INTEGER -> out.writeInt(datum.int)
+            PType.BIGINT -> out.writeLong(datum.long)
+            PType.REAL -> out.writeFloat(datum.float)
+            PType.DOUBLE -> out.writeDouble(datum.double)
+            PType.NUMERIC, PType.DECIMAL -> writeDecimal(out, datum.bigDecimal)
+            PType.CHAR, PType.VARCHAR, PType.STRING -> writeString(out, datum.string)
+            PType.BLOB, PType.CLOB -> writeBytes(out, datum.bytes)
+            PType.DATE -> out.writeLong(datum.localDate.toEpochDay())
+            PType.TIME -> out.writeLong(datum.localTime.toNanoOfDay())
+            PType.TIMEZ -> {
+                val v = datum.offsetTime
+                out.writeLong(v.toLocalTime().toNanoOfDay())
+                out.writeInt(v.offset.totalSeconds)
+            }
+            PType.TIMESTAMP -> {
+                val v = datum.localDateTime
+                out.writeLong(v.toLocalDate().toEpochDay())
+                out.writeLong(v.toLocalTime().toNanoOfDay())
+            }
+            PType.TIMESTAMPZ -> {
+                val v = datum.offsetDateTime
+                out.writeLong(v.toLocalDate().toEpochDay())
+                out.writeLong(v.toLocalTime().toNanoOfDay())
+                out.writeInt(v.offset.totalSeconds)
+            }
+            PType.ARRAY, PType.BAG -> {
+                val values = datum.toList()
+                out.writeInt(values.size)
+                values.forEach { write(out, it) }
+            }
+            PType.STRUCT, PType.ROW -> {
+                val fields = datum.fields.asSequence().toList()
+                out.writeInt(fields.size)
+                fields.forEach {
+                    writeString(out, it.name)
+                    write(out, it.value)
+                }
+            }
+            else -> error("Cannot spill value of type: ${datum.type}")
+        }
+    }
+
+    private fun readValue(input: DataInput, type: PType): Datum = when (type.code()) {
+        PType.BOOL -> Datum.bool(input.readBoolean())
+        PType.TINYINT -> Datum.tinyint(input.readByte())
+        PType.SMALLINT -> Datum.smallint(input.readShort())
+        PType.INTEGER -> Datum.integer(input.readInt())
+        PType.BIGINT -> Datum.bigint(input.readLong())
+        PType.REAL -> Datum.real(input.readFloat())
+        PType.DOUBLE -> Datum.doublePrecision(input.readDouble())
+        PType.NUMERIC -> Datum.numeric(readDecimal(input), type.precision, type.scale)
+        PType.DECIMAL -> Datum.decimal(readDecimal(input), type.precision, type.scale)
+        PType.CHAR -> Datum.character(readString(input), type.length)
+        PType.VARCHAR -> Datum.varchar(readString(input), type.length)
+        PType.STRING -> Datum.string(readString(input))
+        PType.BLOB -> Datum.blob(readBytes(input), type.length)
+        PType.CLOB -> Datum.clob(readBytes(input), type.length)
+        PType.DATE -> Datum.date(LocalDate.ofEpochDay(input.readLong()))
+        PType.TIME -> Datum.time(LocalTime.ofNanoOfDay(input.readLong()), type.precision)
+        PType.TIMEZ -> {
+            val time = LocalTime.ofNanoOfDay(input.readLong())
+            val offset = ZoneOffset.ofTotalSeconds(input.readInt())
+            Datum.timez(OffsetTime.of(time, offset), type.precision)
+        }
+        PType.TIMESTAMP -> {
+            val date = LocalDate.ofEpochDay(input.readLong())
+            val time = LocalTime.ofNanoOfDay(input.readLong())
+            Datum.timestamp(LocalDateTime.of(date, time), type.precision)
+        }
+        PType.TIMESTAMPZ -> {
+            val date = LocalDate.ofEpochDay(input.readLong())
+            val time = LocalTime.ofNanoOfDay(input.readLong())
+            val offset = ZoneOffset.ofTotalSeconds(input.readInt())
+            Datum.timestampz(OffsetDateTime.of(date, time, offset), type.precision)
+        }
+        PType.ARRAY -> Datum.array(readValues(input))
+        PType.BAG -> Datum.bag(readValues(input))
+        PType.STRUCT -> Datum.struct(readFields(input))
+        PType.ROW -> Datum.row(type.fields.toList(), readFields(input))
+        PType.VARIANT -> Datum.ion(readString(input))
+        else -> error("Cannot read spilled value of type: $type")
+    }
+
+    private fun readValues(input: DataInput): List<Datum> {
+        val n = input.readInt()
+        return List(n) { read(input) }
+    }
+
+    private fun readFields(input: DataInput): List<Field> {
+        val n = input.readInt()
+        return List(n) {
+            val name = readString(input)
+            Field.of(name, read(input))
+        }
+    }
+
+    private fun writeType(out: DataOutput, type: PType) {
+        val code = type.code()
+        out.writeByte(code)
+        when (code) {
+            PType.NUMERIC, PType.DECIMAL -> {
+                out.writeInt(type.precision)
+                out.writeInt(type.scale)
+            }
+            PType.CHAR, PType.VARCHAR, PType.BLOB, PType.CLOB -> out.writeInt(type.length)
+            PType.TIME, PType.TIMEZ, PType.TIMESTAMP, PType.TIMESTAMPZ -> out.writeInt(type.precision)
+            PType.ARRAY, PType.BAG -> writeType(out, type.typeParameter)
+            PType.ROW -> {
+                val fields = type.fields
+                out.writeInt(fields.size)
+                fields.forEach {
+                    writeString(out, it.name)
+                    writeType(out, it.type)
+                }
+            }
+            else -> Unit
+        }
+    }
+
+    private fun readType(input: DataInput): PType = when (val code = input.readByte().toInt()) {
+        PType.NUMERIC -> PType.numeric(input.readInt(), input.readInt())
+        PType.DECIMAL -> PType.decimal(input.readInt(), input.readInt())
+        PType.CHAR -> PType.character(input.readInt())
+        PType.VARCHAR -> PType.varchar(input.readInt())
+        PType.BLOB -> PType.blob(input.readInt())
+        PType.CLOB -> PType.clob(input.readInt())
+        PType.TIME -> PType.time(input.readInt())
+        PType.TIMEZ -> PType.timez(input.readInt())
+        PType.TIMESTAMP -> PType.timestamp(input.readInt())
+        PType.TIMESTAMPZ -> PType.timestampz(input.readInt())
+        PType.ARRAY -> PType.array(readType(input))
+        PType.BAG -> PType.bag(readType(input))
+        PType.ROW -> {
+            val n = input.readInt()
+            PType.row(
+                List(n) {
+                    val name = readString(input)
+                    PTypeField.of(name, readType(input))
+                }
+            )
+        }
+        PType.STRUCT -> PType.struct()
+        PType.UNKNOWN -> PType.unknown()
+        // Ion is the only encoding of variants
+        PType.VARIANT -> PType.variant("ion")
+        else -> PType.of(code)
+    }
+
+    private fun writeDecimal(out: DataOutput, value: BigDecimal) {
+        out.writeInt(value.scale())
+        writeBytes(out, value.unscaledValue().toByteArray())
+    }
+
+    private fun readDecimal(input: DataInput): BigDecimal {
+        val scale = input.readInt()
+        return BigDecimal(BigInteger(readBytes(input)), scale)
+    }
+
+    /**
+     * Strings, including field names, are length-prefixed UTF-8 as [DataOutput.writeUTF] is limited to 65535 bytes.
+     */
+    private fun writeString(out: DataOutput, value: String) {
+        writeBytes(out, value.toByteArray(StandardCharsets.UTF_8))
+    }
+
+    private fun readString(input: DataInput): String = String(readBytes(input), StandardCharsets.UTF_8)
+
+    private fun writeBytes(out: DataOutput, bytes: ByteArray) {
+        out.writeInt(bytes.size)
+        out.write(bytes)
+    }
+
+    private fun readBytes(input: DataInput): ByteArray {
+        val bytes = ByteArray(input.readInt())
+        input.readFully(bytes)
+        return bytes
+    }
+}
@@ -0,0 +1,64 @@
+package org.partiql.eval.internal.spill
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * Rough estimates of the on-heap footprint of [Datum]s. These are used to account operator state against a
+ * [SpillConfig.memoryLimit]; they are not meant to be exact, only proportional to actual usage.
+ */
+internal object DatumSize {
+
+    private const val OBJECT: Long = 16
+    private const val REFERENCE: Long = 8
+    private const val ARRAY: Long = 16
+    private const val STRING: Long = 40
+
+    /**
+     * @return the estimated number of bytes retained by [datum].
+     */
+    @JvmStatic
+    fun estimate(datum: Datum): Long {
+        if (datum.isNull || datum.isMissing) {
+            return OBJECT
+        }
+        return when (datum.type.code()) {
+            PType.VARIANT -> OBJECT + estimate(datum.lower())
+            PType.BOOL, PType.TINYINT, PType.SMALLINT, PType.INTEGER, PType.REAL -> OBJECT + 8
+            PType.BIGINT, PType.DOUBLE -> OBJECT + 16
+            PType.NUMERIC, PType.DECIMAL -> OBJECT + 48 + datum.bigDecimal.unscaledValue().bitLength() / 8
+            PType.CHAR, PType.VARCHAR, PType.STRING -> OBJECT + STRING + 2L * datum.string.length
+            PType.BLOB, PType.CLOB -> OBJECT + ARRAY + datum.bytes.size
+            PType.DATE -> OBJECT + 24
+            PType.TIME, PType.TIMEZ -> OBJECT + 48
+            PType.TIMESTAMP, PType.TIMESTAMPZ -> OBJECT + 72
+            PType.ARRAY, PType.BAG -> {
+                var size = OBJECT + ARRAY
+                for (value in datum) {
+                    size += REFERENCE + estimate(value)
+                }
+                size
+            }
+            PType.STRUCT, PType.ROW -> {
+                var size = OBJECT + ARRAY
+                for (field in datum.fields) {
+                    size += OBJECT + STRING + 2L * field.name.length + estimate(field.value)
+                }
+                size
+            }
+            else -> OBJECT
+        }
+    }
+
+    /**
+     * @return the estimated number of bytes retained by [values], including the array itself.
+     */
+    @JvmStatic
+    fun estimate(values: Array<Datum>): Long {
+        var size = ARRAY
+        for (value in values) {
+            size += REFERENCE + estimate(value)
+        }
+        return size
+    }
+}
@@ -0,0 +1,53 @@
+package org.partiql.eval.internal.spill
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+/**
+ * Holds the memory budget of blocking operators (think GROUP BY) and where they spill to once it is exceeded.
+ *
+ * @property memoryLimit the estimated number of bytes each blocking operator may hold in memory before spilling.
+ * @property directory the directory for spill files, or null to use the default temporary-file directory.
+ */
+internal class SpillConfig(
+    @JvmField val memoryLimit: Long,
+    @JvmField val directory: Path?,
+) {
+
+    /**
+     * @return true if the estimated number of bytes exceeds this budget.
+     */
+    fun exceeded(bytes: Long): Boolean = bytes > memoryLimit
+
+    /**
+     * @return the budget of each of [parts] operators which together make up one blocking operator (think the
+     * partitions of a parallel aggregation).
+     */
+    fun share(parts: Int): SpillConfig = when (memoryLimit) {
+        Long.MAX_VALUE -> this
+        else -> SpillConfig(memoryLimit / parts, directory)
+    }
+
+    /**
+     * @return a new, empty spill file.
+     */
+    fun newFile(): SpillFile {
+        val path = when (directory) {
+            null -> Files.createTempFile(PREFIX, SUFFIX)
+            else -> Files.createTempFile(directory, PREFIX, SUFFIX)
+        }
+        return SpillFile(path)
+    }
+
+    companion object {
+
+        private const val PREFIX = "partiql-spill-"
+        private const val SUFFIX = ".bin"
+
+        /**
+         * Never spill; this is the default.
+         */
+        @JvmField
+        val UNBOUNDED = SpillConfig(Long.MAX_VALUE, null)
+    }
+}
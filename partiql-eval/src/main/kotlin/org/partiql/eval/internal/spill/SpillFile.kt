@@ -0,0 +1,88 @@
+package org.partiql.eval.internal.spill
+
+import org.partiql.spi.value.Datum
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.nio.file.Files
+import java.nio.file.Path
+
+/**
+ * A temporary file of [Datum] records. Records are appended with [write], then the file is read back (once or many
+ * times) with [read] after it has been sealed by [finish]. The file is removed on [delete], which also closes the
+ * readers that are still open, e.g. those of a consumer which stopped early.
+ */
+internal class SpillFile(private val path: Path) : AutoCloseable {
+
+    private var out: DataOutputStream? = DataOutputStream(BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE))
+
+    /**
+     * The streams of the iterators of [read] which are not yet exhausted.
+     */
+    private val readers = mutableListOf<DataInputStream>()
+
+    /**
+     * The number of records written to this file.
+     */
+    var size: Long = 0
+        private set
+
+    /**
+     * Append a record to this file.
+     */
+    fun write(record: Array<Datum>) {
+        val out = this.out ?: error("Spill file has already been sealed")
+        out.writeInt(record.size)
+        for (value in record) {
+            DatumSerde.write(out, value)
+        }
+        size++
+    }
+
+    /**
+     * Flush and close the writer; no more records may be written.
+     */
+    fun finish() {
+        out?.close()
+        out = null
+    }
+
+    /**
+     * @return an iterator of all records in the file; the underlying stream is opened on the first record, and it is
+     * closed once the iterator is exhausted or the file is deleted.
+     */
+    fun read(): Iterator<Array<Datum>> {
+        finish()
+        val n = size
+        return iterator {
+            val input = DataInputStream(BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))
+            readers.add(input)
+            try {
+                for (i in 0 until n) {
+                    val record = Array(input.readInt()) { DatumSerde.read(input) }
+                    yield(record)
+                }
+            } finally {
+                readers.remove(input)
+                input.close()
+            }
+        }
+    }
+
+    /**
+     * Close the open readers, and remove the file from disk.
+     */
+    fun delete() {
+        finish()
+        readers.forEach { it.close() }
+        readers.clear()
+        Files.deleteIfExists(path)
+    }
+
+    override fun close() = delete()
+
+    private companion object {
+        const val BUFFER_SIZE = 64 * 1024
+    }
+}
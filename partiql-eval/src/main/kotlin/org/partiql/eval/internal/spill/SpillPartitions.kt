@@ -0,0 +1,61 @@
+package org.partiql.eval.internal.spill
+
+import org.partiql.spi.value.Datum
+
+/**
+ * Hash partitions of spilled records. A record is written to one of [FANOUT] files chosen by bits of its hash; each
+ * [level] uses different bits, so the records of one partition may be partitioned again at the next level. Files are
+ * created on first write.
+ *
+ * @property level the partitioning depth, which must be less than [MAX_LEVEL].
+ */
+internal class SpillPartitions(
+    private val spill: SpillConfig,
+    @JvmField val level: Int,
+) {
+
+    private val files = arrayOfNulls<SpillFile>(FANOUT)
+
+    /**
+     * Append a record to the partition of the given hash.
+     */
+    fun write(hash: Int, record: Array<Datum>) {
+        val index = index(hash)
+        val file = files[index] ?: spill.newFile().also { files[index] = it }
+        file.write(record)
+    }
+
+    /**
+     * @return the i-th partition, or null if no record has been written to it.
+     */
+    operator fun get(i: Int): SpillFile? = files[i]
+
+    /**
+     * Remove all partition files from disk.
+     */
+    fun delete() {
+        for (i in files.indices) {
+            files[i]?.delete()
+            files[i] = null
+        }
+    }
+
+    private fun index(hash: Int): Int {
+        val mixed = hash * GOLDEN_RATIO
+        return (mixed ushr (Int.SIZE_BITS - PARTITION_BITS * (level + 1))) and (FANOUT - 1)
+    }
+
+    companion object {
+
+        private const val PARTITION_BITS = 4
+
+        const val FANOUT = 1 shl PARTITION_BITS
+
+        /**
+         * Once all hash bits have been used for partitioning, further spilling cannot split a partition.
+         */
+        const val MAX_LEVEL = Int.SIZE_BITS / PARTITION_BITS
+
+        private const val GOLDEN_RATIO = -0x61c88647
+    }
+}
@@ -0,0 +1,49 @@
+package org.partiql.eval
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.spi.value.Datum
+import kotlin.test.assertEquals
+
+class EnvironmentTest {
+
+    /**
+     * Test a pushed scope remains valid after other scopes are pushed onto its parent (think a lazy value).
+     */
+    @Test
+    fun push() {
+        val outer = Environment().push(Row.of(Datum.integer(0)))
+        val first = outer.push(Row.of(Datum.integer(1)))
+        val second = outer.push(Row.of(Datum.integer(2)))
+        assertEquals(1, first.get(0, 0).int)
+        assertEquals(2, second.get(0, 0).int)
+        assertEquals(0, first.get(1, 0).int)
+        assertThrows<RuntimeException> { first.get(2, 0) }
+        assertThrows<RuntimeException> { first.get(0, 1) }
+    }
+
+    @Test
+    fun frame() {
+        val outer = Environment().push(Row.of(Datum.integer(0)))
+        val frame = outer.frame()
+        assertEquals(1, frame.set(Row.of(Datum.integer(1))).get(0, 0).int)
+        assertEquals(2, frame.set(Row.of(Datum.integer(2))).get(0, 0).int)
+        assertEquals(0, frame.get(1, 0).int)
+        assertThrows<IllegalStateException> { outer.set(Row.of(Datum.integer(3))) }
+    }
+
+    /**
+     * Test the variables of a scope over two rows (think a join) resolve across both rows, as if concatenated.
+     */
+    @Test
+    fun concatenated() {
+        val lhs = Row.of(Datum.integer(0), Datum.integer(1))
+        val rhs = Row.of(Datum.integer(2))
+        val frame = Environment().frame()
+        listOf(Environment().push(lhs, rhs), frame.set(lhs, rhs)).forEach { scope ->
+            assertEquals(listOf(0, 1, 2), (0..2).map { scope.get(0, it).int })
+            assertThrows<RuntimeException> { scope.get(0, 3) }
+        }
+        assertThrows<RuntimeException> { frame.set(lhs).get(0, 2) }
+    }
+}
@@ -0,0 +1,104 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import org.partiql.eval.Mode
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.SplittableTable
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.catalog.TableScan
+import org.partiql.spi.catalog.TableSplit
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import kotlin.test.assertEquals
+
+/**
+ * Tests that aggregations, joins, and sorts which run as parallel regions (exchanging rows between partitions)
+ * return the same result as when they run on the calling thread.
+ */
+class ParallelRegionTest {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.standard()
+    private val parallel = PartiQLCompiler.builder().parallelism(4).build()
+    private val serial = PartiQLCompiler.standard()
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            // aggregation partitioned by its group keys, over a partitioned scan and over a serial one
+            "SELECT t.a % 7 AS k, COUNT(*) AS n, SUM(t.a) AS s FROM t GROUP BY t.a % 7",
+            "SELECT u.b AS k, COUNT(DISTINCT u.a) AS n FROM u GROUP BY u.b",
+            // joins whose inputs are exchanged by their keys
+            "SELECT t.a AS a, u.b AS b FROM t JOIN u ON t.a = u.a",
+            "SELECT t.a AS a, u.b AS b FROM t LEFT JOIN u ON t.a = u.a AND u.b > 3",
+            "SELECT t.a AS a, u.b AS b FROM u RIGHT JOIN t ON t.a = u.a",
+            "SELECT t.a AS a, v.a AS b FROM t FULL JOIN t AS v ON t.a = v.a + 5000",
+            // aggregation over a join
+            "SELECT u.b AS k, COUNT(*) AS n FROM t JOIN u ON t.a = u.a GROUP BY u.b",
+        ]
+    )
+    fun sameRows(query: String) {
+        val expected = execute(serial, query)
+        val actual = execute(parallel, query)
+        assertEquals(0, Datum.comparator().compare(expected, actual), "Expected $expected, actual $actual")
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "SELECT VALUE t.a FROM t WHERE t.a % 5 = 0 ORDER BY t.a DESC",
+            "SELECT t.a % 10 AS k, COUNT(*) AS n FROM t GROUP BY t.a % 10 ORDER BY n, k",
+        ]
+    )
+    fun sameOrder(query: String) {
+        val expected = execute(serial, query)
+        val actual = execute(parallel, query)
+        assertEquals(expected.type.code(), actual.type.code())
+        assertEquals(expected.toList().size, actual.toList().size)
+        expected.zip(actual).forEach { (e, a) ->
+            assertEquals(0, Datum.comparator().compare(e, a), "Expected $e, actual $a")
+        }
+    }
+
+    private fun execute(compiler: PartiQLCompiler, query: String): Datum {
+        val u = Table.standard(
+            name = Name.of("u"),
+            schema = PType.dynamic(),
+            datum = Datum.bag((0 until 500).map { row(it * 3, it % 10) }),
+        )
+        val catalog = Catalog.builder().name("memory").define(SplitTable(splits = 8, rows = 1000)).define(u).build()
+        val session = Session.builder().catalog("memory").catalogs(catalog).build()
+        val statement = parser.parse(query).statements[0]
+        val plan = planner.plan(statement, session).plan
+        return DatumMaterialize.materialize(compiler.prepare(plan, Mode.STRICT()).execute())
+    }
+
+    private fun row(a: Int, b: Int): Datum = Datum.struct(
+        listOf(Field.of("a", Datum.bigint(a.toLong())), Field.of("b", Datum.bigint(b.toLong())))
+    )
+
+    /**
+     * A table of rows `{a: i}` for i in 0 until splits * rows, where split s holds rows s * rows until (s + 1) * rows.
+     */
+    private class SplitTable(private val splits: Int, private val rows: Int) : SplittableTable {
+
+        override fun getName(): Name = Name.of("t")
+
+        override fun getDatum(): Datum = Datum.bag((0 until splits * rows).map { row(it) })
+
+        override fun getSplits(scan: TableScan): List<TableSplit> = (0 until splits).map { s ->
+            object : TableSplit {
+                override fun getRows(): Iterator<Datum> = (s * rows until (s + 1) * rows).map { row(it) }.iterator()
+            }
+        }
+
+        private fun row(i: Int): Datum = Datum.struct(listOf(Field.of("a", Datum.bigint(i.toLong()))))
+    }
+}
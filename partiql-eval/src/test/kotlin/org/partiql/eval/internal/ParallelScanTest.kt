@@ -0,0 +1,106 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.eval.Mode
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.SplittableTable
+import org.partiql.spi.catalog.TableScan
+import org.partiql.spi.catalog.TableSplit
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import java.util.Collections
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+/**
+ * Tests that scans of a [SplittableTable] process the table's splits in parallel, and produce the same rows as a
+ * serial scan (in no particular order).
+ */
+class ParallelScanTest {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.standard()
+    private val parallel = PartiQLCompiler.builder().parallelism(4).build()
+    private val serial = PartiQLCompiler.standard()
+
+    @Test
+    fun filterAndProject() {
+        val table = SplitTable(splits = 8, rows = 1000)
+        val query = "SELECT t.a * 2 AS x FROM t WHERE t.a % 3 = 0"
+        val expected = execute(serial, table, query)
+        val actual = execute(parallel, table, query)
+        assertEquals(0, Datum.comparator().compare(expected, actual), "Expected $expected, actual $actual")
+        assertEquals(2667, actual.count())
+        assertTrue(table.threads.size > 1, "Expected splits to be read by several threads, found ${table.threads}")
+    }
+
+    @Test
+    fun aggregateOverParallelScan() {
+        val table = SplitTable(splits = 8, rows = 1000)
+        val result = execute(parallel, table, "SELECT COUNT(*) AS n, SUM(t.a) AS s FROM t WHERE t.a >= 4000")
+        val row = result.single()
+        assertEquals(0, Datum.comparator().compare(Datum.bigint(4000), row.get("n")))
+        assertEquals(0, Datum.comparator().compare(Datum.bigint((4000L until 8000L).sum()), row.get("s")))
+    }
+
+    @Test
+    fun limitStopsEarly() {
+        val table = SplitTable(splits = 16, rows = 10_000)
+        val result = execute(parallel, table, "SELECT VALUE t.a FROM t LIMIT 5")
+        assertEquals(5, result.count())
+    }
+
+    @Test
+    fun fewerSplitsThanThreads() {
+        assertEquals(0, execute(parallel, SplitTable(splits = 0, rows = 10), "SELECT VALUE t.a FROM t").count())
+        assertEquals(10, execute(parallel, SplitTable(splits = 1, rows = 10), "SELECT VALUE t.a FROM t").count())
+    }
+
+    @Test
+    fun errorOfAWorker() {
+        val table = SplitTable(splits = 8, rows = 100)
+        assertThrows<PRuntimeException> {
+            execute(parallel, table, "SELECT VALUE 1 / (t.a - 555) FROM t")
+        }
+    }
+
+    private fun execute(compiler: PartiQLCompiler, table: SplittableTable, query: String): Datum {
+        val catalog = Catalog.builder().name("memory").define(table).build()
+        val session = Session.builder().catalog("memory").catalogs(catalog).build()
+        val statement = parser.parse(query).statements[0]
+        val plan = planner.plan(statement, session).plan
+        return DatumMaterialize.materialize(compiler.prepare(plan, Mode.STRICT()).execute())
+    }
+
+    /**
+     * A table of rows `{a: i}` for i in 0 until splits * rows, where split s holds rows s * rows until (s + 1) * rows.
+     */
+    private class SplitTable(private val splits: Int, private val rows: Int) : SplittableTable {
+
+        val threads: MutableSet<String> = Collections.synchronizedSet(mutableSetOf())
+
+        override fun getName(): Name = Name.of("t")
+
+        override fun getDatum(): Datum = Datum.bag((0 until splits * rows).map { row(it) })
+
+        override fun getSplits(scan: TableScan): List<TableSplit> = (0 until splits).map { s ->
+            object : TableSplit {
+                override fun getRows(): Iterator<Datum> {
+                    threads.add(Thread.currentThread().name)
+                    // slow enough for several workers to take splits before one has read them all
+                    Thread.sleep(5)
+                    return (s * rows until (s + 1) * rows).asSequence().map { row(it) }.iterator()
+                }
+            }
+        }
+
+        private fun row(i: Int): Datum = Datum.struct(listOf(Field.of("a", Datum.bigint(i.toLong()))))
+    }
+}
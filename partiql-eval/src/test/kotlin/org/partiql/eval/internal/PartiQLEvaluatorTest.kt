@@ -50,6 +50,11 @@ class PartiQLEvaluatorTest {
     @Execution(ExecutionMode.CONCURRENT)
     fun aggregationTests(tc: SuccessTestCase) = tc.run()
 
+    @ParameterizedTest
+    @MethodSource("windowTestCases")
+    @Execution(ExecutionMode.CONCURRENT)
+    fun windowTests(tc: SuccessTestCase) = tc.run()
+
     @ParameterizedTest
     @MethodSource("joinTestCases")
     @Execution(ExecutionMode.CONCURRENT)
@@ -65,8 +70,289 @@ class PartiQLEvaluatorTest {
     @Execution(ExecutionMode.CONCURRENT)
     fun castTests(tc: SuccessTestCase) = tc.run()
 
+    @ParameterizedTest
+    @MethodSource("spillTestCases")
+    @Execution(ExecutionMode.CONCURRENT)
+    fun spillTests(tc: SuccessTestCase) = tc.run()
+
+    @ParameterizedTest
+    @MethodSource("batchTestCases")
+    @Execution(ExecutionMode.CONCURRENT)
+    fun batchTests(tc: SuccessTestCase) = tc.run()
+
+    @ParameterizedTest
+    @MethodSource("batchFailureTestCases")
+    @Execution(ExecutionMode.CONCURRENT)
+    fun batchFailureTests(tc: FailureTestCase) = tc.run()
+
+    @ParameterizedTest
+    @MethodSource("codegenTestCases")
+    @Execution(ExecutionMode.CONCURRENT)
+    fun codegenTests(tc: SuccessTestCase) = tc.run()
+
+    @ParameterizedTest
+    @MethodSource("codegenFailureTestCases")
+    @Execution(ExecutionMode.CONCURRENT)
+    fun codegenFailureTests(tc: FailureTestCase) = tc.run()
+
     companion object {
 
+        /**
+         * A compiler whose blocking operators spill as soon as they hold any state.
+         */
+        private val spilling = PartiQLCompiler.builder().memoryLimit(0).build()
+
+        private val longName = "k".repeat(70_000)
+
+        @JvmStatic
+        fun spillTestCases() = listOf(
+            SuccessTestCase(
+                input = """
+                    SELECT k, COUNT(*) AS c, SUM(t.v) AS s, COUNT(DISTINCT t.v) AS d
+                    FROM [
+                        { 'k': 'a', 'v': 1 }, { 'k': 'b', 'v': 2 }, { 'k': 'c', 'v': 3 },
+                        { 'k': 'a', 'v': 1 }, { 'k': 'b', 'v': 5 }, { 'k': 'd', 'v': null }
+                    ] AS t
+                    GROUP BY t.k AS k
+                """.trimIndent(),
+                expected = bagValue(
+                    structValue("k" to stringValue("a"), "c" to int64Value(2), "s" to int32Value(2), "d" to int64Value(1)),
+                    structValue("k" to stringValue("b"), "c" to int64Value(2), "s" to int32Value(7), "d" to int64Value(2)),
+                    structValue("k" to stringValue("c"), "c" to int64Value(1), "s" to int32Value(3), "d" to int64Value(1)),
+                    structValue("k" to stringValue("d"), "c" to int64Value(1), "s" to nullValue(), "d" to int64Value(0)),
+                ),
+                compiler = spilling,
+            ),
+            // ORDER BY -- More runs than can be merged at once
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE t.i
+                    FROM [ ${(0 until 100).joinToString { "{ 'k': ${it % 3}, 'i': ${(it * 37) % 100} }" }} ] AS t
+                    ORDER BY t.k DESC, t.i
+                """.trimIndent(),
+                expected = listValue(
+                    (0 until 100).map { (it % 3) to (it * 37) % 100 }
+                        .sortedWith(compareBy({ -it.first }, { it.second }))
+                        .map { int32Value(it.second) }
+                ),
+                compiler = spilling,
+            ),
+            // ORDER BY with LIMIT and OFFSET -- The top-n heap exceeds the budget and falls back to the sort
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE t.i
+                    FROM [ ${(0 until 100).joinToString { "{ 'k': ${it % 3}, 'i': ${(it * 37) % 100} }" }} ] AS t
+                    ORDER BY t.k DESC
+                    LIMIT 1000 OFFSET 5
+                """.trimIndent(),
+                expected = listValue(
+                    (0 until 100).map { (it % 3) to (it * 37) % 100 }
+                        .sortedWith(compareBy { -it.first })
+                        .drop(5)
+                        .map { int32Value(it.second) }
+                ),
+                compiler = spilling,
+            ),
+            // ORDER BY -- Field names longer than 65535 bytes
+            SuccessTestCase(
+                input = "SELECT VALUE t FROM << { '$longName': 2 }, { '$longName': 1 } >> AS t ORDER BY t",
+                expected = listValue(
+                    structValue(longName to int32Value(1)),
+                    structValue(longName to int32Value(2)),
+                ),
+                compiler = spilling,
+            ),
+            // Window -- Each partition is written to a file
+            SuccessTestCase(
+                input = """
+                    SELECT t.k AS k, SUM(t.v) OVER (PARTITION BY t.k ORDER BY t.v) AS s, RANK() OVER (PARTITION BY t.k ORDER BY t.v) AS r
+                    FROM [ { 'k': 'a', 'v': 1 }, { 'k': 'b', 'v': 2 }, { 'k': 'a', 'v': 3 }, { 'k': 'a', 'v': 1 } ] AS t
+                """.trimIndent(),
+                expected = bagValue(
+                    structValue("k" to stringValue("a"), "s" to int32Value(2), "r" to int64Value(1)),
+                    structValue("k" to stringValue("a"), "s" to int32Value(2), "r" to int64Value(1)),
+                    structValue("k" to stringValue("a"), "s" to int32Value(5), "r" to int64Value(3)),
+                    structValue("k" to stringValue("b"), "s" to int32Value(2), "r" to int64Value(1)),
+                ),
+                compiler = spilling,
+            ),
+            // Window -- LEAD and the frames read the partition file with cursors of their own, and the frame which
+            // ends at UNBOUNDED FOLLOWING is accumulated from a reversed copy of its arguments
+            SuccessTestCase(
+                input = """
+                    SELECT t.v AS v,
+                        LEAD(t.v) OVER (PARTITION BY t.k ORDER BY t.v) AS n,
+                        SUM(t.v) OVER (PARTITION BY t.k ORDER BY t.v ROWS BETWEEN 1 PRECEDING AND 1 FOLLOWING) AS m,
+                        SUM(t.v) OVER (PARTITION BY t.k ORDER BY t.v ROWS BETWEEN CURRENT ROW AND UNBOUNDED FOLLOWING) AS r
+                    FROM [ { 'k': 'a', 'v': 4 }, { 'k': 'b', 'v': 2 }, { 'k': 'a', 'v': 1 }, { 'k': 'a', 'v': 6 }, { 'k': 'b', 'v': 5 }, { 'k': 'a', 'v': 3 } ] AS t
+                """.trimIndent(),
+                expected = bagValue(
+                    structValue("v" to int32Value(1), "n" to int32Value(3), "m" to int32Value(4), "r" to int32Value(14)),
+                    structValue("v" to int32Value(3), "n" to int32Value(4), "m" to int32Value(8), "r" to int32Value(13)),
+                    structValue("v" to int32Value(4), "n" to int32Value(6), "m" to int32Value(13), "r" to int32Value(10)),
+                    structValue("v" to int32Value(6), "n" to nullValue(), "m" to int32Value(10), "r" to int32Value(6)),
+                    structValue("v" to int32Value(2), "n" to int32Value(5), "m" to int32Value(7), "r" to int32Value(7)),
+                    structValue("v" to int32Value(5), "n" to nullValue(), "m" to int32Value(7), "r" to int32Value(5)),
+                ),
+                compiler = spilling,
+            ),
+            SuccessTestCase(
+                input = "SELECT DISTINCT VALUE t FROM <<3, 1, 2, 1, 3.0, 2, NULL, MISSING>> AS t;",
+                expected = bagValue(int32Value(1), int32Value(2), int32Value(3), nullValue()),
+                compiler = spilling,
+            ),
+            SuccessTestCase(
+                input = "SELECT VALUE t FROM <<1, 2, 2>> AS t UNION SELECT VALUE s FROM <<2, 3, 3>> AS s;",
+                expected = bagValue(int32Value(1), int32Value(2), int32Value(3)),
+                compiler = spilling,
+            ),
+            SuccessTestCase(
+                input = "SELECT VALUE t FROM <<1, 1, 1, 2, 3>> AS t INTERSECT ALL SELECT VALUE s FROM <<1, 1, 3, 4>> AS s;",
+                expected = bagValue(int32Value(1), int32Value(1), int32Value(3)),
+                compiler = spilling,
+            ),
+            SuccessTestCase(
+                input = "SELECT VALUE t FROM <<1, 1, 1, 2, 3>> AS t INTERSECT SELECT VALUE s FROM <<1, 1, 3, 4>> AS s;",
+                expected = bagValue(int32Value(1), int32Value(3)),
+                compiler = spilling,
+            ),
+            SuccessTestCase(
+                input = "SELECT VALUE t FROM <<1, 1, 1, 2, 3>> AS t EXCEPT ALL SELECT VALUE s FROM <<1, 1, 3, 4>> AS s;",
+                expected = bagValue(int32Value(1), int32Value(2)),
+                compiler = spilling,
+            ),
+        )
+
+        /**
+         * A compiler which vectorizes projections and filters over small batches, so that most inputs span several.
+         */
+        private val batching = PartiQLCompiler.builder().batchSize(2).build()
+
+        /**
+         * @return a global table of rows with INT columns `a` and `b`.
+         */
+        private fun ints(name: String, vararg rows: Pair<Int, Int?>) = Global(
+            name = name,
+            value = Datum.bag(
+                rows.map { (a, b) ->
+                    Datum.row(
+                        Field.of("a", Datum.integer(a)),
+                        Field.of("b", b?.let { Datum.integer(it) } ?: Datum.nullValue(PType.integer())),
+                    )
+                }
+            ),
+            type = PType.bag(PType.row(PTypeField.of("a", PType.integer()), PTypeField.of("b", PType.integer()))),
+        )
+
+        private val t = ints("t", 1 to 10, 2 to 20, 3 to null, 4 to 40, 5 to 50)
+
+        @JvmStatic
+        fun batchTestCases() = listOf(
+            SuccessTestCase(
+                input = "SELECT t.a + t.b AS s, t.a < t.b AS lt FROM t WHERE t.a > 1",
+                expected = bagValue(
+                    structValue("s" to int32Value(22), "lt" to boolValue(true)),
+                    structValue("s" to nullValue(), "lt" to nullValue()),
+                    structValue("s" to int32Value(44), "lt" to boolValue(true)),
+                    structValue("s" to int32Value(55), "lt" to boolValue(true)),
+                ),
+                globals = listOf(t),
+                compiler = batching,
+            ),
+            SuccessTestCase(
+                input = "SELECT VALUE CAST(t.a AS BIGINT) * 2 FROM t WHERE t.b IS NULL OR t.b >= 40 AND NOT t.a = 5",
+                expected = bagValue(int64Value(6), int64Value(8)),
+                globals = listOf(t),
+                compiler = batching,
+            ),
+            SuccessTestCase(
+                input = "SELECT COUNT(*) AS c, SUM(t.b) AS s FROM t WHERE t.a <> 4",
+                expected = bagValue(
+                    structValue("c" to int64Value(4), "s" to int32Value(80)),
+                ),
+                globals = listOf(t),
+                compiler = batching,
+            ),
+            // overflow is MISSING in permissive mode
+            SuccessTestCase(
+                input = "SELECT VALUE t.a * t.b FROM t",
+                expected = bagValue(int32Value(6), missingValue(), int32Value(-20)),
+                globals = listOf(ints("t", 2 to 3, Int.MAX_VALUE to 2, -4 to 5)),
+                compiler = batching,
+            ),
+            // a failing row which is never reached does not fail the query
+            SuccessTestCase(
+                input = "SELECT VALUE t.a FROM t WHERE 100 / t.b > 1 LIMIT 2",
+                expected = bagValue(int32Value(1), int32Value(2)),
+                mode = Mode.STRICT(),
+                globals = listOf(ints("t", 1 to 10, 2 to 20, 3 to 0, 4 to 40)),
+                compiler = batching,
+            ),
+            // dynamically typed input is evaluated row-at-a-time
+            SuccessTestCase(
+                input = "SELECT VALUE t.a FROM t WHERE t.a > 1",
+                expected = bagValue(int64Value(2)),
+                globals = listOf(Global(name = "t", value = "[ { \"a\": 1 }, { \"a\": 2 } ]")),
+                compiler = batching,
+            ),
+        )
+
+        @JvmStatic
+        fun batchFailureTestCases() = listOf(
+            FailureTestCase(
+                input = "SELECT VALUE t.a * t.b FROM t",
+                globals = listOf(ints("t", 2 to 3, Int.MAX_VALUE to 2, -4 to 5)),
+                compiler = batching,
+            ),
+            FailureTestCase(
+                input = "SELECT VALUE t.a FROM t WHERE 100 / t.b > 1",
+                globals = listOf(ints("t", 1 to 10, 2 to 20, 3 to 0, 4 to 40)),
+                compiler = batching,
+            ),
+        )
+
+        /**
+         * A compiler which generates code for scalar expressions of static types.
+         */
+        private val generating = PartiQLCompiler.builder().codegen(true).build()
+
+        @JvmStatic
+        fun codegenTestCases() = listOf(
+            SuccessTestCase(
+                input = "SELECT t.a + t.b AS s, t.a < t.b AS lt FROM t WHERE t.a * 2 > 2",
+                expected = bagValue(
+                    structValue("s" to int32Value(22), "lt" to boolValue(true)),
+                    structValue("s" to nullValue(), "lt" to nullValue()),
+                    structValue("s" to int32Value(44), "lt" to boolValue(true)),
+                    structValue("s" to int32Value(55), "lt" to boolValue(true)),
+                ),
+                globals = listOf(t),
+                compiler = generating,
+            ),
+            SuccessTestCase(
+                input = "SELECT VALUE CAST(t.a AS DOUBLE PRECISION) / 2 FROM t WHERE NOT (t.b < 30 OR t.a = 5)",
+                expected = bagValue(decimalValue(BigDecimal("2.0"))),
+                globals = listOf(t),
+                compiler = generating,
+            ),
+            // overflow is MISSING in permissive mode
+            SuccessTestCase(
+                input = "SELECT VALUE t.a * t.b FROM t",
+                expected = bagValue(int32Value(6), missingValue(), int32Value(-20)),
+                globals = listOf(ints("t", 2 to 3, Int.MAX_VALUE to 2, -4 to 5)),
+                compiler = generating,
+            ),
+        )
+
+        @JvmStatic
+        fun codegenFailureTestCases() = listOf(
+            FailureTestCase(
+                input = "SELECT VALUE t.a * t.b FROM t",
+                globals = listOf(ints("t", 2 to 3, Int.MAX_VALUE to 2, -4 to 5)),
+                compiler = generating,
+            ),
+        )
+
         @JvmStatic
         fun castTestCases() = listOf(
             SuccessTestCase(
@@ -344,8 +630,61 @@ class PartiQLEvaluatorTest {
                     int32Value(22),
                 )
             ),
+            // INNER JOIN -- Multiple Keys, Residual Condition, and NULL Keys
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE [lhs.a, lhs.b, rhs.c]
+                    FROM << { 'a': 1, 'b': 1 }, { 'a': 1, 'b': 2 }, { 'a': 2, 'b': 1 }, { 'a': NULL, 'b': 1 }, { 'b': 1 } >> lhs
+                    INNER JOIN << { 'a': 1.0, 'b': 1, 'c': 0 }, { 'a': 1, 'b': 1, 'c': 5 }, { 'a': NULL, 'b': 1, 'c': 0 } >> rhs
+                    ON rhs.b = lhs.b AND lhs.a = rhs.a AND rhs.c < 3
+                """.trimIndent(),
+                expected = bagValue(
+                    listValue(int32Value(1), int32Value(1), int32Value(0)),
+                )
+            ),
+            // FULL OUTER JOIN -- Duplicate Keys
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE [lhs, rhs]
+                    FROM << 0, 1, 1, 2, NULL >> lhs
+                    FULL OUTER JOIN << 1, 1, 3, NULL >> rhs
+                    ON lhs = rhs
+                """.trimIndent(),
+                expected = bagValue(
+                    listValue(int32Value(0), int32Value(null)),
+                    listValue(int32Value(1), int32Value(1)),
+                    listValue(int32Value(1), int32Value(1)),
+                    listValue(int32Value(1), int32Value(1)),
+                    listValue(int32Value(1), int32Value(1)),
+                    listValue(int32Value(2), int32Value(null)),
+                    listValue(int32Value(null), int32Value(null)),
+                    listValue(int32Value(null), int32Value(3)),
+                    listValue(int32Value(null), int32Value(null)),
+                )
+            ),
+            // FULL OUTER JOIN -- Non-Equi Condition
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE [lhs, rhs]
+                    FROM << 0, 1, 5 >> lhs
+                    FULL OUTER JOIN << 1, 2, 9 >> rhs
+                    ON lhs < rhs AND rhs < 3
+                """.trimIndent(),
+                expected = bagValue(
+                    listValue(int32Value(0), int32Value(1)),
+                    listValue(int32Value(0), int32Value(2)),
+                    listValue(int32Value(1), int32Value(2)),
+                    listValue(int32Value(5), int32Value(null)),
+                    listValue(int32Value(null), int32Value(9)),
+                )
+            ),
         )
 
+        /**
+         * A compiler which caches the results of two distinct values of the outer variables of each subquery.
+         */
+        private val caching = PartiQLCompiler.builder().subqueryCacheSize(2).build()
+
         @JvmStatic
         fun subqueryTestCases() = listOf(
             SuccessTestCase(
@@ -600,7 +939,114 @@ class PartiQLEvaluatorTest {
                     int32Value(819),
                     int32Value(820),
                 )
-            )
+            ),
+            // uncorrelated IN (semi-join) and NOT IN (anti-join); the NULL value is unknown for either
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE t.a FROM << { 'a': 1 }, { 'a': 2 }, { 'a': 3 }, { 'a': NULL } >> AS t
+                    WHERE t.a IN (SELECT VALUE s.b FROM << { 'b': 1 }, { 'b': 3 } >> AS s);
+                """.trimIndent(),
+                expected = bagValue(int32Value(1), int32Value(3))
+            ),
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE t.a FROM << { 'a': 1 }, { 'a': 2 }, { 'a': 3 }, { 'a': NULL } >> AS t
+                    WHERE t.a NOT IN (SELECT VALUE s.b FROM << { 'b': 1 }, { 'b': 3 } >> AS s);
+                """.trimIndent(),
+                expected = bagValue(int32Value(2))
+            ),
+            // correlated EXISTS and NOT EXISTS are decorrelated into a semi-join and anti-join
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE t.a FROM << { 'a': 1 }, { 'a': 2 }, { 'a': 3 } >> AS t
+                    WHERE EXISTS (SELECT VALUE s FROM << { 'a': 2, 'b': 0 }, { 'a': 3, 'b': 1 } >> AS s
+                        WHERE s.a = t.a AND s.b = 0);
+                """.trimIndent(),
+                expected = bagValue(int32Value(2))
+            ),
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE t.a FROM << { 'a': 1 }, { 'a': 2 }, { 'a': 3 } >> AS t
+                    WHERE NOT EXISTS (SELECT VALUE s FROM << { 'a': 2, 'b': 0 }, { 'a': 3, 'b': 1 } >> AS s
+                        WHERE s.a = t.a AND s.b = 0);
+                """.trimIndent(),
+                expected = bagValue(int32Value(1), int32Value(3))
+            ),
+            // correlated IN
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE t.a FROM << { 'a': 1 }, { 'a': 2 }, { 'a': 3 } >> AS t
+                    WHERE t.a + 10 IN (
+                        SELECT VALUE s.b FROM << { 'k': 1, 'b': 11 }, { 'k': 2, 'b': 13 }, { 'k': 3, 'b': 13 } >> AS s
+                        WHERE s.k = t.a
+                    );
+                """.trimIndent(),
+                expected = bagValue(int32Value(1), int32Value(3))
+            ),
+            // IN and EXISTS which are not conjuncts of a filter are evaluated per row
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE t.a IN (SELECT VALUE s FROM << 1, 3 >> AS s)
+                        OR EXISTS (SELECT VALUE s FROM << 1 >> AS s WHERE s = t.a)
+                    FROM << { 'a': 1 }, { 'a': 2 }, { 'a': 3 } >> AS t;
+                """.trimIndent(),
+                expected = bagValue(boolValue(true), boolValue(false), boolValue(true))
+            ),
+            // an uncorrelated subquery is evaluated once per execution
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE t.a FROM << { 'a': 1 }, { 'a': 2 }, { 'a': 3 } >> AS t
+                    WHERE t.a = (SELECT MAX(s) FROM << 1, 3 >> AS s);
+                """.trimIndent(),
+                expected = bagValue(int32Value(3))
+            ),
+            // a correlated subquery is cached by its outer variable, with evictions
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE (SELECT COUNT(*) FROM << 1, 2, 2, 3 >> AS s WHERE s <= t)
+                    FROM << 1, 2, 1, 3, 1, 2 >> AS t;
+                """.trimIndent(),
+                expected = bagValue(
+                    int64Value(1),
+                    int64Value(3),
+                    int64Value(1),
+                    int64Value(4),
+                    int64Value(1),
+                    int64Value(3),
+                ),
+                compiler = caching,
+            ),
+            // comparable, but not identical, outer values are cached separately
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE {
+                        'm': (SELECT VALUE t.a IS MISSING FROM << 0 >> AS s),
+                        'c': (SELECT VALUE CAST(t.a AS STRING) FROM << 0 >> AS s)
+                    }
+                    FROM << { 'a': 1 }, { 'a': 1.0 }, { 'a': null }, { } >> AS t;
+                """.trimIndent(),
+                expected = bagValue(
+                    structValue("m" to bagValue(boolValue(false)), "c" to bagValue(stringValue("1"))),
+                    structValue("m" to bagValue(boolValue(false)), "c" to bagValue(stringValue("1.0"))),
+                    structValue("m" to bagValue(boolValue(false)), "c" to bagValue(nullValue())),
+                    structValue("m" to bagValue(boolValue(true)), "c" to bagValue(missingValue())),
+                ),
+                compiler = caching,
+            ),
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE (SELECT VALUE [t IS MISSING, CAST(t AS STRING)] FROM << 0 >> AS s)
+                    FROM << 1, 1.0, 1.00, NULL, MISSING >> AS t;
+                """.trimIndent(),
+                expected = bagValue(
+                    bagValue(listValue(boolValue(false), stringValue("1"))),
+                    bagValue(listValue(boolValue(false), stringValue("1.0"))),
+                    bagValue(listValue(boolValue(false), stringValue("1.00"))),
+                    bagValue(listValue(boolValue(false), nullValue())),
+                    bagValue(listValue(boolValue(true), missingValue())),
+                ),
+                compiler = caching,
+            ),
         )
 
         @JvmStatic
@@ -664,6 +1110,27 @@ class PartiQLEvaluatorTest {
                     ),
                 )
             ),
+            SuccessTestCase(
+                input = """
+                    SELECT k, COUNT(*) AS c
+                    FROM [{ 'k': 1 }, { 'k': 1.0 }, { 'k': 1e0 }, { 'k': 2 }, { 'k': null }, { 'j': 3 }] AS t
+                    GROUP BY t.k AS k
+                """.trimIndent(),
+                expected = bagValue(
+                    structValue(
+                        "k" to int32Value(1),
+                        "c" to int64Value(3),
+                    ),
+                    structValue(
+                        "k" to int32Value(2),
+                        "c" to int64Value(1),
+                    ),
+                    structValue(
+                        "k" to nullValue(),
+                        "c" to int64Value(2),
+                    ),
+                )
+            ),
             SuccessTestCase(
                 input = """
                     SELECT *
@@ -688,6 +1155,77 @@ class PartiQLEvaluatorTest {
             ),
         )
 
+        /**
+         * Rows `(k, o, v)` of two partitions, where the second and third rows of partition 'a' are peers.
+         */
+        private val windowed = """
+            [
+                { 'k': 'a', 'o': 1, 'v': 10 }, { 'k': 'a', 'o': 2, 'v': 20 }, { 'k': 'a', 'o': 2, 'v': 30 },
+                { 'k': 'a', 'o': 3, 'v': null }, { 'k': 'b', 'o': 1, 'v': 5 }, { 'k': 'b', 'o': 2, 'v': 7 }
+            ]
+        """
+
+        @JvmStatic
+        fun windowTestCases() = listOf(
+            SuccessTestCase(
+                input = """
+                    SELECT t.v AS v,
+                        ROW_NUMBER() OVER (PARTITION BY t.k ORDER BY t.o, t.v) AS n,
+                        RANK() OVER (PARTITION BY t.k ORDER BY t.o) AS r,
+                        DENSE_RANK() OVER (PARTITION BY t.k ORDER BY t.o) AS d
+                    FROM $windowed AS t
+                    WHERE t.v IS NOT NULL
+                """.trimIndent(),
+                expected = bagValue(
+                    structValue("v" to int32Value(10), "n" to int64Value(1), "r" to int64Value(1), "d" to int64Value(1)),
+                    structValue("v" to int32Value(20), "n" to int64Value(2), "r" to int64Value(2), "d" to int64Value(2)),
+                    structValue("v" to int32Value(30), "n" to int64Value(3), "r" to int64Value(2), "d" to int64Value(2)),
+                    structValue("v" to int32Value(5), "n" to int64Value(1), "r" to int64Value(1), "d" to int64Value(1)),
+                    structValue("v" to int32Value(7), "n" to int64Value(2), "r" to int64Value(2), "d" to int64Value(2)),
+                ),
+            ),
+            SuccessTestCase(
+                input = """
+                    SELECT t.o AS o,
+                        LAG(t.o) OVER (PARTITION BY t.k ORDER BY t.o, t.v) AS prev,
+                        LEAD(t.o, 2, -1) OVER (PARTITION BY t.k ORDER BY t.o, t.v) AS next
+                    FROM $windowed AS t
+                    WHERE t.k = 'a'
+                """.trimIndent(),
+                expected = bagValue(
+                    structValue("o" to int32Value(1), "prev" to nullValue(), "next" to int32Value(2)),
+                    structValue("o" to int32Value(2), "prev" to int32Value(1), "next" to int32Value(3)),
+                    structValue("o" to int32Value(2), "prev" to int32Value(2), "next" to int32Value(-1)),
+                    structValue("o" to int32Value(3), "prev" to int32Value(2), "next" to int32Value(-1)),
+                ),
+            ),
+            // The default frame is RANGE UNBOUNDED PRECEDING to CURRENT ROW, so peers have the same running total
+            SuccessTestCase(
+                input = """
+                    SELECT t.o AS o,
+                        SUM(t.v) OVER (PARTITION BY t.k ORDER BY t.o) AS total,
+                        SUM(t.v) OVER (PARTITION BY t.k ORDER BY t.o, t.v ROWS BETWEEN 1 PRECEDING AND 1 FOLLOWING) AS moving,
+                        COUNT(*) OVER (PARTITION BY t.k) AS c
+                    FROM $windowed AS t
+                """.trimIndent(),
+                expected = bagValue(
+                    structValue("o" to int32Value(1), "total" to int32Value(10), "moving" to int32Value(30), "c" to int64Value(4)),
+                    structValue("o" to int32Value(2), "total" to int32Value(60), "moving" to int32Value(60), "c" to int64Value(4)),
+                    structValue("o" to int32Value(2), "total" to int32Value(60), "moving" to int32Value(50), "c" to int64Value(4)),
+                    structValue("o" to int32Value(3), "total" to int32Value(60), "moving" to int32Value(30), "c" to int64Value(4)),
+                    structValue("o" to int32Value(1), "total" to int32Value(5), "moving" to int32Value(12), "c" to int64Value(2)),
+                    structValue("o" to int32Value(2), "total" to int32Value(12), "moving" to int32Value(12), "c" to int64Value(2)),
+                ),
+            ),
+            SuccessTestCase(
+                input = """
+                    SELECT VALUE ROW_NUMBER() OVER (ORDER BY t DESC)
+                    FROM <<3, 1, 2>> AS t
+                """.trimIndent(),
+                expected = bagValue(int64Value(1), int64Value(2), int64Value(3)),
+            ),
+        )
+
         @JvmStatic
         fun sanityTestsCases() = listOf(
             SuccessTestCase(
@@ -702,6 +1240,22 @@ class PartiQLEvaluatorTest {
                 input = "SELECT VALUE t FROM <<true, false, true, false, false, false>> AS t WHERE t;",
                 expected = bagValue(boolValue(true), boolValue(true))
             ),
+            SuccessTestCase(
+                input = "SELECT VALUE t.a FROM <<{'a': 3}, {'a': 1}, {'a': 4}, {'a': 1}, {'a': 5}, {}>> AS t ORDER BY t.a LIMIT 3;",
+                expected = listValue(int32Value(1), int32Value(1), int32Value(3))
+            ),
+            SuccessTestCase(
+                input = "SELECT VALUE t FROM <<3, 1, 4, 1, 5, 9, 2, 6>> AS t ORDER BY t DESC LIMIT 3 OFFSET 2;",
+                expected = listValue(int32Value(5), int32Value(4), int32Value(3))
+            ),
+            SuccessTestCase(
+                input = "SELECT VALUE t FROM <<3, 1, 4>> AS t ORDER BY t LIMIT 10 OFFSET 1;",
+                expected = listValue(int32Value(3), int32Value(4))
+            ),
+            SuccessTestCase(
+                input = "SELECT VALUE t FROM <<3, 1, 4>> AS t ORDER BY t LIMIT 0;",
+                expected = listValue<PartiQLValue>()
+            ),
             SuccessTestCase(
                 input = "SELECT t.a, s.b FROM << { 'a': 1 } >> t, << { 'b': 2 } >> s;",
                 expected = bagValue(structValue("a" to int32Value(1), "b" to int32Value(2)))
@@ -0,0 +1,84 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.eval.Mode
+import org.partiql.eval.Statement
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumReader
+import kotlin.test.assertEquals
+
+/**
+ * Tests that a statement with parameters is prepared once and then executed with different parameter values.
+ */
+class PreparedStatementTest {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.standard()
+    private val compiler = PartiQLCompiler.standard()
+
+    @Test
+    fun executeManyTimes() {
+        val statement = prepare("SELECT VALUE t.b FROM t WHERE t.a = ?")
+        assertResult(Datum.bag(listOf(Datum.integer(10))), statement.execute(Datum.integer(1)))
+        assertResult(Datum.bag(listOf(Datum.integer(20))), statement.execute(Datum.integer(2)))
+        assertResult(Datum.bag(emptyList()), statement.execute(Datum.integer(3)))
+    }
+
+    @Test
+    fun parametersInOrder() {
+        val statement = prepare("SELECT VALUE t.a FROM t WHERE t.b > ? AND t.b < ?")
+        assertResult(Datum.bag(listOf(Datum.integer(2))), statement.execute(Datum.integer(15), Datum.integer(25)))
+        assertResult(Datum.bag(emptyList()), statement.execute(Datum.integer(25), Datum.integer(15)))
+    }
+
+    @Test
+    fun typedParameters() {
+        val statement = prepare("CAST(? AS INT) + 1")
+        assertResult(Datum.integer(2), statement.execute(Datum.integer(1)))
+        assertResult(Datum.integer(3), statement.execute(Datum.bigint(2)))
+    }
+
+    @Test
+    fun bindingIsCopied() {
+        val statement = prepare("SELECT VALUE t.b FROM t WHERE t.a = ?")
+        val parameters = arrayOf(Datum.integer(1))
+        val result = statement.execute(*parameters)
+        parameters[0] = Datum.integer(2)
+        assertResult(Datum.bag(listOf(Datum.integer(10))), result)
+    }
+
+    @Test
+    fun parameterCountMismatch() {
+        val statement = prepare("? + ?")
+        assertThrows<IllegalArgumentException> { statement.execute() }
+        assertThrows<IllegalArgumentException> { statement.execute(Datum.integer(1)) }
+        assertThrows<IllegalArgumentException> { prepare("1 + 1").execute(Datum.integer(1)) }
+    }
+
+    private fun prepare(query: String): Statement {
+        val table = Table.standard(
+            name = Name.of("t"),
+            schema = PType.dynamic(),
+            datum = DatumReader.ion("[{a: 1, b: 10}, {a: 2, b: 20}]".byteInputStream()).next()!!
+        )
+        val catalog = Catalog.builder().name("memory").define(table).build()
+        val session = Session.builder().catalog("memory").catalogs(catalog).build()
+        val statement = parser.parse(query).statements[0]
+        val plan = planner.plan(statement, session).plan
+        return compiler.prepare(plan, Mode.STRICT())
+    }
+
+    private fun assertResult(expected: Datum, actual: Datum) {
+        val result = DatumMaterialize.materialize(actual)
+        assertEquals(0, Datum.comparator().compare(expected, result), "Expected $expected, actual $result")
+    }
+}
@@ -0,0 +1,108 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.partiql.eval.Mode
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.ScannableTable
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.TableScan
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumReader
+import org.partiql.spi.value.Field
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+
+/**
+ * Tests that the columns and predicates of a query are pushed down to a [ScannableTable], and that the query result
+ * does not depend on the table honoring the scan.
+ */
+class ScanPushdownTest {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.standard()
+    private val compiler = PartiQLCompiler.standard()
+
+    @Test
+    fun pushColumnsAndComparison() {
+        val (result, scan) = execute("SELECT VALUE t.b FROM t WHERE t.a = 1")
+        assertResult(Datum.bag(listOf(Datum.integer(10))), result)
+        assertEquals(setOf("a", "b"), scan.getColumns()!!.map { it.getText() }.toSet())
+        val predicate = scan.getPredicates().single()
+        assertEquals("a", predicate.getColumn().getText())
+        assertEquals(TableScan.Predicate.EQ, predicate.getKind())
+        assertEquals(0, Datum.comparator().compare(Datum.integer(1), predicate.getValues().single()))
+    }
+
+    @Test
+    fun pushConjunctsWithLiteralOnTheLeft() {
+        val (result, scan) = execute("SELECT VALUE t.a FROM t WHERE 2 >= t.a AND t.b BETWEEN 0 AND 15")
+        assertResult(Datum.bag(listOf(Datum.integer(1))), result)
+        val kinds = scan.getPredicates().associate { it.getColumn().getText() to it.getKind() }
+        assertEquals(mapOf("a" to TableScan.Predicate.LTE, "b" to TableScan.Predicate.RANGE), kinds)
+    }
+
+    @Test
+    fun pushInAndIsNull() {
+        val (result, scan) = execute("SELECT VALUE t.a FROM t WHERE t.a IN (1, 3) AND t.c IS NULL")
+        assertResult(Datum.bag(listOf(Datum.integer(1), Datum.integer(3))), result)
+        val kinds = scan.getPredicates().associate { it.getColumn().getText() to it.getKind() }
+        assertEquals(mapOf("a" to TableScan.Predicate.IN, "c" to TableScan.Predicate.IS_NULL), kinds)
+    }
+
+    @Test
+    fun wholeBindingNeedsAllColumns() {
+        val (result, scan) = execute("SELECT VALUE t FROM t WHERE t.a > 2")
+        assertResult(Datum.bag(listOf(row(3, 30, Datum.nullValue()))), result)
+        assertNull(scan.getColumns())
+        assertEquals(TableScan.Predicate.GT, scan.getPredicates().single().getKind())
+    }
+
+    @Test
+    fun disjunctionIsNotPushed() {
+        val (result, scan) = execute("SELECT VALUE t.a FROM t WHERE t.a = 1 OR t.b = 30")
+        assertResult(Datum.bag(listOf(Datum.integer(1), Datum.integer(3))), result)
+        assertEquals(emptyList(), scan.getPredicates())
+        assertNotNull(scan.getColumns())
+    }
+
+    private fun row(a: Int, b: Int, c: Datum): Datum = Datum.struct(
+        listOf(Field.of("a", Datum.integer(a)), Field.of("b", Datum.integer(b)), Field.of("c", c))
+    )
+
+    /**
+     * Executes the query against a table which records its scan, and which ignores it (returning every row).
+     */
+    private fun execute(query: String): Pair<Datum, TableScan> {
+        val data = "[{a: 1, b: 10, c: null}, {a: 2, b: 20, c: 2}, {a: 3, b: 30, c: null}]"
+        val table = RecordingTable(DatumReader.ion(data.byteInputStream()).next()!!)
+        val catalog = Catalog.builder().name("memory").define(table).build()
+        val session = Session.builder().catalog("memory").catalogs(catalog).build()
+        val statement = parser.parse(query).statements[0]
+        val plan = planner.plan(statement, session).plan
+        val result = DatumMaterialize.materialize(compiler.prepare(plan, Mode.STRICT()).execute())
+        return result to assertNotNull(table.scan, "Expected a table scan")
+    }
+
+    private fun assertResult(expected: Datum, actual: Datum) {
+        assertEquals(0, Datum.comparator().compare(expected, actual), "Expected $expected, actual $actual")
+    }
+
+    private class RecordingTable(private val datum: Datum) : ScannableTable {
+
+        var scan: TableScan? = null
+
+        override fun getName(): Name = Name.of("t")
+
+        override fun getDatum(): Datum = datum
+
+        override fun getDatum(scan: TableScan): Datum {
+            this.scan = scan
+            return datum
+        }
+    }
+}
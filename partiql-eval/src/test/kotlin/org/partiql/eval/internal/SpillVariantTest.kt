@@ -0,0 +1,83 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.partiql.eval.Mode
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import kotlin.test.assertEquals
+
+/**
+ * Tests that blocking operators over VARIANT values produce the same values, of the same types, whether or not they
+ * spill.
+ */
+class SpillVariantTest {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.standard()
+    private val spilling = PartiQLCompiler.builder().memoryLimit(0).build()
+    private val standard = PartiQLCompiler.standard()
+
+    private val rows = listOf(
+        "{ k: \"a\", v: 3 }",
+        "{ k: null.string, v: 1 }",
+        "{ k: x::\"a\", v: 2.0 }",
+        "{ k: [1, 2], v: 4 }",
+        "{ v: 0 }",
+        "{ k: \"b\", v: null.int }",
+    ).map { Datum.ion(it) }
+
+    @Test
+    fun orderBy() = assertSameResults("SELECT VALUE t FROM t ORDER BY t.v")
+
+    @Test
+    fun groupBy() = assertSameResults("SELECT k AS k, COUNT(*) AS c, MAX(t.v) AS m FROM t GROUP BY t.k AS k")
+
+    @Test
+    fun distinct() = assertSameResults("SELECT DISTINCT VALUE t.k FROM t")
+
+    private fun assertSameResults(query: String) {
+        val expected = execute(standard, query)
+        val actual = execute(spilling, query)
+        assertEquals(0, Datum.comparator().compare(expected, actual), "Expected $expected, actual $actual")
+        assertSameTypes(expected, actual)
+    }
+
+    /**
+     * Asserts that the values have the same types, where the elements of bags are matched in sorted order.
+     */
+    private fun assertSameTypes(expected: Datum, actual: Datum) {
+        assertEquals(expected.type.code(), actual.type.code(), "Expected $expected, actual $actual")
+        assertEquals(expected.isNull, actual.isNull)
+        assertEquals(expected.isMissing, actual.isMissing)
+        if (expected.isNull || expected.isMissing) {
+            return
+        }
+        when (expected.type.code()) {
+            PType.BAG -> {
+                val comparator = Datum.comparator()
+                expected.sortedWith(comparator).zip(actual.sortedWith(comparator)).forEach { (e, a) ->
+                    assertSameTypes(e, a)
+                }
+            }
+            PType.ARRAY -> expected.zip(actual).forEach { (e, a) -> assertSameTypes(e, a) }
+            PType.STRUCT, PType.ROW -> expected.fields.forEach { assertSameTypes(it.value, actual.get(it.name)!!) }
+            else -> Unit
+        }
+    }
+
+    private fun execute(compiler: PartiQLCompiler, query: String): Datum {
+        val table = Table.standard(Name.of("t"), Datum.bag(rows))
+        val catalog = Catalog.builder().name("memory").define(table).build()
+        val session = Session.builder().catalog("memory").catalogs(catalog).build()
+        val statement = parser.parse(query).statements[0]
+        val plan = planner.plan(statement, session).plan
+        return DatumMaterialize.materialize(compiler.prepare(plan, Mode.PERMISSIVE()).execute())
+    }
+}
@@ -40,7 +40,8 @@ public class SuccessTestCase(
     val expected: Datum,
     val mode: Mode = Mode.PERMISSIVE(),
     val globals: List<Global> = emptyList(),
-    val jvmEquality: Boolean = false
+    val jvmEquality: Boolean = false,
+    private val compiler: PartiQLCompiler = PartiQLCompiler.standard(),
 ) : PTestCase {
 
     constructor(
@@ -56,9 +57,9 @@ public class SuccessTestCase(
         expected: PartiQLValue,
         mode: Mode = Mode.PERMISSIVE(),
         globals: List<Global> = emptyList(),
-    ) : this(input, ValueUtils.newDatum(expected), mode, globals)
+        compiler: PartiQLCompiler = PartiQLCompiler.standard(),
+    ) : this("no_name", input, ValueUtils.newDatum(expected), mode, globals, false, compiler)
 
-    private val compiler = PartiQLCompiler.standard()
     private val parser = PartiQLParser.standard()
     private val planner = PartiQLPlanner.standard()
 
@@ -114,15 +115,16 @@ public class FailureTestCase(
     val input: String,
     val mode: Mode = Mode.STRICT(), // default to run in STRICT mode
     val globals: List<Global> = emptyList(),
+    private val compiler: PartiQLCompiler = PartiQLCompiler.standard(),
 ) : PTestCase {
 
     constructor(
         input: String,
         mode: Mode = Mode.STRICT(),
-        globals: List<Global> = emptyList()
-    ) : this("no_name", input, mode, globals)
+        globals: List<Global> = emptyList(),
+        compiler: PartiQLCompiler = PartiQLCompiler.standard(),
+    ) : this("no_name", input, mode, globals, compiler)
 
-    private val compiler = PartiQLCompiler.standard()
     private val parser = PartiQLParser.standard()
     private val planner = PartiQLPlanner.standard()
 
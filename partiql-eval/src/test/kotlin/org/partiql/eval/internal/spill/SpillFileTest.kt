@@ -0,0 +1,36 @@
+package org.partiql.eval.internal.spill
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.spi.value.Datum
+import java.io.IOException
+import kotlin.test.assertEquals
+
+/**
+ * Tests that the readers of a [SpillFile] which are not exhausted (think a LIMIT over a spilled sort) are closed when
+ * the file is deleted.
+ */
+class SpillFileTest {
+
+    @Test
+    fun deleteClosesOpenReaders() {
+        val file = SpillConfig.UNBOUNDED.newFile()
+        repeat(3) { file.write(arrayOf(Datum.integer(it))) }
+        val first = file.read()
+        val second = file.read()
+        assertEquals(0, first.next()[0].int)
+        assertEquals(0, second.next()[0].int)
+        file.delete()
+        assertThrows<IOException> { first.next() }
+        assertThrows<IOException> { second.next() }
+    }
+
+    @Test
+    fun exhaustedReadersAreReleased() {
+        val file = SpillConfig.UNBOUNDED.newFile()
+        repeat(3) { file.write(arrayOf(Datum.integer(it))) }
+        assertEquals(listOf(0, 1, 2), file.read().asSequence().map { it[0].int }.toList())
+        assertEquals(listOf(0, 1, 2), file.read().asSequence().map { it[0].int }.toList())
+        file.delete()
+    }
+}
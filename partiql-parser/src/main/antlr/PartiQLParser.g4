@@ -548,7 +548,7 @@ groupKey
  */
 
 over
-   : OVER PAREN_LEFT windowPartitionList? windowSortSpecList? PAREN_RIGHT
+   : OVER PAREN_LEFT windowPartitionList? windowSortSpecList? windowFrame? PAREN_RIGHT
    ;
 
 windowPartitionList
@@ -559,6 +559,19 @@ windowSortSpecList
    : ORDER BY orderSortSpec (COMMA orderSortSpec)*
    ;
 
+windowFrame
+   : units=(ROWS|RANGE) start=windowFrameBound
+   | units=(ROWS|RANGE) BETWEEN start=windowFrameBound AND end=windowFrameBound
+   ;
+
+windowFrameBound
+   : UNBOUNDED PRECEDING       # WindowFrameUnboundedPreceding
+   | UNBOUNDED FOLLOWING       # WindowFrameUnboundedFollowing
+   | CURRENT ROW               # WindowFrameCurrentRow
+   | exprPrimary PRECEDING     # WindowFramePreceding
+   | exprPrimary FOLLOWING     # WindowFrameFollowing
+   ;
+
 /**
  *
  * SIMPLE CLAUSES
@@ -988,10 +1001,13 @@ overlay
 * Supported Window Functions:
 * 1. LAG(expr, [offset [, default]]) OVER([window_partition] window_ordering)
 * 2. LEAD(expr, [offset [, default]]) OVER([window_partition] window_ordering)
+* 3. ROW_NUMBER(), RANK(), DENSE_RANK() OVER([window_partition] window_ordering)
+* 4. COUNT(*), COUNT(expr), SUM(expr), AVG(expr), MIN(expr), MAX(expr) OVER([window_partition] [window_ordering [window_frame]])
 *
 */
 windowFunction
     : func=(LAG|LEAD) PAREN_LEFT expr ( COMMA expr (COMMA expr)?)? PAREN_RIGHT over #LagLeadFunction
+    | qualifiedName PAREN_LEFT ( ASTERISK | expr )? PAREN_RIGHT over               #WindowFunctionCall
     ;
 
 cast
@@ -1087,6 +1103,8 @@ nonReserved
     /* PartiQL */
     | EXCLUDED | EXISTS
     | SIZE
+    /* Window frames */
+    | RANGE | UNBOUNDED | PRECEDING | FOLLOWING
     /* Other words not in above */
     | ANY | SOME
     ;
@@ -268,6 +268,10 @@ LAG: 'LAG';
 LEAD: 'LEAD';
 OVER: 'OVER';
 PARTITION: 'PARTITION';
+RANGE: 'RANGE';
+UNBOUNDED: 'UNBOUNDED';
+PRECEDING: 'PRECEDING';
+FOLLOWING: 'FOLLOWING';
 TBLPROPERTIES: 'TBLPROPERTIES';
 
 /**
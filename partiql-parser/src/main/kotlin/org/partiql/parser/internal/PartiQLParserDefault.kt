@@ -89,6 +89,8 @@ import org.partiql.ast.Ast.exprValues
 import org.partiql.ast.Ast.exprVarRef
 import org.partiql.ast.Ast.exprVariant
 import org.partiql.ast.Ast.exprWindow
+import org.partiql.ast.Ast.exprWindowFrame
+import org.partiql.ast.Ast.exprWindowFrameBound
 import org.partiql.ast.Ast.exprWindowOver
 import org.partiql.ast.Ast.from
 import org.partiql.ast.Ast.fromExpr
@@ -190,10 +192,13 @@ import org.partiql.ast.expr.ExprLit
 import org.partiql.ast.expr.ExprPath
 import org.partiql.ast.expr.ExprQuerySet
 import org.partiql.ast.expr.ExprRowValue
+import org.partiql.ast.expr.ExprWindow
 import org.partiql.ast.expr.PathStep
 import org.partiql.ast.expr.SessionAttribute
 import org.partiql.ast.expr.TrimSpec
 import org.partiql.ast.expr.TruthValue
+import org.partiql.ast.expr.WindowFrameBoundType
+import org.partiql.ast.expr.WindowFrameUnits
 import org.partiql.ast.expr.WindowFunction
 import org.partiql.ast.graph.GraphDirection
 import org.partiql.ast.graph.GraphLabel
@@ -1976,10 +1981,75 @@ internal class PartiQLParserDefault : PartiQLParser {
             exprWindow(function, expression, offset, default, over)
         }
 
+        override fun visitWindowFunctionCall(ctx: GeneratedParser.WindowFunctionCallContext) = translate(ctx) {
+            val name = ctx.qualifiedName()
+            if (name.qualifier.isNotEmpty()) {
+                throw error(name, "Expected an unqualified window function name")
+            }
+            val function = try {
+                WindowFunction.parse(name.name.text.uppercase())
+            } catch (ex: IllegalArgumentException) {
+                throw error(name, "Unsupported window function ${name.name.text}")
+            }
+            val expression = visitOrNull<Expr>(ctx.expr())
+            when (function.code()) {
+                WindowFunction.ROW_NUMBER, WindowFunction.RANK, WindowFunction.DENSE_RANK -> {
+                    if (expression != null || ctx.ASTERISK() != null) {
+                        throw error(ctx, "Window function ${name.name.text} does not take arguments")
+                    }
+                }
+                WindowFunction.COUNT -> {
+                    if (expression == null && ctx.ASTERISK() == null) {
+                        throw error(ctx, "Expected COUNT(*) or COUNT(expr)")
+                    }
+                }
+                else -> {
+                    if (expression == null) {
+                        throw error(ctx, "Window function ${name.name.text} expects one argument")
+                    }
+                }
+            }
+            val over = visitOver(ctx.over())
+            exprWindow(function, expression, null, null, over)
+        }
+
         override fun visitOver(ctx: GeneratedParser.OverContext) = translate(ctx) {
-            val partitions = visitOrEmpty<Expr>(ctx.windowPartitionList().expr())
-            val sorts = visitOrEmpty<Sort>(ctx.windowSortSpecList().orderSortSpec())
-            exprWindowOver(partitions, sorts)
+            val partitions = visitOrEmpty<Expr>(ctx.windowPartitionList()?.expr())
+            val sorts = visitOrEmpty<Sort>(ctx.windowSortSpecList()?.orderSortSpec())
+            val frame = visitOrNull<ExprWindow.Frame>(ctx.windowFrame())
+            exprWindowOver(partitions, sorts, frame)
+        }
+
+        override fun visitWindowFrame(ctx: GeneratedParser.WindowFrameContext) = translate(ctx) {
+            val units = when (ctx.units.type) {
+                GeneratedParser.ROWS -> WindowFrameUnits.ROWS()
+                GeneratedParser.RANGE -> WindowFrameUnits.RANGE()
+                else -> throw error(ctx, "Expected ROWS or RANGE")
+            }
+            val start = visitAs<ExprWindow.FrameBound>(ctx.start)
+            // a frame of a single bound ends at the current row
+            val end = ctx.end?.let { visitAs<ExprWindow.FrameBound>(it) } ?: exprWindowFrameBound(WindowFrameBoundType.CURRENT_ROW())
+            exprWindowFrame(units, start, end)
+        }
+
+        override fun visitWindowFrameUnboundedPreceding(ctx: GeneratedParser.WindowFrameUnboundedPrecedingContext) = translate(ctx) {
+            exprWindowFrameBound(WindowFrameBoundType.UNBOUNDED_PRECEDING())
+        }
+
+        override fun visitWindowFrameUnboundedFollowing(ctx: GeneratedParser.WindowFrameUnboundedFollowingContext) = translate(ctx) {
+            exprWindowFrameBound(WindowFrameBoundType.UNBOUNDED_FOLLOWING())
+        }
+
+        override fun visitWindowFrameCurrentRow(ctx: GeneratedParser.WindowFrameCurrentRowContext) = translate(ctx) {
+            exprWindowFrameBound(WindowFrameBoundType.CURRENT_ROW())
+        }
+
+        override fun visitWindowFramePreceding(ctx: GeneratedParser.WindowFramePrecedingContext) = translate(ctx) {
+            exprWindowFrameBound(WindowFrameBoundType.PRECEDING(), visitAs<Expr>(ctx.exprPrimary()))
+        }
+
+        override fun visitWindowFrameFollowing(ctx: GeneratedParser.WindowFrameFollowingContext) = translate(ctx) {
+            exprWindowFrameBound(WindowFrameBoundType.FOLLOWING(), visitAs<Expr>(ctx.exprPrimary()))
         }
 
         /**
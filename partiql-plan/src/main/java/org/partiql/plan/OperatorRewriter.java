@@ -318,6 +318,39 @@ public abstract class OperatorRewriter<C> implements OperatorVisitor<Operator, C
         return rel;
     }
 
+    @Override
+    public Operator visitWindow(@NotNull RelWindow rel, C ctx) {
+        // rewrite input
+        Rel input = rel.getInput();
+        Rel input_new = visit(input, ctx, Rel.class);
+        // rewrite partitions
+        List<Rex> partitions = rel.getPartitions();
+        List<Rex> partitions_new = visitAll(partitions, ctx, this::visitRex);
+        // rewrite collations
+        List<Collation> collations = rel.getCollations();
+        List<Collation> collations_new = visitAll(collations, ctx, this::visitCollation);
+        // rewrite functions
+        List<RelWindow.Function> functions = rel.getFunctions();
+        List<RelWindow.Function> functions_new = visitAll(functions, ctx, this::visitWindowFunction);
+        // rewrite window
+        if (input != input_new || partitions != partitions_new || collations != collations_new || functions != functions_new) {
+            return operators.window(input_new, partitions_new, collations_new, functions_new);
+        }
+        return rel;
+    }
+
+    @NotNull
+    public RelWindow.Function visitWindowFunction(@NotNull RelWindow.Function function, C ctx) {
+        // rewrite args
+        List<Rex> args = function.getArgs();
+        List<Rex> args_new = visitAll(args, ctx, this::visitRex);
+        // rewrite window function
+        if (args != args_new) {
+            return function.copy(args_new);
+        }
+        return function;
+    }
+
     @Override
     public Operator visitArray(@NotNull RexArray rex, C ctx) {
         // rewrite values
@@ -448,6 +481,11 @@ public abstract class OperatorRewriter<C> implements OperatorVisitor<Operator, C
         return rex;
     }
 
+    @Override
+    public Operator visitParameter(@NotNull RexParameter rex, C ctx) {
+        return rex;
+    }
+
     @Override
     public Operator visitPathIndex(@NotNull RexPathIndex rex, C ctx) {
         // rewrite operand
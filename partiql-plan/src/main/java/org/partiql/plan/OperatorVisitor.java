@@ -17,6 +17,7 @@ import org.partiql.plan.rel.RelScan;
 import org.partiql.plan.rel.RelSort;
 import org.partiql.plan.rel.RelUnion;
 import org.partiql.plan.rel.RelUnpivot;
+import org.partiql.plan.rel.RelWindow;
 import org.partiql.plan.rex.RexArray;
 import org.partiql.plan.rex.RexBag;
 import org.partiql.plan.rex.RexCall;
@@ -27,6 +28,7 @@ import org.partiql.plan.rex.RexDispatch;
 import org.partiql.plan.rex.RexError;
 import org.partiql.plan.rex.RexLit;
 import org.partiql.plan.rex.RexNullIf;
+import org.partiql.plan.rex.RexParameter;
 import org.partiql.plan.rex.RexPathIndex;
 import org.partiql.plan.rex.RexPathKey;
 import org.partiql.plan.rex.RexPathSymbol;
@@ -134,6 +136,10 @@ public interface OperatorVisitor<R, C> {
     default R visitUnpivot(@NotNull RelUnpivot rel, C ctx) {
         return defaultVisit(rel, ctx);
     }
+
+    default R visitWindow(@NotNull RelWindow rel, C ctx) {
+        return defaultVisit(rel, ctx);
+    }
     // --[Rex]-----------------------------------------------------------------------------------------------------------
 
     default R visitArray(@NotNull RexArray rex, C ctx) {
@@ -176,6 +182,10 @@ public interface OperatorVisitor<R, C> {
         return defaultVisit(rex, ctx);
     }
 
+    default R visitParameter(@NotNull RexParameter rex, C ctx) {
+        return defaultVisit(rex, ctx);
+    }
+
     default R visitPathIndex(@NotNull RexPathIndex rex, C ctx) {
         return defaultVisit(rex, ctx);
     }
@@ -0,0 +1,443 @@
+package org.partiql.plan.rel;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.partiql.plan.Collation;
+import org.partiql.plan.Operand;
+import org.partiql.plan.OperatorVisitor;
+import org.partiql.plan.rex.Rex;
+import org.partiql.spi.Enum;
+import org.partiql.spi.UnsupportedCodeException;
+import org.partiql.spi.function.Agg;
+
+import java.util.List;
+
+/**
+ * The logical window abstract base class; each record of the input is followed by the value of each function,
+ * evaluated over the records of its partition in the order of the collations.
+ */
+public abstract class RelWindow extends RelBase {
+
+    /**
+     * Creates a new {@link RelWindow} instance.
+     * @param input the input
+     * @param partitions the partition keys
+     * @param collations the order of the records of a partition
+     * @param functions the window functions
+     * @return new {@link RelWindow} instance
+     */
+    @NotNull
+    public static RelWindow create(@NotNull Rel input, @NotNull List<Rex> partitions, @NotNull List<Collation> collations, @NotNull List<Function> functions) {
+        return new Impl(input, partitions, collations, functions);
+    }
+
+    /**
+     * Creates a new {@link Function} instance.
+     * @param kind the kind of function
+     * @param args the arguments
+     * @param agg the aggregation function of an {@link Kind#AGG} function, otherwise null
+     * @param frame the frame of the function
+     * @return new {@link Function} instance
+     */
+    @NotNull
+    public static Function function(@NotNull Kind kind, @NotNull List<Rex> args, @Nullable Agg agg, @NotNull Frame frame) {
+        return new Function(kind, args, agg, frame);
+    }
+
+    /**
+     * Creates a new {@link Frame} instance.
+     * @param units the units of the bounds
+     * @param start the start bound
+     * @param end the end bound
+     * @return new {@link Frame} instance
+     */
+    @NotNull
+    public static Frame frame(@NotNull Units units, @NotNull Bound start, @NotNull Bound end) {
+        return new Frame(units, start, end);
+    }
+
+    /**
+     * Creates a new {@link Bound} instance.
+     * @param type the type of bound
+     * @param offset the offset of a PRECEDING or FOLLOWING bound, otherwise null
+     * @return new {@link Bound} instance
+     */
+    @NotNull
+    public static Bound bound(@NotNull BoundType type, @Nullable Rex offset) {
+        return new Bound(type, offset);
+    }
+
+    /**
+     * Gets the input.
+     * @return the input (operand 0)
+     */
+    @NotNull
+    public abstract Rel getInput();
+
+    /**
+     * Gets the partition keys.
+     * @return the partition keys (arg)
+     */
+    @NotNull
+    public abstract List<Rex> getPartitions();
+
+    /**
+     * Gets the order of the records of a partition.
+     * @return the collations (arg)
+     */
+    @NotNull
+    public abstract List<Collation> getCollations();
+
+    /**
+     * Gets the window functions.
+     * @return the functions (arg)
+     */
+    @NotNull
+    public abstract List<Function> getFunctions();
+
+    @NotNull
+    @Override
+    protected final RelType type() {
+        throw new UnsupportedOperationException("Derive type is not implemented");
+    }
+
+    @NotNull
+    @Override
+    protected final List<Operand> operands() {
+        Operand c0 = Operand.single(getInput());
+        return List.of(c0);
+    }
+
+    @Override
+    public <R, C> R accept(@NotNull OperatorVisitor<R, C> visitor, C ctx) {
+        return visitor.visitWindow(this, ctx);
+    }
+
+    /**
+     * @return copy with new input.
+     */
+    @NotNull
+    public abstract RelWindow copy(@NotNull Rel input);
+
+    /**
+     * @return copy with new input and args.
+     */
+    @NotNull
+    public abstract RelWindow copy(@NotNull Rel input, @NotNull List<Rex> partitions, @NotNull List<Collation> collations, @NotNull List<Function> functions);
+
+    /**
+     * A window function along with its arguments and frame.
+     */
+    public static class Function {
+
+        private final Kind kind;
+        private final List<Rex> args;
+        private final Agg agg;
+        private final Frame frame;
+
+        private Function(Kind kind, List<Rex> args, Agg agg, Frame frame) {
+            this.kind = kind;
+            this.args = args;
+            this.agg = agg;
+            this.frame = frame;
+        }
+
+        @NotNull
+        public Kind getKind() {
+            return kind;
+        }
+
+        @NotNull
+        public List<Rex> getArgs() {
+            return args;
+        }
+
+        @Nullable
+        public Agg getAgg() {
+            return agg;
+        }
+
+        @NotNull
+        public Frame getFrame() {
+            return frame;
+        }
+
+        @NotNull
+        public Function copy(@NotNull List<Rex> args) {
+            return new Function(kind, args, agg, frame);
+        }
+    }
+
+    /**
+     * The records of a partition over which an aggregate function is evaluated, relative to the current record.
+     */
+    public static class Frame {
+
+        private final Units units;
+        private final Bound start;
+        private final Bound end;
+
+        private Frame(Units units, Bound start, Bound end) {
+            this.units = units;
+            this.start = start;
+            this.end = end;
+        }
+
+        @NotNull
+        public Units getUnits() {
+            return units;
+        }
+
+        @NotNull
+        public Bound getStart() {
+            return start;
+        }
+
+        @NotNull
+        public Bound getEnd() {
+            return end;
+        }
+    }
+
+    /**
+     * A bound of a frame.
+     */
+    public static class Bound {
+
+        private final BoundType type;
+        private final Rex offset;
+
+        private Bound(BoundType type, Rex offset) {
+            this.type = type;
+            this.offset = offset;
+        }
+
+        @NotNull
+        public BoundType getType() {
+            return type;
+        }
+
+        @Nullable
+        public Rex getOffset() {
+            return offset;
+        }
+    }
+
+    /**
+     * Window function kinds; the aggregate functions are {@link #AGG}, with their aggregation function.
+     */
+    public static final class Kind extends Enum {
+
+        public static final int ROW_NUMBER = 0;
+        public static final int RANK = 1;
+        public static final int DENSE_RANK = 2;
+        public static final int LAG = 3;
+        public static final int LEAD = 4;
+        public static final int AGG = 5;
+
+        private Kind(int code) {
+            super(code);
+        }
+
+        @NotNull
+        @Override
+        public String name() throws UnsupportedCodeException {
+            int code = code();
+            switch (code) {
+                case ROW_NUMBER:
+                    return "ROW_NUMBER";
+                case RANK:
+                    return "RANK";
+                case DENSE_RANK:
+                    return "DENSE_RANK";
+                case LAG:
+                    return "LAG";
+                case LEAD:
+                    return "LEAD";
+                case AGG:
+                    return "AGG";
+                default:
+                    throw new UnsupportedCodeException(code);
+            }
+        }
+
+        @NotNull
+        public static Kind ROW_NUMBER() {
+            return new Kind(ROW_NUMBER);
+        }
+
+        @NotNull
+        public static Kind RANK() {
+            return new Kind(RANK);
+        }
+
+        @NotNull
+        public static Kind DENSE_RANK() {
+            return new Kind(DENSE_RANK);
+        }
+
+        @NotNull
+        public static Kind LAG() {
+            return new Kind(LAG);
+        }
+
+        @NotNull
+        public static Kind LEAD() {
+            return new Kind(LEAD);
+        }
+
+        @NotNull
+        public static Kind AGG() {
+            return new Kind(AGG);
+        }
+    }
+
+    /**
+     * Frame units; a ROWS bound counts records, and a RANGE bound counts the records of equal order (peers).
+     */
+    public static final class Units extends Enum {
+
+        public static final int ROWS = 0;
+        public static final int RANGE = 1;
+
+        private Units(int code) {
+            super(code);
+        }
+
+        @NotNull
+        @Override
+        public String name() throws UnsupportedCodeException {
+            int code = code();
+            switch (code) {
+                case ROWS:
+                    return "ROWS";
+                case RANGE:
+                    return "RANGE";
+                default:
+                    throw new UnsupportedCodeException(code);
+            }
+        }
+
+        @NotNull
+        public static Units ROWS() {
+            return new Units(ROWS);
+        }
+
+        @NotNull
+        public static Units RANGE() {
+            return new Units(RANGE);
+        }
+    }
+
+    /**
+     * Frame bound types.
+     */
+    public static final class BoundType extends Enum {
+
+        public static final int UNBOUNDED_PRECEDING = 0;
+        public static final int PRECEDING = 1;
+        public static final int CURRENT_ROW = 2;
+        public static final int FOLLOWING = 3;
+        public static final int UNBOUNDED_FOLLOWING = 4;
+
+        private BoundType(int code) {
+            super(code);
+        }
+
+        @NotNull
+        @Override
+        public String name() throws UnsupportedCodeException {
+            int code = code();
+            switch (code) {
+                case UNBOUNDED_PRECEDING:
+                    return "UNBOUNDED_PRECEDING";
+                case PRECEDING:
+                    return "PRECEDING";
+                case CURRENT_ROW:
+                    return "CURRENT_ROW";
+                case FOLLOWING:
+                    return "FOLLOWING";
+                case UNBOUNDED_FOLLOWING:
+                    return "UNBOUNDED_FOLLOWING";
+                default:
+                    throw new UnsupportedCodeException(code);
+            }
+        }
+
+        @NotNull
+        public static BoundType UNBOUNDED_PRECEDING() {
+            return new BoundType(UNBOUNDED_PRECEDING);
+        }
+
+        @NotNull
+        public static BoundType PRECEDING() {
+            return new BoundType(PRECEDING);
+        }
+
+        @NotNull
+        public static BoundType CURRENT_ROW() {
+            return new BoundType(CURRENT_ROW);
+        }
+
+        @NotNull
+        public static BoundType FOLLOWING() {
+            return new BoundType(FOLLOWING);
+        }
+
+        @NotNull
+        public static BoundType UNBOUNDED_FOLLOWING() {
+            return new BoundType(UNBOUNDED_FOLLOWING);
+        }
+    }
+
+    private static class Impl extends RelWindow {
+
+        private final Rel input;
+        private final List<Rex> partitions;
+        private final List<Collation> collations;
+        private final List<Function> functions;
+
+        private Impl(Rel input, List<Rex> partitions, List<Collation> collations, List<Function> functions) {
+            this.input = input;
+            this.partitions = partitions;
+            this.collations = collations;
+            this.functions = functions;
+        }
+
+        @NotNull
+        @Override
+        public Rel getInput() {
+            return input;
+        }
+
+        @NotNull
+        @Override
+        public List<Rex> getPartitions() {
+            return partitions;
+        }
+
+        @NotNull
+        @Override
+        public List<Collation> getCollations() {
+            return collations;
+        }
+
+        @NotNull
+        @Override
+        public List<Function> getFunctions() {
+            return functions;
+        }
+
+        @NotNull
+        @Override
+        public RelWindow copy(@NotNull Rel input) {
+            return new Impl(input, partitions, collations, functions);
+        }
+
+        @NotNull
+        @Override
+        public RelWindow copy(@NotNull Rel input, @NotNull List<Rex> partitions, @NotNull List<Collation> collations, @NotNull List<Function> functions) {
+            return new Impl(input, partitions, collations, functions);
+        }
+    }
+}
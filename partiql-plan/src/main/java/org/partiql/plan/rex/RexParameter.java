@@ -0,0 +1,64 @@
+package org.partiql.plan.rex;
+
+import org.jetbrains.annotations.NotNull;
+import org.partiql.plan.Operand;
+import org.partiql.plan.OperatorVisitor;
+import org.partiql.spi.types.PType;
+
+import java.util.List;
+
+/**
+ * Logical parameter reference expression abstract base class; i.e. the value bound to a {@code ?} at execution time.
+ */
+public abstract class RexParameter extends RexBase {
+
+    /**
+     * Creates a new parameter reference expression.
+     * @param index 0-indexed position of the parameter amongst all parameters of the statement.
+     * @param type the parameter type.
+     * @return new parameter reference expression.
+     */
+    @NotNull
+    public static RexParameter create(int index, PType type) {
+        return new Impl(index, type);
+    }
+
+    /**
+     * Returns the position of the parameter amongst all parameters of the statement (in the order of appearance).
+     * @return 0-indexed parameter position.
+     */
+    public abstract int getIndex();
+
+    @NotNull
+    @Override
+    protected final List<Operand> operands() {
+        return List.of();
+    }
+
+    @Override
+    public <R, C> R accept(OperatorVisitor<R, C> visitor, C ctx) {
+        return visitor.visitParameter(this, ctx);
+    }
+
+    private static class Impl extends RexParameter {
+
+        private final int index;
+        private final PType type;
+
+        private Impl(int index, PType type) {
+            this.index = index;
+            this.type = type;
+        }
+
+        @NotNull
+        @Override
+        protected RexType type() {
+            return RexType.of(type);
+        }
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package org.partiql.plan.rex;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.partiql.plan.Operand;
 import org.partiql.plan.OperatorVisitor;
 import org.partiql.spi.catalog.Table;
+import org.partiql.spi.catalog.TableScan;
 
 import java.util.List;
 
@@ -19,7 +21,18 @@ public abstract class RexTable extends RexBase {
      */
     @NotNull
     public static RexTable create(@NotNull Table table) {
-        return new Impl(table);
+        return new Impl(table, null);
+    }
+
+    /**
+     * Creates a new RexTable instance which only reads what the given scan needs.
+     * @param table the table implementation
+     * @param scan the columns and rows which the query needs from the table, see {@link org.partiql.spi.catalog.ScannableTable}.
+     * @return new RexTable instance
+     */
+    @NotNull
+    public static RexTable create(@NotNull Table table, @Nullable TableScan scan) {
+        return new Impl(table, scan);
     }
 
     /**
@@ -28,6 +41,13 @@ public abstract class RexTable extends RexBase {
      */
     public abstract Table getTable();
 
+    /**
+     * Returns the columns and rows which the query needs from the table, if they were pushed down to the table.
+     * @return the table scan, or null if the whole table is read.
+     */
+    @Nullable
+    public abstract TableScan getScan();
+
     @NotNull
     @Override
     protected final RexType type() {
@@ -48,14 +68,21 @@ public abstract class RexTable extends RexBase {
     private static class Impl extends RexTable {
 
         private final Table table;
+        private final TableScan scan;
 
-        private Impl(Table table) {
+        private Impl(Table table, TableScan scan) {
             this.table = table;
+            this.scan = scan;
         }
 
         @Override
         public Table getTable() {
             return table;
         }
+
+        @Override
+        public TableScan getScan() {
+            return scan;
+        }
     }
 }
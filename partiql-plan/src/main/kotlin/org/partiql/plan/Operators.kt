@@ -18,6 +18,7 @@ import org.partiql.plan.rel.RelScan
 import org.partiql.plan.rel.RelSort
 import org.partiql.plan.rel.RelUnion
 import org.partiql.plan.rel.RelUnpivot
+import org.partiql.plan.rel.RelWindow
 import org.partiql.plan.rex.Rex
 import org.partiql.plan.rex.RexArray
 import org.partiql.plan.rex.RexBag
@@ -29,6 +30,7 @@ import org.partiql.plan.rex.RexDispatch
 import org.partiql.plan.rex.RexError
 import org.partiql.plan.rex.RexLit
 import org.partiql.plan.rex.RexNullIf
+import org.partiql.plan.rex.RexParameter
 import org.partiql.plan.rex.RexPathIndex
 import org.partiql.plan.rex.RexPathKey
 import org.partiql.plan.rex.RexPathSymbol
@@ -43,6 +45,7 @@ import org.partiql.plan.rex.RexSubqueryTest
 import org.partiql.plan.rex.RexTable
 import org.partiql.plan.rex.RexVar
 import org.partiql.spi.catalog.Table
+import org.partiql.spi.catalog.TableScan
 import org.partiql.spi.function.Fn
 import org.partiql.spi.function.FnOverload
 import org.partiql.spi.types.PType
@@ -235,6 +238,22 @@ public interface Operators {
      */
     public fun unpivot(rex: Rex): RelUnpivot = RelUnpivot.create(rex)
 
+    /**
+     * Create a [RelWindow] instance.
+     *
+     * @param input
+     * @param partitions
+     * @param collations
+     * @param functions
+     * @return
+     */
+    public fun window(
+        input: Rel,
+        partitions: List<Rex>,
+        collations: List<Collation>,
+        functions: List<RelWindow.Function>,
+    ): RelWindow = RelWindow.create(input, partitions, collations, functions)
+
     // --- REX OPERATORS -----------------------------------------------------------------------------------------------
 
     /**
@@ -319,6 +338,15 @@ public interface Operators {
      */
     public fun nullIf(v1: Rex, v2: Rex): RexNullIf = RexNullIf.create(v1, v2)
 
+    /**
+     * Create a [RexParameter] instance (requires a type).
+     *
+     * @param index
+     * @param type
+     * @return
+     */
+    public fun parameter(index: Int, type: PType): RexParameter = RexParameter.create(index, type)
+
     /**
      * Create a [RexPathIndex] instance.
      *
@@ -435,6 +463,15 @@ public interface Operators {
      */
     public fun table(table: Table): RexTable = RexTable.create(table)
 
+    /**
+     * Create a [RexTable] instance which only reads what the scan needs.
+     *
+     * @param table
+     * @param scan
+     * @return
+     */
+    public fun table(table: Table, scan: TableScan?): RexTable = RexTable.create(table, scan)
+
     /**
      * Create a [RexVar] instance (requires a type).
      *
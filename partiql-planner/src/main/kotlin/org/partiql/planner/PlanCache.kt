@@ -0,0 +1,289 @@
+package org.partiql.planner
+
+import org.partiql.plan.Plan
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Catalogs
+import org.partiql.spi.catalog.Namespace
+import org.partiql.spi.catalog.Path
+import org.partiql.spi.catalog.Session
+import java.util.concurrent.atomic.LongAdder
+import java.util.function.Function
+
+/**
+ * PlanCache is a bounded, thread-safe cache of plans which allows repeated statements to skip parsing and planning.
+ * Plans are keyed by the normalized statement text along with the session's current catalog, namespace, and path;
+ * the least-recently used plan is evicted once the cache is full.
+ *
+ * Usage:
+ * ```
+ * val cache = PlanCache.builder().maximumSize(500).build()
+ * val plan = cache.get(text, session) { s -> planner.plan(parser.parse(text).statements[0], s).plan }
+ * ```
+ *
+ * Statement text is normalized by removing comments and collapsing whitespace outside of string literals, quoted
+ * identifiers, and Ion literals, so statements which differ only in formatting share a plan.
+ *
+ * Plans reference the tables of the catalogs they were planned against. While loading a plan, the cache records every
+ * catalog the planner looks up through the session; [invalidate] removes all plans which looked up the given catalog,
+ * and it should be called whenever a catalog's tables (or their schemas) change. All sessions which share a cache must
+ * resolve catalog names to the same catalogs, and the session identity and properties are not part of the key.
+ */
+public class PlanCache private constructor(maximumSize: Int) {
+
+    private val maximumSize = maximumSize
+
+    /**
+     * Entries in access order; all access is synchronized on this map.
+     */
+    private val entries = object : LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Key, Entry>): Boolean {
+            if (size > this@PlanCache.maximumSize) {
+                evictions.increment()
+                return true
+            }
+            return false
+        }
+    }
+
+    /**
+     * Incremented on every invalidation; a plan which was loaded across an invalidation may be stale, so it is not cached.
+     */
+    private var generation: Long = 0
+
+    private val hits = LongAdder()
+    private val misses = LongAdder()
+    private val evictions = LongAdder()
+    private val invalidations = LongAdder()
+
+    /**
+     * Returns the cached plan of the statement, loading it on a miss. The loader must plan against the given session
+     * (rather than the caller's) so that the catalogs it looks up are recorded, and it should throw rather than return
+     * a plan with errors. Concurrent misses of the same statement may each load the plan; the last one is kept.
+     *
+     * @param statement the statement text.
+     * @param session the session to plan against.
+     * @param loader parses and plans the statement against its argument session.
+     * @return the plan of the statement.
+     */
+    public fun get(statement: String, session: Session, loader: Function<Session, Plan>): Plan {
+        val key = Key(normalize(statement), session.getCatalog(), session.getNamespace(), session.getPath().toList())
+        val start: Long
+        synchronized(entries) {
+            val entry = entries[key]
+            if (entry != null) {
+                hits.increment()
+                return entry.plan
+            }
+            start = generation
+        }
+        misses.increment()
+        val recording = RecordingSession(session)
+        val plan = loader.apply(recording)
+        synchronized(entries) {
+            if (generation == start) {
+                entries[key] = Entry(plan, recording.catalogs)
+            }
+        }
+        return plan
+    }
+
+    /**
+     * Removes all plans which looked up the catalog (case-insensitive) while they were planned.
+     *
+     * @param catalog the name of the catalog which changed.
+     */
+    public fun invalidate(catalog: String) {
+        synchronized(entries) {
+            generation++
+            val iterator = entries.values.iterator()
+            while (iterator.hasNext()) {
+                if (iterator.next().catalogs.any { it.equals(catalog, ignoreCase = true) }) {
+                    iterator.remove()
+                    invalidations.increment()
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all plans.
+     */
+    public fun invalidateAll() {
+        synchronized(entries) {
+            generation++
+            invalidations.add(entries.size.toLong())
+            entries.clear()
+        }
+    }
+
+    /**
+     * @return the number of cached plans.
+     */
+    public fun size(): Int = synchronized(entries) { entries.size }
+
+    /**
+     * @return a snapshot of the cache metrics.
+     */
+    public fun stats(): Stats = Stats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), size())
+
+    /**
+     * Cache metrics; all counts are since the cache was created.
+     *
+     * @property hits the number of lookups which returned a cached plan.
+     * @property misses the number of lookups which loaded a plan.
+     * @property evictions the number of plans removed to bound the cache size.
+     * @property invalidations the number of plans removed by [invalidate] and [invalidateAll].
+     * @property size the number of cached plans.
+     */
+    public class Stats internal constructor(
+        public val hits: Long,
+        public val misses: Long,
+        public val evictions: Long,
+        public val invalidations: Long,
+        public val size: Int,
+    ) {
+        override fun toString(): String =
+            "PlanCache.Stats(hits=$hits, misses=$misses, evictions=$evictions, invalidations=$invalidations, size=$size)"
+    }
+
+    /**
+     * Java-style builder for a [PlanCache].
+     */
+    public class Builder {
+
+        private var maximumSize: Int = 1024
+
+        /**
+         * Sets the maximum number of cached plans; defaults to 1024.
+         */
+        public fun maximumSize(maximumSize: Int): Builder {
+            require(maximumSize > 0) { "Maximum size must be positive, found $maximumSize" }
+            this.maximumSize = maximumSize
+            return this
+        }
+
+        public fun build(): PlanCache = PlanCache(maximumSize)
+    }
+
+    public companion object {
+
+        @JvmStatic
+        public fun builder(): Builder = Builder()
+
+        /**
+         * Removes comments and collapses whitespace to a single space outside of quoted text.
+         */
+        internal fun normalize(statement: String): String {
+            val sb = StringBuilder(statement.length)
+            var i = 0
+            var space = false
+            while (i < statement.length) {
+                val c = statement[i]
+                when {
+                    c == '-' && statement.startsWith("--", i) -> {
+                        i = statement.indexOf('\n', i).let { if (it < 0) statement.length else it }
+                        space = true
+                        continue
+                    }
+                    c == '/' && statement.startsWith("/*", i) -> {
+                        i = statement.indexOf("*/", i + 2).let { if (it < 0) statement.length else it + 2 }
+                        space = true
+                        continue
+                    }
+                    c.isWhitespace() -> {
+                        space = true
+                        i++
+                        continue
+                    }
+                }
+                if (space && sb.isNotEmpty()) {
+                    sb.append(' ')
+                }
+                space = false
+                val end = when (c) {
+                    '\'', '"' -> quoted(statement, i, c)
+                    '`' -> ion(statement, i)
+                    else -> i + 1
+                }
+                sb.append(statement, i, end)
+                i = end
+            }
+            return sb.toString()
+        }
+
+        /**
+         * @return the end (exclusive) of the quoted text starting at [start]; a doubled quote is an escaped quote.
+         */
+        private fun quoted(statement: String, start: Int, quote: Char): Int {
+            var i = start + 1
+            while (i < statement.length) {
+                if (statement[i] == quote) {
+                    if (i + 1 < statement.length && statement[i + 1] == quote) {
+                        i += 2
+                        continue
+                    }
+                    return i + 1
+                }
+                i++
+            }
+            return statement.length
+        }
+
+        /**
+         * @return the end (exclusive) of the Ion literal starting at [start]; Ion strings may contain backticks.
+         */
+        private fun ion(statement: String, start: Int): Int {
+            var i = start + 1
+            var quote: Char? = null
+            while (i < statement.length) {
+                val c = statement[i]
+                when {
+                    quote != null && c == '\\' -> i++
+                    quote != null && c == quote -> quote = null
+                    quote == null && (c == '"' || c == '\'') -> quote = c
+                    quote == null && c == '`' -> return i + 1
+                }
+                i++
+            }
+            return statement.length
+        }
+    }
+
+    private data class Key(
+        val statement: String,
+        val catalog: String,
+        val namespace: Namespace,
+        val path: List<Namespace>,
+    )
+
+    private class Entry(
+        val plan: Plan,
+        val catalogs: Set<String>,
+    )
+
+    /**
+     * Delegates to a session, recording the names of all catalogs which are looked up.
+     */
+    private class RecordingSession(private val session: Session) : Session {
+
+        val catalogs: MutableSet<String> = mutableSetOf()
+
+        private val recording = object : Catalogs {
+            override fun getCatalog(name: String, ignoreCase: Boolean): Catalog? {
+                val catalog = session.getCatalogs().getCatalog(name, ignoreCase)
+                synchronized(catalogs) {
+                    catalogs.add(name)
+                    catalog?.let { catalogs.add(it.getName()) }
+                }
+                return catalog
+            }
+        }
+
+        override fun getIdentity(): String = session.getIdentity()
+        override fun getCatalog(): String = session.getCatalog()
+        override fun getCatalogs(): Catalogs = recording
+        override fun getNamespace(): Namespace = session.getNamespace()
+        override fun getPath(): Path = session.getPath()
+        override fun getProperties(): Map<String, String> = session.getProperties()
+    }
+}
@@ -11,6 +11,8 @@ import org.partiql.planner.internal.transforms.AstToPlan
 import org.partiql.planner.internal.transforms.NormalizeFromSource
 import org.partiql.planner.internal.transforms.NormalizeGroupBy
 import org.partiql.planner.internal.transforms.PlanTransform
+import org.partiql.planner.internal.transforms.ScanPushdown
+import org.partiql.planner.internal.transforms.SubqueryPredicates
 import org.partiql.planner.internal.typer.PlanTyper
 import org.partiql.spi.Context
 import org.partiql.spi.catalog.Session
@@ -49,7 +51,13 @@ internal class SqlPlanner(
             // 4. Assert plan has been resolved — translating to public API
             var plan = PlanTransform(flags).transform(internal, ctx.errorListener)
 
-            // 5. Apply all passes
+            // 5. Push columns and predicates down to scannable tables
+            plan = ScanPushdown.apply(plan, ctx)
+
+            // 6. Rewrite IN and EXISTS over subqueries as subquery predicates
+            plan = SubqueryPredicates.apply(plan, ctx)
+
+            // 7. Apply all passes
             for (pass in passes) {
                 plan = pass.apply(plan, ctx)
             }
@@ -33,6 +33,10 @@ import org.partiql.planner.internal.ir.builder.RelOpSortBuilder
 import org.partiql.planner.internal.ir.builder.RelOpSortSpecBuilder
 import org.partiql.planner.internal.ir.builder.RelOpUnionBuilder
 import org.partiql.planner.internal.ir.builder.RelOpUnpivotBuilder
+import org.partiql.planner.internal.ir.builder.RelOpWindowBoundBuilder
+import org.partiql.planner.internal.ir.builder.RelOpWindowBuilder
+import org.partiql.planner.internal.ir.builder.RelOpWindowFrameBuilder
+import org.partiql.planner.internal.ir.builder.RelOpWindowFunctionBuilder
 import org.partiql.planner.internal.ir.builder.RelOpWithBuilder
 import org.partiql.planner.internal.ir.builder.RelOpWithWithListElementBuilder
 import org.partiql.planner.internal.ir.builder.RelTypeBuilder
@@ -50,6 +54,7 @@ import org.partiql.planner.internal.ir.builder.RexOpCollectionBuilder
 import org.partiql.planner.internal.ir.builder.RexOpErrBuilder
 import org.partiql.planner.internal.ir.builder.RexOpLitBuilder
 import org.partiql.planner.internal.ir.builder.RexOpNullifBuilder
+import org.partiql.planner.internal.ir.builder.RexOpParameterBuilder
 import org.partiql.planner.internal.ir.builder.RexOpPathIndexBuilder
 import org.partiql.planner.internal.ir.builder.RexOpPathKeyBuilder
 import org.partiql.planner.internal.ir.builder.RexOpPathSymbolBuilder
@@ -214,6 +219,7 @@ internal data class Rex(
         public override fun <R, C> accept(visitor: PlanVisitor<R, C>, ctx: C): R = when (this) {
             is Lit -> visitor.visitRexOpLit(this, ctx)
             is Var -> visitor.visitRexOpVar(this, ctx)
+            is Parameter -> visitor.visitRexOpParameter(this, ctx)
             is Path -> visitor.visitRexOpPath(this, ctx)
             is Cast -> visitor.visitRexOpCast(this, ctx)
             is Call -> visitor.visitRexOpCall(this, ctx)
@@ -309,6 +315,19 @@ internal data class Rex(
             }
         }
 
+        internal data class Parameter(
+            @JvmField internal val index: Int,
+        ) : Op() {
+            public override val children: List<PlanNode> = emptyList()
+
+            override fun <R, C> accept(visitor: PlanVisitor<R, C>, ctx: C): R = visitor.visitRexOpParameter(this, ctx)
+
+            internal companion object {
+                @JvmStatic
+                internal fun builder(): RexOpParameterBuilder = RexOpParameterBuilder()
+            }
+        }
+
         internal sealed class Path : Op() {
             override fun <R, C> accept(visitor: PlanVisitor<R, C>, ctx: C): R = when (this) {
                 is Index -> visitor.visitRexOpPathIndex(this, ctx)
@@ -793,6 +812,7 @@ internal data class Rel(
             is Project -> visitor.visitRelOpProject(this, ctx) // May just use projection operator as LET clause implementation
             is Join -> visitor.visitRelOpJoin(this, ctx) // May just CROSS JOIN operation as LET clause implem
             is Aggregate -> visitor.visitRelOpAggregate(this, ctx)
+            is Window -> visitor.visitRelOpWindow(this, ctx)
             is Exclude -> visitor.visitRelOpExclude(this, ctx)
             is Err -> visitor.visitRelOpErr(this, ctx)
         }
@@ -1184,6 +1204,100 @@ internal data class Rel(
             }
         }
 
+        internal data class Window(
+            @JvmField internal val input: Rel,
+            @JvmField internal val partitions: List<Rex>,
+            @JvmField internal val specs: List<Sort.Spec>,
+            @JvmField internal val functions: List<Function>,
+        ) : Op() {
+            public override val children: List<PlanNode> by lazy {
+                val kids = mutableListOf<PlanNode?>()
+                kids.add(input)
+                kids.addAll(partitions)
+                kids.addAll(specs)
+                kids.addAll(functions)
+                kids.filterNotNull()
+            }
+
+            override fun <R, C> accept(visitor: PlanVisitor<R, C>, ctx: C): R = visitor.visitRelOpWindow(this, ctx)
+
+            internal enum class Units {
+                ROWS, RANGE,
+            }
+
+            internal enum class BoundType {
+                UNBOUNDED_PRECEDING, PRECEDING, CURRENT_ROW, FOLLOWING, UNBOUNDED_FOLLOWING,
+            }
+
+            internal data class Function(
+                @JvmField internal val name: String,
+                @JvmField internal val args: List<Rex>,
+                @JvmField internal val agg: Ref.Agg?,
+                @JvmField internal val frame: Frame,
+            ) : PlanNode() {
+                public override val children: List<PlanNode> by lazy {
+                    val kids = mutableListOf<PlanNode?>()
+                    kids.addAll(args)
+                    kids.add(agg)
+                    kids.add(frame)
+                    kids.filterNotNull()
+                }
+
+                public override fun <R, C> accept(visitor: PlanVisitor<R, C>, ctx: C): R =
+                    visitor.visitRelOpWindowFunction(this, ctx)
+
+                internal companion object {
+                    @JvmStatic
+                    internal fun builder(): RelOpWindowFunctionBuilder = RelOpWindowFunctionBuilder()
+                }
+            }
+
+            internal data class Frame(
+                @JvmField internal val units: Units,
+                @JvmField internal val start: Bound,
+                @JvmField internal val end: Bound,
+            ) : PlanNode() {
+                public override val children: List<PlanNode> by lazy {
+                    val kids = mutableListOf<PlanNode?>()
+                    kids.add(start)
+                    kids.add(end)
+                    kids.filterNotNull()
+                }
+
+                public override fun <R, C> accept(visitor: PlanVisitor<R, C>, ctx: C): R =
+                    visitor.visitRelOpWindowFrame(this, ctx)
+
+                internal companion object {
+                    @JvmStatic
+                    internal fun builder(): RelOpWindowFrameBuilder = RelOpWindowFrameBuilder()
+                }
+            }
+
+            internal data class Bound(
+                @JvmField internal val type: BoundType,
+                @JvmField internal val offset: Rex?,
+            ) : PlanNode() {
+                public override val children: List<PlanNode> by lazy {
+                    val kids = mutableListOf<PlanNode?>()
+                    kids.add(offset)
+                    kids.filterNotNull()
+                }
+
+                public override fun <R, C> accept(visitor: PlanVisitor<R, C>, ctx: C): R =
+                    visitor.visitRelOpWindowBound(this, ctx)
+
+                internal companion object {
+                    @JvmStatic
+                    internal fun builder(): RelOpWindowBoundBuilder = RelOpWindowBoundBuilder()
+                }
+            }
+
+            internal companion object {
+                @JvmStatic
+                internal fun builder(): RelOpWindowBuilder = RelOpWindowBuilder()
+            }
+        }
+
         internal data class Exclude(
             @JvmField internal val input: Rel,
             @JvmField internal val paths: List<Path>,
@@ -8,6 +8,7 @@ import org.partiql.plan.Operators
 import org.partiql.plan.Plan
 import org.partiql.plan.rel.RelAggregate
 import org.partiql.plan.rel.RelType
+import org.partiql.plan.rel.RelWindow
 import org.partiql.plan.rex.Rex
 import org.partiql.plan.rex.RexCase
 import org.partiql.plan.rex.RexStruct
@@ -222,6 +223,10 @@ internal class PlanTransform(private val flags: Set<PlannerFlag>) {
             return operators.lit(node.value)
         }
 
+        override fun visitRexOpParameter(node: IRex.Op.Parameter, ctx: PType): Any {
+            return operators.parameter(node.index, ctx)
+        }
+
         // RELATION OPERATORS
 
         override fun visitRel(node: IRel, ctx: PType): org.partiql.plan.rel.Rel {
@@ -261,6 +266,54 @@ internal class PlanTransform(private val flags: Set<PlannerFlag>) {
             return RelAggregate.measure(agg, args, isDistinct)
         }
 
+        override fun visitRelOpWindow(node: IRel.Op.Window, ctx: PType): Any {
+            val input = visitRel(node.input, ctx)
+            val partitions = node.partitions.map { visitRex(it, it.type) }
+            val collations = node.specs.map { collation(it) }
+            val functions = node.functions.map { visitRelOpWindowFunction(it, ctx) }
+            return operators.window(input, partitions, collations, functions)
+        }
+
+        override fun visitRelOpWindowFunction(node: IRel.Op.Window.Function, ctx: PType): RelWindow.Function {
+            val kind = when (node.name) {
+                "row_number" -> RelWindow.Kind.ROW_NUMBER()
+                "rank" -> RelWindow.Kind.RANK()
+                "dense_rank" -> RelWindow.Kind.DENSE_RANK()
+                "lag" -> RelWindow.Kind.LAG()
+                "lead" -> RelWindow.Kind.LEAD()
+                else -> RelWindow.Kind.AGG()
+            }
+            val agg = node.agg?.signature
+            if (kind.code() == RelWindow.Kind.AGG && agg == null) {
+                error("Unresolved window function ${node.name}")
+            }
+            val args = node.args.map { visitRex(it, it.type) }
+            val frame = visitRelOpWindowFrame(node.frame, ctx)
+            return RelWindow.function(kind, args, agg, frame)
+        }
+
+        override fun visitRelOpWindowFrame(node: IRel.Op.Window.Frame, ctx: PType): RelWindow.Frame {
+            val units = when (node.units) {
+                IRel.Op.Window.Units.ROWS -> RelWindow.Units.ROWS()
+                IRel.Op.Window.Units.RANGE -> RelWindow.Units.RANGE()
+            }
+            val start = visitRelOpWindowBound(node.start, ctx)
+            val end = visitRelOpWindowBound(node.end, ctx)
+            return RelWindow.frame(units, start, end)
+        }
+
+        override fun visitRelOpWindowBound(node: IRel.Op.Window.Bound, ctx: PType): RelWindow.Bound {
+            val type = when (node.type) {
+                IRel.Op.Window.BoundType.UNBOUNDED_PRECEDING -> RelWindow.BoundType.UNBOUNDED_PRECEDING()
+                IRel.Op.Window.BoundType.PRECEDING -> RelWindow.BoundType.PRECEDING()
+                IRel.Op.Window.BoundType.CURRENT_ROW -> RelWindow.BoundType.CURRENT_ROW()
+                IRel.Op.Window.BoundType.FOLLOWING -> RelWindow.BoundType.FOLLOWING()
+                IRel.Op.Window.BoundType.UNBOUNDED_FOLLOWING -> RelWindow.BoundType.UNBOUNDED_FOLLOWING()
+            }
+            val offset = node.offset?.let { visitRex(it, it.type) }
+            return RelWindow.bound(type, offset)
+        }
+
         override fun visitRelOpJoin(node: IRel.Op.Join, ctx: PType): Any {
             val lhs = visitRel(node.lhs, ctx)
             val rhs = visitRel(node.rhs, ctx)
@@ -45,10 +45,15 @@ import org.partiql.ast.SelectStar
 import org.partiql.ast.SelectValue
 import org.partiql.ast.SetOpType
 import org.partiql.ast.SetQuantifier
+import org.partiql.ast.Sort
 import org.partiql.ast.With
 import org.partiql.ast.expr.Expr
 import org.partiql.ast.expr.ExprCall
 import org.partiql.ast.expr.ExprQuerySet
+import org.partiql.ast.expr.ExprWindow
+import org.partiql.ast.expr.WindowFrameBoundType
+import org.partiql.ast.expr.WindowFrameUnits
+import org.partiql.ast.expr.WindowFunction
 import org.partiql.planner.internal.Env
 import org.partiql.planner.internal.PErrors
 import org.partiql.planner.internal.ir.Rel
@@ -77,6 +82,10 @@ import org.partiql.planner.internal.ir.relOpScanIndexed
 import org.partiql.planner.internal.ir.relOpSort
 import org.partiql.planner.internal.ir.relOpSortSpec
 import org.partiql.planner.internal.ir.relOpUnpivot
+import org.partiql.planner.internal.ir.relOpWindow
+import org.partiql.planner.internal.ir.relOpWindowBound
+import org.partiql.planner.internal.ir.relOpWindowFrame
+import org.partiql.planner.internal.ir.relOpWindowFunction
 import org.partiql.planner.internal.ir.relOpWith
 import org.partiql.planner.internal.ir.relOpWithWithListElement
 import org.partiql.planner.internal.ir.relType
@@ -191,6 +200,9 @@ internal object RelConverter {
                     rel = _rel
                     // Plan.create (possibly rewritten) sel node
                     rel = convertHaving(rel, sel.having)
+                    val windowed = convertWindow(rel, sel)
+                    sel = windowed.first
+                    rel = windowed.second
                     rel = convertOrderBy(rel, orderBy)
                     // offset should precede limit
                     rel = convertOffset(rel, offset)
@@ -520,6 +532,101 @@ internal object RelConverter {
             return rel(type, op)
         }
 
+        /**
+         * Append a [Rel.Op.Window] for each window (partitions and order) of the SELECT's window functions; the
+         * functions of the same window are evaluated by one operator.
+         *
+         * @return Pair<Ast.Expr.SFW, Rel> is returned where
+         *         1. Ast.Expr.SFW has every window function replaced by a synthetic Ast.Expr.Var
+         *         2. Rel which appends the value of each window function to its input
+         */
+        private fun convertWindow(input: Rel, select: QueryBody.SFW): Pair<QueryBody.SFW, Rel> {
+            // Rewrite and extract all window functions in the SELECT clause
+            val (sel, windows) = WindowTransform.apply(select)
+            if (windows.isEmpty()) {
+                return Pair(select, input)
+            }
+            var rel = input
+            val groups = windows.withIndex().groupBy { (_, window) -> window.over.partitions to window.over.sorts }
+            for ((key, functions) in groups) {
+                val (partitions, sorts) = key
+                // Build the schema -> (input... functions...)
+                val schema = rel.type.schema.toMutableList()
+                schema += functions.map { (i, _) -> relBinding(syntheticWindow(i), ANY) }
+                val type = relType(schema, emptySet())
+                val op = relOpWindow(
+                    input = rel,
+                    partitions = partitions.map { it.toRex(env) },
+                    specs = sorts.map { convertSort(it) },
+                    functions = functions.map { (_, window) -> convertWindowFunction(window) },
+                )
+                rel = rel(type, op)
+            }
+            return Pair(sel, rel)
+        }
+
+        private fun convertWindowFunction(window: ExprWindow): Rel.Op.Window.Function {
+            val function = window.windowFunction
+            // lowercase normalize all functions
+            val name = function.name().lowercase()
+            val args = when (function.code()) {
+                WindowFunction.LAG, WindowFunction.LEAD -> {
+                    listOfNotNull(window.expression, window.offset, window.defaultValue).map { it.toRex(env) }
+                }
+                // COUNT(*) counts the records of the frame
+                WindowFunction.COUNT -> listOf((window.expression ?: exprLit(intNum(1))).toRex(env))
+                else -> listOfNotNull(window.expression).map { it.toRex(env) }
+            }
+            val frame = convertWindowFrame(window.over)
+            return relOpWindowFunction(name, args, null, frame)
+        }
+
+        /**
+         * The default frame is from the start of the partition to the current record and its peers, or the whole
+         * partition if it is not ordered.
+         */
+        private fun convertWindowFrame(over: ExprWindow.Over): Rel.Op.Window.Frame {
+            val frame = over.frame ?: return when (over.sorts.isEmpty()) {
+                true -> relOpWindowFrame(
+                    units = Rel.Op.Window.Units.ROWS,
+                    start = relOpWindowBound(Rel.Op.Window.BoundType.UNBOUNDED_PRECEDING, null),
+                    end = relOpWindowBound(Rel.Op.Window.BoundType.UNBOUNDED_FOLLOWING, null),
+                )
+                else -> relOpWindowFrame(
+                    units = Rel.Op.Window.Units.RANGE,
+                    start = relOpWindowBound(Rel.Op.Window.BoundType.UNBOUNDED_PRECEDING, null),
+                    end = relOpWindowBound(Rel.Op.Window.BoundType.CURRENT_ROW, null),
+                )
+            }
+            val units = when (frame.units.code()) {
+                WindowFrameUnits.ROWS -> Rel.Op.Window.Units.ROWS
+                WindowFrameUnits.RANGE -> Rel.Op.Window.Units.RANGE
+                else -> error("Unexpected WindowFrameUnits type: ${frame.units}")
+            }
+            val start = convertWindowFrameBound(frame.start)
+            val end = convertWindowFrameBound(frame.end)
+            if (start.type == Rel.Op.Window.BoundType.UNBOUNDED_FOLLOWING) {
+                error("A window frame cannot start at UNBOUNDED FOLLOWING")
+            }
+            if (end.type == Rel.Op.Window.BoundType.UNBOUNDED_PRECEDING) {
+                error("A window frame cannot end at UNBOUNDED PRECEDING")
+            }
+            return relOpWindowFrame(units, start, end)
+        }
+
+        private fun convertWindowFrameBound(bound: ExprWindow.FrameBound): Rel.Op.Window.Bound {
+            val type = when (bound.type.code()) {
+                WindowFrameBoundType.UNBOUNDED_PRECEDING -> Rel.Op.Window.BoundType.UNBOUNDED_PRECEDING
+                WindowFrameBoundType.PRECEDING -> Rel.Op.Window.BoundType.PRECEDING
+                WindowFrameBoundType.CURRENT_ROW -> Rel.Op.Window.BoundType.CURRENT_ROW
+                WindowFrameBoundType.FOLLOWING -> Rel.Op.Window.BoundType.FOLLOWING
+                WindowFrameBoundType.UNBOUNDED_FOLLOWING -> Rel.Op.Window.BoundType.UNBOUNDED_FOLLOWING
+                else -> error("Unexpected WindowFrameBoundType type: ${bound.type}")
+            }
+            val offset = bound.offset?.toRex(env)
+            return relOpWindowBound(type, offset)
+        }
+
         private fun visitIfQuerySet(expr: Expr): Rel {
             return when (expr) {
                 is ExprQuerySet -> visit(expr, nil)
@@ -562,26 +669,28 @@ internal object RelConverter {
                 return input
             }
             val type = input.type.copy(props = setOf(Rel.Prop.ORDERED))
-            val specs = orderBy.sorts.map {
-                val rex = it.expr.toRex(env)
-                val order = when (it.order?.code()) {
-                    Order.DESC -> when (it.nulls?.code()) {
-                        Nulls.LAST -> Rel.Op.Sort.Order.DESC_NULLS_LAST
-                        Nulls.FIRST, null -> Rel.Op.Sort.Order.DESC_NULLS_FIRST
-                        else -> error("Unexpected Nulls type: ${it.nulls}")
-                    }
-                    else -> when (it.nulls?.code()) {
-                        Nulls.FIRST -> Rel.Op.Sort.Order.ASC_NULLS_FIRST
-                        Nulls.LAST, null -> Rel.Op.Sort.Order.ASC_NULLS_LAST
-                        else -> error("Unexpected Nulls type: ${it.nulls}")
-                    }
-                }
-                relOpSortSpec(rex, order)
-            }
+            val specs = orderBy.sorts.map { convertSort(it) }
             val op = relOpSort(input, specs)
             return rel(type, op)
         }
 
+        private fun convertSort(sort: Sort): Rel.Op.Sort.Spec {
+            val rex = sort.expr.toRex(env)
+            val order = when (sort.order?.code()) {
+                Order.DESC -> when (sort.nulls?.code()) {
+                    Nulls.LAST -> Rel.Op.Sort.Order.DESC_NULLS_LAST
+                    Nulls.FIRST, null -> Rel.Op.Sort.Order.DESC_NULLS_FIRST
+                    else -> error("Unexpected Nulls type: ${sort.nulls}")
+                }
+                else -> when (sort.nulls?.code()) {
+                    Nulls.FIRST -> Rel.Op.Sort.Order.ASC_NULLS_FIRST
+                    Nulls.LAST, null -> Rel.Op.Sort.Order.ASC_NULLS_LAST
+                    else -> error("Unexpected Nulls type: ${sort.nulls}")
+                }
+            }
+            return relOpSortSpec(rex, order)
+        }
+
         /**
          * Append [Rel.Op.Limit] if there is a LIMIT
          */
@@ -784,8 +893,33 @@ internal object RelConverter {
         override fun defaultReturn(node: AstNode, context: Context) = node
     }
 
+    /**
+     * Rewrites a SELECT node replacing (and extracting) each window function `i` with a synthetic field name `$window_i`.
+     */
+    private object WindowTransform : AstRewriter<MutableList<ExprWindow>>() {
+
+        fun apply(node: QueryBody.SFW): Pair<QueryBody.SFW, List<ExprWindow>> {
+            val windows = mutableListOf<ExprWindow>()
+            val select = super.visitQueryBodySFW(node, windows) as QueryBody.SFW
+            return Pair(select, windows)
+        }
+
+        // only rewrite top-level SFW
+        override fun visitQueryBodySFW(node: QueryBody.SFW, ctx: MutableList<ExprWindow>): AstNode = node
+
+        override fun visitExprWindow(node: ExprWindow, ctx: MutableList<ExprWindow>): AstNode {
+            val id = Identifier.delimited(syntheticWindow(ctx.size))
+            ctx += node
+            return exprVarRef(id, isQualified = false)
+        }
+
+        override fun defaultReturn(node: AstNode, context: MutableList<ExprWindow>) = node
+    }
+
     private fun syntheticAgg(i: Int) = "\$agg_$i"
 
+    private fun syntheticWindow(i: Int) = "\$window_$i"
+
     private val ANY: CompilerType = CompilerType(PType.dynamic())
     private val BOOL: CompilerType = CompilerType(PType.bool())
     private val STRING: CompilerType = CompilerType(PType.string())
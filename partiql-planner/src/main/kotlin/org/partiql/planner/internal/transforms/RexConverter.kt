@@ -45,6 +45,7 @@ import org.partiql.ast.expr.ExprNullPredicate
 import org.partiql.ast.expr.ExprOperator
 import org.partiql.ast.expr.ExprOr
 import org.partiql.ast.expr.ExprOverlay
+import org.partiql.ast.expr.ExprParameter
 import org.partiql.ast.expr.ExprPath
 import org.partiql.ast.expr.ExprPosition
 import org.partiql.ast.expr.ExprQuerySet
@@ -77,6 +78,7 @@ import org.partiql.planner.internal.ir.rexOpCoalesce
 import org.partiql.planner.internal.ir.rexOpCollection
 import org.partiql.planner.internal.ir.rexOpLit
 import org.partiql.planner.internal.ir.rexOpNullif
+import org.partiql.planner.internal.ir.rexOpParameter
 import org.partiql.planner.internal.ir.rexOpPathIndex
 import org.partiql.planner.internal.ir.rexOpPathKey
 import org.partiql.planner.internal.ir.rexOpPathSymbol
@@ -278,6 +280,16 @@ internal object RexConverter {
             return rex(type, op)
         }
 
+        /**
+         * Parameters are typed dynamically as their values are only bound at execution; use CAST(? AS <type>) to give
+         * a parameter a static type. The AST numbers parameters from 1, whereas the plan numbers them from 0.
+         */
+        override fun visitExprParameter(node: ExprParameter, context: Env): Rex {
+            val type = (ANY)
+            val op = rexOpParameter(node.index - 1)
+            return rex(type, op)
+        }
+
         private fun resolveUnaryOp(symbol: String, rhs: Expr, context: Env): Rex {
             val type = (ANY)
             // Args
@@ -0,0 +1,338 @@
+package org.partiql.planner.internal.transforms
+
+import org.partiql.plan.Action
+import org.partiql.plan.Operator
+import org.partiql.plan.OperatorRewriter
+import org.partiql.plan.OperatorVisitor
+import org.partiql.plan.Operators
+import org.partiql.plan.Plan
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelProject
+import org.partiql.plan.rel.RelScan
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexArray
+import org.partiql.plan.rex.RexBag
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexCase
+import org.partiql.plan.rex.RexCast
+import org.partiql.plan.rex.RexCoalesce
+import org.partiql.plan.rex.RexDispatch
+import org.partiql.plan.rex.RexError
+import org.partiql.plan.rex.RexLit
+import org.partiql.plan.rex.RexNullIf
+import org.partiql.plan.rex.RexParameter
+import org.partiql.plan.rex.RexPathIndex
+import org.partiql.plan.rex.RexPathKey
+import org.partiql.plan.rex.RexPathSymbol
+import org.partiql.plan.rex.RexSelect
+import org.partiql.plan.rex.RexSpread
+import org.partiql.plan.rex.RexStruct
+import org.partiql.plan.rex.RexTable
+import org.partiql.plan.rex.RexVar
+import org.partiql.planner.PartiQLPlannerPass
+import org.partiql.planner.internal.util.FunctionUtils
+import org.partiql.spi.Context
+import org.partiql.spi.catalog.Identifier
+import org.partiql.spi.catalog.ScannableTable
+import org.partiql.spi.catalog.TableScan
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * Pushes the columns and the filter predicates of a query down to the scans of [ScannableTable]s; see [TableScan].
+ *
+ * A scan is rewritten when it reads a [ScannableTable] and it is the bottom of a chain of filters, optionally topped by
+ * a project or a select. The columns are the paths on the scan's binding (`t.a` or `t['a']`) which the chain references;
+ * if the chain references the binding as a whole, or contains a subquery, then every column is needed. The predicates
+ * are the conjuncts of the filters of the form `<column> <op> <literal>`. All filters are kept as the scan is advisory.
+ */
+internal object ScanPushdown : PartiQLPlannerPass {
+
+    override fun apply(plan: Plan, ctx: Context): Plan {
+        val action = plan.action
+        if (action !is Action.Query) {
+            return plan
+        }
+        val rex = Rewriter.visitRex(action.rex, Unit)
+        if (rex === action.rex) {
+            return plan
+        }
+        val query = Action.Query { rex }
+        return Plan { query }
+    }
+
+    private object Rewriter : OperatorRewriter<Unit>() {
+
+        private val operators = Operators.STANDARD
+
+        /**
+         * Rebuilt operators do not compute their own types, so this carries the types over from the originals.
+         */
+        override fun visit(operator: Operator, ctx: Unit?): Operator {
+            val o = operator.accept(this, ctx)
+            if (o !== operator) {
+                if (o is Rel && operator is Rel) {
+                    o.setType(operator.type)
+                } else if (o is Rex && operator is Rex) {
+                    o.setType(operator.type)
+                }
+            }
+            return o
+        }
+
+        override fun visitProject(rel: RelProject, ctx: Unit?): Operator {
+            val input = push(rel.input, rel.projections, ctx) ?: return super.visitProject(rel, ctx)
+            return rel.copy(input, rel.projections.map { visitProjection(it, ctx) })
+        }
+
+        override fun visitSelect(rex: RexSelect, ctx: Unit?): Operator {
+            val input = push(rex.input, listOf(rex.constructor), ctx) ?: return super.visitSelect(rex, ctx)
+            return operators.select(input, visitRex(rex.constructor, ctx))
+        }
+
+        override fun visitFilter(rel: RelFilter, ctx: Unit?): Operator {
+            return push(rel, null, ctx) ?: super.visitFilter(rel, ctx)
+        }
+
+        /**
+         * Pushes the scan of a chain of filters down to its table.
+         *
+         * @param rel the top of the chain.
+         * @param refs the expressions over the chain's output, or null if the chain's output escapes as a whole.
+         * @return the rewritten chain, or null if [rel] is not a chain or there is nothing to push down.
+         */
+        private fun push(rel: Rel, refs: List<Rex>?, ctx: Unit?): Rel? {
+            val filters = mutableListOf<RelFilter>()
+            var bottom = rel
+            while (bottom is RelFilter) {
+                filters.add(bottom)
+                bottom = bottom.input
+            }
+            if (bottom !is RelScan) {
+                return null
+            }
+            val scan = bottom
+            val source = scan.rex
+            if (source !is RexTable || source.scan != null) {
+                return null
+            }
+            val table = source.table as? ScannableTable ?: return null
+            // columns
+            val columns = Columns()
+            val all = refs == null || !refs.all { columns.collect(it) } || !filters.all { columns.collect(it.predicate) }
+            // predicates
+            val predicates = filters.flatMap { conjuncts(it.predicate) }.mapNotNull { predicate(it) }
+            if (all && predicates.isEmpty()) {
+                return null
+            }
+            // rewrite the chain bottom-up
+            val pushed = TableScan.of(if (all) null else columns.get(), predicates)
+            var input: Rel = scan.copy(operators.table(table, pushed))
+            input.setType(scan.type)
+            for (filter in filters.asReversed()) {
+                input = filter.copy(input, visitRex(filter.predicate, ctx))
+                input.setType(filter.type)
+            }
+            return input
+        }
+    }
+
+    private fun conjuncts(rex: Rex): List<Rex> = when {
+        rex is RexCall && rex.function.signature.name == FunctionUtils.OP_AND -> rex.args.flatMap { conjuncts(it) }
+        rex is RexDispatch && rex.name == FunctionUtils.OP_AND -> rex.args.flatMap { conjuncts(it) }
+        else -> listOf(rex)
+    }
+
+    /**
+     * @return the scan predicate of a filter conjunct, or null if it cannot be pushed down.
+     */
+    private fun predicate(rex: Rex): TableScan.Predicate? {
+        val name: String
+        val args: List<Rex>
+        when (rex) {
+            is RexCall -> {
+                name = rex.function.signature.name
+                args = rex.args
+            }
+            is RexDispatch -> {
+                name = rex.name
+                args = rex.args
+            }
+            else -> return null
+        }
+        return when {
+            name == FunctionUtils.OP_IS_NULL && args.size == 1 -> {
+                column(args[0])?.let { TableScan.Predicate.isNull(it) }
+            }
+            name == FunctionUtils.OP_BETWEEN && args.size == 3 -> {
+                val column = column(args[0]) ?: return null
+                val lower = value(args[1]) ?: return null
+                val upper = value(args[2]) ?: return null
+                TableScan.Predicate.range(column, lower, upper)
+            }
+            name == FunctionUtils.OP_IN_COLLECTION && args.size == 2 -> {
+                val column = column(args[0]) ?: return null
+                val values = values(args[1]) ?: return null
+                TableScan.Predicate.`in`(column, values)
+            }
+            args.size == 2 -> comparison(name, args[0], args[1]) ?: comparison(flip(name), args[1], args[0])
+            else -> null
+        }
+    }
+
+    /**
+     * @return the predicate of `<lhs> <op> <rhs>` where lhs is a column and rhs is a literal, or null.
+     */
+    private fun comparison(name: String?, lhs: Rex, rhs: Rex): TableScan.Predicate? {
+        if (name == null) {
+            return null
+        }
+        val column = column(lhs) ?: return null
+        val value = value(rhs) ?: return null
+        return when (name) {
+            FunctionUtils.OP_EQ -> TableScan.Predicate.eq(column, value)
+            FunctionUtils.OP_LT -> TableScan.Predicate.lt(column, value)
+            FunctionUtils.OP_LTE -> TableScan.Predicate.lte(column, value)
+            FunctionUtils.OP_GT -> TableScan.Predicate.gt(column, value)
+            FunctionUtils.OP_GTE -> TableScan.Predicate.gte(column, value)
+            else -> null
+        }
+    }
+
+    /**
+     * @return the comparison with its operands swapped i.e. `a < b` is `b > a`.
+     */
+    private fun flip(name: String): String? = when (name) {
+        FunctionUtils.OP_EQ -> FunctionUtils.OP_EQ
+        FunctionUtils.OP_LT -> FunctionUtils.OP_GT
+        FunctionUtils.OP_LTE -> FunctionUtils.OP_GTE
+        FunctionUtils.OP_GT -> FunctionUtils.OP_LT
+        FunctionUtils.OP_GTE -> FunctionUtils.OP_LTE
+        else -> null
+    }
+
+    /**
+     * @return the column of a path on the scan's binding; symbols are case-insensitive and keys are case-sensitive.
+     */
+    private fun column(rex: Rex): Identifier.Simple? = when {
+        rex is RexPathSymbol && rex.operand.isBinding() -> Identifier.Simple.regular(rex.symbol)
+        rex is RexPathKey && rex.operand.isBinding() -> (rex.key as? RexLit)?.datum?.let { string(it) }?.let { Identifier.Simple.delimited(it) }
+        else -> null
+    }
+
+    /**
+     * @return the value of a literal which is neither NULL nor MISSING, or null.
+     */
+    private fun value(rex: Rex): Datum? {
+        val datum = (rex as? RexLit)?.datum ?: return null
+        return if (datum.isNull || datum.isMissing) null else datum
+    }
+
+    /**
+     * @return the values of a collection of literals, or null.
+     */
+    private fun values(rex: Rex): List<Datum>? {
+        val elements = when (rex) {
+            is RexArray -> rex.values
+            is RexBag -> rex.values
+            is RexLit -> {
+                val datum = rex.datum
+                if (datum.isNull || datum.isMissing) return null
+                return when (datum.type.code()) {
+                    PType.ARRAY, PType.BAG -> datum.iterator().asSequence().toList().takeIf { values -> values.none { it.isNull || it.isMissing } }
+                    else -> null
+                }
+            }
+            else -> return null
+        }
+        return elements.map { value(it) ?: return null }
+    }
+
+    private fun string(datum: Datum): String? {
+        if (datum.isNull || datum.isMissing) {
+            return null
+        }
+        return when (datum.type.code()) {
+            PType.CHAR, PType.VARCHAR, PType.STRING -> datum.string
+            else -> null
+        }
+    }
+
+    /**
+     * The scan's binding is the first variable of the current scope.
+     */
+    private fun Rex.isBinding(): Boolean = this is RexVar && scope == 0 && offset == 0
+
+    /**
+     * Collects the columns which expressions reference; [collect] returns false if an expression (possibly) references
+     * the scan's binding other than by a column, in which case every column is needed.
+     */
+    private class Columns : OperatorVisitor<Boolean, Unit?> {
+
+        private val columns = mutableListOf<Identifier.Simple>()
+
+        fun collect(rex: Rex): Boolean = visit(rex, Unit)
+
+        fun get(): List<Identifier.Simple> = columns.distinctBy { it.toString() }
+
+        private fun all(rexes: Collection<Rex>): Boolean = rexes.all { visit(it, Unit) }
+
+        // subqueries and any unknown operators may reference the binding as a whole
+        override fun defaultVisit(operator: Operator, ctx: Unit?): Boolean = false
+
+        override fun defaultReturn(operator: Operator, ctx: Unit?): Boolean = false
+
+        override fun visitLit(rex: RexLit, ctx: Unit?): Boolean = true
+
+        override fun visitError(rex: RexError, ctx: Unit?): Boolean = true
+
+        override fun visitParameter(rex: RexParameter, ctx: Unit?): Boolean = true
+
+        override fun visitTable(rex: RexTable, ctx: Unit?): Boolean = true
+
+        override fun visitVar(rex: RexVar, ctx: Unit?): Boolean = !rex.isBinding()
+
+        override fun visitPathSymbol(rex: RexPathSymbol, ctx: Unit?): Boolean {
+            val column = column(rex) ?: return visit(rex.operand, ctx)
+            columns.add(column)
+            return true
+        }
+
+        override fun visitPathKey(rex: RexPathKey, ctx: Unit?): Boolean {
+            val column = column(rex) ?: return visit(rex.operand, ctx) && visit(rex.key, ctx)
+            columns.add(column)
+            return true
+        }
+
+        override fun visitPathIndex(rex: RexPathIndex, ctx: Unit?): Boolean =
+            visit(rex.operand, ctx) && visit(rex.index, ctx)
+
+        override fun visitCall(rex: RexCall, ctx: Unit?): Boolean = all(rex.args)
+
+        override fun visitDispatch(rex: RexDispatch, ctx: Unit?): Boolean = all(rex.args)
+
+        override fun visitCoalesce(rex: RexCoalesce, ctx: Unit?): Boolean = all(rex.args)
+
+        override fun visitSpread(rex: RexSpread, ctx: Unit?): Boolean = all(rex.args)
+
+        override fun visitArray(rex: RexArray, ctx: Unit?): Boolean = all(rex.values)
+
+        override fun visitBag(rex: RexBag, ctx: Unit?): Boolean = all(rex.values)
+
+        override fun visitCast(rex: RexCast, ctx: Unit?): Boolean = visit(rex.operand, ctx)
+
+        override fun visitNullIf(rex: RexNullIf, ctx: Unit?): Boolean = visit(rex.v1, ctx) && visit(rex.v2, ctx)
+
+        override fun visitCase(rex: RexCase, ctx: Unit?): Boolean {
+            val match = rex.match
+            val default = rex.default
+            return (match == null || visit(match, ctx)) &&
+                rex.branches.all { visit(it.condition, ctx) && visit(it.result, ctx) } &&
+                (default == null || visit(default, ctx))
+        }
+
+        override fun visitStruct(rex: RexStruct, ctx: Unit?): Boolean =
+            rex.fields.all { visit(it.key, ctx) && visit(it.value, ctx) }
+    }
+}
@@ -0,0 +1,109 @@
+package org.partiql.planner.internal.transforms
+
+import org.partiql.plan.Action
+import org.partiql.plan.Operator
+import org.partiql.plan.OperatorRewriter
+import org.partiql.plan.Operators
+import org.partiql.plan.Plan
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelType
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexDispatch
+import org.partiql.plan.rex.RexSelect
+import org.partiql.plan.rex.RexSubqueryTest
+import org.partiql.plan.rex.RexVar
+import org.partiql.planner.PartiQLPlannerPass
+import org.partiql.planner.internal.util.FunctionUtils
+import org.partiql.spi.Context
+import org.partiql.spi.types.PTypeField
+
+/**
+ * Rewrites the predicates over subqueries from calls to their dedicated operators, so that they may be evaluated as
+ * semi-joins and anti-joins rather than by materializing the subquery for each row.
+ *
+ *  - `in_collection(x, <select>)` is the [org.partiql.plan.rex.RexSubqueryIn] of x in the select's values.
+ *  - `exists(<select>)` is the EXISTS [RexSubqueryTest] of the select's input.
+ *
+ * The values of a select are its constructor, so the input of the IN predicate is the select's input when the
+ * constructor is its (only) column, otherwise it is the projection of the constructor. NOT IN and NOT EXISTS keep the
+ * negation of the rewritten predicate.
+ */
+internal object SubqueryPredicates : PartiQLPlannerPass {
+
+    /**
+     * The name of the EXISTS function, which is not hidden.
+     */
+    private const val EXISTS = "exists"
+
+    override fun apply(plan: Plan, ctx: Context): Plan {
+        val action = plan.action
+        if (action !is Action.Query) {
+            return plan
+        }
+        val rex = Rewriter.visitRex(action.rex, Unit)
+        if (rex === action.rex) {
+            return plan
+        }
+        val query = Action.Query { rex }
+        return Plan { query }
+    }
+
+    private object Rewriter : OperatorRewriter<Unit>() {
+
+        private val operators = Operators.STANDARD
+
+        /**
+         * Rebuilt operators do not compute their own types, so this carries the types over from the originals.
+         */
+        override fun visit(operator: Operator, ctx: Unit?): Operator {
+            val o = operator.accept(this, ctx)
+            if (o !== operator) {
+                if (o is Rel && operator is Rel) {
+                    o.setType(operator.type)
+                } else if (o is Rex && operator is Rex) {
+                    o.setType(operator.type)
+                }
+            }
+            return o
+        }
+
+        override fun visitCall(rex: RexCall, ctx: Unit?): Operator {
+            val call = super.visitCall(rex, ctx) as RexCall
+            return rewrite(call.function.signature.name, call.args) ?: call
+        }
+
+        override fun visitDispatch(rex: RexDispatch, ctx: Unit?): Operator {
+            val dispatch = super.visitDispatch(rex, ctx) as RexDispatch
+            return rewrite(dispatch.name, dispatch.args) ?: dispatch
+        }
+
+        /**
+         * @return the subquery predicate of a call to the function with the arguments, or null if it is not one.
+         */
+        private fun rewrite(name: String, args: List<Rex>): Rex? = when {
+            name == FunctionUtils.OP_IN_COLLECTION && args.size == 2 -> {
+                (args[1] as? RexSelect)?.let { operators.subqueryIn(values(it), listOf(args[0])) }
+            }
+            name == EXISTS && args.size == 1 -> {
+                (args[0] as? RexSelect)?.let { operators.subqueryTest(it.input, RexSubqueryTest.Test.EXISTS()) }
+            }
+            else -> null
+        }
+
+        /**
+         * @return a relation of a single column, the values of the select.
+         */
+        private fun values(select: RexSelect): Rel {
+            val input = select.input
+            val constructor = select.constructor
+            if (constructor is RexVar && constructor.scope == 0 && constructor.offset == 0 && input.type.degree == 1) {
+                return input
+            }
+            val project = operators.project(input, listOf(constructor))
+            val field = PTypeField.of("_1", constructor.type.pType)
+            project.setType(RelType.of(arrayOf(field), if (input.type.isOrdered) RelType.ORDERED else 0))
+            return project
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.partiql.planner.internal.exclude.ExcludeRepr
 import org.partiql.planner.internal.ir.PlanNode
 import org.partiql.planner.internal.ir.Rel
 import org.partiql.planner.internal.ir.Rex
+import org.partiql.planner.internal.ir.SetQuantifier
 import org.partiql.planner.internal.ir.Statement
 import org.partiql.planner.internal.ir.rel
 import org.partiql.planner.internal.ir.relOpAggregate
@@ -37,6 +38,7 @@ import org.partiql.planner.internal.ir.relOpScan
 import org.partiql.planner.internal.ir.relOpScanIndexed
 import org.partiql.planner.internal.ir.relOpSort
 import org.partiql.planner.internal.ir.relOpUnpivot
+import org.partiql.planner.internal.ir.relOpWindow
 import org.partiql.planner.internal.ir.relType
 import org.partiql.planner.internal.ir.rex
 import org.partiql.planner.internal.ir.rexOpCoalesce
@@ -580,6 +582,31 @@ internal class PlanTyper(private val env: Env, config: Context) {
             )
             return rel(type, op)
         }
+
+        /**
+         * The output schema of a `rel.op.window` is the input schema followed by the value of each function.
+         */
+        override fun visitRelOpWindow(node: Rel.Op.Window, ctx: Rel.Type?): Rel {
+            // compute input schema
+            val input = visitRel(node.input, ctx)
+
+            // type the partitions, specs, and functions
+            val typeEnv = TypeEnv(env, Scope(input.type.schema, outer))
+            val typer = RexTyper(typeEnv, Strategy.LOCAL)
+            val partitions = node.partitions.map { typer.visitRex(it, null) }
+            val specs = node.specs.map { it.copy(rex = typer.visitRex(it.rex, null)) }
+            val functions = node.functions.map { typer.resolveWindow(it) }
+
+            // compute schema using order (input...functions...)
+            val schema = mutableListOf<CompilerType>()
+            schema += input.type.schema.map { it.type }
+            schema += functions.map { it.second }
+
+            // rewrite with typed functions
+            val type = ctx!!.copyWithSchema(schema)
+            val op = relOpWindow(input, partitions, specs, functions.map { it.first })
+            return rel(type, op)
+        }
     }
 
     /**
@@ -630,6 +657,11 @@ internal class PlanTyper(private val env: Env, config: Context) {
 
         override fun visitRexOpVarGlobal(node: Rex.Op.Var.Global, ctx: CompilerType?): Rex = rex(node.ref.type, node)
 
+        override fun visitRexOpParameter(node: Rex.Op.Parameter, ctx: CompilerType?): Rex {
+            // type comes from RexConverter
+            return rex(ctx!!, node)
+        }
+
         /**
          * TODO: Create a function signature for the Rex.Op.Path.Index to get automatic coercions.
          */
@@ -1248,6 +1280,30 @@ internal class PlanTyper(private val env: Env, config: Context) {
             val returnType = call.agg.signature.signature.returns
             return call to CompilerType(returnType)
         }
+
+        /**
+         * Resolution and typing of window function calls. The ranking functions are BIGINT, LAG and LEAD are the type
+         * of their value (and default), and the aggregate functions are resolved as aggregations, see [resolveAgg].
+         */
+        fun resolveWindow(node: Rel.Op.Window.Function): Pair<Rel.Op.Window.Function, CompilerType> {
+            // Type the arguments and frame offsets
+            val args = node.args.map { visitRex(it, null) }
+            val start = node.frame.start.copy(offset = node.frame.start.offset?.let { visitRex(it, null) })
+            val end = node.frame.end.copy(offset = node.frame.end.offset?.let { visitRex(it, null) })
+            val function = node.copy(args = args, frame = node.frame.copy(start = start, end = end))
+            return when (node.name) {
+                "row_number", "rank", "dense_rank" -> function to CompilerType(PType.bigint())
+                "lag", "lead" -> {
+                    val values = listOfNotNull(args[0], args.getOrNull(2)).map { it.type }
+                    function to CompilerType(anyOf(values) ?: PType.dynamic())
+                }
+                else -> {
+                    val call = env.resolveAgg(node.name, SetQuantifier.ALL, args) ?: return function to CompilerType(PType.dynamic())
+                    val returnType = call.agg.signature.signature.returns
+                    function.copy(args = call.args, agg = call.agg) to CompilerType(returnType)
+                }
+            }
+        }
     }
 
     // HELPERS
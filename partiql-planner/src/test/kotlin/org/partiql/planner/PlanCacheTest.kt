@@ -0,0 +1,104 @@
+package org.partiql.planner
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.parser.PartiQLParser
+import org.partiql.plan.Plan
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.types.PType
+import kotlin.test.assertEquals
+import kotlin.test.assertNotSame
+import kotlin.test.assertSame
+
+class PlanCacheTest {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.standard()
+
+    private val a = Catalog.builder().name("a").define(Table.empty("t", PType.bag(PType.struct()))).build()
+    private val b = Catalog.builder().name("b").define(Table.empty("u", PType.bag(PType.struct()))).build()
+
+    private val sessionA = Session.builder().catalog("a").catalogs(a, b).build()
+    private val sessionB = Session.builder().catalog("b").catalogs(a, b).build()
+
+    @Test
+    fun normalize() {
+        assertEquals("SELECT * FROM t WHERE x = 'a b'", PlanCache.normalize("  SELECT *\n\tFROM t -- all\n WHERE x = 'a b'"))
+        assertEquals("SELECT 1 FROM t", PlanCache.normalize("SELECT /* one */ 1 FROM t"))
+        assertEquals("SELECT 'it''s -- not  a comment'", PlanCache.normalize("SELECT 'it''s -- not  a comment'"))
+        assertEquals("SELECT \"a  b\" FROM t", PlanCache.normalize("SELECT \"a  b\"   FROM t"))
+        assertEquals("`{a: \"x ` y\"}` + 1", PlanCache.normalize("`{a: \"x ` y\"}`  +  1"))
+    }
+
+    @Test
+    fun hitsIgnoreFormatting() {
+        val cache = PlanCache.builder().build()
+        val p1 = get(cache, "SELECT * FROM t", sessionA)
+        val p2 = get(cache, "SELECT *\n  FROM t -- again", sessionA)
+        assertSame(p1, p2)
+        val stats = cache.stats()
+        assertEquals(1, stats.hits)
+        assertEquals(1, stats.misses)
+        assertEquals(1, stats.size)
+    }
+
+    @Test
+    fun keyIncludesSession() {
+        val cache = PlanCache.builder().build()
+        val p1 = get(cache, "SELECT * FROM a.t", sessionA)
+        val p2 = get(cache, "SELECT * FROM a.t", sessionB)
+        assertNotSame(p1, p2)
+        assertEquals(2, cache.stats().misses)
+    }
+
+    @Test
+    fun evictsLeastRecentlyUsed() {
+        val cache = PlanCache.builder().maximumSize(2).build()
+        val p1 = get(cache, "1", sessionA)
+        get(cache, "2", sessionA)
+        get(cache, "1", sessionA)
+        get(cache, "3", sessionA) // evicts "2"
+        assertSame(p1, get(cache, "1", sessionA))
+        get(cache, "2", sessionA)
+        val stats = cache.stats()
+        assertEquals(2, stats.evictions)
+        assertEquals(2, stats.size)
+        assertEquals(4, stats.misses)
+    }
+
+    @Test
+    fun invalidatesPlansOfCatalog() {
+        val cache = PlanCache.builder().build()
+        val p1 = get(cache, "SELECT * FROM t", sessionA)
+        val p2 = get(cache, "SELECT * FROM u", sessionB)
+        cache.invalidate("A")
+        assertNotSame(p1, get(cache, "SELECT * FROM t", sessionA))
+        assertSame(p2, get(cache, "SELECT * FROM u", sessionB))
+        assertEquals(1, cache.stats().invalidations)
+        cache.invalidateAll()
+        assertEquals(0, cache.size())
+        assertEquals(3, cache.stats().invalidations)
+    }
+
+    @Test
+    fun failuresAreNotCached() {
+        val cache = PlanCache.builder().build()
+        assertThrows<IllegalStateException> {
+            cache.get("SELECT * FROM t", sessionA) { error("planning failed") }
+        }
+        assertEquals(0, cache.size())
+        get(cache, "SELECT * FROM t", sessionA)
+        assertEquals(2, cache.stats().misses)
+    }
+
+    @Test
+    fun maximumSizeMustBePositive() {
+        assertThrows<IllegalArgumentException> { PlanCache.builder().maximumSize(0) }
+    }
+
+    private fun get(cache: PlanCache, statement: String, session: Session): Plan = cache.get(statement, session) { s ->
+        planner.plan(parser.parse(statement).statements[0], s).plan
+    }
+}
@@ -726,6 +726,18 @@ public interface Datum extends Iterable<Datum> {
         return new DatumStruct(values);
     }
 
+    /**
+     * Creates a struct of a shape and its values, without copying the values. Use this if you create many structs
+     * with the same field names, which then share the shape.
+     * @param shape the field names
+     * @param values the field values, in the order of the shape's names; the array must not be modified afterward
+     * @return a value of type {@link PType#STRUCT}
+     */
+    @NotNull
+    static Datum struct(@NotNull StructShape shape, @NotNull Datum[] values) {
+        return new DatumStruct(shape, values);
+    }
+
     /**
      * Returns an empty {@link PType#ROW}
      * @return a value of type {@link PType#ROW}
@@ -802,7 +814,7 @@ public interface Datum extends Iterable<Datum> {
      * {@link Object#equals(Object)} will not work outright with Datum to implement the before-mentioned operations due
      * to requirements by the PartiQL and SQL Specifications. One may use {@link java.util.TreeMap} and
      * {@link java.util.TreeSet} in combination with this {@link Comparator} to implement the before-mentioned
-     * operations.
+     * operations, or hash-based structures in combination with {@link #hasher()}.
      * </p>
      * @return the default comparator for {@link Datum}. The comparator orders null values first.
      * @see Datum
@@ -822,7 +834,7 @@ public interface Datum extends Iterable<Datum> {
      * {@link Object#equals(Object)} will not work outright with Datum to implement the before-mentioned operations due
      * to requirements by the PartiQL and SQL Specifications. One may use {@link java.util.TreeMap} and
      * {@link java.util.TreeSet} in combination with this {@link Comparator} to implement the before-mentioned
-     * operations.
+     * operations, or hash-based structures in combination with {@link #hasher()}.
      * </p>
      * @param nullsFirst if true, nulls are ordered before non-null values, otherwise after.
      * @return the default comparator for {@link Datum}.
@@ -838,4 +850,19 @@ public interface Datum extends Iterable<Datum> {
             return new DatumComparator.NullsLast();
         }
     }
+
+    /**
+     * Hashing strategy for PartiQL values.
+     * <p>
+     * This may be used in place of {@link Object#hashCode()} and {@link Object#equals(Object)} to key hash-based
+     * structures on Datums for GROUP BY, DISTINCT, and the like. Values which are equal according to
+     * {@link #comparator()} produce the same hash code.
+     * </p>
+     * @return the default hashing strategy for {@link Datum}.
+     * @see DatumHashStrategy
+     */
+    @NotNull
+    static DatumHashStrategy hasher() {
+        return DatumHasher.INSTANCE;
+    }
 }
@@ -0,0 +1,35 @@
+package org.partiql.spi.value;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A hashing strategy for {@link Datum}s which is consistent with the equivalence defined by {@link Datum#comparator()};
+ * that is, if two values compare as equal, they produce the same hash code. This allows one to implement GROUP BY,
+ * DISTINCT, and the like with hash-based structures keyed on Datums rather than with {@link java.util.TreeMap} and
+ * {@link java.util.TreeSet}.
+ * <p>
+ * Notable equivalences:
+ * </p>
+ * <ul>
+ * <li>NULL and MISSING (of any type) are equivalent.</li>
+ * <li>Numbers are equivalent by their mathematical value, so {@code 1}, {@code 1.0}, and {@code 1e0} are equivalent.</li>
+ * <li>BAG and STRUCT values are insensitive to the order of their elements and fields.</li>
+ * </ul>
+ *
+ * @see Datum#hasher()
+ */
+public interface DatumHashStrategy {
+
+    /**
+     * @param value the value to hash.
+     * @return a hash code for the {@code value} which is consistent with {@link #equals(Datum, Datum)}.
+     */
+    int hash(@NotNull Datum value);
+
+    /**
+     * @param lhs the left-hand-side value.
+     * @param rhs the right-hand-side value.
+     * @return true if the values are equivalent according to {@link Datum#comparator()}.
+     */
+    boolean equals(@NotNull Datum lhs, @NotNull Datum rhs);
+}
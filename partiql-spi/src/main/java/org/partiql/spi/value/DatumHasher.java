@@ -0,0 +1,195 @@
+package org.partiql.spi.value;
+
+import org.jetbrains.annotations.NotNull;
+import org.partiql.spi.types.PType;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * The default {@link DatumHashStrategy}. Each hash mirrors a cell (or family of cells) of the {@link DatumComparator}'s
+ * comparison table:
+ * <ul>
+ * <li>NULL and MISSING hash to the same value.</li>
+ * <li>All numbers hash by their mathematical value: integral values (of any type) which fit in a long hash like a long,
+ * and all others hash by their canonical {@link BigDecimal} (trailing zeros stripped). Like the comparator, all NaNs are
+ * equal, and all zeros are equal.</li>
+ * <li>ARRAY hashes are ordered; BAG hashes are the sum of their (mixed) element hashes.</li>
+ * <li>STRUCT and ROW hashes are the sum of their (mixed) field hashes, as a STRUCT compares to a ROW as a STRUCT.</li>
+ * <li>Times and timestamps hash by their local value, with or without a time zone. Equal values with a time zone have
+ * the same local value, and a value with a time zone compares to one without by their local values.</li>
+ * <li>Values of types without a comparison of their own (which the comparator treats as equal) share a hash.</li>
+ * </ul>
+ * <p>
+ * The comparator compares REAL values against integers and NUMERIC values after narrowing the other side to a float;
+ * such comparisons may equate values which are not mathematically equal (think 16777217 and 1.6777216e7), and for
+ * those alone the hash codes may differ.
+ * </p>
+ */
+final class DatumHasher implements DatumHashStrategy {
+
+    static final DatumHasher INSTANCE = new DatumHasher();
+
+    private static final int UNKNOWN_HASH = 0;
+
+    private static final int NAN_HASH = 0x7ff80000;
+
+    private static final int POSITIVE_INFINITY_HASH = 0x7ff00000;
+
+    private static final int NEGATIVE_INFINITY_HASH = 0xfff00000;
+
+    private static final int OTHER_HASH = 0x9e3779b9;
+
+    /**
+     * Largest magnitude (exclusive) of a double which is guaranteed to convert exactly to a long.
+     */
+    private static final double LONG_BOUNDARY = 9.223372036854775807E18;
+
+    @NotNull
+    private final Comparator<Datum> comparator = new DatumComparator.NullsFirst();
+
+    private DatumHasher() {
+    }
+
+    @Override
+    public int hash(@NotNull Datum value) {
+        if (value.isNull() || value.isMissing()) {
+            return UNKNOWN_HASH;
+        }
+        switch (value.getType().code()) {
+            case PType.VARIANT:
+                return hash(value.lower());
+            case PType.BOOL:
+                return Boolean.hashCode(value.getBoolean());
+            case PType.TINYINT:
+                return hashLong(value.getByte());
+            case PType.SMALLINT:
+                return hashLong(value.getShort());
+            case PType.INTEGER:
+                return hashLong(value.getInt());
+            case PType.BIGINT:
+                return hashLong(value.getLong());
+            case PType.REAL:
+                return hashDouble(value.getFloat());
+            case PType.DOUBLE:
+                return hashDouble(value.getDouble());
+            case PType.NUMERIC:
+            case PType.DECIMAL:
+                return hashDecimal(value.getBigDecimal());
+            case PType.CHAR:
+            case PType.VARCHAR:
+            case PType.STRING:
+                return value.getString().hashCode();
+            case PType.BLOB:
+            case PType.CLOB:
+                return Arrays.hashCode(value.getBytes());
+            case PType.DATE:
+                return value.getLocalDate().hashCode();
+            case PType.TIME:
+            case PType.TIMEZ:
+                return value.getLocalTime().hashCode();
+            case PType.TIMESTAMP:
+            case PType.TIMESTAMPZ:
+                return value.getLocalDateTime().hashCode();
+            case PType.ARRAY:
+                return hashOrdered(value.iterator());
+            case PType.BAG:
+                return hashUnordered(value.iterator());
+            case PType.ROW:
+            case PType.STRUCT:
+                return hashFields(value.getFields());
+            default:
+                return OTHER_HASH;
+        }
+    }
+
+    @Override
+    public boolean equals(@NotNull Datum lhs, @NotNull Datum rhs) {
+        return comparator.compare(lhs, rhs) == 0;
+    }
+
+    private static int hashLong(long value) {
+        return Long.hashCode(value);
+    }
+
+    /**
+     * The comparator treats all NaNs as equal, all zeros as equal, and compares against decimals using
+     * {@link BigDecimal#valueOf(double)}; so we do the same here.
+     */
+    private static int hashDouble(double value) {
+        if (Double.isNaN(value)) {
+            return NAN_HASH;
+        }
+        if (value == Double.POSITIVE_INFINITY) {
+            return POSITIVE_INFINITY_HASH;
+        }
+        if (value == Double.NEGATIVE_INFINITY) {
+            return NEGATIVE_INFINITY_HASH;
+        }
+        if (value == 0.0) {
+            return hashLong(0);
+        }
+        if (value == Math.rint(value) && Math.abs(value) < LONG_BOUNDARY) {
+            return hashLong((long) value);
+        }
+        return hashDecimal(BigDecimal.valueOf(value));
+    }
+
+    /**
+     * Integral decimals which fit in a long hash like a long; all others hash by their canonical (stripped) form.
+     */
+    private static int hashDecimal(BigDecimal value) {
+        BigDecimal stripped = value.stripTrailingZeros();
+        if (stripped.scale() <= 0 && stripped.precision() - stripped.scale() <= 19) {
+            try {
+                return hashLong(stripped.longValueExact());
+            } catch (ArithmeticException e) {
+                // does not fit in a long, fall through
+            }
+        }
+        return stripped.hashCode();
+    }
+
+    private int hashOrdered(Iterator<Datum> values) {
+        int result = 1;
+        while (values.hasNext()) {
+            result = 31 * result + hash(values.next());
+        }
+        return result;
+    }
+
+    private int hashUnordered(Iterator<Datum> values) {
+        int result = 0;
+        while (values.hasNext()) {
+            result += mix(hash(values.next()));
+        }
+        return result;
+    }
+
+    private int hashFields(Iterator<Field> fields) {
+        int result = 0;
+        while (fields.hasNext()) {
+            Field field = fields.next();
+            result += mix(31 * field.getName().hashCode() + hash(field.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Scrambles the bits of an element's hash before it is summed; otherwise, as addition is linear, swapping the values
+     * of two fields (or adding to one element what is taken from another) would not change the hash.
+     *
+     * @see <a href="https://github.com/aappleby/smhasher/wiki/MurmurHash3">MurmurHash3 finalizer</a>
+     */
+    private static int mix(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -3,8 +3,11 @@ package org.partiql.spi.value;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.partiql.spi.internal.value.ion.IonDatumReader;
+import org.partiql.spi.internal.value.ion.IonLazyDatumReader;
+import org.partiql.spi.internal.value.json.JsonDatumReader;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,6 +39,43 @@ public interface DatumReader extends AutoCloseable {
         return new IonDatumReader(input, new HashMap<>());
     }
 
+    /**
+     * Returns a reader for binary {@link Encoding#ION} in a buffer, such as a file mapped by
+     * {@link java.nio.channels.FileChannel#map}. Its structs and collections are views over the buffer, which decode
+     * fields and elements only as they are accessed; so the buffer must not be modified while they are in use.
+     *
+     * @return a lazy reader implementation for binary {@link Encoding#ION}.
+     */
+    @NotNull
+    public static DatumReader ion(ByteBuffer input) {
+        return new IonLazyDatumReader(input);
+    }
+
+    /**
+     * Returns a reader for {@link Encoding#JSON}, which reads a sequence of values (think JSON Lines). An integer is a
+     * BIGINT (or a DECIMAL if it does not fit), and any other number is a DECIMAL.
+     *
+     * @return a reader implementation for {@link Encoding#JSON}.
+     */
+    @NotNull
+    public static DatumReader json(InputStream input) {
+        return new JsonDatumReader(input, false, true);
+    }
+
+    /**
+     * Returns a reader for {@link Encoding#JSON}, which reads a sequence of values (think JSON Lines).
+     *
+     * @param input the JSON values.
+     * @param lazy if true, an object or an array is a view over its bytes, which decodes fields and elements only as
+     *             they are accessed.
+     * @param exact if true, a number with a fraction or an exponent is a DECIMAL; else it is a DOUBLE.
+     * @return a reader implementation for {@link Encoding#JSON}.
+     */
+    @NotNull
+    public static DatumReader json(InputStream input, boolean lazy, boolean exact) {
+        return new JsonDatumReader(input, lazy, exact);
+    }
+
     /**
      * A DatumReader can be re-used.
      */
@@ -66,6 +106,8 @@ public interface DatumReader extends AutoCloseable {
             switch (encoding.code()) {
                 case Encoding.ION:
                     return new IonDatumReader(input, others);
+                case Encoding.JSON:
+                    return new JsonDatumReader(input, false, true);
                 default:
                     throw new IllegalArgumentException("no reader for encoding: " + encoding);
             }
@@ -4,74 +4,78 @@ import org.jetbrains.annotations.NotNull;
 import org.partiql.spi.types.PType;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
+ * A struct of a shared {@link StructShape} and a flat array of values, in the order of the shape's names.
+ * <br>
  * This shall always be package-private (internal).
  */
 class DatumStruct implements Datum {
 
     @NotNull
-    private final HashMap<String, List<Datum>> _delegate;
+    private final StructShape _shape;
 
     @NotNull
-    private final HashMap<String, List<Datum>> _delegateNormalized;
+    private final Datum[] _values;
 
     private final static PType _type = PType.struct();
 
-    DatumStruct(@NotNull Iterable<Field> fields) {
-        _delegate = new HashMap<>();
-        _delegateNormalized = new HashMap<>();
-        for (Field field : fields) {
-            String key = field.getName();
-            String keyNormalized = field.getName().toLowerCase();
-            Datum value = field.getValue();
-            addFieldToStruct(_delegate, key, value);
-            addFieldToStruct(_delegateNormalized, keyNormalized, value);
+    DatumStruct(@NotNull StructShape shape, @NotNull Datum[] values) {
+        if (shape.size() != values.length) {
+            String message = "Expected " + shape.size() + " values for the struct shape " + shape;
+            throw new IllegalArgumentException(message + ", found " + values.length);
         }
+        _shape = shape;
+        _values = values;
     }
 
-    private void addFieldToStruct(Map<String, List<Datum>> struct, String key, Datum value) {
-        List<Datum> values = struct.getOrDefault(key, new ArrayList<>());
-        values.add(value);
-        struct.put(key, values);
+    DatumStruct(@NotNull Iterable<Field> fields) {
+        ArrayList<String> names = new ArrayList<>();
+        ArrayList<Datum> values = new ArrayList<>();
+        for (Field field : fields) {
+            names.add(field.getName());
+            values.add(field.getValue());
+        }
+        _shape = StructShape.of(names);
+        _values = values.toArray(new Datum[0]);
     }
 
     @Override
     @NotNull
     public Iterator<Field> getFields() {
-        return _delegate.entrySet().stream().flatMap(
-                entry -> entry.getValue().stream().map(
-                        value -> Field.of(entry.getKey(), value)
-                )
-        ).iterator();
+        return new Iterator<Field>() {
+
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < _values.length;
+            }
+
+            @Override
+            public Field next() {
+                if (i >= _values.length) {
+                    throw new NoSuchElementException();
+                }
+                Field field = Field.of(_shape.getName(i), _values[i]);
+                i++;
+                return field;
+            }
+        };
     }
 
     @Override
     public Datum get(@NotNull String name) {
-        List<Datum> values = _delegate.get(name);
-        if (values == null) {
-            return null;
-        }
-        if (values.isEmpty()) {
-            return null;
-        }
-        return values.get(0);
+        int i = _shape.indexOf(name);
+        return i < 0 ? null : _values[i];
     }
 
     @Override
     public Datum getInsensitive(@NotNull String name) {
-        List<Datum> values = _delegateNormalized.get(name.toLowerCase());
-        if (values == null) {
-            return null;
-        }
-        if (values.isEmpty()) {
-            return null;
-        }
-        return values.get(0);
+        int i = _shape.indexOfInsensitive(name);
+        return i < 0 ? null : _values[i];
     }
 
     @NotNull
@@ -84,10 +88,10 @@ class DatumStruct implements Datum {
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("struct::{ ");
-        for (Map.Entry<String, List<Datum>> entry : _delegate.entrySet()) {
-            sb.append(entry.getKey());
+        for (int i = 0; i < _values.length; i++) {
+            sb.append(_shape.getName(i));
             sb.append(": ");
-            sb.append(entry.getValue().toString());
+            sb.append(_values[i].toString());
             sb.append(", ");
         }
         sb.append(" }");
@@ -1,5 +1,11 @@
 package org.partiql.spi.value;
 
+import org.jetbrains.annotations.NotNull;
+import org.partiql.spi.internal.value.ion.IonDatumWriter;
+import org.partiql.spi.internal.value.json.JsonDatumWriter;
+
+import java.io.OutputStream;
+
 /**
  * The {@link DatumWriter} interface is a low-level writer interface for writing streams of PartiQL data.
  * <br>
@@ -13,4 +19,44 @@ public interface DatumWriter extends AutoCloseable {
      * @param datum to write.
      */
     public DatumWriter write(Datum datum);
+
+    /**
+     * Writes each element of a collection as a value of its own, as the collection is iterated; so a large (or lazily
+     * evaluated) collection is streamed rather than written as a single value.
+     *
+     * @param collection whose elements to write.
+     */
+    default DatumWriter writeAll(Datum collection) {
+        for (Datum datum : collection) {
+            write(datum);
+        }
+        return this;
+    }
+
+    /**
+     * @return a writer implementation for {@link Encoding#ION} text, which {@link DatumReader#ion} reads back.
+     */
+    @NotNull
+    public static DatumWriter ion(OutputStream output) {
+        return new IonDatumWriter(output, false);
+    }
+
+    /**
+     * @return a writer implementation for {@link Encoding#ION} binary, which {@link DatumReader#ion} reads back.
+     */
+    @NotNull
+    public static DatumWriter ionBinary(OutputStream output) {
+        return new IonDatumWriter(output, true);
+    }
+
+    /**
+     * Returns a writer for {@link Encoding#JSON}, which writes each value on a line of its own (JSON Lines). JSON has
+     * fewer types than PartiQL, so values such as a MISSING, a BLOB, or a TIMESTAMP are not read back as they were.
+     *
+     * @return a writer implementation for {@link Encoding#JSON}.
+     */
+    @NotNull
+    public static DatumWriter json(OutputStream output) {
+        return new JsonDatumWriter(output);
+    }
 }
@@ -18,6 +18,11 @@ public class Encoding extends Enum {
      */
     public static final int ION = 1;
 
+    /**
+     * Represents UTF-8 encoded JSON values, which may be a sequence of values (JSON Lines).
+     */
+    public static final int JSON = 2;
+
     /**
      * @return a {@link Encoding} with code {@link Encoding#ION}
      */
@@ -26,6 +31,14 @@ public class Encoding extends Enum {
         return new Encoding(ION);
     }
 
+    /**
+     * @return a {@link Encoding} with code {@link Encoding#JSON}
+     */
+    @NotNull
+    public static Encoding JSON() {
+        return new Encoding(JSON);
+    }
+
     @NotNull
     @Override
     public String name() throws UnsupportedCodeException {
@@ -33,6 +46,9 @@ public class Encoding extends Enum {
         if (code == ION) {
             return "ION";
         }
+        if (code == JSON) {
+            return "JSON";
+        }
         throw new UnsupportedCodeException(code);
     }
 }
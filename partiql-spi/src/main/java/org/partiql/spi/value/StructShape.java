@@ -0,0 +1,193 @@
+package org.partiql.spi.value;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link StructShape} is the ordered field names of a {@link org.partiql.spi.types.PType#STRUCT}, which is shared
+ * by all structs with the same names; so a struct is just its shape and an array of its values. Names may repeat.
+ * <br>
+ * Shapes are interned in a bounded table, and the lookup of a name (case-sensitive or case-insensitive) is computed once per shape.
+ * Producers of many structs with the same names (think the rows of a query, or records of a file) should create the
+ * shape once and create each struct with {@link Datum#struct(StructShape, Datum[])}.
+ */
+public final class StructShape {
+
+    /**
+     * Shapes with at most this many names are searched linearly rather than via a map.
+     */
+    private static final int LINEAR = 8;
+
+    /**
+     * The number of slots of the table of interned shapes, a power of two.
+     */
+    private static final int SLOTS = 4096;
+
+    /**
+     * The interned shapes, where a shape is in the slot of its hash; a shape replaces the shape of its slot, so the
+     * table holds the most recently interned shapes and structs with data as keys do not stop the sharing of others.
+     */
+    private static final AtomicReferenceArray<StructShape> SHAPES = new AtomicReferenceArray<>(SLOTS);
+
+    private static final StructShape EMPTY = new StructShape(new String[0]);
+
+    @NotNull
+    private final String[] names;
+
+    private final int hash;
+
+    /**
+     * The lower-cased names and the index maps, which are computed on first use; races only compute them twice.
+     */
+    private volatile String[] normalized;
+    private volatile HashMap<String, Integer> index;
+    private volatile HashMap<String, Integer> indexNormalized;
+
+    private StructShape(@NotNull String[] names) {
+        this.names = names;
+        this.hash = Arrays.hashCode(names);
+    }
+
+    /**
+     * @param names the field names, in order.
+     * @return the interned shape with the given names.
+     */
+    @NotNull
+    public static StructShape of(@NotNull String... names) {
+        return intern(names.clone());
+    }
+
+    /**
+     * @param names the field names, in order.
+     * @return the interned shape with the given names.
+     */
+    @NotNull
+    public static StructShape of(@NotNull List<String> names) {
+        return intern(names.toArray(new String[0]));
+    }
+
+    /**
+     * @param names the field names, in order, which are not copied; the array must not be modified afterward.
+     * @return the interned shape with the given names.
+     */
+    @NotNull
+    private static StructShape intern(@NotNull String[] names) {
+        if (names.length == 0) {
+            return EMPTY;
+        }
+        StructShape shape = new StructShape(names);
+        int slot = (shape.hash ^ (shape.hash >>> 16)) & (SLOTS - 1);
+        StructShape interned = SHAPES.get(slot);
+        if (shape.equals(interned)) {
+            return interned;
+        }
+        SHAPES.set(slot, shape);
+        return shape;
+    }
+
+    /**
+     * @return the number of fields.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param i the index of a field.
+     * @return the name of the field.
+     */
+    @NotNull
+    public String getName(int i) {
+        return names[i];
+    }
+
+    /**
+     * @param name the field name.
+     * @return the index of the first field with the name, or -1 if there is none.
+     */
+    public int indexOf(@NotNull String name) {
+        if (names.length <= LINEAR) {
+            return search(names, name);
+        }
+        HashMap<String, Integer> index = this.index;
+        if (index == null) {
+            index = index(names);
+            this.index = index;
+        }
+        Integer i = index.get(name);
+        return i != null ? i : -1;
+    }
+
+    /**
+     * @param name the field name.
+     * @return the index of the first field whose name is equal to the name ignoring case, or -1 if there is none.
+     */
+    public int indexOfInsensitive(@NotNull String name) {
+        String key = name.toLowerCase();
+        if (names.length <= LINEAR) {
+            return search(normalized(), key);
+        }
+        HashMap<String, Integer> index = this.indexNormalized;
+        if (index == null) {
+            index = index(normalized());
+            this.indexNormalized = index;
+        }
+        Integer i = index.get(key);
+        return i != null ? i : -1;
+    }
+
+    private String[] normalized() {
+        String[] normalized = this.normalized;
+        if (normalized == null) {
+            normalized = new String[names.length];
+            for (int i = 0; i < names.length; i++) {
+                normalized[i] = names[i].toLowerCase();
+            }
+            this.normalized = normalized;
+        }
+        return normalized;
+    }
+
+    private static int search(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static HashMap<String, Integer> index(String[] names) {
+        HashMap<String, Integer> index = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            index.putIfAbsent(names[i], i);
+        }
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StructShape)) {
+            return false;
+        }
+        StructShape other = (StructShape) o;
+        return hash == other.hash && Arrays.equals(names, other.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(names);
+    }
+}
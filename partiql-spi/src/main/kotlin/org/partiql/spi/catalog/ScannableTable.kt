@@ -0,0 +1,24 @@
+package org.partiql.spi.catalog
+
+import org.partiql.spi.value.Datum
+
+/**
+ * A [ScannableTable] is a [Table] which can skip columns and rows at its source. When a query only references some
+ * columns of a table, or filters the table's rows, the planner describes this with a [TableScan] and the engine reads
+ * the table via [getDatum] with that scan rather than via [Table.getDatum].
+ *
+ * The scan is advisory — the engine still applies every filter and projection of the query. So an implementation may
+ * ignore any part of the scan, and it need not evaluate predicates exactly as PartiQL would (for example, it may skip
+ * rows for which a predicate would raise a data exception).
+ */
+public interface ScannableTable : Table {
+
+    /**
+     * Returns the table's data for the given scan. The result must be a collection like [Table.getDatum] and it must
+     * include every row which satisfies all the scan's predicates; each such row must include (at least) the scan's
+     * columns, when present in the row. The result may include additional rows and additional columns.
+     *
+     * @param scan the columns and rows which the query needs.
+     */
+    public fun getDatum(scan: TableScan): Datum
+}
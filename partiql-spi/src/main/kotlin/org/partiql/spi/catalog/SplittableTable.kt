@@ -0,0 +1,19 @@
+package org.partiql.spi.catalog
+
+/**
+ * A [SplittableTable] is a [Table] whose rows are divided into independent [TableSplit]s (think files or partitions),
+ * so that the engine may read and process the splits concurrently.
+ *
+ * The rows of all splits together must be the rows of [Table.getDatum]; their order is not significant, so only
+ * unordered (bag) tables should be splittable.
+ */
+public interface SplittableTable : Table {
+
+    /**
+     * Returns the splits of the table. As with a [ScannableTable], the scan is advisory: the rows of the splits must
+     * include every row which satisfies all the scan's predicates, with (at least) the scan's columns.
+     *
+     * @param scan the columns and rows which the query needs; [TableScan.all] if the whole table is read.
+     */
+    public fun getSplits(scan: TableScan): List<TableSplit>
+}
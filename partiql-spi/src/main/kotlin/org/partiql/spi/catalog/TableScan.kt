@@ -0,0 +1,159 @@
+package org.partiql.spi.catalog
+
+import org.partiql.spi.value.Datum
+
+/**
+ * A [TableScan] describes what a query needs from a table: the columns it references and a conjunction of predicates
+ * which it applies to every row. It is passed to a [ScannableTable] so that a connector can skip data at its source.
+ *
+ * @see ScannableTable
+ */
+public class TableScan private constructor(
+    private val columns: List<Identifier.Simple>?,
+    private val predicates: List<Predicate>,
+) {
+
+    /**
+     * Returns the columns which the query references, or null if it (possibly) references every column. Regular
+     * identifiers match column names case-insensitively, and delimited identifiers case-sensitively; see
+     * [Identifier.Simple.matches].
+     */
+    public fun getColumns(): List<Identifier.Simple>? = columns
+
+    /**
+     * Returns the predicates which every row of the query result satisfies; an empty list means the query keeps all rows.
+     */
+    public fun getPredicates(): List<Predicate> = predicates
+
+    override fun toString(): String = "TableScan(columns=$columns, predicates=$predicates)"
+
+    /**
+     * A predicate over a single column of the form `<column> <op> <values>`, where all values are non-null literals.
+     * A row satisfies the predicate iff it evaluates to TRUE for the row's column value; a row which lacks the column
+     * has a MISSING value.
+     *
+     * @see Predicate.getKind
+     */
+    public class Predicate private constructor(
+        private val column: Identifier.Simple,
+        private val kind: Int,
+        private val values: List<Datum>,
+    ) {
+
+        /**
+         * Returns the column which the predicate tests.
+         */
+        public fun getColumn(): Identifier.Simple = column
+
+        /**
+         * Returns the kind of predicate; one of [EQ], [LT], [LTE], [GT], [GTE], [IN], [IS_NULL], or [RANGE]. New kinds
+         * may be added, and a connector should ignore predicates of a kind it does not know.
+         */
+        public fun getKind(): Int = kind
+
+        /**
+         * Returns the operands of the predicate: one value for a comparison, the (lower, upper) bounds of a range, the
+         * candidate values of an IN, and no values for IS NULL.
+         */
+        public fun getValues(): List<Datum> = values
+
+        override fun toString(): String {
+            val op = when (kind) {
+                EQ -> "="
+                LT -> "<"
+                LTE -> "<="
+                GT -> ">"
+                GTE -> ">="
+                IN -> "IN"
+                IS_NULL -> "IS NULL"
+                RANGE -> "BETWEEN"
+                else -> "UNKNOWN($kind)"
+            }
+            return "$column $op $values"
+        }
+
+        public companion object {
+
+            /**
+             * `column = value`.
+             */
+            public const val EQ: Int = 0
+
+            /**
+             * `column < value`.
+             */
+            public const val LT: Int = 1
+
+            /**
+             * `column <= value`.
+             */
+            public const val LTE: Int = 2
+
+            /**
+             * `column > value`.
+             */
+            public const val GT: Int = 3
+
+            /**
+             * `column >= value`.
+             */
+            public const val GTE: Int = 4
+
+            /**
+             * `column IN (value, ...)`.
+             */
+            public const val IN: Int = 5
+
+            /**
+             * `column IS NULL`; in PartiQL, this is also TRUE for a MISSING column.
+             */
+            public const val IS_NULL: Int = 6
+
+            /**
+             * `column BETWEEN lower AND upper`, where both bounds are inclusive.
+             */
+            public const val RANGE: Int = 7
+
+            @JvmStatic
+            public fun eq(column: Identifier.Simple, value: Datum): Predicate = Predicate(column, EQ, listOf(value))
+
+            @JvmStatic
+            public fun lt(column: Identifier.Simple, value: Datum): Predicate = Predicate(column, LT, listOf(value))
+
+            @JvmStatic
+            public fun lte(column: Identifier.Simple, value: Datum): Predicate = Predicate(column, LTE, listOf(value))
+
+            @JvmStatic
+            public fun gt(column: Identifier.Simple, value: Datum): Predicate = Predicate(column, GT, listOf(value))
+
+            @JvmStatic
+            public fun gte(column: Identifier.Simple, value: Datum): Predicate = Predicate(column, GTE, listOf(value))
+
+            @JvmStatic
+            public fun `in`(column: Identifier.Simple, values: List<Datum>): Predicate = Predicate(column, IN, values.toList())
+
+            @JvmStatic
+            public fun isNull(column: Identifier.Simple): Predicate = Predicate(column, IS_NULL, emptyList())
+
+            @JvmStatic
+            public fun range(column: Identifier.Simple, lower: Datum, upper: Datum): Predicate =
+                Predicate(column, RANGE, listOf(lower, upper))
+        }
+    }
+
+    public companion object {
+
+        /**
+         * A scan of every column and every row.
+         */
+        @JvmStatic
+        public fun all(): TableScan = TableScan(null, emptyList())
+
+        /**
+         * Creates a scan of the given columns (null for every column) and rows which satisfy all the given predicates.
+         */
+        @JvmStatic
+        public fun of(columns: List<Identifier.Simple>?, predicates: List<Predicate>): TableScan =
+            TableScan(columns?.toList(), predicates.toList())
+    }
+}
@@ -0,0 +1,18 @@
+package org.partiql.spi.catalog
+
+import org.partiql.spi.value.Datum
+
+/**
+ * A [TableSplit] is an independently readable part of a [SplittableTable].
+ *
+ * Splits are read on engine threads, and different splits may be read concurrently. Each split is read at most once
+ * per scan, and rows are read lazily; so an implementation should not load the split until [getRows] is called.
+ */
+public interface TableSplit {
+
+    /**
+     * Returns a lazy iterator of the split's rows. The rows may be used after the iterator has advanced, and on
+     * threads other than the one which read them.
+     */
+    public fun getRows(): Iterator<Datum>
+}
@@ -0,0 +1,263 @@
+package org.partiql.spi.internal.value.ion
+
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
+/**
+ * A cursor over the binary Ion 1.0 encoding of values in a buffer, which decodes value headers and the primitives of
+ * their representations in place.
+ *
+ * Only absolute reads of the buffer are used, so any number of cursors (on any number of threads) may share a buffer;
+ * a cursor itself is confined to a thread.
+ *
+ * @see <a href="https://amazon-ion.github.io/ion-docs/docs/binary.html">Ion Binary Encoding</a>
+ */
+internal class IonBinaryCursor(private val buffer: ByteBuffer) {
+
+    /**
+     * The type code (the high nibble of the type descriptor) of the current value.
+     */
+    @JvmField
+    var type = 0
+
+    /**
+     * The length code (the low nibble of the type descriptor) of the current value.
+     */
+    @JvmField
+    var low = 0
+
+    /**
+     * The start (inclusive) and end (exclusive) of the representation of the current value.
+     */
+    @JvmField
+    var start = 0
+
+    @JvmField
+    var end = 0
+
+    /**
+     * The position of the next primitive to decode.
+     */
+    @JvmField
+    var pos = 0
+
+    /**
+     * True if the last [varInt] was a negative zero (think an unknown offset).
+     */
+    @JvmField
+    var negativeZero = false
+
+    /**
+     * @return true if the current value is a null of any type.
+     */
+    val isNull: Boolean
+        get() = low == L_NULL && type != T_ANNOTATION
+
+    /**
+     * @return true if the current value is padding, which is not a value.
+     */
+    val isPadding: Boolean
+        get() = type == T_NULL && low != L_NULL
+
+    /**
+     * Decodes the type descriptor and length of the value at the position; its representation is then at [start]
+     * until [end], and [pos] is at [start].
+     */
+    fun header(at: Int) {
+        if (at >= buffer.limit()) {
+            throw IonDatumException("unexpected end of data at offset $at")
+        }
+        val descriptor = byte(at)
+        type = descriptor ushr 4
+        low = descriptor and 0x0F
+        pos = at + 1
+        val length = when {
+            type == T_BOOL || low == L_NULL -> 0
+            low == L_VAR || (type == T_STRUCT && low == 1) -> varUInt()
+            else -> low
+        }
+        start = pos
+        end = pos + length
+        if (end > buffer.limit() || end < start) {
+            throw IonDatumException("value at offset $at exceeds the data")
+        }
+    }
+
+    /**
+     * @return true if the bytes at the position are the binary Ion 1.0 version marker.
+     */
+    fun isVersionMarker(at: Int): Boolean {
+        if (at + 4 > buffer.limit()) {
+            return false
+        }
+        return byte(at) == 0xE0 && byte(at + 1) == 0x01 && byte(at + 2) == 0x00 && byte(at + 3) == 0xEA
+    }
+
+    /**
+     * @return the next VarUInt.
+     */
+    fun varUInt(): Int {
+        var v = 0L
+        while (true) {
+            val b = byte(pos++)
+            v = (v shl 7) or (b and 0x7F).toLong()
+            if (v > Int.MAX_VALUE) {
+                throw IonDatumException("VarUInt at offset $pos is out of range")
+            }
+            if (b and 0x80 != 0) {
+                return v.toInt()
+            }
+        }
+    }
+
+    /**
+     * @return the next VarInt.
+     */
+    fun varInt(): Int {
+        var b = byte(pos++)
+        val negative = b and 0x40 != 0
+        var v = (b and 0x3F).toLong()
+        while (b and 0x80 == 0) {
+            b = byte(pos++)
+            v = (v shl 7) or (b and 0x7F).toLong()
+            if (v > Int.MAX_VALUE) {
+                throw IonDatumException("VarInt at offset $pos is out of range")
+            }
+        }
+        negativeZero = negative && v == 0L
+        return if (negative) -v.toInt() else v.toInt()
+    }
+
+    /**
+     * @return the UInt from the position until [end], which fits a long.
+     */
+    fun uInt(end: Int): Long {
+        if (end - pos > 8 || (end - pos == 8 && byte(pos) and 0x80 != 0)) {
+            throw IonDatumException("int at offset $pos is out of range")
+        }
+        var v = 0L
+        while (pos < end) {
+            v = (v shl 8) or byte(pos++).toLong()
+        }
+        return v
+    }
+
+    /**
+     * @return the (sign and magnitude) Int from the position until [end].
+     */
+    fun int(end: Int): BigInteger {
+        if (pos == end) {
+            return BigInteger.ZERO
+        }
+        val magnitude = bytes(pos, end)
+        val negative = magnitude[0].toInt() and 0x80 != 0
+        magnitude[0] = (magnitude[0].toInt() and 0x7F).toByte()
+        pos = end
+        val v = BigInteger(1, magnitude)
+        return if (negative) v.negate() else v
+    }
+
+    /**
+     * @return the current value as a bool.
+     */
+    fun bool(): Boolean = low == 1
+
+    /**
+     * @return the current value as a long; it is a positive or negative int.
+     */
+    fun long(): Long {
+        pos = start
+        val magnitude = uInt(end)
+        return if (type == T_NEG_INT) -magnitude else magnitude
+    }
+
+    /**
+     * @return the current value as a double; it is a float.
+     */
+    fun double(): Double = when (end - start) {
+        0 -> 0.0
+        4 -> java.lang.Float.intBitsToFloat(buffer.getInt(start)).toDouble()
+        8 -> java.lang.Double.longBitsToDouble(buffer.getLong(start))
+        else -> throw IonDatumException("float at offset $start has length ${end - start}")
+    }
+
+    /**
+     * @return the current value as a decimal.
+     */
+    fun decimal(): BigDecimal {
+        if (start == end) {
+            return BigDecimal.ZERO
+        }
+        pos = start
+        val exponent = varInt()
+        return BigDecimal(int(end), -exponent)
+    }
+
+    /**
+     * @return the current value as a symbol ID.
+     */
+    fun symbol(): Int {
+        pos = start
+        val sid = uInt(end)
+        if (sid > Int.MAX_VALUE) {
+            throw IonDatumException("symbol at offset $start is out of range")
+        }
+        return sid.toInt()
+    }
+
+    /**
+     * @return the current value as a string.
+     */
+    fun string(): String {
+        if (buffer.hasArray()) {
+            return String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8)
+        }
+        return String(bytes(start, end), StandardCharsets.UTF_8)
+    }
+
+    /**
+     * @return a copy of the current value's bytes; it is a clob or a blob.
+     */
+    fun bytes(): ByteArray = bytes(start, end)
+
+    private fun bytes(from: Int, to: Int): ByteArray {
+        val bytes = ByteArray(to - from)
+        for (i in bytes.indices) {
+            bytes[i] = buffer.get(from + i)
+        }
+        return bytes
+    }
+
+    private fun byte(at: Int): Int {
+        if (at >= buffer.limit()) {
+            throw IonDatumException("unexpected end of data at offset $at")
+        }
+        return buffer.get(at).toInt() and 0xFF
+    }
+
+    internal companion object {
+
+        // type codes
+        const val T_NULL = 0
+        const val T_BOOL = 1
+        const val T_POS_INT = 2
+        const val T_NEG_INT = 3
+        const val T_FLOAT = 4
+        const val T_DECIMAL = 5
+        const val T_TIMESTAMP = 6
+        const val T_SYMBOL = 7
+        const val T_STRING = 8
+        const val T_CLOB = 9
+        const val T_BLOB = 10
+        const val T_LIST = 11
+        const val T_SEXP = 12
+        const val T_STRUCT = 13
+        const val T_ANNOTATION = 14
+
+        // length codes
+        const val L_VAR = 14
+        const val L_NULL = 15
+    }
+}
@@ -0,0 +1,272 @@
+package org.partiql.spi.internal.value.ion
+
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_ANNOTATION
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_BLOB
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_BOOL
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_CLOB
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_DECIMAL
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_FLOAT
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_LIST
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_NEG_INT
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_POS_INT
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_SEXP
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_STRING
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_STRUCT
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_SYMBOL
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_TIMESTAMP
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.math.BigDecimal
+import java.nio.ByteBuffer
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetDateTime
+import java.time.OffsetTime
+import java.time.ZoneOffset
+
+/**
+ * Decodes the binary Ion values of a buffer, which were encoded with the given symbols, as [Datum] values; it reads
+ * PartiQL data like [IonDatumReader] does.
+ *
+ * Scalars are decoded when the value is decoded, but structs and collections are decoded as views over the buffer
+ * ([IonLazyStruct] and [IonLazyCollection]), whose fields and elements are decoded as they are accessed. The decoder
+ * is immutable, so views may be shared by threads.
+ */
+internal class IonBinaryDecoder(
+    @JvmField val buffer: ByteBuffer,
+    @JvmField val symbols: IonSymbols,
+) {
+
+    /**
+     * @return the value at the position, with its explicit PartiQL type annotation (if any).
+     */
+    fun datum(at: Int): Datum {
+        val c = IonBinaryCursor(buffer)
+        c.header(at)
+        if (c.type != T_ANNOTATION) {
+            return read(c)
+        }
+        val length = c.varUInt()
+        val end = c.pos + length
+        val sid = c.varUInt()
+        if (c.pos != end) {
+            throw IonDatumException("expected 0 or 1 annotations at offset $at")
+        }
+        val symbol = symbols.text(sid) ?: throw IonDatumException("unknown annotation text at offset $at")
+        c.header(end)
+        return read(symbol, c)
+    }
+
+    /**
+     * @return the text of a symbol ID, which must be known.
+     */
+    fun text(sid: Int): String = symbols.text(sid) ?: throw IonDatumException("unknown text of symbol ID $sid")
+
+    /**
+     * Read without any explicit PartiQL type information.
+     */
+    private fun read(c: IonBinaryCursor): Datum {
+        if (c.isNull) {
+            return Datum.nullValue()
+        }
+        return when (c.type) {
+            T_BOOL -> Datum.bool(c.bool())
+            T_POS_INT, T_NEG_INT -> Datum.bigint(c.long())
+            T_FLOAT -> Datum.doublePrecision(c.double())
+            T_DECIMAL -> {
+                val v = c.decimal()
+                Datum.decimal(v, v.precision(), v.scale())
+            }
+            T_STRING -> Datum.string(c.string())
+            T_CLOB, T_BLOB -> {
+                val v = c.bytes()
+                Datum.clob(v, v.size)
+            }
+            T_LIST -> IonLazyCollection(this, c.start, c.end, PType.array())
+            T_STRUCT -> IonLazyStruct(this, c.start, c.end)
+            T_SYMBOL -> {
+                val v = symbols.text(c.symbol())
+                if (v != "missing") {
+                    throw IonDatumException("expected symbol `missing`, found $v")
+                }
+                Datum.missing()
+            }
+            T_SEXP -> sexp(c)
+            T_TIMESTAMP -> throw IonDatumException("unsupported type timestamp without annotation")
+            else -> throw IonDatumException("unknown type at offset ${c.start}")
+        }
+    }
+
+    /**
+     * Read the long form `(T value)`.
+     */
+    private fun sexp(c: IonBinaryCursor): Datum {
+        val end = c.end
+        element(c, c.start, end) ?: throw IonDatumException("expected type, was null")
+        if (c.type != T_SYMBOL || c.isNull) {
+            throw IonDatumException("types with parameters are not supported")
+        }
+        val type = text(c.symbol())
+        val value = element(c, c.end, end) ?: throw IonDatumException("expected value, was null")
+        if (element(c, c.end, end) != null) {
+            throw IonDatumException("expected end of s-expression pair")
+        }
+        c.header(value)
+        return read(type, c)
+    }
+
+    /**
+     * Moves the cursor to the first value (which is not padding) from the position until the end.
+     *
+     * @return the position of the value, or null if there is none.
+     */
+    private fun element(c: IonBinaryCursor, from: Int, end: Int): Int? {
+        var at = from
+        while (at < end) {
+            c.header(at)
+            if (!c.isPadding) {
+                return at
+            }
+            at = c.end
+        }
+        return null
+    }
+
+    /**
+     * Read with the PartiQL type of the annotation.
+     */
+    private fun read(type: String, c: IonBinaryCursor): Datum {
+        if (c.isNull) {
+            return Datum.nullValue()
+        }
+        return when (type) {
+            "bool" -> Datum.bool(expect(c, T_BOOL).bool())
+            "tinyint" -> Datum.tinyint(integer(c, Byte.MIN_VALUE, Byte.MAX_VALUE, type).toByte())
+            "smallint" -> Datum.smallint(integer(c, Short.MIN_VALUE, Short.MAX_VALUE, type).toShort())
+            "int" -> Datum.integer(integer(c, Int.MIN_VALUE, Int.MAX_VALUE, type).toInt())
+            "bigint" -> Datum.bigint(integer(c, Long.MIN_VALUE, Long.MAX_VALUE, type))
+            "real" -> {
+                val v = expect(c, T_FLOAT).double()
+                if (v > Float.MAX_VALUE || v < -Float.MAX_VALUE) {
+                    throw IonDatumException("real out of range")
+                }
+                Datum.real(v.toFloat())
+            }
+            "double" -> Datum.doublePrecision(expect(c, T_FLOAT).double())
+            "char" -> {
+                val v = expect(c, T_STRING).string()
+                if (v.length != 1) {
+                    throw IonDatumException("char(1) had length ${v.length}")
+                }
+                Datum.character(v, 1)
+            }
+            "varchar" -> Datum.string(expect(c, T_STRING).string())
+            "clob" -> {
+                val v = expect(c, T_CLOB).bytes()
+                Datum.clob(v, v.size)
+            }
+            "blob" -> {
+                val v = expect(c, T_BLOB).bytes()
+                Datum.blob(v, v.size)
+            }
+            "date" -> {
+                val v = timestamp(expect(c, T_TIMESTAMP))
+                Datum.date(v.time.toLocalDate())
+            }
+            "time" -> {
+                val v = expect(c, T_STRING).string()
+                Datum.time(LocalTime.parse(v), fraction(v))
+            }
+            "timez" -> {
+                val v = expect(c, T_STRING).string()
+                Datum.timez(OffsetTime.parse(v), fraction(v))
+            }
+            "timestamp" -> {
+                val v = timestamp(expect(c, T_TIMESTAMP))
+                Datum.timestamp(v.time.toLocalDateTime(), v.precision)
+            }
+            "timestampz" -> {
+                val v = timestamp(expect(c, T_TIMESTAMP))
+                if (!v.known) {
+                    throw IonDatumException("timestampz had an unknown offset")
+                }
+                Datum.timestampz(v.time, v.precision)
+            }
+            "array" -> IonLazyCollection(this, expect(c, T_LIST).start, c.end, PType.array())
+            "bag" -> IonLazyCollection(this, expect(c, T_LIST).start, c.end, PType.bag())
+            "struct" -> IonLazyStruct(this, expect(c, T_STRUCT).start, c.end)
+            "ion" -> throw IonDatumException("unsupported type ion in a binary Ion view")
+            else -> throw IonDatumException("cannot read type $type without arguments")
+        }
+    }
+
+    private fun expect(c: IonBinaryCursor, type: Int): IonBinaryCursor {
+        if (c.type != type) {
+            throw IonDatumException("unexpected Ion type code ${c.type} at offset ${c.start}")
+        }
+        return c
+    }
+
+    private fun integer(c: IonBinaryCursor, min: Number, max: Number, type: String): Long {
+        if (c.type != T_POS_INT && c.type != T_NEG_INT) {
+            throw IonDatumException("expected an int for $type at offset ${c.start}")
+        }
+        val v = c.long()
+        if (v < min.toLong() || v > max.toLong()) {
+            throw IonDatumException("$type out of range")
+        }
+        return v
+    }
+
+    /**
+     * A binary Ion timestamp is encoded as UTC, with the offset of its local time (or -00:00 if it is unknown).
+     */
+    private fun timestamp(c: IonBinaryCursor): Timestamp {
+        c.pos = c.start
+        val offset = c.varInt()
+        val known = !c.negativeZero
+        val year = c.varUInt()
+        var month = 1
+        var day = 1
+        var hour = 0
+        var minute = 0
+        var second = 0
+        var fraction = BigDecimal.ZERO
+        if (c.pos < c.end) month = c.varUInt()
+        if (c.pos < c.end) day = c.varUInt()
+        if (c.pos < c.end) {
+            hour = c.varUInt()
+            minute = c.varUInt()
+        }
+        if (c.pos < c.end) second = c.varUInt()
+        if (c.pos < c.end) {
+            val exponent = c.varInt()
+            fraction = BigDecimal(c.int(c.end), -exponent)
+        }
+        val nanos = fraction.movePointRight(9).toInt()
+        val utc = LocalDateTime.of(year, month, day, hour, minute, second, nanos).atOffset(ZoneOffset.UTC)
+        val time = when (known) {
+            true -> utc.withOffsetSameInstant(ZoneOffset.ofTotalSeconds(offset * 60))
+            else -> utc
+        }
+        return Timestamp(time, known, fraction.scale().coerceIn(0, 9))
+    }
+
+    private fun fraction(time: String): Int {
+        val i = time.indexOf('.')
+        if (i < 0) {
+            return 0
+        }
+        return time.substring(i + 1).takeWhile { it.isDigit() }.length
+    }
+
+    /**
+     * @property time the local time at its offset, or at UTC if the offset is unknown.
+     * @property precision the number of fractional digits of the seconds.
+     */
+    private class Timestamp(
+        @JvmField val time: OffsetDateTime,
+        @JvmField val known: Boolean,
+        @JvmField val precision: Int,
+    )
+}
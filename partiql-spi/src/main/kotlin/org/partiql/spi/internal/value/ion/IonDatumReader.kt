@@ -9,9 +9,16 @@ import com.amazon.ionelement.api.loadSingleElement
 import org.partiql.spi.value.Datum
 import org.partiql.spi.value.DatumReader
 import org.partiql.spi.value.Encoding
-import org.partiql.spi.value.Field
+import org.partiql.spi.value.StructShape
 import java.io.IOException
 import java.io.InputStream
+import java.math.BigDecimal
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetDateTime
+import java.time.OffsetTime
+import java.time.ZoneOffset
 
 /**
  * A [DatumReader] implementation for Ion encoded PartiQL data.
@@ -49,12 +56,7 @@ internal class IonDatumReader internal constructor(
     override fun next(): Datum? {
         return try {
             reader.next() ?: return null
-            val anno = reader.typeAnnotations
-            when (anno.size) {
-                0 -> read()
-                1 -> method(anno[0]).invoke()
-                else -> throw IonDatumException("expected 0 or 1 annotations", null, span())
-            }
+            value()
         } catch (ex: IonException) {
             throw IonDatumException("data exception", ex, span())
         } catch (ex: NotImplementedError) {
@@ -62,6 +64,18 @@ internal class IonDatumReader internal constructor(
         }
     }
 
+    /**
+     * Read the current value, with its explicit PartiQL type annotation (if any).
+     */
+    private fun value(): Datum {
+        val anno = reader.typeAnnotations
+        return when (anno.size) {
+            0 -> read()
+            1 -> method(anno[0]).invoke()
+            else -> throw IonDatumException("expected 0 or 1 annotations", null, span())
+        }
+    }
+
     /**
      * Read without any explicit PartiQL type information.
      */
@@ -112,6 +126,11 @@ internal class IonDatumReader internal constructor(
         "varchar" -> ::varchar0
         "clob" -> ::clob0
         "blob" -> ::blob0
+        "date" -> ::date0
+        "time" -> ::time0
+        "timez" -> ::timez0
+        "timestamp" -> ::timestamp0
+        "timestampz" -> ::timestampz0
         "array" -> ::array
         "bag" -> ::bag
         "struct" -> ::struct
@@ -216,7 +235,7 @@ internal class IonDatumReader internal constructor(
 
     private fun real(): Datum {
         val v = reader.doubleValue()
-        if (v > Float.MAX_VALUE || v < Float.MIN_VALUE) {
+        if (v > Float.MAX_VALUE || v < -Float.MAX_VALUE) {
             throw IonDatumException("real out of range", null, span())
         }
         return Datum.real(v.toFloat())
@@ -283,25 +302,68 @@ internal class IonDatumReader internal constructor(
     }
 
     private fun date0(): Datum {
-        throw IonDatumException("date not supported", null, span())
+        val v = reader.timestampValue()
+        return Datum.date(LocalDate.of(v.year, v.month, v.day))
+    }
+
+    /**
+     * The precision of a time is the number of fractional digits of its ISO-8601 string.
+     */
+    private fun time0(): Datum {
+        val v = reader.stringValue()
+        return Datum.time(LocalTime.parse(v), fraction(v))
     }
 
     private fun time1(precision: Int): Datum {
         throw IonDatumException("time(p) not supported", null, span())
     }
 
+    private fun timez0(): Datum {
+        val v = reader.stringValue()
+        return Datum.timez(OffsetTime.parse(v), fraction(v))
+    }
+
     private fun timez1(precision: Int): Datum {
         throw IonDatumException("timez(p) not supported", null, span())
     }
 
+    /**
+     * The precision of a timestamp is the number of fractional digits of its seconds; any offset is ignored.
+     */
+    private fun timestamp0(): Datum {
+        val v = reader.timestampValue()
+        val second = v.decimalSecond
+        val time = LocalDateTime.of(v.year, v.month, v.day, v.hour, v.minute, second.toInt(), nanos(second))
+        return Datum.timestamp(time, second.scale().coerceIn(0, 9))
+    }
+
     private fun timestamp1(precision: Int): Datum {
         throw IonDatumException("timestamp(p) not supported", null, span())
     }
 
+    private fun timestampz0(): Datum {
+        val v = reader.timestampValue()
+        val offset = v.localOffset ?: throw IonDatumException("timestampz had an unknown offset", null, span())
+        val second = v.decimalSecond
+        val time = LocalDateTime.of(v.year, v.month, v.day, v.hour, v.minute, second.toInt(), nanos(second))
+        val tz = ZoneOffset.ofTotalSeconds(offset * 60)
+        return Datum.timestampz(OffsetDateTime.of(time, tz), second.scale().coerceIn(0, 9))
+    }
+
     private fun timestampz1(precision: Int): Datum {
         throw IonDatumException("timestampz(p) not supported", null, span())
     }
 
+    private fun nanos(second: BigDecimal): Int = second.remainder(BigDecimal.ONE).movePointRight(9).toInt()
+
+    private fun fraction(time: String): Int {
+        val i = time.indexOf('.')
+        if (i < 0) {
+            return 0
+        }
+        return time.substring(i + 1).takeWhile { it.isDigit() }.length
+    }
+
     private fun array(): Datum {
         reader.stepIn()
         val elements = mutableListOf<Datum>()
@@ -328,14 +390,14 @@ internal class IonDatumReader internal constructor(
 
     private fun struct(): Datum {
         reader.stepIn()
-        val fields = mutableListOf<Field>()
+        val names = mutableListOf<String>()
+        val values = mutableListOf<Datum>()
         while (reader.next() != null) {
-            val name = reader.fieldName
-            val value = read()
-            fields.add(Field.of(name, value))
+            names.add(reader.fieldName)
+            values.add(value())
         }
         reader.stepOut()
-        return Datum.struct(fields)
+        return Datum.struct(StructShape.of(names), values.toTypedArray())
     }
 
     private fun ion(): Datum {
@@ -1,15 +1,189 @@
 package org.partiql.spi.internal.value.ion
 
+import com.amazon.ion.IonType
+import com.amazon.ion.IonWriter
+import com.amazon.ion.Timestamp
+import com.amazon.ion.system.IonBinaryWriterBuilder
+import com.amazon.ion.system.IonReaderBuilder
+import com.amazon.ion.system.IonTextWriterBuilder
+import org.partiql.spi.types.PType
 import org.partiql.spi.value.Datum
 import org.partiql.spi.value.DatumWriter
+import java.io.OutputStream
+import java.math.BigDecimal
+import java.math.RoundingMode
+import java.time.ZoneOffset
+import java.time.format.DateTimeFormatter
 
-internal class IonDatumWriter : DatumWriter {
+/**
+ * A [DatumWriter] implementation for Ion encoded PartiQL data, which [IonDatumReader] reads back.
+ *
+ * Values are written directly from the [Datum] accessors to an [IonWriter]. Types which are the default reading of
+ * an Ion type are written without annotation (think bigint as an Ion int, or a struct as an Ion struct); all other
+ * types are written in the short form `T::value`. Type parameters (think the precision of a decimal, or the length of
+ * a varchar) are not written; a NULL value is written as an untyped `null`.
+ *
+ * Collections are written as they are iterated, so a lazily evaluated collection need not be materialized. The text
+ * encoding is flushed every [FLUSH_INTERVAL] values at any depth; the binary encoding prefixes each container with its
+ * length, so it is flushed between top-level values only — see [DatumWriter.writeAll] to write a large collection as
+ * a stream of top-level values.
+ */
+internal class IonDatumWriter internal constructor(
+    output: OutputStream,
+    private val binary: Boolean,
+) : DatumWriter {
 
+    /**
+     * Cursor to the Ion stream.
+     */
+    private val writer: IonWriter = when (binary) {
+        true -> IonBinaryWriterBuilder.standard().build(output)
+        else -> IonTextWriterBuilder.standard().build(output)
+    }
+
+    /**
+     * The depth of the value being written; 0 is the top level.
+     */
+    private var depth = 0
+
+    /**
+     * The number of values written since the last flush.
+     */
+    private var count = 0
+
+    /**
+     * From AutoCloseable.
+     */
     override fun close() {
-        TODO("Not yet implemented")
+        writer.close()
+    }
+
+    override fun write(datum: Datum): DatumWriter {
+        value(datum)
+        return this
+    }
+
+    private fun value(datum: Datum) {
+        if (datum.isMissing) {
+            writer.writeSymbol("missing")
+        } else if (datum.isNull) {
+            writer.writeNull()
+        } else {
+            when (datum.type.code()) {
+                PType.BOOL -> writer.writeBool(datum.boolean)
+                PType.TINYINT -> annotated("tinyint").writeInt(datum.byte.toLong())
+                PType.SMALLINT -> annotated("smallint").writeInt(datum.short.toLong())
+                PType.INTEGER -> annotated("int").writeInt(datum.int.toLong())
+                PType.BIGINT -> writer.writeInt(datum.long)
+                PType.NUMERIC, PType.DECIMAL -> writer.writeDecimal(datum.bigDecimal)
+                PType.REAL -> annotated("real").writeFloat(datum.float.toDouble())
+                PType.DOUBLE -> writer.writeFloat(datum.double)
+                PType.CHAR, PType.VARCHAR, PType.STRING -> writer.writeString(datum.string)
+                PType.CLOB -> writer.writeClob(datum.bytes)
+                PType.BLOB -> annotated("blob").writeBlob(datum.bytes)
+                PType.DATE -> date(datum)
+                PType.TIME -> time(datum, false)
+                PType.TIMEZ -> time(datum, true)
+                PType.TIMESTAMP -> timestamp(datum, false)
+                PType.TIMESTAMPZ -> timestamp(datum, true)
+                PType.ARRAY -> collection(datum, null)
+                PType.BAG -> collection(datum, "bag")
+                PType.ROW, PType.STRUCT -> struct(datum)
+                PType.VARIANT -> variant(datum)
+                else -> throw IonDatumException("unsupported type ${datum.type}")
+            }
+        }
+        if (++count >= FLUSH_INTERVAL && (depth == 0 || !binary)) {
+            writer.flush()
+            count = 0
+        }
+    }
+
+    /**
+     * Annotates the next value with the PartiQL type name.
+     */
+    private fun annotated(type: String): IonWriter {
+        writer.setTypeAnnotations(type)
+        return writer
+    }
+
+    private fun date(datum: Datum) {
+        val v = datum.localDate
+        annotated("date").writeTimestamp(Timestamp.forDay(v.year, v.monthValue, v.dayOfMonth))
     }
 
-    override fun write(datum: Datum?): DatumWriter {
-        TODO("Not yet implemented")
+    /**
+     * Ion has no time of day, so a time is an ISO-8601 string such as "12:34:56.789" or "12:34:56.789+01:00".
+     */
+    private fun time(datum: Datum, zoned: Boolean) {
+        when (zoned) {
+            true -> annotated("timez").writeString(datum.offsetTime.format(DateTimeFormatter.ISO_OFFSET_TIME))
+            else -> annotated("time").writeString(datum.localTime.format(DateTimeFormatter.ISO_LOCAL_TIME))
+        }
+    }
+
+    /**
+     * A timestamp is an Ion timestamp with the fractional digits of its precision; one without a time zone has the
+     * unknown local offset (-00:00).
+     */
+    private fun timestamp(datum: Datum, zoned: Boolean) {
+        val v = when (zoned) {
+            true -> datum.offsetDateTime
+            else -> datum.localDateTime.atOffset(ZoneOffset.UTC)
+        }
+        val precision = datum.type.precision
+        val second = BigDecimal.valueOf(v.second.toLong()).add(BigDecimal.valueOf(v.nano.toLong(), 9))
+            .setScale(precision, RoundingMode.DOWN)
+        val offset = when (zoned) {
+            true -> v.offset.totalSeconds / 60
+            else -> null
+        }
+        val ts = Timestamp.forSecond(v.year, v.monthValue, v.dayOfMonth, v.hour, v.minute, second, offset)
+        annotated(if (zoned) "timestampz" else "timestamp").writeTimestamp(ts)
+    }
+
+    private fun collection(datum: Datum, annotation: String?) {
+        if (annotation != null) {
+            writer.setTypeAnnotations(annotation)
+        }
+        writer.stepIn(IonType.LIST)
+        depth++
+        for (element in datum) {
+            value(element)
+        }
+        depth--
+        writer.stepOut()
+    }
+
+    private fun struct(datum: Datum) {
+        writer.stepIn(IonType.STRUCT)
+        depth++
+        for (field in datum.fields) {
+            writer.setFieldName(field.name)
+            value(field.value)
+        }
+        depth--
+        writer.stepOut()
+    }
+
+    /**
+     * A variant is written in the long form `(ion value)`, as its value may have annotations of its own.
+     */
+    private fun variant(datum: Datum) {
+        writer.stepIn(IonType.SEXP)
+        writer.writeSymbol("ion")
+        IonReaderBuilder.standard().build(datum.pack(null)).use { reader ->
+            reader.next()
+            writer.writeValue(reader)
+        }
+        writer.stepOut()
+    }
+
+    private companion object {
+
+        /**
+         * The number of values between flushes of the underlying stream.
+         */
+        const val FLUSH_INTERVAL = 1024
     }
 }
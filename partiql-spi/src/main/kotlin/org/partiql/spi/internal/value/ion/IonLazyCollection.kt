@@ -0,0 +1,48 @@
+package org.partiql.spi.internal.value.ion
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * An array or a bag which is a view over the binary Ion list from [start] until [end]; each element is decoded as it
+ * is iterated, and the collection may be iterated any number of times.
+ */
+internal class IonLazyCollection(
+    private val decoder: IonBinaryDecoder,
+    private val start: Int,
+    private val end: Int,
+    private val type: PType,
+) : Datum {
+
+    override fun getType(): PType = type
+
+    override fun iterator(): MutableIterator<Datum> = object : MutableIterator<Datum> {
+
+        private val cursor = IonBinaryCursor(decoder.buffer)
+        private var pos = start
+
+        override fun hasNext(): Boolean {
+            while (pos < end) {
+                cursor.header(pos)
+                if (!cursor.isPadding) {
+                    return true
+                }
+                pos = cursor.end
+            }
+            return false
+        }
+
+        override fun next(): Datum {
+            if (!hasNext()) {
+                throw NoSuchElementException()
+            }
+            val at = pos
+            pos = cursor.end
+            return decoder.datum(at)
+        }
+
+        override fun remove() = throw UnsupportedOperationException()
+    }
+
+    override fun toString(): String = "IonLazyCollection{_type=$type, offset=$start}"
+}
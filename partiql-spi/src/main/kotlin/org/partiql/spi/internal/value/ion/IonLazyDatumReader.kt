@@ -0,0 +1,124 @@
+package org.partiql.spi.internal.value.ion
+
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_ANNOTATION
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_LIST
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_STRING
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_STRUCT
+import org.partiql.spi.internal.value.ion.IonBinaryCursor.Companion.T_SYMBOL
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumReader
+import java.nio.ByteBuffer
+
+/**
+ * A [DatumReader] implementation for binary Ion encoded PartiQL data in a buffer (think a memory-mapped file), which
+ * returns lazy views over the buffer rather than materialized values; see [IonBinaryDecoder].
+ *
+ * The values are read from the buffer's position until its limit, and the buffer itself is not modified. The views
+ * reference the buffer, so it must not be modified (or unmapped) while they are in use. Shared symbol tables and the
+ * `ion` type are not supported.
+ */
+internal class IonLazyDatumReader internal constructor(
+    private val buffer: ByteBuffer,
+) : DatumReader {
+
+    private val cursor = IonBinaryCursor(buffer)
+
+    /**
+     * The position of the next top-level value.
+     */
+    private var pos = buffer.position()
+
+    private var decoder = IonBinaryDecoder(buffer, IonSymbols.SYSTEM)
+
+    init {
+        if (!cursor.isVersionMarker(pos)) {
+            throw IonDatumException("expected a binary Ion version marker at offset $pos")
+        }
+    }
+
+    /**
+     * From AutoCloseable.
+     */
+    override fun close() {
+        pos = buffer.limit()
+    }
+
+    override fun next(): Datum? {
+        while (pos < buffer.limit()) {
+            if (cursor.isVersionMarker(pos)) {
+                decoder = IonBinaryDecoder(buffer, IonSymbols.SYSTEM)
+                pos += 4
+                continue
+            }
+            val at = pos
+            cursor.header(at)
+            pos = cursor.end
+            if (cursor.isPadding) {
+                continue
+            }
+            if (cursor.type == T_ANNOTATION && symbolTable(at)) {
+                continue
+            }
+            return decoder.datum(at)
+        }
+        return null
+    }
+
+    /**
+     * Reads the value at the position if it is a local symbol table, which replaces (or appends to) the symbols of
+     * the values after it.
+     *
+     * @return true if the value is a local symbol table.
+     */
+    private fun symbolTable(at: Int): Boolean {
+        val c = IonBinaryCursor(buffer)
+        c.header(at)
+        val length = c.varUInt()
+        val end = c.pos + length
+        if (c.varUInt() != IonSymbols.ION_SYMBOL_TABLE) {
+            return false
+        }
+        c.header(end)
+        if (c.type != T_STRUCT || c.isNull) {
+            return false
+        }
+        var symbols = IonSymbols.SYSTEM
+        val texts = mutableListOf<String?>()
+        var field = c.start
+        val fields = c.end
+        while (field < fields) {
+            c.pos = field
+            val sid = c.varUInt()
+            c.header(c.pos)
+            field = c.end
+            when {
+                c.isPadding || c.isNull -> continue
+                sid == IonSymbols.IMPORTS && c.type == T_SYMBOL -> {
+                    if (c.symbol() == IonSymbols.ION_SYMBOL_TABLE) {
+                        symbols = decoder.symbols
+                    }
+                }
+                sid == IonSymbols.IMPORTS && c.type == T_LIST -> {
+                    if (c.start != c.end) {
+                        throw IonDatumException("shared symbol tables are not supported at offset $at")
+                    }
+                }
+                sid == IonSymbols.SYMBOLS && c.type == T_LIST -> {
+                    var element = c.start
+                    val elements = c.end
+                    while (element < elements) {
+                        c.header(element)
+                        element = c.end
+                        when {
+                            c.isPadding -> continue
+                            c.type == T_STRING && !c.isNull -> texts.add(c.string())
+                            else -> texts.add(null)
+                        }
+                    }
+                }
+            }
+        }
+        decoder = IonBinaryDecoder(buffer, symbols.append(texts))
+        return true
+    }
+}
@@ -0,0 +1,97 @@
+package org.partiql.spi.internal.value.ion
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+
+/**
+ * A struct which is a view over the binary Ion struct from [start] until [end].
+ *
+ * A lookup scans the field names (symbol IDs) and skips the values of other fields by their lengths, so that only
+ * the values which are accessed are decoded; think a projection of a few fields of a wide document. A field's value
+ * is decoded on each lookup, so a caller which accesses a field repeatedly should hold on to it.
+ */
+internal class IonLazyStruct(
+    private val decoder: IonBinaryDecoder,
+    private val start: Int,
+    private val end: Int,
+) : Datum {
+
+    override fun getType(): PType = TYPE
+
+    override fun getFields(): MutableIterator<Field> = object : MutableIterator<Field> {
+
+        private val cursor = IonBinaryCursor(decoder.buffer)
+        private var pos = start
+        private var name = 0
+        private var value = 0
+
+        override fun hasNext(): Boolean {
+            while (pos < end) {
+                cursor.pos = pos
+                name = cursor.varUInt()
+                value = cursor.pos
+                cursor.header(value)
+                if (!cursor.isPadding) {
+                    return true
+                }
+                pos = cursor.end
+            }
+            return false
+        }
+
+        override fun next(): Field {
+            if (!hasNext()) {
+                throw NoSuchElementException()
+            }
+            val field = LazyField(decoder.text(name), value)
+            pos = cursor.end
+            return field
+        }
+
+        override fun remove() = throw UnsupportedOperationException()
+    }
+
+    override fun get(name: String): Datum? = find { it == name }
+
+    override fun getInsensitive(name: String): Datum? = find { it.equals(name, ignoreCase = true) }
+
+    /**
+     * @return the value of the first field whose name matches, or null if there is none.
+     */
+    private inline fun find(matches: (String) -> Boolean): Datum? {
+        val cursor = IonBinaryCursor(decoder.buffer)
+        var pos = start
+        while (pos < end) {
+            cursor.pos = pos
+            val sid = cursor.varUInt()
+            val at = cursor.pos
+            cursor.header(at)
+            pos = cursor.end
+            if (!cursor.isPadding && matches(decoder.text(sid))) {
+                return decoder.datum(at)
+            }
+        }
+        return null
+    }
+
+    override fun toString(): String = "IonLazyStruct{offset=$start}"
+
+    /**
+     * A field whose value is decoded when it is first accessed.
+     */
+    private inner class LazyField(private val name: String, private val at: Int) : Field {
+
+        private var value: Datum? = null
+
+        override fun getName(): String = name
+
+        override fun getValue(): Datum = value ?: decoder.datum(at).also { value = it }
+    }
+
+    private companion object {
+
+        @JvmStatic
+        private val TYPE = PType.struct()
+    }
+}
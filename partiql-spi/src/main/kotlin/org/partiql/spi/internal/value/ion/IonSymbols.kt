@@ -0,0 +1,51 @@
+package org.partiql.spi.internal.value.ion
+
+/**
+ * The symbol table of binary Ion values, which maps a symbol ID to its text; it is immutable, so that values keep the
+ * symbols they were encoded with when a later local symbol table replaces it.
+ *
+ * Shared symbol tables are not supported, so a table is the system symbols, followed by those of local tables.
+ */
+internal class IonSymbols private constructor(private val symbols: Array<String?>) {
+
+    /**
+     * @return the text of the symbol ID, or null if its text is unknown.
+     */
+    fun text(sid: Int): String? {
+        if (sid < 0 || sid >= symbols.size) {
+            throw IonDatumException("symbol ID $sid is out of range")
+        }
+        return symbols[sid]
+    }
+
+    /**
+     * @return a table with the symbols appended.
+     */
+    fun append(texts: List<String?>): IonSymbols = IonSymbols(arrayOf(*symbols, *texts.toTypedArray()))
+
+    internal companion object {
+
+        const val ION_SYMBOL_TABLE = 3
+        const val IMPORTS = 6
+        const val SYMBOLS = 7
+
+        /**
+         * The Ion 1.0 system symbols.
+         */
+        @JvmField
+        val SYSTEM = IonSymbols(
+            arrayOf(
+                null,
+                "\$ion",
+                "\$ion_1_0",
+                "\$ion_symbol_table",
+                "name",
+                "version",
+                "imports",
+                "symbols",
+                "max_id",
+                "\$ion_shared_symbol_table",
+            )
+        )
+    }
+}
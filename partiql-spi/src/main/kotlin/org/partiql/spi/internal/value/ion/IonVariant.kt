@@ -55,7 +55,8 @@ internal class IonVariant(private var value: AnyElement) : Datum {
             StandardCharsets.UTF_8, StandardCharsets.US_ASCII -> IonTextWriterBuilder.standard().build(buffer)
             else -> return super.pack(charset) // unsupported
         }
-        value.writeTo(writer)
+        // the writer buffers its output until it is closed
+        writer.use { value.writeTo(it) }
         return buffer.toByteArray()
     }
 
@@ -0,0 +1,14 @@
+package org.partiql.spi.internal.value.json
+
+/**
+ * These are errors specific to reading JSON data.
+ *
+ * TODO add DATA to PError kind.
+ */
+internal class JsonDatumException internal constructor(
+    public override val message: String,
+    public val offset: Long,
+) : RuntimeException() {
+
+    override fun getLocalizedMessage(): String = "$message at offset $offset"
+}
@@ -0,0 +1,44 @@
+package org.partiql.spi.internal.value.json
+
+import org.partiql.spi.internal.value.json.JsonLexer.Companion.LBRACE
+import org.partiql.spi.internal.value.json.JsonLexer.Companion.LBRACKET
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumReader
+import java.io.InputStream
+
+/**
+ * A [DatumReader] implementation for UTF-8 encoded JSON, which reads a sequence of whitespace separated values; so it
+ * reads a single JSON document as well as JSON Lines. See [JsonDecoder] for the types of the values.
+ *
+ * If [lazy], the bytes of each object or array are copied as the value is skipped, and the value is a view over them
+ * whose fields and elements are decoded as they are accessed; else each value is decoded as it is read.
+ */
+internal class JsonDatumReader internal constructor(
+    private val input: InputStream,
+    private val lazy: Boolean,
+    exact: Boolean,
+) : DatumReader {
+
+    private val lexer = JsonLexer(input)
+
+    private val decoder = JsonDecoder(exact)
+
+    /**
+     * From AutoCloseable.
+     */
+    override fun close() {
+        input.close()
+    }
+
+    override fun next(): Datum? {
+        val next = lexer.peek()
+        if (next < 0) {
+            return null
+        }
+        if (!lazy || (next != LBRACE && next != LBRACKET)) {
+            return decoder.value(lexer)
+        }
+        val bytes = lexer.capture()
+        return decoder.view(bytes, 0, bytes.size)
+    }
+}
@@ -0,0 +1,146 @@
+package org.partiql.spi.internal.value.json
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumWriter
+import java.io.OutputStream
+import java.io.Writer
+import java.nio.charset.StandardCharsets
+import java.util.Base64
+
+/**
+ * A [DatumWriter] implementation for UTF-8 encoded JSON, which writes each value on a line of its own (JSON Lines).
+ *
+ * JSON has fewer types than PartiQL, so the encoding is lossy:
+ *  - a missing value is a null, and a struct field whose value is missing is omitted.
+ *  - an exact number is a number, and a NaN or an infinity is a string.
+ *  - a character string or a clob is a string, and a blob is a base64 string.
+ *  - a datetime is its ISO-8601 string.
+ *  - a bag or an array is an array, and a struct or a row is an object.
+ *
+ * Collections are written as they are iterated, and the output is flushed every [FLUSH_INTERVAL] values.
+ */
+internal class JsonDatumWriter internal constructor(output: OutputStream) : DatumWriter {
+
+    private val writer: Writer = output.bufferedWriter(StandardCharsets.UTF_8)
+
+    /**
+     * The number of values written since the last flush.
+     */
+    private var count = 0
+
+    /**
+     * From AutoCloseable.
+     */
+    override fun close() {
+        writer.close()
+    }
+
+    override fun write(datum: Datum): DatumWriter {
+        value(datum)
+        writer.write('\n'.code)
+        return this
+    }
+
+    private fun value(datum: Datum) {
+        if (datum.isNull || datum.isMissing) {
+            writer.write("null")
+        } else {
+            when (datum.type.code()) {
+                PType.BOOL -> writer.write(if (datum.boolean) "true" else "false")
+                PType.TINYINT -> writer.write(datum.byte.toString())
+                PType.SMALLINT -> writer.write(datum.short.toString())
+                PType.INTEGER -> writer.write(datum.int.toString())
+                PType.BIGINT -> writer.write(datum.long.toString())
+                PType.NUMERIC, PType.DECIMAL -> writer.write(datum.bigDecimal.toString())
+                PType.REAL -> float(datum.float.toDouble(), datum.float.toString())
+                PType.DOUBLE -> float(datum.double, datum.double.toString())
+                PType.CHAR, PType.VARCHAR, PType.STRING -> string(datum.string)
+                PType.CLOB -> string(String(datum.bytes, StandardCharsets.UTF_8))
+                PType.BLOB -> string(Base64.getEncoder().encodeToString(datum.bytes))
+                PType.DATE -> string(datum.localDate.toString())
+                PType.TIME -> string(datum.localTime.toString())
+                PType.TIMEZ -> string(datum.offsetTime.toString())
+                PType.TIMESTAMP -> string(datum.localDateTime.toString())
+                PType.TIMESTAMPZ -> string(datum.offsetDateTime.toString())
+                PType.ARRAY, PType.BAG -> array(datum)
+                PType.ROW, PType.STRUCT -> struct(datum)
+                PType.VARIANT -> value(datum.lower())
+                else -> throw IllegalArgumentException("unsupported type ${datum.type}")
+            }
+        }
+        if (++count >= FLUSH_INTERVAL) {
+            writer.flush()
+            count = 0
+        }
+    }
+
+    private fun float(v: Double, text: String) {
+        if (v.isNaN() || v.isInfinite()) {
+            string(text)
+        } else {
+            writer.write(text)
+        }
+    }
+
+    private fun array(datum: Datum) {
+        writer.write('['.code)
+        var first = true
+        for (element in datum) {
+            if (!first) {
+                writer.write(','.code)
+            }
+            first = false
+            value(element)
+        }
+        writer.write(']'.code)
+    }
+
+    private fun struct(datum: Datum) {
+        writer.write('{'.code)
+        var first = true
+        for (field in datum.fields) {
+            if (field.value.isMissing) {
+                continue
+            }
+            if (!first) {
+                writer.write(','.code)
+            }
+            first = false
+            string(field.name)
+            writer.write(':'.code)
+            value(field.value)
+        }
+        writer.write('}'.code)
+    }
+
+    private fun string(s: String) {
+        writer.write('"'.code)
+        var from = 0
+        for (i in s.indices) {
+            val c = s[i]
+            val escape = when {
+                c == '"' -> "\\\""
+                c == '\\' -> "\\\\"
+                c == '\n' -> "\\n"
+                c == '\r' -> "\\r"
+                c == '\t' -> "\\t"
+                c < ' ' -> "\\u%04x".format(c.code)
+                else -> continue
+            }
+            writer.write(s, from, i - from)
+            writer.write(escape)
+            from = i + 1
+        }
+        writer.write(s, from, s.length - from)
+        writer.write('"'.code)
+    }
+
+    private companion object {
+
+        /**
+         * The number of values between flushes of the underlying stream.
+         */
+        const val FLUSH_INTERVAL = 1024
+    }
+}
@@ -0,0 +1,115 @@
+package org.partiql.spi.internal.value.json
+
+import org.partiql.spi.internal.value.json.JsonLexer.Companion.LBRACE
+import org.partiql.spi.internal.value.json.JsonLexer.Companion.LBRACKET
+import org.partiql.spi.internal.value.json.JsonLexer.Companion.LOWER_F
+import org.partiql.spi.internal.value.json.JsonLexer.Companion.LOWER_N
+import org.partiql.spi.internal.value.json.JsonLexer.Companion.LOWER_T
+import org.partiql.spi.internal.value.json.JsonLexer.Companion.QUOTE
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.StructShape
+import java.math.BigDecimal
+import java.math.BigInteger
+
+/**
+ * Decodes JSON values as [Datum] values.
+ *
+ * An object is a struct, an array is an array, and a string is a string. An integer is a bigint, or a decimal if it
+ * does not fit a bigint. Any other number is a decimal if [exact], else a double.
+ *
+ * The decoder is immutable, so the views it creates ([JsonLazyStruct] and [JsonLazyCollection]) may be shared by
+ * threads.
+ */
+internal class JsonDecoder(private val exact: Boolean) {
+
+    /**
+     * @return the next value of the lexer.
+     */
+    fun value(lexer: JsonLexer): Datum = when (lexer.peek()) {
+        LBRACE -> struct(lexer)
+        LBRACKET -> array(lexer)
+        QUOTE -> Datum.string(lexer.string())
+        LOWER_T -> {
+            lexer.literal("true")
+            Datum.bool(true)
+        }
+        LOWER_F -> {
+            lexer.literal("false")
+            Datum.bool(false)
+        }
+        LOWER_N -> {
+            lexer.literal("null")
+            Datum.nullValue()
+        }
+        -1 -> throw lexer.error("expected a value, found the end of input")
+        else -> number(lexer)
+    }
+
+    /**
+     * @return the value of the bytes from [start] until [end]; an object or an array is a view over the bytes.
+     */
+    fun view(bytes: ByteArray, start: Int, end: Int): Datum {
+        val lexer = JsonLexer(bytes, start, end)
+        return when (lexer.peek()) {
+            LBRACE -> JsonLazyStruct(this, bytes, lexer.position, end)
+            LBRACKET -> JsonLazyCollection(this, bytes, lexer.position, end)
+            else -> value(lexer)
+        }
+    }
+
+    private fun struct(lexer: JsonLexer): Datum {
+        lexer.expect('{')
+        val names = mutableListOf<String>()
+        val values = mutableListOf<Datum>()
+        if (!lexer.accept('}')) {
+            do {
+                names.add(lexer.string())
+                lexer.expect(':')
+                values.add(value(lexer))
+            } while (lexer.accept(','))
+            lexer.expect('}')
+        }
+        return Datum.struct(StructShape.of(names), values.toTypedArray())
+    }
+
+    private fun array(lexer: JsonLexer): Datum {
+        lexer.expect('[')
+        val elements = mutableListOf<Datum>()
+        if (!lexer.accept(']')) {
+            do {
+                elements.add(value(lexer))
+            } while (lexer.accept(','))
+            lexer.expect(']')
+        }
+        return Datum.array(elements)
+    }
+
+    private fun number(lexer: JsonLexer): Datum {
+        lexer.number()
+        val v = lexer.long()
+        if (v != null) {
+            return Datum.bigint(v)
+        }
+        val text = lexer.text()
+        try {
+            if (!lexer.isFractional) {
+                val i = BigInteger(text)
+                return when {
+                    i.bitLength() < 64 -> Datum.bigint(i.toLong())
+                    else -> decimal(BigDecimal(i))
+                }
+            }
+            return when (exact) {
+                true -> decimal(BigDecimal(text))
+                else -> Datum.doublePrecision(text.toDouble())
+            }
+        } catch (ex: NumberFormatException) {
+            throw lexer.error("invalid number $text")
+        }
+    }
+
+    private fun decimal(v: BigDecimal): Datum {
+        val d = if (v.scale() < 0) v.setScale(0) else v
+        return Datum.decimal(d, d.precision(), d.scale())
+    }
+}
@@ -0,0 +1,51 @@
+package org.partiql.spi.internal.value.json
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * An array which is a view over the bytes of a JSON array from [start] until [end]; each element is decoded as it is
+ * iterated, and the array may be iterated any number of times.
+ */
+internal class JsonLazyCollection(
+    private val decoder: JsonDecoder,
+    private val bytes: ByteArray,
+    private val start: Int,
+    private val end: Int,
+) : Datum {
+
+    override fun getType(): PType = TYPE
+
+    override fun iterator(): MutableIterator<Datum> = object : MutableIterator<Datum> {
+
+        private val lexer = JsonLexer(bytes, start, end).also { it.expect('[') }
+        private var more = !lexer.accept(']')
+
+        override fun hasNext(): Boolean = more
+
+        override fun next(): Datum {
+            if (!more) {
+                throw NoSuchElementException()
+            }
+            lexer.peek()
+            val at = lexer.position
+            lexer.skip()
+            val element = decoder.view(bytes, at, lexer.position)
+            if (!lexer.accept(',')) {
+                lexer.expect(']')
+                more = false
+            }
+            return element
+        }
+
+        override fun remove() = throw UnsupportedOperationException()
+    }
+
+    override fun toString(): String = "JsonLazyCollection{offset=$start}"
+
+    private companion object {
+
+        @JvmStatic
+        private val TYPE = PType.array()
+    }
+}
@@ -0,0 +1,99 @@
+package org.partiql.spi.internal.value.json
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+
+/**
+ * A struct which is a view over the bytes of a JSON object from [start] until [end].
+ *
+ * A lookup decodes the field names and skips the values of other fields, so that only the values which are accessed
+ * are decoded; think a projection of a few fields of a wide document. A field's value is decoded on each lookup, so a
+ * caller which accesses a field repeatedly should hold on to it.
+ */
+internal class JsonLazyStruct(
+    private val decoder: JsonDecoder,
+    private val bytes: ByteArray,
+    private val start: Int,
+    private val end: Int,
+) : Datum {
+
+    override fun getType(): PType = TYPE
+
+    override fun getFields(): MutableIterator<Field> = object : MutableIterator<Field> {
+
+        private val lexer = JsonLexer(bytes, start, end).also { it.expect('{') }
+        private var more = !lexer.accept('}')
+
+        override fun hasNext(): Boolean = more
+
+        override fun next(): Field {
+            if (!more) {
+                throw NoSuchElementException()
+            }
+            val name = lexer.string()
+            lexer.expect(':')
+            lexer.peek()
+            val at = lexer.position
+            lexer.skip()
+            val field = LazyField(name, at, lexer.position)
+            if (!lexer.accept(',')) {
+                lexer.expect('}')
+                more = false
+            }
+            return field
+        }
+
+        override fun remove() = throw UnsupportedOperationException()
+    }
+
+    override fun get(name: String): Datum? = find { it == name }
+
+    override fun getInsensitive(name: String): Datum? = find { it.equals(name, ignoreCase = true) }
+
+    /**
+     * @return the value of the first field whose name matches, or null if there is none.
+     */
+    private inline fun find(matches: (String) -> Boolean): Datum? {
+        val lexer = JsonLexer(bytes, start, end)
+        lexer.expect('{')
+        if (lexer.accept('}')) {
+            return null
+        }
+        do {
+            val key = lexer.string()
+            lexer.expect(':')
+            lexer.peek()
+            val at = lexer.position
+            lexer.skip()
+            if (matches(key)) {
+                return decoder.view(bytes, at, lexer.position)
+            }
+        } while (lexer.accept(','))
+        return null
+    }
+
+    override fun toString(): String = "JsonLazyStruct{offset=$start}"
+
+    /**
+     * A field whose value is decoded when it is first accessed.
+     */
+    private inner class LazyField(
+        private val name: String,
+        private val from: Int,
+        private val to: Int,
+    ) : Field {
+
+        private var value: Datum? = null
+
+        override fun getName(): String = name
+
+        override fun getValue(): Datum = value ?: decoder.view(bytes, from, to).also { value = it }
+    }
+
+    private companion object {
+
+        @JvmStatic
+        private val TYPE = PType.struct()
+    }
+}
@@ -0,0 +1,414 @@
+package org.partiql.spi.internal.value.json
+
+import java.io.InputStream
+import java.nio.charset.StandardCharsets
+
+/**
+ * A pull tokenizer of UTF-8 encoded JSON, over a stream or over a range of bytes.
+ *
+ * A stream is read into a single buffer, which is refilled in place; strings and numbers which are not contained in
+ * the buffer are accumulated in a scratch buffer, which is reused. So the lexer allocates no more than the values it
+ * returns. The bytes of a value may also be captured as it is skipped (see [capture]), for lazy decoding.
+ */
+internal class JsonLexer private constructor(
+    private val input: InputStream?,
+    private var buffer: ByteArray,
+    private var pos: Int,
+    private var limit: Int,
+) {
+
+    /**
+     * A lexer over a stream.
+     */
+    constructor(input: InputStream) : this(input, ByteArray(BUFFER_SIZE), 0, 0)
+
+    /**
+     * A lexer over the bytes from [start] until [end], which are not copied.
+     */
+    constructor(bytes: ByteArray, start: Int, end: Int) : this(null, bytes, start, end)
+
+    /**
+     * The number of stream bytes before the buffer, for error messages.
+     */
+    private var offset = 0L
+
+    private var scratch = ByteArray(64)
+    private var length = 0
+
+    /**
+     * The captured bytes before the buffer, and the start of the captured bytes in the buffer.
+     */
+    private var captured: Scratch? = null
+    private var captureStart = 0
+
+    /**
+     * True if the last [number] had a fraction or an exponent.
+     */
+    @JvmField
+    var isFractional = false
+
+    /**
+     * @return the position of the next byte; this is meaningful for a lexer over a range of bytes only.
+     */
+    val position: Int
+        get() = pos
+
+    /**
+     * @return the next byte (after any whitespace) without consuming it, or -1 at the end of the input.
+     */
+    fun peek(): Int {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1
+            }
+            val b = buffer[pos].toInt() and 0xFF
+            if (b == SPACE || b == NEWLINE || b == RETURN || b == TAB) {
+                pos++
+            } else {
+                return b
+            }
+        }
+    }
+
+    /**
+     * Consumes the next byte (after any whitespace), which must be the given one.
+     */
+    fun expect(b: Char) {
+        val next = peek()
+        if (next != b.code) {
+            throw error("expected '$b', found ${describe(next)}")
+        }
+        pos++
+    }
+
+    /**
+     * Consumes the next byte (after any whitespace) if it is the given one.
+     *
+     * @return true if the byte was consumed.
+     */
+    fun accept(b: Char): Boolean {
+        if (peek() != b.code) {
+            return false
+        }
+        pos++
+        return true
+    }
+
+    /**
+     * Consumes the given literal (think `true`).
+     */
+    fun literal(word: String) {
+        peek()
+        for (c in word) {
+            if (pos == limit && !fill()) {
+                throw error("expected '$word', found the end of input")
+            }
+            if (buffer[pos].toInt() != c.code) {
+                throw error("expected '$word'")
+            }
+            pos++
+        }
+    }
+
+    /**
+     * Consumes a string.
+     */
+    fun string(): String {
+        expect('"')
+        // fast path: the string is in the buffer, without escapes
+        var i = pos
+        while (i < limit) {
+            val b = buffer[i].toInt()
+            if (b == QUOTE) {
+                val s = String(buffer, pos, i - pos, StandardCharsets.UTF_8)
+                pos = i + 1
+                return s
+            }
+            if (b == BACKSLASH || (b in 0 until SPACE)) {
+                break
+            }
+            i++
+        }
+        length = 0
+        while (true) {
+            if (pos == limit && !fill()) {
+                throw error("unterminated string")
+            }
+            val b = buffer[pos++].toInt()
+            when {
+                b == QUOTE -> return String(scratch, 0, length, StandardCharsets.UTF_8)
+                b == BACKSLASH -> escape()
+                b in 0 until SPACE -> throw error("unescaped control character in string")
+                else -> append(b)
+            }
+        }
+    }
+
+    /**
+     * Consumes a number, whose text is then [text].
+     */
+    fun number() {
+        peek()
+        length = 0
+        isFractional = false
+        while (pos < limit || fill()) {
+            val b = buffer[pos].toInt()
+            when (b) {
+                in DIGIT_0..DIGIT_9, MINUS, PLUS -> append(b)
+                DOT, LOWER_E, UPPER_E -> {
+                    isFractional = true
+                    append(b)
+                }
+                else -> break
+            }
+            pos++
+        }
+        if (length == 0) {
+            throw error("expected a number")
+        }
+    }
+
+    /**
+     * @return the text of the last [number].
+     */
+    fun text(): String = String(scratch, 0, length, StandardCharsets.ISO_8859_1)
+
+    /**
+     * @return the value of the last [number] if it is an integer of at most 18 digits, else null.
+     */
+    fun long(): Long? {
+        if (isFractional) {
+            return null
+        }
+        val negative = scratch[0].toInt() == MINUS
+        val from = if (negative) 1 else 0
+        if (length - from > 18 || length == from) {
+            return null
+        }
+        var v = 0L
+        for (i in from until length) {
+            val d = scratch[i] - DIGIT_0
+            if (d < 0 || d > 9) {
+                throw error("invalid number ${text()}")
+            }
+            v = v * 10 + d
+        }
+        return if (negative) -v else v
+    }
+
+    /**
+     * Consumes a value of any type.
+     */
+    fun skip() {
+        when (peek()) {
+            LBRACE -> {
+                pos++
+                if (accept('}')) {
+                    return
+                }
+                do {
+                    skipString()
+                    expect(':')
+                    skip()
+                } while (accept(','))
+                expect('}')
+            }
+            LBRACKET -> {
+                pos++
+                if (accept(']')) {
+                    return
+                }
+                do {
+                    skip()
+                } while (accept(','))
+                expect(']')
+            }
+            QUOTE -> skipString()
+            LOWER_T -> literal("true")
+            LOWER_F -> literal("false")
+            LOWER_N -> literal("null")
+            else -> number()
+        }
+    }
+
+    /**
+     * @return the bytes of the next value, which is skipped.
+     */
+    fun capture(): ByteArray {
+        peek()
+        val captured = Scratch()
+        this.captured = captured
+        captureStart = pos
+        try {
+            skip()
+        } finally {
+            this.captured = null
+        }
+        captured.append(buffer, captureStart, pos)
+        return captured.toByteArray()
+    }
+
+    /**
+     * @return an error at the current position.
+     */
+    fun error(message: String): JsonDatumException = JsonDatumException(message, offset + pos)
+
+    private fun skipString() {
+        expect('"')
+        while (true) {
+            if (pos == limit && !fill()) {
+                throw error("unterminated string")
+            }
+            when (buffer[pos++].toInt()) {
+                QUOTE -> return
+                BACKSLASH -> raw()
+            }
+        }
+    }
+
+    private fun escape() {
+        when (val b = raw()) {
+            QUOTE, BACKSLASH, SLASH -> append(b)
+            'b'.code -> append(8)
+            'f'.code -> append(12)
+            'n'.code -> append(NEWLINE)
+            'r'.code -> append(RETURN)
+            't'.code -> append(TAB)
+            'u'.code -> {
+                var c = hex()
+                if (c in 0xD800..0xDBFF) {
+                    // a surrogate pair is a single code point
+                    val high = c
+                    if (raw() != BACKSLASH || raw() != 'u'.code) {
+                        throw error("unpaired surrogate in string")
+                    }
+                    val low = hex()
+                    c = Character.toCodePoint(high.toChar(), low.toChar())
+                }
+                utf8(c)
+            }
+            else -> throw error("invalid escape \\${b.toChar()}")
+        }
+    }
+
+    private fun hex(): Int {
+        var v = 0
+        repeat(4) {
+            val d = Character.digit(raw(), 16)
+            if (d < 0) {
+                throw error("invalid unicode escape")
+            }
+            v = (v shl 4) or d
+        }
+        return v
+    }
+
+    /**
+     * @return the next byte of a string.
+     */
+    private fun raw(): Int {
+        if (pos == limit && !fill()) {
+            throw error("unterminated string")
+        }
+        return buffer[pos++].toInt()
+    }
+
+    private fun utf8(c: Int) {
+        when {
+            c < 0x80 -> append(c)
+            c < 0x800 -> {
+                append(0xC0 or (c shr 6))
+                append(0x80 or (c and 0x3F))
+            }
+            c < 0x10000 -> {
+                append(0xE0 or (c shr 12))
+                append(0x80 or ((c shr 6) and 0x3F))
+                append(0x80 or (c and 0x3F))
+            }
+            else -> {
+                append(0xF0 or (c shr 18))
+                append(0x80 or ((c shr 12) and 0x3F))
+                append(0x80 or ((c shr 6) and 0x3F))
+                append(0x80 or (c and 0x3F))
+            }
+        }
+    }
+
+    private fun append(b: Int) {
+        if (length == scratch.size) {
+            scratch = scratch.copyOf(length * 2)
+        }
+        scratch[length++] = b.toByte()
+    }
+
+    /**
+     * Refills the buffer from the stream.
+     *
+     * @return false at the end of the input.
+     */
+    private fun fill(): Boolean {
+        val input = input ?: return false
+        captured?.let {
+            it.append(buffer, captureStart, limit)
+            captureStart = 0
+        }
+        offset += limit
+        pos = 0
+        limit = 0
+        while (limit == 0) {
+            val n = input.read(buffer, 0, buffer.size)
+            if (n < 0) {
+                return false
+            }
+            limit = n
+        }
+        return true
+    }
+
+    private fun describe(b: Int): String = if (b < 0) "the end of input" else "'${b.toChar()}'"
+
+    /**
+     * A growable byte array.
+     */
+    private class Scratch {
+
+        private var bytes = ByteArray(256)
+        private var size = 0
+
+        fun append(src: ByteArray, from: Int, to: Int) {
+            val n = to - from
+            if (size + n > bytes.size) {
+                bytes = bytes.copyOf(maxOf(bytes.size * 2, size + n))
+            }
+            System.arraycopy(src, from, bytes, size, n)
+            size += n
+        }
+
+        fun toByteArray(): ByteArray = bytes.copyOf(size)
+    }
+
+    internal companion object {
+
+        private const val BUFFER_SIZE = 1 shl 16
+
+        const val SPACE = ' '.code
+        const val NEWLINE = '\n'.code
+        const val RETURN = '\r'.code
+        const val TAB = '\t'.code
+        const val QUOTE = '"'.code
+        const val BACKSLASH = '\\'.code
+        const val SLASH = '/'.code
+        const val LBRACE = '{'.code
+        const val LBRACKET = '['.code
+        const val MINUS = '-'.code
+        const val PLUS = '+'.code
+        const val DOT = '.'.code
+        const val DIGIT_0 = '0'.code
+        const val DIGIT_9 = '9'.code
+        const val LOWER_E = 'e'.code
+        const val UPPER_E = 'E'.code
+        const val LOWER_T = 't'.code
+        const val LOWER_F = 'f'.code
+        const val LOWER_N = 'n'.code
+    }
+}
@@ -0,0 +1,214 @@
+package org.partiql.spi.value
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.partiql.spi.types.PType
+import java.math.BigDecimal
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetDateTime
+import java.time.OffsetTime
+import java.time.ZoneOffset
+import java.util.Random
+
+/**
+ * Property-based tests that [Datum.hasher] agrees with [Datum.comparator] equality. Values are drawn from small domains
+ * so that equal values (of different types, and of different field or element orders) are frequent.
+ */
+class DatumHasherTest {
+
+    private val hasher = Datum.hasher()
+    private val comparator = Datum.comparator()
+
+    // the seed is arbitrary but static for determinism
+    private val random = Random(0x3C6EF372FE94F82BL)
+
+    @Test
+    fun equivalentValuesHashAlike() {
+        repeat(10_000) {
+            val value = value(DEPTH)
+            val other = equivalent(value)
+            assertEquals(0, comparator.compare(value, other), "$value != $other")
+            assertTrue(hasher.equals(value, other), "$value != $other")
+            assertEquals(hasher.hash(value), hasher.hash(other), "hash($value) != hash($other)")
+        }
+    }
+
+    @Test
+    fun equalValuesHashAlike() {
+        val values = List(500) { value(DEPTH) }
+        for (l in values) {
+            for (r in values) {
+                if (comparator.compare(l, r) == 0) {
+                    assertEquals(hasher.hash(l), hasher.hash(r), "hash($l) != hash($r)")
+                }
+                assertEquals(comparator.compare(l, r) == 0, hasher.equals(l, r), "$l, $r")
+            }
+        }
+    }
+
+    @Test
+    fun numbersHashByValue() {
+        val values = listOf(
+            Datum.tinyint(1),
+            Datum.smallint(1),
+            Datum.integer(1),
+            Datum.bigint(1),
+            Datum.numeric(BigDecimal("1.00")),
+            Datum.decimal(BigDecimal("1.0")),
+            Datum.real(1e0f),
+            Datum.doublePrecision(1e0),
+        )
+        values.forEach { assertEquals(hasher.hash(values[0]), hasher.hash(it), "$it") }
+    }
+
+    @Test
+    fun unknownsHashAlike() {
+        val values = listOf(
+            Datum.nullValue(),
+            Datum.missing(),
+            Datum.nullValue(PType.integer()),
+            Datum.missing(PType.struct()),
+        )
+        values.forEach { assertEquals(hasher.hash(values[0]), hasher.hash(it), "$it") }
+    }
+
+    @Test
+    fun structsHashByFields() {
+        val a = Datum.struct(Field.of("a", Datum.integer(1)), Field.of("b", Datum.integer(2)))
+        val b = Datum.struct(Field.of("b", Datum.bigint(2)), Field.of("a", Datum.decimal(BigDecimal.ONE)))
+        val c = Datum.struct(Field.of("a", Datum.integer(2)), Field.of("b", Datum.integer(1)))
+        assertEquals(hasher.hash(a), hasher.hash(b))
+        // not required, but swapping the values of fields should not produce a collision
+        assertNotEquals(hasher.hash(a), hasher.hash(c))
+    }
+
+    private fun value(depth: Int): Datum {
+        val kind = random.nextInt(if (depth > 0) 14 else 10)
+        return when (kind) {
+            0 -> if (random.nextBoolean()) Datum.nullValue() else Datum.missing()
+            1 -> Datum.bool(random.nextBoolean())
+            2, 3 -> number(NUMBERS[random.nextInt(NUMBERS.size)])
+            4 -> text(STRINGS[random.nextInt(STRINGS.size)])
+            5 -> Datum.blob(STRINGS[random.nextInt(STRINGS.size)].toByteArray())
+            6 -> Datum.date(LocalDate.of(2020, 1, 1 + random.nextInt(2)))
+            7 -> when (random.nextBoolean()) {
+                true -> Datum.time(LocalTime.of(12, random.nextInt(2)), 6)
+                false -> Datum.timez(OffsetTime.of(12, random.nextInt(2), 0, 0, ZoneOffset.ofHours(random.nextInt(2))), 6)
+            }
+            8 -> when (random.nextBoolean()) {
+                true -> Datum.timestamp(LocalDateTime.of(2020, 1, 1, random.nextInt(2), 0), 6)
+                false -> Datum.timestampz(OffsetDateTime.of(2020, 1, 1, random.nextInt(2), 0, 0, 0, ZoneOffset.UTC), 6)
+            }
+            9 -> number(SPECIALS[random.nextInt(SPECIALS.size)])
+            10 -> Datum.array(List(random.nextInt(3)) { value(depth - 1) })
+            11 -> Datum.bag(List(random.nextInt(3)) { value(depth - 1) })
+            12 -> Datum.struct(fields(depth))
+            else -> Datum.row(fields(depth))
+        }
+    }
+
+    private fun fields(depth: Int): List<Field> {
+        val names = FIELD_NAMES.shuffled(random).take(random.nextInt(FIELD_NAMES.size + 1))
+        return names.map { Field.of(it, value(depth - 1)) }
+    }
+
+    /**
+     * @return a value equal to the given value, though (likely) of a different type, form, or order.
+     */
+    private fun equivalent(value: Datum): Datum {
+        if (value.isNull || value.isMissing) {
+            return if (random.nextBoolean()) Datum.nullValue(PType.bag()) else Datum.missing(PType.integer())
+        }
+        return when (value.type.code()) {
+            PType.TINYINT -> number(BigDecimal.valueOf(value.byte.toLong()))
+            PType.SMALLINT -> number(BigDecimal.valueOf(value.short.toLong()))
+            PType.INTEGER -> number(BigDecimal.valueOf(value.int.toLong()))
+            PType.BIGINT -> number(BigDecimal.valueOf(value.long))
+            PType.NUMERIC, PType.DECIMAL -> number(value.bigDecimal)
+            PType.REAL -> real(value.float.toDouble())
+            PType.DOUBLE -> real(value.double)
+            PType.CHAR, PType.VARCHAR, PType.STRING -> text(value.string)
+            PType.ARRAY -> Datum.array(value.map { equivalent(it) })
+            PType.BAG -> Datum.bag(value.map { equivalent(it) }.shuffled(random))
+            PType.STRUCT -> Datum.struct(equivalent(value.fields).shuffled(random))
+            PType.ROW -> Datum.row(equivalent(value.fields))
+            else -> value
+        }
+    }
+
+    private fun equivalent(fields: Iterator<Field>): List<Field> {
+        return fields.asSequence().map { Field.of(it.name, equivalent(it.value)) }.toList()
+    }
+
+    /**
+     * @return a number of the given value, of any type which can represent it exactly.
+     */
+    private fun number(value: BigDecimal): Datum {
+        val integral = value.stripTrailingZeros().scale() <= 0
+        val choices = mutableListOf<() -> Datum>(
+            { Datum.decimal(value.setScale(maxOf(value.scale(), 0) + random.nextInt(3))) },
+            { Datum.numeric(value.setScale(maxOf(value.scale(), 0) + random.nextInt(3))) },
+            { Datum.doublePrecision(value.toDouble()) },
+            { Datum.real(value.toFloat()) },
+        )
+        if (integral) {
+            val long = value.longValueExact()
+            choices.add { Datum.bigint(long) }
+            if (long in Int.MIN_VALUE..Int.MAX_VALUE) {
+                choices.add { Datum.integer(long.toInt()) }
+            }
+            if (long in Short.MIN_VALUE..Short.MAX_VALUE) {
+                choices.add { Datum.smallint(long.toShort()) }
+            }
+            if (long in Byte.MIN_VALUE..Byte.MAX_VALUE) {
+                choices.add { Datum.tinyint(long.toByte()) }
+            }
+        }
+        return choices[random.nextInt(choices.size)]()
+    }
+
+    private fun number(value: Double): Datum = when {
+        value.isNaN() || value.isInfinite() -> real(value)
+        else -> number(BigDecimal.valueOf(value))
+    }
+
+    private fun real(value: Double): Datum = when {
+        value.isNaN() || value.isInfinite() -> when (random.nextBoolean()) {
+            true -> Datum.real(value.toFloat())
+            false -> Datum.doublePrecision(value)
+        }
+        else -> number(BigDecimal.valueOf(value))
+    }
+
+    private fun text(value: String): Datum {
+        if (value.isEmpty()) {
+            return Datum.string(value)
+        }
+        return when (random.nextInt(3)) {
+            0 -> Datum.string(value)
+            1 -> Datum.varchar(value, value.length)
+            else -> Datum.character(value, value.length)
+        }
+    }
+
+    private companion object {
+
+        const val DEPTH = 3
+
+        /**
+         * Numbers which are exactly representable by REAL and DOUBLE, and some by the integer types.
+         */
+        val NUMBERS = listOf(-2.5, -1.0, -0.5, 0.0, -0.0, 0.5, 1.0, 2.0, 127.0, 128.0, 32768.0, 5e9)
+            .map { BigDecimal.valueOf(it) }
+
+        val SPECIALS = listOf(Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0.25, -0.0)
+
+        val STRINGS = listOf("", "a", "b", "ab")
+
+        val FIELD_NAMES = listOf("a", "b", "c")
+    }
+}
@@ -0,0 +1,65 @@
+package org.partiql.spi.value
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+
+class DatumStructTest {
+
+    @Test
+    fun shapesAreShared() {
+        val a = StructShape.of("a", "b")
+        assertSame(a, StructShape.of(listOf("a", "b")))
+        assertEquals(-1, a.indexOf("c"))
+        assertEquals(1, a.indexOfInsensitive("B"))
+        assertEquals(-1, a.indexOf("B"))
+    }
+
+    @Test
+    fun shapesCopyTheirNames() {
+        val names = arrayOf("copied", "names")
+        // invoke the varargs method with the array itself, as from Java
+        val of = StructShape::class.java.getMethod("of", Array<String>::class.java)
+        val shape = of.invoke(null, names) as StructShape
+        names[0] = "modified"
+        assertEquals("copied", shape.getName(0))
+        assertSame(shape, StructShape.of("copied", "names"))
+    }
+
+    @Test
+    fun shapesAreSharedAfterManyShapes() {
+        repeat(10_000) { StructShape.of("key-$it") }
+        assertSame(StructShape.of("a", "b", "c"), StructShape.of("a", "b", "c"))
+    }
+
+    /**
+     * Test lookups of structs which are small (searched) and large (indexed), with duplicate and mixed-case names.
+     */
+    @Test
+    fun lookup() {
+        listOf(3, 30).forEach { n ->
+            // the first and last of the n fields are both f0
+            val fields = (0 until n).map { Field.of("f${it % (n - 1)}", Datum.integer(it)) } +
+                Field.of("Mixed", Datum.integer(-1))
+            val struct = Datum.struct(fields)
+            assertEquals(0, struct.get("f0")!!.int)
+            assertEquals(2, struct.fields.asSequence().count { it.name == "f0" })
+            assertEquals(-1, struct.getInsensitive("mIXED")!!.int)
+            assertNull(struct.get("mixed"))
+            assertNull(struct.getInsensitive("g"))
+            assertEquals(fields.map { it.name }, struct.fields.asSequence().map { it.name }.toList())
+        }
+    }
+
+    @Test
+    fun shapeAndValues() {
+        val shape = StructShape.of("x", "y", "x")
+        val struct = Datum.struct(shape, arrayOf(Datum.integer(1), Datum.string("two"), Datum.integer(3)))
+        assertEquals(1, struct.get("x")!!.int)
+        assertEquals("two", struct.getInsensitive("Y")!!.string)
+        assertEquals(0, Datum.comparator().compare(struct, Datum.struct(struct.fields.asSequence().toList())))
+        assertThrows<IllegalArgumentException> { Datum.struct(shape, arrayOf(Datum.integer(1))) }
+    }
+}
@@ -1,3 +1,113 @@
 package org.partiql.spi.value.ion
 
-class IonDatumWriterTest
+import org.junit.jupiter.api.Test
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumReader
+import org.partiql.spi.value.DatumWriter
+import org.partiql.spi.value.Field
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.OutputStream
+import java.math.BigDecimal
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetDateTime
+import java.time.OffsetTime
+import java.time.ZoneOffset
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class IonDatumWriterTest {
+
+    private val values = listOf(
+        Datum.nullValue(),
+        Datum.missing(),
+        Datum.bool(true),
+        Datum.tinyint(-1),
+        Datum.smallint(2),
+        Datum.integer(-3),
+        Datum.bigint(4),
+        Datum.decimal(BigDecimal("1.23"), 3, 2),
+        Datum.real(0.5f),
+        Datum.doublePrecision(-1e23),
+        Datum.string("abc"),
+        Datum.clob("clob".toByteArray(), 4),
+        Datum.blob(byteArrayOf(0, 1, 2), 3),
+        Datum.date(LocalDate.of(2024, 2, 29)),
+        Datum.time(LocalTime.of(12, 34, 56, 789_000_000), 3),
+        Datum.timez(OffsetTime.of(12, 34, 56, 0, ZoneOffset.ofHours(-8)), 0),
+        Datum.timestamp(LocalDateTime.of(2024, 2, 29, 12, 34, 56, 123_456_000), 6),
+        Datum.timestampz(OffsetDateTime.of(2024, 2, 29, 12, 34, 56, 0, ZoneOffset.ofHours(1)), 0),
+        Datum.array(listOf(Datum.bigint(1), Datum.missing(), Datum.string("a"))),
+        Datum.bag(listOf(Datum.bigint(1), Datum.bag(listOf(Datum.integer(2))))),
+        Datum.struct(
+            listOf(
+                Field.of("a", Datum.tinyint(1)),
+                Field.of("b", Datum.missing()),
+                Field.of("c", Datum.bag(listOf(Datum.date(LocalDate.of(2000, 1, 1))))),
+            )
+        ),
+    )
+
+    @Test
+    fun roundTripText() = assertRoundTrip { DatumWriter.ion(it) }
+
+    @Test
+    fun roundTripBinary() = assertRoundTrip { DatumWriter.ionBinary(it) }
+
+    /**
+     * Test that the elements of a collection are written as a stream of top-level values.
+     */
+    @Test
+    fun writeAll() {
+        val bag = Datum.bag((0 until 10_000).map { Datum.bigint(it.toLong()) })
+        val output = ByteArrayOutputStream()
+        DatumWriter.ionBinary(output).use { it.writeAll(bag) }
+        val actual = readAll(output.toByteArray())
+        assertEquals(10_000, actual.size)
+        actual.forEachIndexed { i, datum -> assertEquals(i.toLong(), datum.long) }
+    }
+
+    /**
+     * Test that the text encoding is flushed while a large collection is being written.
+     */
+    @Test
+    fun flushText() {
+        val output = ByteArrayOutputStream()
+        var written = 0
+        val bag = Datum.bag(
+            object : Iterable<Datum> {
+                override fun iterator(): Iterator<Datum> = (0 until 10_000).asSequence().map {
+                    written = output.size()
+                    Datum.bigint(it.toLong())
+                }.iterator()
+            }
+        )
+        DatumWriter.ion(output).use { it.write(bag) }
+        assertTrue(written > 0, "expected output before the end of the bag")
+    }
+
+    private fun assertRoundTrip(writer: (OutputStream) -> DatumWriter) {
+        val output = ByteArrayOutputStream()
+        writer(output).use { w -> values.forEach { w.write(it) } }
+        val actual = readAll(output.toByteArray())
+        assertEquals(values.size, actual.size)
+        values.zip(actual).forEach { (e, a) ->
+            assertEquals(e.type.code(), a.type.code(), "Expected $e, actual $a")
+            assertEquals(0, Datum.comparator().compare(e, a), "Expected $e, actual $a")
+        }
+    }
+
+    private fun readAll(bytes: ByteArray): List<Datum> {
+        val reader = DatumReader.ion(ByteArrayInputStream(bytes))
+        val values = mutableListOf<Datum>()
+        var next = reader.next()
+        while (next != null) {
+            values.add(next)
+            next = reader.next()
+        }
+        reader.close()
+        return values
+    }
+}
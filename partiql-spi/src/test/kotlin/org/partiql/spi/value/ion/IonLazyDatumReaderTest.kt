@@ -0,0 +1,92 @@
+package org.partiql.spi.value.ion
+
+import org.junit.jupiter.api.Test
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumReader
+import org.partiql.spi.value.DatumWriter
+import org.partiql.spi.value.Field
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.math.BigDecimal
+import java.nio.ByteBuffer
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.OffsetDateTime
+import java.time.ZoneOffset
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+class IonLazyDatumReaderTest {
+
+    private val values = listOf(
+        Datum.nullValue(),
+        Datum.missing(),
+        Datum.bool(false),
+        Datum.tinyint(-1),
+        Datum.integer(70_000),
+        Datum.bigint(-4),
+        Datum.decimal(BigDecimal("-1.23"), 3, 2),
+        Datum.real(-0.5f),
+        Datum.doublePrecision(1e23),
+        Datum.string("abc"),
+        Datum.blob(byteArrayOf(0, 1, 2), 3),
+        Datum.date(LocalDate.of(2024, 2, 29)),
+        Datum.timestamp(LocalDateTime.of(2024, 2, 29, 12, 34, 56, 789_000_000), 3),
+        Datum.timestampz(OffsetDateTime.of(2024, 2, 29, 12, 34, 56, 0, ZoneOffset.ofHours(-8)), 0),
+        Datum.bag(listOf(Datum.bigint(1), Datum.array(listOf(Datum.integer(2), Datum.missing())))),
+        Datum.struct(
+            listOf(
+                Field.of("a", Datum.tinyint(1)),
+                Field.of("b", Datum.struct(listOf(Field.of("c", Datum.string("d"))))),
+            )
+        ),
+    )
+
+    /**
+     * Test the views read the same values as the materializing reader.
+     */
+    @Test
+    fun sameValues() {
+        val bytes = write(values)
+        val expected = readAll(DatumReader.ion(ByteArrayInputStream(bytes)))
+        val actual = readAll(DatumReader.ion(ByteBuffer.wrap(bytes)))
+        assertEquals(expected.size, actual.size)
+        expected.zip(actual).forEach { (e, a) ->
+            assertEquals(e.type.code(), a.type.code(), "Expected $e, actual $a")
+            assertEquals(0, Datum.comparator().compare(e, a), "Expected $e, actual $a")
+        }
+    }
+
+    /**
+     * Test the fields of a wide struct in a direct buffer, which are looked up by name.
+     */
+    @Test
+    fun wideStruct() {
+        val fields = (0 until 200).map { Field.of("f$it", Datum.string("v$it")) }
+        val bytes = write(listOf(Datum.struct(fields)))
+        val buffer = ByteBuffer.allocateDirect(bytes.size).put(bytes)
+        buffer.flip()
+        val struct = DatumReader.ion(buffer).next()!!
+        assertEquals("v7", struct.get("f7")!!.string)
+        assertEquals("v199", struct.getInsensitive("F199")!!.string)
+        assertNull(struct.get("F199"))
+        assertEquals(200, struct.fields.asSequence().count())
+    }
+
+    private fun write(values: List<Datum>): ByteArray {
+        val output = ByteArrayOutputStream()
+        DatumWriter.ionBinary(output).use { w -> values.forEach { w.write(it) } }
+        return output.toByteArray()
+    }
+
+    private fun readAll(reader: DatumReader): List<Datum> {
+        val values = mutableListOf<Datum>()
+        var next = reader.next()
+        while (next != null) {
+            values.add(next)
+            next = reader.next()
+        }
+        reader.close()
+        return values
+    }
+}
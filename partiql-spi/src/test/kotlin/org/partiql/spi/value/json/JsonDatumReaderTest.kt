@@ -0,0 +1,81 @@
+package org.partiql.spi.value.json
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumReader
+import org.partiql.spi.value.DatumWriter
+import java.io.ByteArrayOutputStream
+import java.math.BigDecimal
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+class JsonDatumReaderTest {
+
+    private val lines = """
+        {"a": 1, "b": [true, false, null, "x\"é😀\n"], "c": {"d": -1.50e1, "e": 123456789012345678901234}}
+        [1, 2.5, -7]
+        "abc" 42 {} []
+    """.trimIndent()
+
+    /**
+     * Test the lazy views read the same values as the eager reader.
+     */
+    @Test
+    fun lazy() {
+        val expected = readAll(DatumReader.json(lines.byteInputStream()))
+        val actual = readAll(DatumReader.json(lines.byteInputStream(), true, true))
+        assertEquals(6, expected.size)
+        assertEquals(expected.size, actual.size)
+        expected.zip(actual).forEach { (e, a) ->
+            assertEquals(0, Datum.comparator().compare(e, a), "Expected $e, actual $a")
+        }
+        val struct = actual[0]
+        assertEquals(1L, struct.get("a")!!.long)
+        assertEquals(BigDecimal("-15.0"), struct.getInsensitive("C")!!.get("d")!!.bigDecimal)
+        assertNull(struct.get("A"))
+    }
+
+    @Test
+    fun numbers() {
+        val exact = readAll(DatumReader.json("1 2.5 1e2 12345678901234567890".byteInputStream()))
+        assertEquals(listOf(PType.BIGINT, PType.DECIMAL, PType.DECIMAL, PType.DECIMAL), exact.map { it.type.code() })
+        val approximate = readAll(DatumReader.json("1 2.5 1e2".byteInputStream(), false, false))
+        assertEquals(listOf(PType.BIGINT, PType.DOUBLE, PType.DOUBLE), approximate.map { it.type.code() })
+        assertEquals(100.0, approximate[2].double)
+    }
+
+    /**
+     * Test the writer writes JSON Lines which are read back as the same values.
+     */
+    @Test
+    fun roundTrip() {
+        val values = readAll(DatumReader.json(lines.byteInputStream()))
+        val output = ByteArrayOutputStream()
+        DatumWriter.json(output).use { w -> values.forEach { w.write(it) } }
+        assertEquals(values.size, output.toString("UTF-8").lines().count { it.isNotEmpty() })
+        val actual = readAll(DatumReader.json(output.toByteArray().inputStream()))
+        values.zip(actual).forEach { (e, a) ->
+            assertEquals(0, Datum.comparator().compare(e, a), "Expected $e, actual $a")
+        }
+    }
+
+    @Test
+    fun errors() {
+        listOf("{\"a\" 1}", "[1,", "\"abc", "tru", "{\"a\": 1,}").forEach {
+            assertThrows<RuntimeException>(it) { readAll(DatumReader.json(it.byteInputStream())) }
+        }
+    }
+
+    private fun readAll(reader: DatumReader): List<Datum> {
+        val values = mutableListOf<Datum>()
+        var next = reader.next()
+        while (next != null) {
+            values.add(next)
+            next = reader.next()
+        }
+        reader.close()
+        return values
+    }
+}
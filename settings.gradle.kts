@@ -21,6 +21,7 @@ include(
     ":custom-ktlint-rules",
     "partiql-ast",
     "partiql-cli",
+    "partiql-columnar",
     "partiql-coverage",
     "partiql-eval",
     "partiql-lang",